@@ -0,0 +1,124 @@
+package com.hsj.benchmark;
+
+import com.hsj.aop.lock.DistributedLock;
+import com.hsj.aop.lock.DistributedLockAspect;
+import com.hsj.aop.lock.LocalLockProvider;
+import com.hsj.aop.lock.LockType;
+import com.hsj.dto.order.OrderResponse;
+import com.hsj.entity.Member;
+import com.hsj.entity.Order;
+import com.hsj.entity.OrderItem;
+import com.hsj.entity.Product;
+import com.hsj.entity.enums.MemberRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 경로에서 요청마다 반복되는 CPU 작업의 마이크로벤치마크.
+ * DB/Redis 왕복이 포함된 전체 처리량은 {@link OrderPlacementLoadHarness}로 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPathBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int cartSize;
+
+    private Order order;
+    private LockedStock lockedStock;
+    private List<Long> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Member member = Member.builder()
+                .email("bench@test.com")
+                .password("encoded_pw")
+                .name("벤치")
+                .role(MemberRole.CUSTOMER)
+                .build();
+
+        order = Order.builder()
+                .member(member)
+                .shippingAddress("서울시 강남구")
+                .receiverName("홍길동")
+                .receiverPhone("010-0000-0000")
+                .build();
+        ReflectionTestUtils.setField(order, "id", 1L);
+
+        productIds = new ArrayList<>(cartSize);
+        for (int i = 0; i < cartSize; i++) {
+            Product product = Product.builder()
+                    .name("상품-" + i)
+                    .price(BigDecimal.valueOf(10_000L + i * 990L))
+                    .stockQuantity(1_000)
+                    .build();
+            ReflectionTestUtils.setField(product, "id", (long) (cartSize - i));
+            order.addOrderItem(OrderItem.builder().product(product).quantity(1 + i % 3).build());
+            productIds.add((long) (cartSize - i));
+        }
+
+        DistributedLockAspect aspect = new DistributedLockAspect(
+                List.of(new LocalLockProvider(1024)), new SimpleMeterRegistry());
+        AspectJProxyFactory factory = new AspectJProxyFactory(new LockedStock());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        lockedStock = factory.getProxy();
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalAmount() {
+        order.calculateTotalAmount();
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public OrderResponse orderResponseFrom() {
+        return OrderResponse.from(order);
+    }
+
+    /** SpEL 키 해석 + 정렬/중복 제거 + 로컬 락 획득/해제까지 락 엔진 한 바퀴의 비용. */
+    @Benchmark
+    public int lockKeyResolutionSingle() {
+        return lockedStock.single(productIds.get(0));
+    }
+
+    @Benchmark
+    public int lockKeyResolutionMulti() {
+        return lockedStock.multi(productIds);
+    }
+
+    public static class LockedStock {
+
+        @DistributedLock(key = "'STOCK:' + #productId", name = "bench", type = LockType.LOCAL)
+        public int single(Long productId) {
+            return 1;
+        }
+
+        @DistributedLock(key = "#productIds.!['STOCK:' + #this]", name = "bench", type = LockType.LOCAL)
+        public int multi(List<Long> productIds) {
+            return productIds.size();
+        }
+    }
+}
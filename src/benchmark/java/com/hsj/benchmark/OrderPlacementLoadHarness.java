@@ -0,0 +1,220 @@
+package com.hsj.benchmark;
+
+import com.hsj.dto.order.OrderCreateRequest;
+import com.hsj.dto.order.OrderResponse;
+import com.hsj.dto.payment.PaymentRequest;
+import com.hsj.entity.Member;
+import com.hsj.entity.Product;
+import com.hsj.entity.enums.MemberRole;
+import com.hsj.repository.MemberRepository;
+import com.hsj.repository.ProductRepository;
+import com.hsj.service.OrderService;
+import com.hsj.service.PaymentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주문 생성 + 결제를 실제 서비스 빈으로 여러 스레드에서 반복 호출해 처리량과 지연 분포를 출력한다.
+ * DB는 H2(test 프로파일), Redis는 Testcontainers 컨테이너를 쓰며, 스레드 수 × 장바구니 크기 × 상품 쏠림을 모두 조합해 측정한다.
+ * <p>
+ * {@code mvn -Pbenchmark test -Dbench.threads=1,8,32 -Dbench.cart-sizes=1,3 -Dbench.orders-per-thread=200}
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("주문/결제 처리량 하네스")
+class OrderPlacementLoadHarness {
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static final int PRODUCTS = 200;
+    private static final int MEMBERS = 64;
+
+    /** 쏠림 있음: 주문 상품의 이 비율이 상위 HOT_PRODUCTS개 상품에 몰린다. */
+    private static final double HOT_RATIO = 0.8;
+    private static final int HOT_PRODUCTS = 2;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+    }
+
+    @Autowired private OrderService orderService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private ProductRepository productRepository;
+
+    private final List<Long> memberIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeAll
+    void setUpCatalog() {
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = memberRepository.save(Member.builder()
+                    .email("bench-" + i + "@test.com")
+                    .password("encoded_pw")
+                    .name("벤치-" + i)
+                    .role(MemberRole.CUSTOMER)
+                    .build());
+            memberIds.add(member.getId());
+        }
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = productRepository.save(Product.builder()
+                    .name("벤치 상품-" + i)
+                    .price(BigDecimal.valueOf(1_000L + i))
+                    .stockQuantity(10_000_000)
+                    .build());
+            productIds.add(product.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("스레드 수 × 장바구니 크기 × 상품 쏠림 조합별 처리량/지연")
+    void sweep() throws InterruptedException {
+        int[] threadCounts = intList("bench.threads", "1,8,32");
+        int[] cartSizes = intList("bench.cart-sizes", "1,3,5");
+        int ordersPerThread = Integer.getInteger("bench.orders-per-thread", 200);
+        int warmupPerThread = Integer.getInteger("bench.warmup-per-thread", 20);
+
+        System.out.println();
+        System.out.printf("%-8s %-5s %-8s %10s %9s %9s %9s %9s %7s%n",
+                "threads", "cart", "skew", "orders/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)", "errors");
+        for (int threads : threadCounts) {
+            for (int cartSize : cartSizes) {
+                for (boolean skewed : new boolean[]{false, true}) {
+                    run(threads, cartSize, skewed, warmupPerThread);
+                    Result result = run(threads, cartSize, skewed, ordersPerThread);
+                    System.out.printf("%-8d %-5d %-8s %10.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                            threads, cartSize, skewed ? "hot" : "uniform", result.throughput(),
+                            result.percentileMillis(0.50), result.percentileMillis(0.95),
+                            result.percentileMillis(0.99), result.percentileMillis(1.0), result.errors());
+                }
+            }
+        }
+    }
+
+    private Result run(int threads, int cartSize, boolean skewed, int ordersPerThread) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[][] latencies = new long[threads][ordersPerThread];
+        AtomicInteger errors = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            executor.submit(() -> {
+                try {
+                    ready.await();
+                    Long memberId = memberIds.get(worker % memberIds.size());
+                    for (int i = 0; i < ordersPerThread; i++) {
+                        long start = System.nanoTime();
+                        try {
+                            placeAndPay(memberId, cartSize, skewed);
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[worker][i] = System.nanoTime() - start;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        ready.countDown();
+        done.await(30, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, elapsed, errors.get());
+    }
+
+    private void placeAndPay(Long memberId, int cartSize, boolean skewed) {
+        OrderResponse order = orderService.createOrder(memberId, orderRequest(cartSize, skewed));
+
+        PaymentRequest payment = new PaymentRequest();
+        ReflectionTestUtils.setField(payment, "orderId", order.getOrderId());
+        ReflectionTestUtils.setField(payment, "idempotencyKey", UUID.randomUUID().toString());
+        ReflectionTestUtils.setField(payment, "paymentMethod", "CARD");
+        paymentService.processPayment(payment, "bench");
+    }
+
+    private OrderCreateRequest orderRequest(int cartSize, boolean skewed) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderCreateRequest.OrderItemRequest> items = new ArrayList<>(cartSize);
+        for (int i = 0; i < cartSize; i++) {
+            int index = skewed && random.nextDouble() < HOT_RATIO
+                    ? random.nextInt(HOT_PRODUCTS)
+                    : random.nextInt(productIds.size());
+
+            OrderCreateRequest.OrderItemRequest item = new OrderCreateRequest.OrderItemRequest();
+            ReflectionTestUtils.setField(item, "productId", productIds.get(index));
+            ReflectionTestUtils.setField(item, "quantity", 1);
+            items.add(item);
+        }
+
+        OrderCreateRequest request = new OrderCreateRequest();
+        ReflectionTestUtils.setField(request, "shippingAddress", "서울시 강남구 테헤란로 1");
+        ReflectionTestUtils.setField(request, "receiverName", "홍길동");
+        ReflectionTestUtils.setField(request, "receiverPhone", "010-1234-5678");
+        ReflectionTestUtils.setField(request, "items", items);
+        return request;
+    }
+
+    private static int[] intList(String property, String defaultValue) {
+        return Arrays.stream(System.getProperty(property, defaultValue).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    /** 정렬된 요청별 지연(ns)과 전체 경과 시간. */
+    private record Result(long[] sortedLatencies, long elapsedNanos, int errors) {
+
+        double throughput() {
+            return sortedLatencies.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
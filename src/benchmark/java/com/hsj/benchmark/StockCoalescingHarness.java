@@ -0,0 +1,174 @@
+package com.hsj.benchmark;
+
+import com.hsj.service.stock.StockCoalescer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+/**
+ * 한 상품에 몰린 차감 요청을 요청별 경로(요청마다 행 잠금 + 왕복 1회)와 {@link StockCoalescer} 경로로 각각 돌려
+ * 처리량, 지연 분포, DB 왕복 수를 출력한다. 상품 행은 잠금과 고정 왕복 지연으로 흉내 내므로 Docker 없이 돈다.
+ * <p>
+ * {@code mvn -Pbenchmark test -Dtest=StockCoalescingHarness -Dbench.threads=1,8,32 -Dbench.requests-per-thread=200
+ * -Dbench.round-trip-micros=1000 -Dbench.window-micros=2000}
+ */
+@Tag("benchmark")
+@DisplayName("재고 차감 합치기 처리량 하네스")
+class StockCoalescingHarness {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final int MAX_BATCH = 64;
+
+    @Test
+    @DisplayName("스레드 수별 요청별 경로 대비 합치기 경로의 처리량/지연/왕복 수")
+    void sweep() throws InterruptedException {
+        int[] threadCounts = intList("bench.threads", "1,8,32");
+        int requestsPerThread = Integer.getInteger("bench.requests-per-thread", 200);
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(Long.getLong("bench.round-trip-micros", 1_000));
+        long windowNanos = TimeUnit.MICROSECONDS.toNanos(Long.getLong("bench.window-micros", 2_000));
+
+        System.out.println();
+        System.out.printf("%-8s %-11s %10s %9s %9s %9s %9s %11s%n",
+                "threads", "path", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)", "roundTrips");
+        for (int threads : threadCounts) {
+            int requests = threads * requestsPerThread;
+
+            SimulatedRow perRequest = new SimulatedRow(requests, roundTripNanos);
+            print(threads, "per-request", perRequest,
+                    run(threads, requestsPerThread, quantity -> perRequest.apply(new int[]{quantity})[0]));
+
+            SimulatedRow coalesced = new SimulatedRow(requests, roundTripNanos);
+            StockCoalescer coalescer = new StockCoalescer(windowNanos, MAX_BATCH,
+                    (productId, quantities) -> coalesced.apply(quantities));
+            print(threads, "coalesced", coalesced,
+                    run(threads, requestsPerThread, quantity -> coalescer.deduct(PRODUCT_ID, quantity)));
+        }
+    }
+
+    private Result run(int threads, int requestsPerThread, IntPredicate deduct) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[][] latencies = new long[threads][requestsPerThread];
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            executor.submit(() -> {
+                try {
+                    ready.await();
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        long start = System.nanoTime();
+                        if (!deduct.test(1)) {
+                            rejected.incrementAndGet();
+                        }
+                        latencies[worker][i] = System.nanoTime() - start;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        ready.countDown();
+        done.await(30, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, elapsed, rejected.get());
+    }
+
+    private static void print(int threads, String path, SimulatedRow row, Result result) {
+        System.out.printf("%-8d %-11s %10.1f %9.2f %9.2f %9.2f %9.2f %11d%s%n",
+                threads, path, result.throughput(),
+                result.percentileMillis(0.50), result.percentileMillis(0.95),
+                result.percentileMillis(0.99), result.percentileMillis(1.0), row.roundTrips(),
+                result.rejected() > 0 || row.remaining() != 0
+                        ? String.format(" (거절=%d, 잔여=%d)", result.rejected(), row.remaining())
+                        : "");
+    }
+
+    private static int[] intList(String property, String defaultValue) {
+        return Arrays.stream(System.getProperty(property, defaultValue).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    /** 행 잠금으로 직렬화되는 상품 재고 한 행. 배치 한 번이 잠금 조회 + UPDATE 왕복 한 번이다. */
+    private static final class SimulatedRow {
+
+        private final ReentrantLock rowLock = new ReentrantLock();
+        private final long roundTripNanos;
+        private final AtomicInteger roundTrips = new AtomicInteger();
+        private int stock;
+
+        private SimulatedRow(int stock, long roundTripNanos) {
+            this.stock = stock;
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        private boolean[] apply(int[] quantities) {
+            rowLock.lock();
+            try {
+                roundTrips.incrementAndGet();
+                long deadline = System.nanoTime() + roundTripNanos;
+                while (System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+                boolean[] granted = new boolean[quantities.length];
+                for (int i = 0; i < quantities.length; i++) {
+                    if (quantities[i] <= stock) {
+                        stock -= quantities[i];
+                        granted[i] = true;
+                    }
+                }
+                return granted;
+            } finally {
+                rowLock.unlock();
+            }
+        }
+
+        private int remaining() {
+            rowLock.lock();
+            try {
+                return stock;
+            } finally {
+                rowLock.unlock();
+            }
+        }
+
+        private int roundTrips() {
+            return roundTrips.get();
+        }
+    }
+
+    /** 정렬된 요청별 지연(ns)과 전체 경과 시간. */
+    private record Result(long[] sortedLatencies, long elapsedNanos, int rejected) {
+
+        double throughput() {
+            return sortedLatencies.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.hsj.benchmark;
+
+import com.hsj.dto.event.EventLogRequest;
+import com.hsj.dto.order.OrderCreateRequest;
+import com.hsj.entity.Member;
+import com.hsj.entity.Product;
+import com.hsj.entity.enums.EventType;
+import com.hsj.entity.enums.MemberRole;
+import com.hsj.repository.EventLogRepository;
+import com.hsj.repository.MemberRepository;
+import com.hsj.repository.ProductRepository;
+import com.hsj.service.EventLogService;
+import com.hsj.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 생성과 이벤트 로그 일괄 적재가 DB에 보내는 문장 수를 Hibernate 통계로 세어 출력한다.
+ * 준비된 문장 수가 곧 왕복 수이며, JDBC 배치로 묶인 INSERT는 배치당 1회로 집계된다.
+ * <p>
+ * 배치를 끈 기준선은 {@code -DHIBERNATE_BATCH_SIZE=1}로 같은 하네스를 다시 돌려 비교한다.
+ * <p>
+ * {@code mvn -Pbenchmark test -Dtest=WriteRoundTripHarness -Dbench.orders=200 -Dbench.events=5000
+ * -Dbench.events-timeout-seconds=60}
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("쓰기 경로 DB 왕복 하네스")
+class WriteRoundTripHarness {
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static final int CART_SIZE = 10;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+    }
+
+    @Autowired private OrderService orderService;
+    @Autowired private EventLogService eventLogService;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private EventLogRepository eventLogRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    private Long memberId;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeAll
+    void setUpCatalog() {
+        memberId = memberRepository.save(Member.builder()
+                .email("write-bench@test.com")
+                .password("encoded_pw")
+                .name("쓰기 벤치")
+                .role(MemberRole.CUSTOMER)
+                .build()).getId();
+        for (int i = 0; i < CART_SIZE; i++) {
+            productIds.add(productRepository.save(Product.builder()
+                    .name("쓰기 벤치 상품-" + i)
+                    .price(BigDecimal.valueOf(1_000L + i))
+                    .stockQuantity(10_000_000)
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("주문 생성(장바구니 10개)과 이벤트 일괄 적재의 문장 수/소요 시간")
+    void measure() throws InterruptedException {
+        int orders = Integer.getInteger("bench.orders", 200);
+        int events = Integer.getInteger("bench.events", 5_000);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        OrderCreateRequest orderRequest = orderRequest();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            orderService.createOrder(memberId, orderRequest);
+        }
+        print("createOrder", orders, statistics, 0, System.nanoTime() - start);
+
+        List<EventLogRequest> eventRequests = eventRequests(events);
+        long before = eventLogRepository.count();
+        statistics.clear();
+        start = System.nanoTime();
+        eventLogService.logEvents(eventRequests, memberId, "127.0.0.1", "bench");
+        // 건별 저장에서 실패한 이벤트는 버려지므로, 다 채워지지 않아도 기한이 지나면 모자란 건수를 보고한다.
+        long deadline = start + TimeUnit.SECONDS.toNanos(Long.getLong("bench.events-timeout-seconds", 60));
+        long stored;
+        int polls = 0;
+        do {
+            Thread.sleep(5);
+            polls++;
+            stored = eventLogRepository.count() - before;
+        } while (stored < events && System.nanoTime() < deadline);
+        long elapsed = System.nanoTime() - start;
+        if (stored < events) {
+            System.out.printf("[logEvents] 기한 내 적재 %d/%d건, 부족 %d건%n", stored, events, events - stored);
+        }
+        // 완료 대기용 count 조회는 측정 대상이 아니므로 뺀다.
+        print("logEvents", (int) stored, statistics, polls, elapsed);
+    }
+
+    private void print(String operation, int operations, Statistics statistics, long excludedStatements,
+                       long elapsedNanos) {
+        long statements = statistics.getPrepareStatementCount() - excludedStatements;
+        System.out.printf("[%s] batch_size=%d, 건수=%d, INSERT 엔티티=%d, 준비 문장=%d (건당 %.2f), 소요=%dms%n",
+                operation, batchSize, operations, statistics.getEntityInsertCount(),
+                statements, statements / (double) operations, elapsedNanos / 1_000_000);
+    }
+
+    private OrderCreateRequest orderRequest() {
+        List<OrderCreateRequest.OrderItemRequest> items = new ArrayList<>(CART_SIZE);
+        for (Long productId : productIds) {
+            OrderCreateRequest.OrderItemRequest item = new OrderCreateRequest.OrderItemRequest();
+            ReflectionTestUtils.setField(item, "productId", productId);
+            ReflectionTestUtils.setField(item, "quantity", 1);
+            items.add(item);
+        }
+
+        OrderCreateRequest request = new OrderCreateRequest();
+        ReflectionTestUtils.setField(request, "shippingAddress", "서울시 강남구 테헤란로 1");
+        ReflectionTestUtils.setField(request, "receiverName", "홍길동");
+        ReflectionTestUtils.setField(request, "receiverPhone", "010-1234-5678");
+        ReflectionTestUtils.setField(request, "items", items);
+        return request;
+    }
+
+    private static List<EventLogRequest> eventRequests(int count) {
+        List<EventLogRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            EventLogRequest request = new EventLogRequest();
+            ReflectionTestUtils.setField(request, "eventType", EventType.PAGE_VIEW);
+            ReflectionTestUtils.setField(request, "sessionId", "bench-session");
+            ReflectionTestUtils.setField(request, "pageUrl", "/products/" + i);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
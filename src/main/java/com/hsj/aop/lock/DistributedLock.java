@@ -6,12 +6,24 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * 메서드 실행 전체를 락으로 감싼다. 트랜잭션보다 바깥에서 잡히므로 커밋이 끝난 뒤에 해제된다.
+ */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface DistributedLock {
 
+    /**
+     * 락 키 SpEL. 결과가 컬렉션이나 배열이면 각 원소를 키로 보고 정렬해 한 번에 모두 잡는다.
+     * 실제 키에는 {@code LOCK:} 접두사가 붙는다.
+     */
     String key();
 
+    /** 메트릭 태그로 쓰는 락 이름. 비우면 "클래스명.메서드명" */
+    String name() default "";
+
+    LockType type() default LockType.REENTRANT;
+
     TimeUnit timeUnit() default TimeUnit.SECONDS;
 
     long waitTime() default 5;
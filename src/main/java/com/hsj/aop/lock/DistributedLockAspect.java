@@ -1,78 +1,180 @@
 package com.hsj.aop.lock;
 
-import lombok.RequiredArgsConstructor;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
 import org.springframework.core.ParameterNameDiscoverer;
-import org.springframework.expression.EvaluationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * {@link DistributedLock} 처리기.
+ * SpEL 키 식은 메서드별로 한 번만 파싱(컴파일)해 캐시하고, 락 종류에 맞는 {@link LockProvider}로 락을 잡는다.
+ * 트랜잭션 어드바이저(LOWEST_PRECEDENCE)보다 먼저 실행되도록 순서를 지정해 커밋 후에 락이 풀리게 한다.
+ * 락 이름별로 대기 시간(lock.wait), 보유 시간(lock.hold), 실패 횟수(lock.failures)를 기록한다.
+ */
 @Slf4j
 @Aspect
 @Component
-@RequiredArgsConstructor
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
 public class DistributedLockAspect {
 
     private static final String LOCK_PREFIX = "LOCK:";
 
-    private final RedissonClient redissonClient;
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final List<LockProvider> lockProviders;
+    private final MeterRegistry meterRegistry;
+    private final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, DistributedLockAspect.class.getClassLoader()));
     private final ParameterNameDiscoverer nameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<Method, LockKeyTemplate> keyTemplates = new ConcurrentHashMap<>();
+
+    public DistributedLockAspect(List<LockProvider> lockProviders, MeterRegistry meterRegistry) {
+        this.lockProviders = lockProviders;
+        this.meterRegistry = meterRegistry;
+    }
 
     @Around("@annotation(distributedLock)")
     public Object around(ProceedingJoinPoint joinPoint, DistributedLock distributedLock) throws Throwable {
-        String lockKey = LOCK_PREFIX + resolveKey(joinPoint, distributedLock.key());
-        RLock lock = redissonClient.getLock(lockKey);
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        LockKeyTemplate template = keyTemplates.computeIfAbsent(method,
+                m -> LockKeyTemplate.of(m, distributedLock, parser, nameDiscoverer));
 
-        boolean acquired = false;
+        List<String> keys = template.resolve(joinPoint.getArgs());
+        LockType type = distributedLock.type();
+        LockHandle lock = providerFor(type).getLock(keys, type);
+
+        long waitStart = System.nanoTime();
+        boolean acquired;
         try {
-            acquired = lock.tryLock(
-                    distributedLock.waitTime(),
-                    distributedLock.leaseTime(),
-                    distributedLock.timeUnit()
-            );
-
-            if (!acquired) {
-                throw new IllegalStateException("락 획득에 실패했습니다. key=" + lockKey);
-            }
+            acquired = lock.tryLock(distributedLock.waitTime(), distributedLock.leaseTime(), distributedLock.timeUnit());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failureCounter(template.name(), type, "interrupted").increment();
+            throw new IllegalStateException("락 대기 중 인터럽트 발생: " + template.name(), e);
+        }
+        long holdStart = System.nanoTime();
+        waitTimer(template.name(), type, acquired).record(holdStart - waitStart, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            failureCounter(template.name(), type, "timeout").increment();
+            log.warn("락 획득 실패: name={}, keys={}", template.name(), keys);
+            throw new BusinessException(ErrorCode.LOCK_ACQUISITION_FAILED);
+        }
 
-            log.debug("분산 락 획득: {}", lockKey);
+        log.debug("락 획득: {}", keys);
+        try {
             return joinPoint.proceed();
         } finally {
-            if (acquired && lock.isHeldByCurrentThread()) {
-                lock.unlock();
-                log.debug("분산 락 해제: {}", lockKey);
+            lock.unlock();
+            holdTimer(template.name(), type).record(System.nanoTime() - holdStart, TimeUnit.NANOSECONDS);
+            log.debug("락 해제: {}", keys);
+        }
+    }
+
+    private LockProvider providerFor(LockType type) {
+        for (LockProvider provider : lockProviders) {
+            if (provider.supports(type)) {
+                return provider;
             }
         }
+        throw new IllegalStateException("락 백엔드가 없습니다: " + type);
+    }
+
+    private Timer waitTimer(String name, LockType type, boolean acquired) {
+        return Timer.builder("lock.wait")
+                .tag("name", name)
+                .tag("type", type.name())
+                .tag("result", acquired ? "acquired" : "timeout")
+                .register(meterRegistry);
     }
 
-    private String resolveKey(ProceedingJoinPoint joinPoint, String keyExpression) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        String[] paramNames = nameDiscoverer.getParameterNames(method);
-        Object[] args = joinPoint.getArgs();
+    private Timer holdTimer(String name, LockType type) {
+        return Timer.builder("lock.hold")
+                .tag("name", name)
+                .tag("type", type.name())
+                .register(meterRegistry);
+    }
+
+    private Counter failureCounter(String name, LockType type, String reason) {
+        return Counter.builder("lock.failures")
+                .tag("name", name)
+                .tag("type", type.name())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 메서드별로 캐시되는 키 템플릿. 식에 변수 참조가 없으면 상수 키를 그대로 쓴다.
+     */
+    private record LockKeyTemplate(String name, Expression expression, List<String> constantKeys,
+                                   String[] parameterNames) {
 
-        if (paramNames == null || !keyExpression.contains("#")) {
-            return keyExpression;
+        static LockKeyTemplate of(Method method, DistributedLock annotation,
+                                  ExpressionParser parser, ParameterNameDiscoverer nameDiscoverer) {
+            String name = annotation.name().isEmpty()
+                    ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                    : annotation.name();
+            String[] parameterNames = nameDiscoverer.getParameterNames(method);
+
+            if (parameterNames == null || !annotation.key().contains("#")) {
+                return new LockKeyTemplate(name, null, List.of(LOCK_PREFIX + annotation.key()), null);
+            }
+            return new LockKeyTemplate(name, parser.parseExpression(annotation.key()), null, parameterNames);
         }
 
-        EvaluationContext context = new StandardEvaluationContext();
-        for (int i = 0; i < paramNames.length; i++) {
-            context.setVariable(paramNames[i], args[i]);
+        List<String> resolve(Object[] args) {
+            if (expression == null) {
+                return constantKeys;
+            }
+
+            SimpleEvaluationContext context = SimpleEvaluationContext.forReadOnlyDataBinding().build();
+            for (int i = 0; i < parameterNames.length; i++) {
+                context.setVariable(parameterNames[i], args[i]);
+            }
+
+            TreeSet<String> keys = new TreeSet<>();
+            collect(expression.getValue(context), keys);
+            if (keys.isEmpty()) {
+                throw new IllegalArgumentException("락 키가 비어 있습니다: " + name);
+            }
+            return new ArrayList<>(keys);
         }
 
-        Object value = parser.parseExpression(keyExpression).getValue(context);
-        return value != null ? value.toString() : keyExpression;
+        private static void collect(Object value, Collection<String> keys) {
+            if (value instanceof Collection<?> collection) {
+                collection.forEach(element -> collect(element, keys));
+            } else if (value != null && value.getClass().isArray()) {
+                for (int i = 0; i < Array.getLength(value); i++) {
+                    collect(Array.get(value, i), keys);
+                }
+            } else if (value != null) {
+                keys.add(LOCK_PREFIX + value);
+            }
+        }
     }
 }
@@ -0,0 +1,76 @@
+package com.hsj.aop.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JVM 안에서만 유효한 스트라이프 락. 키를 해시해 고정 개수의 ReentrantLock 중 하나에 대응시키며,
+ * 여러 키는 스트라이프 번호 순서로 잡아 교착을 피한다. leaseTime은 의미가 없어 무시한다.
+ */
+@Component
+public class LocalLockProvider implements LockProvider {
+
+    private final ReentrantLock[] stripes;
+
+    public LocalLockProvider(@Value("${lock.local.stripes:1024}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public boolean supports(LockType type) {
+        return type == LockType.LOCAL;
+    }
+
+    @Override
+    public LockHandle getLock(List<String> keys, LockType type) {
+        int[] indexes = keys.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        return new StripedLockHandle(indexes);
+    }
+
+    private int stripeOf(String key) {
+        int hash = key.hashCode();
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % stripes.length;
+    }
+
+    private final class StripedLockHandle implements LockHandle {
+
+        private final int[] indexes;
+        private int acquired;
+
+        private StripedLockHandle(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(waitTime);
+            try {
+                for (int index : indexes) {
+                    if (!stripes[index].tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        unlock();
+                        return false;
+                    }
+                    acquired++;
+                }
+                return true;
+            } catch (InterruptedException e) {
+                unlock();
+                throw e;
+            }
+        }
+
+        @Override
+        public void unlock() {
+            while (acquired > 0) {
+                stripes[indexes[--acquired]].unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.hsj.aop.lock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LockProvider}가 만든 락 하나(또는 여러 키를 묶은 락)에 대한 획득/해제 핸들.
+ */
+public interface LockHandle {
+
+    boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException;
+
+    void unlock();
+}
@@ -0,0 +1,16 @@
+package com.hsj.aop.lock;
+
+import java.util.List;
+
+/**
+ * 락 백엔드. {@link DistributedLockAspect}는 {@link LockType}을 지원하는 구현을 골라 락을 만든다.
+ */
+public interface LockProvider {
+
+    boolean supports(LockType type);
+
+    /**
+     * @param keys 정렬되고 중복이 제거된 락 키. 두 개 이상이면 모두 잡아야 획득한 것으로 본다.
+     */
+    LockHandle getLock(List<String> keys, LockType type);
+}
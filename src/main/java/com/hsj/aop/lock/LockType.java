@@ -0,0 +1,28 @@
+package com.hsj.aop.lock;
+
+/**
+ * {@link DistributedLock}이 사용할 락 종류.
+ */
+public enum LockType {
+
+    /** Redisson 재진입 락 (기본값) */
+    REENTRANT,
+
+    /** 대기 순서대로 획득하는 Redisson 공정 락 */
+    FAIR,
+
+    /** Redisson 읽기/쓰기 락의 읽기 락. 읽기끼리는 동시에 잡힌다. */
+    READ,
+
+    /** Redisson 읽기/쓰기 락의 쓰기 락 */
+    WRITE,
+
+    /** 현재 JVM 안에서만 유효한 스트라이프 ReentrantLock. Redis 왕복이 없다. */
+    LOCAL,
+
+    /**
+     * JVM 로컬 락 뒤에 Redisson 락을 두는 2단 락. 노드 안에서 이긴 스레드만 Redis 락을 잡고,
+     * 같은 노드의 대기자에게는 Redis 락을 풀지 않고 넘겨준다. 단일 키만 지원한다.
+     */
+    TIERED
+}
@@ -0,0 +1,83 @@
+package com.hsj.aop.lock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisson 기반 락. 키가 여러 개이면 정렬된 순서 그대로 {@code RedissonMultiLock}으로 묶는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedissonLockProvider implements LockProvider {
+
+    private static final Set<LockType> SUPPORTED =
+            EnumSet.of(LockType.REENTRANT, LockType.FAIR, LockType.READ, LockType.WRITE);
+
+    private final RedissonClient redissonClient;
+
+    @Override
+    public boolean supports(LockType type) {
+        return SUPPORTED.contains(type);
+    }
+
+    @Override
+    public LockHandle getLock(List<String> keys, LockType type) {
+        if (keys.size() == 1) {
+            return new SingleLockHandle(lockOf(keys.get(0), type));
+        }
+        RLock[] locks = keys.stream().map(key -> lockOf(key, type)).toArray(RLock[]::new);
+        return new MultiLockHandle(redissonClient.getMultiLock(locks));
+    }
+
+    private RLock lockOf(String key, LockType type) {
+        return switch (type) {
+            case FAIR -> redissonClient.getFairLock(key);
+            case READ -> redissonClient.getReadWriteLock(key).readLock();
+            case WRITE -> redissonClient.getReadWriteLock(key).writeLock();
+            default -> redissonClient.getLock(key);
+        };
+    }
+
+    private record SingleLockHandle(RLock lock) implements LockHandle {
+
+        @Override
+        public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+            return lock.tryLock(waitTime, leaseTime, unit);
+        }
+
+        @Override
+        public void unlock() {
+            // leaseTime이 지나 이미 풀린 락은 해제하지 않는다
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private record MultiLockHandle(RLock lock) implements LockHandle {
+
+        @Override
+        public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+            return lock.tryLock(waitTime, leaseTime, unit);
+        }
+
+        @Override
+        public void unlock() {
+            // MultiLock은 isHeldByCurrentThread를 지원하지 않으므로 해제 실패만 기록한다
+            try {
+                lock.unlock();
+            } catch (IllegalMonitorStateException e) {
+                log.warn("멀티 락 해제 실패(lease 만료 가능성): {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.hsj.aop.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 키마다 JVM 공정 락을 두고, 그 승자만 Redisson 락을 잡는 2단 락.
+ * Redisson 락은 스레드가 아닌 합성 소유자 ID로 잡으므로, 해제 시점에 같은 노드에 대기자가 있으면
+ * Redis 락을 풀지 않고 다음 대기자에게 넘긴다. 다른 노드가 굶지 않도록 연속 인계 횟수와 남은 lease로 제한한다.
+ * 넘겨받을 대기자가 시간 초과나 인터럽트로 포기하면 마지막으로 포기한 스레드가 Redis 락을 푼다.
+ * 키별 상태는 Redis 락을 풀고 대기자가 없을 때 맵에서 지운다. 지운 상태를 아직 쥔 스레드가 있어도
+ * 상호 배제는 Redis 락이 보장하므로, 잠깐 같은 키의 상태가 둘이 되어도 인계만 덜 될 뿐이다.
+ */
+@Slf4j
+@Component
+public class TieredLockProvider implements LockProvider {
+
+    private final RedissonClient redissonClient;
+    private final Map<String, KeyState> states = new ConcurrentHashMap<>();
+    private final AtomicLong ownerSequence = new AtomicLong();
+    private final Counter redisOpsCounter;
+    private final Counter redisOpsSavedCounter;
+    private final Counter handoffCounter;
+
+    @Value("${lock.tiered.max-handoffs:16}")
+    private int maxHandoffs = 16;
+
+    public TieredLockProvider(RedissonClient redissonClient, MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.redisOpsCounter = meterRegistry.counter("lock.tiered.redis.ops");
+        this.redisOpsSavedCounter = meterRegistry.counter("lock.tiered.redis.ops.saved");
+        this.handoffCounter = meterRegistry.counter("lock.tiered.handoffs");
+    }
+
+    @Override
+    public boolean supports(LockType type) {
+        return type == LockType.TIERED;
+    }
+
+    @Override
+    public LockHandle getLock(List<String> keys, LockType type) {
+        if (keys.size() != 1) {
+            throw new IllegalArgumentException("TIERED 락은 단일 키만 지원합니다: " + keys);
+        }
+        String key = keys.get(0);
+        return new TieredLockHandle(key, states.computeIfAbsent(key, k -> new KeyState()));
+    }
+
+    int trackedKeys() {
+        return states.size();
+    }
+
+    /**
+     * 키 하나의 로컬 락과 현재 노드가 쥐고 있는 Redis 락 정보. redis* 필드는 local 락을 쥔 스레드만 쓰며,
+     * redisOwnerId만 맵에서 지울지 판단할 때 락 밖에서 읽는다.
+     */
+    private static final class KeyState {
+        private final ReentrantLock local = new ReentrantLock(true);
+        private volatile long redisOwnerId;
+        private long redisExpiresAtNanos;
+        private int handoffs;
+
+        private boolean holdsRedisLock() {
+            return redisOwnerId != 0;
+        }
+    }
+
+    private final class TieredLockHandle implements LockHandle {
+
+        private final String key;
+        private final KeyState state;
+
+        private TieredLockHandle(String key, KeyState state) {
+            this.key = key;
+            this.state = state;
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(waitTime);
+            boolean locked;
+            try {
+                locked = state.local.tryLock(waitTime, unit);
+            } catch (InterruptedException e) {
+                releaseAbandonedRedisLock();
+                throw e;
+            }
+            if (!locked) {
+                releaseAbandonedRedisLock();
+                return false;
+            }
+
+            // 앞선 스레드가 넘겨준 Redis 락이 lease 절반 이상 남아 있으면 그대로 쓴다
+            long leaseNanos = unit.toNanos(leaseTime);
+            if (state.holdsRedisLock() && state.redisExpiresAtNanos - System.nanoTime() > leaseNanos / 2) {
+                redisOpsSavedCounter.increment(2);
+                return true;
+            }
+            if (state.holdsRedisLock()) {
+                releaseRedisLock();
+            }
+
+            long ownerId = ownerSequence.decrementAndGet();
+            boolean acquired;
+            try {
+                redisOpsCounter.increment();
+                acquired = redisLock().tryLockAsync(Math.max(0, deadline - System.nanoTime()),
+                        leaseNanos, TimeUnit.NANOSECONDS, ownerId).get();
+            } catch (ExecutionException e) {
+                state.local.unlock();
+                throw new IllegalStateException("Redis 락 획득 중 오류: " + key, e.getCause());
+            } catch (InterruptedException e) {
+                state.local.unlock();
+                throw e;
+            }
+
+            if (!acquired) {
+                state.local.unlock();
+                evictIfIdle();
+                return false;
+            }
+            state.redisOwnerId = ownerId;
+            state.redisExpiresAtNanos = System.nanoTime() + leaseNanos;
+            state.handoffs = 0;
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            if (state.local.hasQueuedThreads() && state.handoffs < maxHandoffs) {
+                state.handoffs++;
+                handoffCounter.increment();
+                state.local.unlock();
+                return;
+            }
+            try {
+                releaseRedisLock();
+            } finally {
+                state.local.unlock();
+            }
+            evictIfIdle();
+        }
+
+        /**
+         * 넘겨받기로 한 대기자가 로컬 락을 얻기 전에 포기한 경우. 남은 대기자가 없으면 Redis 락을 대신 푼다.
+         * 남은 대기자가 있으면 그 스레드가 이어받거나, 그 스레드도 포기하면 같은 정리를 한다.
+         */
+        private void releaseAbandonedRedisLock() {
+            if (!state.local.tryLock()) {
+                return;
+            }
+            try {
+                if (state.holdsRedisLock() && !state.local.hasQueuedThreads()) {
+                    releaseRedisLock();
+                }
+            } finally {
+                state.local.unlock();
+            }
+            evictIfIdle();
+        }
+
+        private void evictIfIdle() {
+            if (!state.local.isLocked() && !state.local.hasQueuedThreads() && !state.holdsRedisLock()) {
+                states.remove(key, state);
+            }
+        }
+
+        private void releaseRedisLock() {
+            long ownerId = state.redisOwnerId;
+            state.redisOwnerId = 0;
+            try {
+                redisOpsCounter.increment();
+                redisLock().unlockAsync(ownerId).get();
+            } catch (ExecutionException e) {
+                // lease가 이미 만료된 경우 등. 다른 노드가 가져간 락을 건드리지 않도록 기록만 한다.
+                log.warn("Redis 락 해제 실패: key={}, error={}", key, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Redis 락 해제 중 인터럽트: key={}", key);
+            }
+        }
+
+        private RLock redisLock() {
+            return redissonClient.getLock(key);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hsj.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -21,4 +22,70 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * PG 호출 전용 실행기. 스레드 수가 PG별 동시 호출 상한이며, 대기열이 차면 제출이 거절되고
+     * 결제는 PENDING으로 남아 복구 스위퍼가 다시 보낸다.
+     */
+    @Bean(name = "paymentGatewayExecutor")
+    public ThreadPoolTaskExecutor paymentGatewayExecutor(
+            @Value("${payment.pipeline.max-concurrency:32}") int maxConcurrency,
+            @Value("${payment.pipeline.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-gateway-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * PG 실제 호출 스레드. 스레드 수가 벌크헤드 크기(PG로 동시에 나가는 요청 상한)다.
+     * 호출자는 적응형 타임아웃까지만 기다리고, 늦은 호출은 이 풀 안에서 끝날 때까지 자리를 차지한다.
+     */
+    @Bean(name = "paymentGatewayCallExecutor")
+    public ThreadPoolTaskExecutor paymentGatewayCallExecutor(
+            @Value("${payment.gateway.resilience.bulkhead.max-concurrent-calls:32}") int maxConcurrentCalls) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentCalls);
+        executor.setMaxPoolSize(maxConcurrentCalls);
+        // 동시 호출 수는 벌크헤드 세마포어가 막는다. 대기열은 스레드가 자리를 돌려준 직후의 제출 경합만 흡수한다.
+        executor.setQueueCapacity(maxConcurrentCalls);
+        executor.setThreadNamePrefix("payment-gateway-call-");
+        executor.initialize();
+        return executor;
+    }
+
+    /** 정산 대사 작업 실행기. 동시에 돌 수 있는 대사 작업 수를 제한하며, 넘치면 작업은 FAILED로 남아 나중에 재시작한다. */
+    @Bean(name = "reconciliationExecutor")
+    public ThreadPoolTaskExecutor reconciliationExecutor(
+            @Value("${payment.reconciliation.max-concurrent-runs:2}") int maxConcurrentRuns) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentRuns);
+        executor.setMaxPoolSize(maxConcurrentRuns);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("reconciliation-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 환불 처리기의 PG 환불 호출 스레드. 한 배치의 환불을 이 수만큼 병렬로 보내고, 배치 전체가 대기열에 들어간다.
+     * PG로 나가는 실제 동시 호출 수는 결제 승인과 함께 벌크헤드가 제한한다.
+     */
+    @Bean(name = "refundExecutor")
+    public ThreadPoolTaskExecutor refundExecutor(
+            @Value("${order.refund.concurrency:8}") int concurrency,
+            @Value("${order.refund.batch-size:200}") int batchSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix("order-refund-");
+        executor.initialize();
+        return executor;
+    }
 }
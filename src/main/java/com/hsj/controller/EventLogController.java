@@ -65,9 +65,7 @@ public class EventLogController {
         String ip = httpRequest.getRemoteAddr();
         String ua = httpRequest.getHeader("User-Agent");
 
-        for (EventLogRequest request : requests) {
-            eventLogService.logEvent(request, memberId, ip, ua);
-        }
+        eventLogService.logEvents(requests, memberId, ip, ua);
 
         return ResponseEntity.ok(ApiResponse.ok(requests.size() + "건의 이벤트가 기록되었습니다."));
     }
@@ -1,6 +1,7 @@
 package com.hsj.controller;
 
 import com.hsj.dto.common.ApiResponse;
+import com.hsj.dto.common.CursorResponse;
 import com.hsj.dto.common.PageResponse;
 import com.hsj.dto.order.*;
 import com.hsj.security.CustomUserDetails;
@@ -41,10 +42,10 @@ public class OrderController {
     public ResponseEntity<ApiResponse<OrderResponse>> getOrder(
             @PathVariable Long orderId,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
-        if (!isAdmin(userDetails)) {
-            orderService.verifyOwnership(orderId, userDetails.getMemberId());
-        }
-        return ResponseEntity.ok(ApiResponse.ok(orderService.getOrder(orderId)));
+        OrderResponse response = isAdmin(userDetails)
+                ? orderService.getOrder(orderId)
+                : orderService.getOrderForMember(orderId, userDetails.getMemberId());
+        return ResponseEntity.ok(ApiResponse.ok(response));
     }
 
     /**
@@ -71,6 +72,18 @@ public class OrderController {
                 ApiResponse.ok(orderService.getMyOrders(userDetails.getMemberId(), pageable)));
     }
 
+    /**
+     * 내 주문 커서 조회 — 첫 페이지는 cursor 없이 호출하고, 이후 응답의 nextCursor를 그대로 넘긴다.
+     */
+    @GetMapping("/my/cursor")
+    public ResponseEntity<ApiResponse<CursorResponse<OrderResponse>>> getMyOrdersByCursor(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(ApiResponse.ok(orderService.getMyOrdersByCursor(
+                userDetails.getMemberId(), cursor, PageUtils.cursorSize(size))));
+    }
+
     @PatchMapping("/{orderId}/status")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<OrderResponse>> changeStatus(
@@ -3,6 +3,7 @@ package com.hsj.controller;
 import com.hsj.dto.common.ApiResponse;
 import com.hsj.dto.payment.PaymentRequest;
 import com.hsj.dto.payment.PaymentResponse;
+import com.hsj.entity.enums.PaymentStatus;
 import com.hsj.security.CustomUserDetails;
 import com.hsj.service.PaymentService;
 import jakarta.validation.Valid;
@@ -23,7 +24,16 @@ public class PaymentController {
             @Valid @RequestBody PaymentRequest request,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         PaymentResponse response = paymentService.processPayment(request, userDetails.getEmail());
-        return ResponseEntity.ok(ApiResponse.ok("결제가 완료되었습니다.", response));
+        if (response.getStatus() == PaymentStatus.PENDING) {
+            return ResponseEntity.accepted().body(ApiResponse.ok("결제 요청이 접수되었습니다.", response));
+        }
+        return ResponseEntity.ok(ApiResponse.ok(response));
+    }
+
+    /** 접수된 결제의 처리 결과를 조회한다. */
+    @GetMapping("/{paymentId}")
+    public ResponseEntity<ApiResponse<PaymentResponse>> getPayment(@PathVariable Long paymentId) {
+        return ResponseEntity.ok(ApiResponse.ok(paymentService.getPayment(paymentId)));
     }
 
     @GetMapping("/order/{orderId}")
@@ -106,4 +106,20 @@ public class ProductController {
         ProductResponse response = productService.addStock(id, quantity);
         return ResponseEntity.ok(ApiResponse.ok("재고가 추가되었습니다.", response));
     }
+
+    @PutMapping("/{id}/stock/shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ProductResponse>> enableStockSharding(
+            @PathVariable Long id,
+            @RequestParam int shards) {
+        ProductResponse response = productService.enableStockSharding(id, shards);
+        return ResponseEntity.ok(ApiResponse.ok("재고 샤딩이 적용되었습니다.", response));
+    }
+
+    @DeleteMapping("/{id}/stock/shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ProductResponse>> disableStockSharding(@PathVariable Long id) {
+        ProductResponse response = productService.disableStockSharding(id);
+        return ResponseEntity.ok(ApiResponse.ok("재고 샤딩이 해제되었습니다.", response));
+    }
 }
@@ -0,0 +1,66 @@
+package com.hsj.controller.admin;
+
+import com.hsj.dto.common.ApiResponse;
+import com.hsj.dto.common.CursorResponse;
+import com.hsj.dto.order.OrderBulkStatusChangeRequest;
+import com.hsj.dto.order.OrderBulkStatusChangeResponse;
+import com.hsj.dto.order.OrderItemBulkCancelRequest;
+import com.hsj.dto.order.OrderItemBulkCancelResponse;
+import com.hsj.dto.order.OrderResponse;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.security.CustomUserDetails;
+import com.hsj.service.OrderBulkStatusService;
+import com.hsj.service.OrderItemCancelService;
+import com.hsj.service.OrderService;
+import com.hsj.util.PageUtils;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminOrderController {
+
+    private final OrderService orderService;
+    private final OrderBulkStatusService orderBulkStatusService;
+    private final OrderItemCancelService orderItemCancelService;
+
+    /**
+     * 전체 주문 최신순 커서 조회 — status를 주면 해당 상태의 주문만 조회한다.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<CursorResponse<OrderResponse>>> getOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.ok(
+                orderService.getOrdersByCursor(status, cursor, PageUtils.cursorSize(size))));
+    }
+
+    /**
+     * 주문 일괄 상태 변경 — 주문 ID 목록 또는 현재 상태로 대상을 지정한다. 주문별 실패 사유를 함께 돌려준다.
+     */
+    @PostMapping("/status")
+    public ResponseEntity<ApiResponse<OrderBulkStatusChangeResponse>> changeStatus(
+            @Valid @RequestBody OrderBulkStatusChangeRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(ApiResponse.ok("주문 상태가 일괄 변경되었습니다.",
+                orderBulkStatusService.changeStatus(request, userDetails.getEmail())));
+    }
+
+    /**
+     * 반품 처리용 주문 아이템 일괄 취소 — 여러 주문의 아이템을 한 번에 취소한다. 아이템별 실패 사유를 함께 돌려준다.
+     */
+    @PostMapping("/items/cancel")
+    public ResponseEntity<ApiResponse<OrderItemBulkCancelResponse>> cancelItems(
+            @Valid @RequestBody OrderItemBulkCancelRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(ApiResponse.ok("주문 아이템이 일괄 취소되었습니다.",
+                orderItemCancelService.cancelAll(request, userDetails.getEmail())));
+    }
+}
@@ -0,0 +1,71 @@
+package com.hsj.controller.admin;
+
+import com.hsj.dto.common.ApiResponse;
+import com.hsj.dto.common.CursorResponse;
+import com.hsj.dto.payment.ReconciliationMismatchResponse;
+import com.hsj.dto.payment.ReconciliationRequest;
+import com.hsj.dto.payment.ReconciliationRunResponse;
+import com.hsj.service.payment.PaymentReconciliationService;
+import com.hsj.util.PageUtils;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/payments/reconciliations")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminPaymentReconciliationController {
+
+    private final PaymentReconciliationService reconciliationService;
+
+    /**
+     * 정산 파일 대사 시작 — 작업은 백그라운드에서 돌고, 진행 상황은 작업 조회로 확인한다.
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReconciliationRunResponse>> start(
+            @Valid @RequestBody ReconciliationRequest request) {
+        return ResponseEntity.accepted().body(ApiResponse.ok("정산 대사가 시작되었습니다.",
+                reconciliationService.start(request)));
+    }
+
+    /**
+     * 실패했거나 멈춘 대사 작업을 마지막 체크포인트부터 다시 실행한다.
+     */
+    @PostMapping("/{runId}/resume")
+    public ResponseEntity<ApiResponse<ReconciliationRunResponse>> resume(@PathVariable Long runId) {
+        return ResponseEntity.accepted().body(ApiResponse.ok("정산 대사가 재시작되었습니다.",
+                reconciliationService.resume(runId)));
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<ApiResponse<ReconciliationRunResponse>> getRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(ApiResponse.ok(reconciliationService.getRun(runId)));
+    }
+
+    @GetMapping("/{runId}/mismatches")
+    public ResponseEntity<ApiResponse<CursorResponse<ReconciliationMismatchResponse>>> getMismatches(
+            @PathVariable Long runId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.ok(
+                reconciliationService.getMismatches(runId, cursor, PageUtils.cursorSize(size))));
+    }
+
+    /**
+     * 불일치 보고서 CSV 다운로드.
+     */
+    @GetMapping("/{runId}/report")
+    public void exportReport(@PathVariable Long runId, HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=reconciliation_" + runId + ".csv");
+        response.setCharacterEncoding("UTF-8");
+
+        reconciliationService.exportReport(runId, response.getWriter());
+    }
+}
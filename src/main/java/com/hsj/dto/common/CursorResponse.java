@@ -0,0 +1,44 @@
+package com.hsj.dto.common;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link PageResponse}의 커서 버전. 전체 건수와 페이지 번호 대신 다음 페이지를 여는 불투명 토큰을 돌려준다.
+ * count 쿼리가 없고 깊은 페이지도 첫 페이지와 같은 비용으로 조회된다.
+ */
+@Getter
+public class CursorResponse<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    @Builder
+    private CursorResponse(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * size + 1건까지 조회한 결과를 받아 다음 페이지 존재 여부를 판단한다.
+     *
+     * @param cursorOf 마지막 원소로 다음 커서를 만드는 함수
+     */
+    public static <T> CursorResponse<T> of(List<T> fetched, int size, Function<T, String> cursorOf) {
+        boolean hasNext = fetched.size() > size;
+        List<T> content = hasNext ? fetched.subList(0, size) : fetched;
+        return CursorResponse.<T>builder()
+                .content(content)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null)
+                .build();
+    }
+}
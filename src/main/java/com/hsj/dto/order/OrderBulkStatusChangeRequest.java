@@ -0,0 +1,38 @@
+package com.hsj.dto.order;
+
+import com.hsj.entity.enums.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 주문 일괄 상태 변경 요청. orderIds와 currentStatus 중 하나만 지정한다.
+ * currentStatus를 주면 해당 상태의 주문 전체가 대상이 된다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBulkStatusChangeRequest {
+
+    @Size(max = 100_000, message = "한 번에 변경할 수 있는 주문은 최대 100,000건입니다.")
+    private List<Long> orderIds;
+
+    private OrderStatus currentStatus;
+
+    @NotNull(message = "변경할 상태는 필수입니다.")
+    private OrderStatus status;
+
+    private String reason;
+
+    public static OrderBulkStatusChangeRequest ofIds(List<Long> orderIds, OrderStatus status, String reason) {
+        return new OrderBulkStatusChangeRequest(orderIds, null, status, reason);
+    }
+
+    public static OrderBulkStatusChangeRequest ofFilter(OrderStatus currentStatus, OrderStatus status, String reason) {
+        return new OrderBulkStatusChangeRequest(null, currentStatus, status, reason);
+    }
+}
@@ -0,0 +1,21 @@
+package com.hsj.dto.order;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 일괄 상태 변경 결과. failures는 앞에서부터 최대 건수까지만 담고, 전체 실패 건수는 failedCount로 알린다.
+ */
+@Getter
+@Builder
+public class OrderBulkStatusChangeResponse {
+
+    private int succeededCount;
+    private int failedCount;
+    private List<Failure> failures;
+
+    public record Failure(Long orderId, String reason) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.hsj.dto.order;
+
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 주문 목록 커서. 마지막으로 내려준 주문의 (created_at, order_id)이며, 다음 페이지는 이보다 오래된 주문부터 시작한다.
+ * 클라이언트에는 Base64URL로 인코딩한 불투명 토큰으로만 노출한다.
+ */
+public record OrderCursor(LocalDateTime createdAt, Long orderId) {
+
+    private static final char SEPARATOR = '|';
+
+    public static OrderCursor of(OrderResponse order) {
+        return new OrderCursor(order.getCreatedAt(), order.getOrderId());
+    }
+
+    /** 빈 값이면 첫 페이지를 뜻하는 null을 반환한다. */
+    public static OrderCursor decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,22 @@
+package com.hsj.dto.order;
+
+import com.hsj.entity.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 아직 order_histories에 반영되지 않은 이력 한 건. 지연 기록 모드에서 아웃박스 이벤트로부터 만든다.
+ */
+public record OrderHistoryEntry(Long orderId, OrderStatus previousStatus, OrderStatus newStatus,
+                                String reason, String changedBy, LocalDateTime createdAt) {
+
+    public OrderHistoryResponse toResponse() {
+        return OrderHistoryResponse.builder()
+                .previousStatus(previousStatus)
+                .newStatus(newStatus)
+                .reason(reason)
+                .changedBy(changedBy)
+                .createdAt(createdAt)
+                .build();
+    }
+}
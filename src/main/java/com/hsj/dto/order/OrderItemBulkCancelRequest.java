@@ -0,0 +1,24 @@
+package com.hsj.dto.order;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 반품 처리용 주문 아이템 일괄 취소 요청. 여러 주문의 아이템을 섞어 지정할 수 있다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemBulkCancelRequest {
+
+    @NotEmpty(message = "취소할 주문 아이템은 필수입니다.")
+    @Size(max = 100_000, message = "한 번에 취소할 수 있는 주문 아이템은 최대 100,000건입니다.")
+    private List<Long> orderItemIds;
+
+    private String reason;
+}
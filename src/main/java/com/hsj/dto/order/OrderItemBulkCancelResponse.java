@@ -0,0 +1,21 @@
+package com.hsj.dto.order;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 주문 아이템 일괄 취소 결과. failures는 앞에서부터 최대 건수까지만 담고, 전체 실패 건수는 failedCount로 알린다.
+ */
+@Getter
+@Builder
+public class OrderItemBulkCancelResponse {
+
+    private int succeededCount;
+    private int failedCount;
+    private List<Failure> failures;
+
+    public record Failure(Long orderItemId, String reason) {
+    }
+}
@@ -6,6 +6,7 @@ import com.hsj.entity.enums.OrderItemStatus;
 import com.hsj.entity.enums.OrderStatus;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,6 +14,7 @@ import java.util.List;
 
 @Getter
 @Builder
+@Jacksonized
 public class OrderResponse {
 
     private Long orderId;
@@ -28,6 +30,7 @@ public class OrderResponse {
 
     @Getter
     @Builder
+    @Jacksonized
     public static class OrderItemResponse {
         private Long orderItemId;
         private Long productId;
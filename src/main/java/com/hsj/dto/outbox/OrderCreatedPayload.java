@@ -0,0 +1,24 @@
+package com.hsj.dto.outbox;
+
+import com.hsj.entity.Order;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record OrderCreatedPayload(String orderNumber, Long memberId, BigDecimal totalAmount, List<Item> items,
+                                  String createdBy) {
+
+    public record Item(Long productId, int quantity) {
+    }
+
+    public static OrderCreatedPayload from(Order order, String createdBy) {
+        return new OrderCreatedPayload(
+                order.getOrderNumber(),
+                order.getMember().getId(),
+                order.getTotalAmount(),
+                order.getOrderItems().stream()
+                        .map(item -> new Item(item.getProduct().getId(), item.getQuantity()))
+                        .toList(),
+                createdBy);
+    }
+}
@@ -0,0 +1,11 @@
+package com.hsj.dto.outbox;
+
+import com.hsj.entity.enums.OrderStatus;
+
+import java.math.BigDecimal;
+
+/** totalAmount는 아이템 취소 후 다시 계산된 주문 금액, orderStatus는 취소 시점의 주문 상태다. */
+public record OrderItemCancelledPayload(Long orderItemId, Long productId, String productName, int quantity,
+                                        BigDecimal totalAmount, OrderStatus orderStatus,
+                                        String reason, String cancelledBy) {
+}
@@ -0,0 +1,7 @@
+package com.hsj.dto.outbox;
+
+import com.hsj.entity.enums.OrderStatus;
+
+public record OrderStatusChangedPayload(OrderStatus previousStatus, OrderStatus newStatus,
+                                        String reason, String changedBy) {
+}
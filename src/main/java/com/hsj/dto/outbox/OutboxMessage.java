@@ -0,0 +1,12 @@
+package com.hsj.dto.outbox;
+
+import com.hsj.entity.enums.OutboxEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 싱크로 전달되는 아웃박스 이벤트. id는 전역 증가값이므로 소비자는 이를 중복 제거 키로 쓸 수 있다.
+ */
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, OutboxEventType eventType,
+                            String payload, LocalDateTime createdAt) {
+}
@@ -0,0 +1,14 @@
+package com.hsj.dto.outbox;
+
+import com.hsj.entity.Payment;
+import com.hsj.entity.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+
+public record PaymentPayload(Long paymentId, BigDecimal amount, String paymentMethod, PaymentStatus status) {
+
+    public static PaymentPayload from(Payment payment) {
+        return new PaymentPayload(payment.getId(), payment.getAmount(), payment.getPaymentMethod(),
+                payment.getStatus());
+    }
+}
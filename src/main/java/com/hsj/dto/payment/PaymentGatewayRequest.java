@@ -0,0 +1,17 @@
+package com.hsj.dto.payment;
+
+import com.hsj.entity.Payment;
+
+import java.math.BigDecimal;
+
+/**
+ * PG 승인 요청. 멱등성 키를 그대로 넘기므로 같은 결제를 다시 보내도 PG에서 한 번만 승인된다.
+ */
+public record PaymentGatewayRequest(Long paymentId, Long orderId, String idempotencyKey, BigDecimal amount,
+                                    String paymentMethod) {
+
+    public static PaymentGatewayRequest from(Payment payment) {
+        return new PaymentGatewayRequest(payment.getId(), payment.getOrderId(), payment.getIdempotencyKey(),
+                payment.getAmount(), payment.getPaymentMethod());
+    }
+}
@@ -0,0 +1,15 @@
+package com.hsj.dto.payment;
+
+/**
+ * PG 승인 결과. 거절은 결과로 돌려주고, 결과를 알 수 없는 오류(타임아웃 등)는 예외로 던진다.
+ */
+public record PaymentGatewayResult(boolean approved, String transactionId, String failureReason) {
+
+    public static PaymentGatewayResult approved(String transactionId) {
+        return new PaymentGatewayResult(true, transactionId, null);
+    }
+
+    public static PaymentGatewayResult declined(String failureReason) {
+        return new PaymentGatewayResult(false, null, failureReason);
+    }
+}
@@ -4,12 +4,14 @@ import com.hsj.entity.Payment;
 import com.hsj.entity.enums.PaymentStatus;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
 @Builder
+@Jacksonized
 public class PaymentResponse {
 
     private Long paymentId;
@@ -23,7 +25,7 @@ public class PaymentResponse {
     public static PaymentResponse from(Payment payment) {
         return PaymentResponse.builder()
                 .paymentId(payment.getId())
-                .orderId(payment.getOrder().getId())
+                .orderId(payment.getOrderId())
                 .idempotencyKey(payment.getIdempotencyKey())
                 .amount(payment.getAmount())
                 .paymentMethod(payment.getPaymentMethod())
@@ -0,0 +1,26 @@
+package com.hsj.dto.payment;
+
+import com.hsj.entity.enums.PaymentStatus;
+import com.hsj.entity.enums.ReconciliationMismatchType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * 대사 불일치 한 건. settled*는 정산 파일 값, payment*는 결제 테이블 값이며 한쪽에 없으면 null이다.
+ * settledStatus는 정산 파일의 원래 상태 문자열(APPROVED 등)이다.
+ */
+@Getter
+@Builder
+public class ReconciliationMismatchResponse {
+
+    private Long mismatchId;
+    private ReconciliationMismatchType type;
+    private String idempotencyKey;
+    private BigDecimal settledAmount;
+    private BigDecimal paymentAmount;
+    private String settledStatus;
+    private PaymentStatus paymentStatus;
+    private String detail;
+}
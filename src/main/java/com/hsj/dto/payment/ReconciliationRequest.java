@@ -0,0 +1,28 @@
+package com.hsj.dto.payment;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 정산 대사 요청. 파일은 정산 디렉터리 안의 이름으로 지정하고, [from, to) 기간에 생성된 승인 결제 중
+ * 파일에 없는 결제를 MISSING_SETTLEMENT로 보고한다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRequest {
+
+    @NotBlank(message = "정산 파일명은 필수입니다.")
+    private String fileName;
+
+    @NotNull(message = "정산 시작 시각은 필수입니다.")
+    private LocalDateTime from;
+
+    @NotNull(message = "정산 종료 시각은 필수입니다.")
+    private LocalDateTime to;
+}
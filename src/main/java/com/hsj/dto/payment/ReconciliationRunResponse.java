@@ -0,0 +1,25 @@
+package com.hsj.dto.payment;
+
+import com.hsj.entity.enums.ReconciliationStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class ReconciliationRunResponse {
+
+    private Long runId;
+    private String fileName;
+    private LocalDateTime periodFrom;
+    private LocalDateTime periodTo;
+    private ReconciliationStatus status;
+    private long byteOffset;
+    private long rowsRead;
+    private long mismatchCount;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
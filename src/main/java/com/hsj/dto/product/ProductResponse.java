@@ -15,17 +15,30 @@ public class ProductResponse {
     private String description;
     private BigDecimal price;
     private int stockQuantity;
+    /** 결제 대기 주문이 잡고 있는 수량. 재고 투영이 있는 조회 경로에서만 채워진다. */
+    private int reservedQuantity;
     private String imageUrl;
     private Long categoryId;
     private String categoryName;
 
     public static ProductResponse from(Product product) {
+        return from(product, product.getStockQuantity());
+    }
+
+    /** 재고 원장 등 DB 컬럼이 아닌 곳의 가용 재고를 노출할 때 사용한다. */
+    public static ProductResponse from(Product product, int stockQuantity) {
+        return from(product, stockQuantity, 0);
+    }
+
+    /** 재고 투영에서 읽은 가용/예약 재고를 함께 노출할 때 사용한다. */
+    public static ProductResponse from(Product product, int stockQuantity, int reservedQuantity) {
         return ProductResponse.builder()
                 .id(product.getId())
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
-                .stockQuantity(product.getStockQuantity())
+                .stockQuantity(stockQuantity)
+                .reservedQuantity(reservedQuantity)
                 .imageUrl(product.getImageUrl())
                 .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
                 .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
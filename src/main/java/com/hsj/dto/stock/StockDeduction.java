@@ -0,0 +1,23 @@
+package com.hsj.dto.stock;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public record StockDeduction(Long productId, int quantity) {
+
+    /**
+     * 같은 상품의 수량을 합치고 상품 ID 오름차순으로 정렬한다.
+     * 여러 상품 행을 한 트랜잭션에서 잠글 때 항상 같은 순서로 잠가 데드락을 피하기 위함이다.
+     */
+    public static List<StockDeduction> mergeSorted(Collection<StockDeduction> deductions) {
+        Map<Long, Integer> merged = new TreeMap<>();
+        for (StockDeduction deduction : deductions) {
+            merged.merge(deduction.productId(), deduction.quantity(), Integer::sum);
+        }
+        return merged.entrySet().stream()
+                .map(entry -> new StockDeduction(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,4 @@
+package com.hsj.dto.stock;
+
+public record StockLevel(Long productId, long quantity) {
+}
@@ -0,0 +1,4 @@
+package com.hsj.dto.stock;
+
+public record StockSnapshot(int stockQuantity, Long version) {
+}
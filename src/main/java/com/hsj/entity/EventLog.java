@@ -23,7 +23,8 @@ import java.time.LocalDateTime;
 public class EventLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_logs_seq")
+    @SequenceGenerator(name = "event_logs_seq", sequenceName = "event_logs_seq", allocationSize = 50)
     @Column(name = "event_log_id")
     private Long id;
 
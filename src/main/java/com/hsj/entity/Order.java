@@ -1,5 +1,6 @@
 package com.hsj.entity;
 
+import com.hsj.entity.enums.OrderItemStatus;
 import com.hsj.entity.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
@@ -10,16 +11,22 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
+/**
+ * 주문. 커서 조회 인덱스는 Flyway를 쓰는 DB에서 V2 마이그레이션이 같은 이름과 컬럼으로 만들므로 둘을 함께 바꿔야 한다.
+ */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_member_created", columnList = "member_id, created_at, order_id"),
+        @Index(name = "idx_orders_created", columnList = "created_at, order_id")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long id;
 
@@ -50,8 +57,8 @@ public class Order extends BaseEntity {
     private List<OrderItem> orderItems = new ArrayList<>();
 
     @Builder
-    public Order(Member member, String shippingAddress, String receiverName, String receiverPhone) {
-        this.orderNumber = generateOrderNumber();
+    public Order(String orderNumber, Member member, String shippingAddress, String receiverName, String receiverPhone) {
+        this.orderNumber = orderNumber;
         this.member = member;
         this.shippingAddress = shippingAddress;
         this.receiverName = receiverName;
@@ -59,18 +66,16 @@ public class Order extends BaseEntity {
         this.status = OrderStatus.PENDING_PAYMENT;
     }
 
-    private String generateOrderNumber() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-
     public void addOrderItem(OrderItem item) {
         this.orderItems.add(item);
         item.assignOrder(this);
         calculateTotalAmount();
     }
 
+    /** 취소된 아이템은 제외한다. 부분 취소 경로는 재계산 없이 차감분만 반영한다. */
     public void calculateTotalAmount() {
         this.totalAmount = this.orderItems.stream()
+                .filter(item -> item.getStatus() != OrderItemStatus.CANCELLED)
                 .map(OrderItem::getSubtotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
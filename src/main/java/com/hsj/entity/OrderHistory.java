@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class OrderHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_histories_seq")
+    @SequenceGenerator(name = "order_histories_seq", sequenceName = "order_histories_seq", allocationSize = 50)
     @Column(name = "order_history_id")
     private Long id;
 
@@ -0,0 +1,48 @@
+package com.hsj.entity;
+
+import com.hsj.entity.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 트랜잭션 아웃박스 행. 쓰기와 발행은 {@link com.hsj.repository.custom.OutboxJdbcRepository}가 JDBC로 처리하며,
+ * 엔티티는 스키마 정의용이다. 인덱스는 부분 인덱스라 엔티티로 표현할 수 없으므로 V4 마이그레이션이 관리한다.
+ * <p>
+ * 같은 집계의 이벤트는 ID 순서대로 발행되므로 ID는 풀링 없이(allocationSize = 1) 시퀀스에서 바로 받는다.
+ * 블록을 미리 떼어 가면 노드마다 다른 구간을 쓰게 되어 나중에 쓴 이벤트가 더 작은 ID를 가질 수 있다.
+ */
+@Entity
+@Table(name = "outbox")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 1)
+    @Column(name = "outbox_id")
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 30)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -11,20 +11,22 @@ import java.math.BigDecimal;
 
 @Entity
 @Table(name = "payments", indexes = {
-        @Index(name = "idx_payment_idempotency_key", columnList = "idempotency_key", unique = true)
+        @Index(name = "idx_payment_idempotency_key", columnList = "idempotency_key", unique = true),
+        @Index(name = "idx_payments_created_at", columnList = "created_at")
 })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Payment extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     @Column(name = "payment_id")
     private Long id;
 
-    @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
-    private Order order;
+    // 오래된 주문은 orders_archive로 옮겨지므로 연관관계 대신 ID만 들고 있는다. 주문이 보관돼도 결제는 그대로 읽힌다.
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
 
     @Column(name = "idempotency_key", nullable = false, unique = true, length = 100)
     private String idempotencyKey;
@@ -40,8 +42,8 @@ public class Payment extends BaseEntity {
     private PaymentStatus status = PaymentStatus.PENDING;
 
     @Builder
-    public Payment(Order order, String idempotencyKey, BigDecimal amount, String paymentMethod) {
-        this.order = order;
+    public Payment(Long orderId, String idempotencyKey, BigDecimal amount, String paymentMethod) {
+        this.orderId = orderId;
         this.idempotencyKey = idempotencyKey;
         this.amount = amount;
         this.paymentMethod = paymentMethod;
@@ -25,9 +25,9 @@ public class Review extends BaseEntity {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
-    private Order order;
+    // 오래된 주문은 orders_archive로 옮겨지므로 연관관계 대신 ID만 들고 있는다. 주문이 보관돼도 리뷰는 그대로 읽힌다.
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
 
     @Column(nullable = false)
     private int rating;
@@ -36,11 +36,11 @@ public class Review extends BaseEntity {
     private String content;
 
     @Builder
-    public Review(Member member, Product product, Order order, int rating, String content) {
+    public Review(Member member, Product product, Long orderId, int rating, String content) {
         validateRating(rating);
         this.member = member;
         this.product = product;
-        this.order = order;
+        this.orderId = orderId;
         this.rating = rating;
         this.content = content;
     }
@@ -0,0 +1,23 @@
+package com.hsj.entity.enums;
+
+/**
+ * 아웃박스 도메인 이벤트 종류. 결제 이벤트도 주문을 집계 단위로 삼아
+ * 한 주문의 생성 → 결제 → 상태 변경 → 취소가 하나의 순서 있는 흐름으로 전달되게 한다.
+ */
+public enum OutboxEventType {
+
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED,
+    ORDER_CANCELLED,
+    ORDER_ITEM_CANCELLED,
+    PAYMENT_COMPLETED,
+    PAYMENT_FAILED,
+    PAYMENT_CANCELLED,
+    PAYMENT_REFUNDED;
+
+    public static final String ORDER_AGGREGATE = "ORDER";
+
+    public String aggregateType() {
+        return ORDER_AGGREGATE;
+    }
+}
@@ -0,0 +1,14 @@
+package com.hsj.entity.enums;
+
+public enum ReconciliationMismatchType {
+    /** 정산 파일에는 있는데 결제가 없다. */
+    MISSING_PAYMENT,
+    /** 정산 기간의 승인 결제가 정산 파일에 없다. */
+    MISSING_SETTLEMENT,
+    AMOUNT_MISMATCH,
+    STATUS_MISMATCH,
+    /** 같은 멱등성 키가 정산 파일에 두 번 이상 나온다. */
+    DUPLICATE_SETTLEMENT,
+    /** 필드 수, 금액, 상태 값을 해석할 수 없는 행. */
+    MALFORMED_ROW
+}
@@ -0,0 +1,7 @@
+package com.hsj.entity.enums;
+
+public enum ReconciliationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,11 +1,19 @@
 package com.hsj.repository;
 
+import com.hsj.dto.stock.StockLevel;
 import com.hsj.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     List<OrderItem> findByOrderId(Long orderId);
+
+    /** 결제 대기 주문이 잡고 있는 상품별 수량 합계. */
+    @Query("select new com.hsj.dto.stock.StockLevel(oi.product.id, sum(oi.quantity)) " +
+            "from OrderItem oi where oi.status = com.hsj.entity.enums.OrderItemStatus.PENDING_PAYMENT " +
+            "group by oi.product.id")
+    List<StockLevel> sumPendingQuantityByProduct();
 }
@@ -1,9 +1,13 @@
 package com.hsj.repository;
 
 import com.hsj.entity.Order;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -11,6 +15,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Optional<Order> findByIdAndDeletedFalse(Long id);
 
+    /** 결제와 만료 취소가 같은 주문을 동시에 바꾸지 않도록 행을 잠그고 조회한다. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id = :id and o.deleted = false")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    /** 소유자 확인용. 회원 FK만 읽으므로 주문/회원 엔티티를 로딩하지 않는다. */
+    @Query("select o.member.id from Order o where o.id = :id and o.deleted = false")
+    Optional<Long> findMemberIdById(@Param("id") Long id);
+
     Page<Order> findByMemberIdAndDeletedFalse(Long memberId, Pageable pageable);
 
     Optional<Order> findByOrderNumberAndDeletedFalse(String orderNumber);
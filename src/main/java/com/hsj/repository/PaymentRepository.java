@@ -1,8 +1,16 @@
 package com.hsj.repository;
 
 import com.hsj.entity.Payment;
+import com.hsj.entity.enums.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -12,4 +20,15 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrderId(Long orderId);
 
     boolean existsByIdempotencyKey(String idempotencyKey);
+
+    boolean existsByOrderIdAndStatus(Long orderId, PaymentStatus status);
+
+    /** PG 결과 반영과 복구 스위퍼가 같은 결제를 동시에 바꾸지 않도록 행을 잠그고 조회한다. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Payment p where p.id = :id")
+    Optional<Payment> findByIdForUpdate(@Param("id") Long id);
+
+    /** 복구 스위퍼용. PENDING 부분 인덱스를 탄다. */
+    List<Payment> findByStatusAndCreatedAtBeforeOrderByCreatedAtAsc(PaymentStatus status, LocalDateTime before,
+                                                                    Pageable pageable);
 }
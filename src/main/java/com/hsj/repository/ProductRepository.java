@@ -1,11 +1,20 @@
 package com.hsj.repository;
 
+import com.hsj.dto.stock.StockLevel;
+import com.hsj.dto.stock.StockSnapshot;
 import com.hsj.entity.Product;
 import com.hsj.repository.custom.ProductRepositoryCustom;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
@@ -15,4 +24,35 @@ public interface ProductRepository extends JpaRepository<Product, Long>, Product
     Page<Product> findAllByDeletedFalse(Pageable pageable);
 
     Page<Product> findByCategoryIdAndDeletedFalse(Long categoryId, Pageable pageable);
+
+    List<Product> findByIdInAndDeletedFalse(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id and p.deleted = false")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select p.stockQuantity from Product p where p.id = :id and p.deleted = false")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Product p set p.stockQuantity = :stockQuantity, p.version = p.version + 1 " +
+            "where p.id = :id")
+    int updateStockQuantity(@Param("id") Long id, @Param("stockQuantity") int stockQuantity);
+
+    @Query("select new com.hsj.dto.stock.StockLevel(p.id, cast(p.stockQuantity as Long)) " +
+            "from Product p where p.deleted = false")
+    List<StockLevel> findAllStockLevels();
+
+    @Query("select new com.hsj.dto.stock.StockSnapshot(p.stockQuantity, p.version) " +
+            "from Product p where p.id = :id and p.deleted = false")
+    Optional<StockSnapshot> findStockSnapshot(@Param("id") Long id);
+
+    /**
+     * 읽은 시점의 version이 그대로일 때만 차감한다. 0이 반환되면 다른 요청이 먼저 갱신한 것이다.
+     */
+    @Modifying
+    @Query("update Product p set p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 " +
+            "where p.id = :id and p.version = :version and p.stockQuantity >= :quantity")
+    int deductStockIfVersionMatches(@Param("id") Long id, @Param("quantity") int quantity,
+                                    @Param("version") Long version);
 }
@@ -19,13 +19,21 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * 관리자 통계 집계. 주문 건수와 카테고리 매출은 보관 테이블로 옮겨진 주문까지 더하며,
+ * 결제 기준 집계는 결제가 보관되지 않으므로 원본만 읽는다.
+ */
 @Repository
 @RequiredArgsConstructor
 public class AdminStatsRepository {
 
     private final JPAQueryFactory queryFactory;
+    private final OrderArchiveRepository orderArchiveRepository;
 
     public BigDecimal getTotalRevenue(LocalDateTime from, LocalDateTime to) {
         QPayment payment = QPayment.payment;
@@ -54,7 +62,7 @@ public class AdminStatsRepository {
                 )
                 .fetchOne();
 
-        return count != null ? count : 0;
+        return (count != null ? count : 0) + orderArchiveRepository.countOrders(from, to);
     }
 
     public long getPaidOrderCount(LocalDateTime from, LocalDateTime to) {
@@ -138,7 +146,7 @@ public class AdminStatsRepository {
                 .orderBy(orderItem.snapshotPrice.multiply(orderItem.quantity).sum().desc())
                 .fetch();
 
-        return results.stream()
+        List<CategorySalesResponse> hot = results.stream()
                 .map(tuple -> new CategorySalesResponse(
                         tuple.get(orderItem.product.category.id),
                         tuple.get(orderItem.product.category.name),
@@ -149,6 +157,25 @@ public class AdminStatsRepository {
                                 ? tuple.get(orderItem.quantity.sum()) : 0
                 ))
                 .toList();
+
+        List<CategorySalesResponse> archived = orderArchiveRepository.findCategorySales(from, to);
+        return archived.isEmpty() ? hot : mergeCategorySales(hot, archived);
+    }
+
+    private static List<CategorySalesResponse> mergeCategorySales(List<CategorySalesResponse> hot,
+                                                                  List<CategorySalesResponse> archived) {
+        Map<Long, CategorySalesResponse> merged = new LinkedHashMap<>();
+        for (CategorySalesResponse sales : hot) {
+            merged.put(sales.getCategoryId(), sales);
+        }
+        for (CategorySalesResponse sales : archived) {
+            merged.merge(sales.getCategoryId(), sales, (a, b) -> new CategorySalesResponse(
+                    a.getCategoryId(), a.getCategoryName(),
+                    a.getRevenue().add(b.getRevenue()), a.getQuantity() + b.getQuantity()));
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparing(CategorySalesResponse::getRevenue).reversed())
+                .toList();
     }
 
     public long getTotalVisitorCount(LocalDateTime from, LocalDateTime to) {
@@ -0,0 +1,308 @@
+package com.hsj.repository.custom;
+
+import com.hsj.dto.admin.CategorySalesResponse;
+import com.hsj.dto.order.OrderCursor;
+import com.hsj.dto.order.OrderHistoryResponse;
+import com.hsj.dto.order.OrderResponse;
+import com.hsj.dto.order.OrderResponse.OrderItemResponse;
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 보관 테이블(orders_archive, order_items_archive, order_histories_archive) 이동과 조회.
+ * <p>
+ * 보관 테이블은 created_at 월 단위 파티션이며, 보관 작업은 보존 기간이 지난 종료 주문을 청크 단위로
+ * INSERT ... SELECT 후 원본에서 DELETE 한다. 보관된 주문은 모두 {@link #horizon()}보다 오래됐으므로
+ * 최근 주문 조회는 원본 테이블만 읽고, 그보다 오래된 구간에 닿을 때만 이 저장소를 함께 읽는다.
+ * 보관이 꺼져 있으면 조회 메서드는 쿼리 없이 빈 결과를 돌려준다.
+ */
+@Repository
+public class OrderArchiveRepository {
+
+    private static final String ORDER_COLUMNS =
+            "order_id, order_number, member_id, status, total_amount, shipping_address, receiver_name, " +
+            "receiver_phone, created_at, updated_at, is_deleted";
+
+    private static final String ITEM_COLUMNS =
+            "order_item_id, order_id, product_id, quantity, snapshot_product_name, snapshot_price, " +
+            "snapshot_image_url, snapshot_description, status, created_at, updated_at, is_deleted";
+
+    private static final String HISTORY_COLUMNS =
+            "order_history_id, order_id, previous_status, new_status, reason, changed_by, created_at";
+
+    private static final String[] ARCHIVE_TABLES = {"orders_archive", "order_items_archive", "order_histories_archive"};
+
+    private static final String OLDEST_ARCHIVABLE_SQL =
+            "SELECT MIN(created_at) FROM orders WHERE status IN (:statuses) AND created_at < :cutoff";
+
+    /** 여러 노드가 동시에 돌아도 서로 다른 주문을 가져가도록 잠긴 행은 건너뛴다. */
+    private static final String LOCK_ARCHIVABLE_SQL =
+            "SELECT order_id FROM orders WHERE status IN (:statuses) AND created_at < :cutoff " +
+            "ORDER BY order_id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String HEADER_SQL =
+            "SELECT order_id, member_id, order_number, status, total_amount, shipping_address, receiver_name, " +
+            "receiver_phone, created_at FROM orders_archive WHERE is_deleted = false ";
+
+    /** 원본 쿼리와 같은 (created_at, order_id) 내림차순 seek. */
+    private static final String BEFORE_CURSOR =
+            "AND (created_at < :cursorCreatedAt OR (created_at = :cursorCreatedAt AND order_id < :cursorOrderId)) ";
+
+    private static final String NEWEST_FIRST = "ORDER BY created_at DESC, order_id DESC LIMIT :limit";
+
+    private static final String ITEMS_SQL =
+            "SELECT order_id, order_item_id, product_id, snapshot_product_name, snapshot_price, quantity, status " +
+            "FROM order_items_archive WHERE order_id IN (:orderIds) ORDER BY order_item_id";
+
+    private static final String HISTORIES_SQL =
+            "SELECT order_history_id, previous_status, new_status, reason, changed_by, created_at " +
+            "FROM order_histories_archive WHERE order_id = :orderId ORDER BY created_at DESC";
+
+    private static final String COUNT_ORDERS_SQL =
+            "SELECT COUNT(*) FROM orders_archive WHERE is_deleted = false AND created_at BETWEEN :from AND :to";
+
+    private static final String CATEGORY_SALES_SQL =
+            "SELECT c.category_id, c.name, SUM(oi.snapshot_price * oi.quantity) AS revenue, " +
+            "SUM(oi.quantity) AS quantity " +
+            "FROM order_items_archive oi " +
+            "JOIN products p ON p.product_id = oi.product_id " +
+            "JOIN categories c ON c.category_id = p.category_id " +
+            "WHERE oi.status <> :cancelled AND oi.created_at BETWEEN :from AND :to " +
+            "GROUP BY c.category_id, c.name";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int retentionMonths;
+
+    public OrderArchiveRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                  @Value("${order.archive.enabled:false}") boolean enabled,
+                                  @Value("${order.archive.retention-months:6}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.retentionMonths = retentionMonths;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 이 시각 이후에 생성된 주문은 보관되지 않았다. 보존 기간을 늘리면 이미 옮긴 주문이 경계 안쪽에 남으므로
+     * 보존 기간은 줄이는 방향으로만 바꾼다.
+     */
+    public LocalDateTime horizon() {
+        return LocalDateTime.now().minusMonths(retentionMonths);
+    }
+
+    /** 세 보관 테이블에 from ~ to(포함) 월 파티션이 없으면 만든다. */
+    public void ensureMonthlyPartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            for (String table : ARCHIVE_TABLES) {
+                jdbcTemplate.getJdbcTemplate().execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s_y%dm%02d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        table, month.getYear(), month.getMonthValue(), table,
+                        month.atDay(1), month.plusMonths(1).atDay(1)));
+            }
+        }
+    }
+
+    public Optional<LocalDateTime> findOldestArchivable(Collection<OrderStatus> statuses, LocalDateTime cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_ARCHIVABLE_SQL,
+                archivableParams(statuses, cutoff), Timestamp.class);
+        return Optional.ofNullable(oldest).map(Timestamp::toLocalDateTime);
+    }
+
+    /** 보관 대상 주문을 잠그고 ID를 돌려준다. 호출자 트랜잭션 안에서 {@link #moveAll}과 함께 써야 한다. */
+    public List<Long> lockArchivable(Collection<OrderStatus> statuses, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(LOCK_ARCHIVABLE_SQL,
+                archivableParams(statuses, cutoff).addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * 주문과 아이템·이력을 보관 테이블로 복사한 뒤 원본에서 지운다. 자식 테이블부터 지워 원본의 외래 키를 지킨다.
+     *
+     * @return 옮긴 주문 수
+     */
+    public int moveAll(Collection<Long> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", orderIds);
+        jdbcTemplate.update(copySql("order_histories", HISTORY_COLUMNS), params);
+        jdbcTemplate.update(copySql("order_items", ITEM_COLUMNS), params);
+        jdbcTemplate.update(copySql("orders", ORDER_COLUMNS), params);
+
+        jdbcTemplate.update("DELETE FROM order_histories WHERE order_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (:ids)", params);
+        return jdbcTemplate.update("DELETE FROM orders WHERE order_id IN (:ids)", params);
+    }
+
+    public Optional<OrderResponse> findById(Long orderId) {
+        return findOne("AND order_id = :orderId", new MapSqlParameterSource("orderId", orderId));
+    }
+
+    public Optional<OrderResponse> findByOrderNumber(String orderNumber) {
+        return findOne("AND order_number = :orderNumber", new MapSqlParameterSource("orderNumber", orderNumber));
+    }
+
+    public Optional<Long> findMemberIdById(Long orderId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.queryForList(
+                        "SELECT member_id FROM orders_archive WHERE order_id = :orderId AND is_deleted = false",
+                        new MapSqlParameterSource("orderId", orderId), Long.class)
+                .stream().findFirst();
+    }
+
+    /** {@link OrderQueryRepository#findByMemberIdBefore}의 보관 테이블 버전. */
+    public List<OrderResponse> findByMemberIdBefore(Long memberId, OrderCursor cursor, int size) {
+        if (!enabled) {
+            return List.of();
+        }
+        return assemble(jdbcTemplate.query(HEADER_SQL + "AND member_id = :memberId " + before(cursor) + NEWEST_FIRST,
+                cursorParams(cursor, size).addValue("memberId", memberId), HEADER_MAPPER));
+    }
+
+    /** {@link OrderQueryRepository#findAllBefore}의 보관 테이블 버전. 상태가 null이면 전체 상태를 대상으로 한다. */
+    public List<OrderResponse> findAllBefore(OrderStatus status, OrderCursor cursor, int size) {
+        if (!enabled) {
+            return List.of();
+        }
+        String statusFilter = status != null ? "AND status = :status " : "";
+        MapSqlParameterSource params = cursorParams(cursor, size)
+                .addValue("status", status != null ? status.name() : null);
+        return assemble(jdbcTemplate.query(HEADER_SQL + statusFilter + before(cursor) + NEWEST_FIRST,
+                params, HEADER_MAPPER));
+    }
+
+    public List<OrderHistoryResponse> findHistories(Long orderId) {
+        if (!enabled) {
+            return List.of();
+        }
+        return jdbcTemplate.query(HISTORIES_SQL, new MapSqlParameterSource("orderId", orderId), (rs, rowNum) -> {
+            String previous = rs.getString("previous_status");
+            return OrderHistoryResponse.builder()
+                    .id(rs.getLong("order_history_id"))
+                    .previousStatus(previous != null ? OrderStatus.valueOf(previous) : null)
+                    .newStatus(OrderStatus.valueOf(rs.getString("new_status")))
+                    .reason(rs.getString("reason"))
+                    .changedBy(rs.getString("changed_by"))
+                    .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                    .build();
+        });
+    }
+
+    public long countOrders(LocalDateTime from, LocalDateTime to) {
+        if (!enabled) {
+            return 0;
+        }
+        Long count = jdbcTemplate.queryForObject(COUNT_ORDERS_SQL, rangeParams(from, to), Long.class);
+        return count != null ? count : 0;
+    }
+
+    /** 보관된 아이템의 카테고리별 매출. 원본 쿼리와 같은 조건으로 집계한다. */
+    public List<CategorySalesResponse> findCategorySales(LocalDateTime from, LocalDateTime to) {
+        if (!enabled) {
+            return List.of();
+        }
+        MapSqlParameterSource params = rangeParams(from, to).addValue("cancelled", OrderItemStatus.CANCELLED.name());
+        return jdbcTemplate.query(CATEGORY_SALES_SQL, params, (rs, rowNum) -> new CategorySalesResponse(
+                rs.getLong("category_id"),
+                rs.getString("name"),
+                rs.getBigDecimal("revenue"),
+                rs.getLong("quantity")));
+    }
+
+    private Optional<OrderResponse> findOne(String condition, MapSqlParameterSource params) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        List<OrderResponse> found = assemble(jdbcTemplate.query(HEADER_SQL + condition, params, HEADER_MAPPER));
+        return found.stream().findFirst();
+    }
+
+    private List<OrderResponse> assemble(List<Header> headers) {
+        if (headers.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> orderIds = headers.stream().map(Header::orderId).toList();
+        Map<Long, List<OrderItemResponse>> itemsByOrder = new HashMap<>();
+        jdbcTemplate.query(ITEMS_SQL, new MapSqlParameterSource("orderIds", orderIds), rs -> {
+            BigDecimal price = rs.getBigDecimal("snapshot_price");
+            int quantity = rs.getInt("quantity");
+            itemsByOrder.computeIfAbsent(rs.getLong("order_id"), id -> new ArrayList<>())
+                    .add(OrderItemResponse.builder()
+                            .orderItemId(rs.getLong("order_item_id"))
+                            .productId(rs.getLong("product_id"))
+                            .snapshotProductName(rs.getString("snapshot_product_name"))
+                            .snapshotPrice(price)
+                            .quantity(quantity)
+                            .subtotal(price.multiply(BigDecimal.valueOf(quantity)))
+                            .status(OrderItemStatus.valueOf(rs.getString("status")))
+                            .build());
+        });
+
+        return headers.stream()
+                .map(header -> header.response().items(itemsByOrder.getOrDefault(header.orderId(), List.of())).build())
+                .toList();
+    }
+
+    private static final RowMapper<Header> HEADER_MAPPER = (rs, rowNum) -> new Header(rs.getLong("order_id"),
+            OrderResponse.builder()
+                    .orderId(rs.getLong("order_id"))
+                    .memberId(rs.getLong("member_id"))
+                    .orderNumber(rs.getString("order_number"))
+                    .status(OrderStatus.valueOf(rs.getString("status")))
+                    .totalAmount(rs.getBigDecimal("total_amount"))
+                    .shippingAddress(rs.getString("shipping_address"))
+                    .receiverName(rs.getString("receiver_name"))
+                    .receiverPhone(rs.getString("receiver_phone"))
+                    .createdAt(rs.getTimestamp("created_at").toLocalDateTime()));
+
+    private static String before(OrderCursor cursor) {
+        return cursor != null ? BEFORE_CURSOR : "";
+    }
+
+    private static String copySql(String table, String columns) {
+        return "INSERT INTO " + table + "_archive (" + columns + ") SELECT " + columns +
+               " FROM " + table + " WHERE order_id IN (:ids)";
+    }
+
+    private static MapSqlParameterSource archivableParams(Collection<OrderStatus> statuses, LocalDateTime cutoff) {
+        return new MapSqlParameterSource()
+                .addValue("statuses", statuses.stream().map(Enum::name).toList())
+                .addValue("cutoff", Timestamp.valueOf(cutoff));
+    }
+
+    private static MapSqlParameterSource cursorParams(OrderCursor cursor, int size) {
+        return new MapSqlParameterSource()
+                .addValue("cursorCreatedAt", cursor != null ? Timestamp.valueOf(cursor.createdAt()) : null)
+                .addValue("cursorOrderId", cursor != null ? cursor.orderId() : null)
+                .addValue("limit", size + 1);
+    }
+
+    /** 아이템을 채우기 전의 주문 헤더. */
+    private record Header(Long orderId, OrderResponse.OrderResponseBuilder response) {
+    }
+
+    private static MapSqlParameterSource rangeParams(LocalDateTime from, LocalDateTime to) {
+        return new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to));
+    }
+}
@@ -0,0 +1,78 @@
+package com.hsj.repository.custom;
+
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주문 일괄 상태 변경용 집합 연산. 엔티티를 로딩하지 않고 청크 단위 UPDATE로 처리한다.
+ * 이력은 {@link OrderHistoryJdbcRepository}가 적재한다.
+ * {@link StockBatchRepository}와 마찬가지로 호출자의 트랜잭션 커넥션을 그대로 사용한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderBulkRepository {
+
+    private static final String LOCK_STATUSES_SQL =
+            "SELECT order_id, status FROM orders WHERE order_id IN (:ids) AND is_deleted = false FOR UPDATE";
+
+    private static final String FIND_IDS_BY_STATUS_SQL =
+            "SELECT order_id FROM orders WHERE status = :status AND is_deleted = false AND order_id > :afterId " +
+            "ORDER BY order_id LIMIT :limit";
+
+    private static final String UPDATE_ORDERS_SQL =
+            "UPDATE orders SET status = :status, updated_at = :now WHERE order_id IN (:ids)";
+
+    private static final String UPDATE_ITEMS_SQL =
+            "UPDATE order_items SET status = :to, updated_at = :now WHERE order_id IN (:ids) AND status = :from";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * 주문 행을 잠그고 현재 상태를 읽는다. 없거나 삭제된 주문은 결과에 포함되지 않는다.
+     */
+    public Map<Long, OrderStatus> lockStatuses(Collection<Long> orderIds) {
+        Map<Long, OrderStatus> statuses = new HashMap<>(orderIds.size() * 2);
+        jdbcTemplate.query(LOCK_STATUSES_SQL, new MapSqlParameterSource("ids", orderIds), rs -> {
+            statuses.put(rs.getLong("order_id"), OrderStatus.valueOf(rs.getString("status")));
+        });
+        return statuses;
+    }
+
+    /** 주어진 상태의 주문 ID를 afterId 다음부터 오름차순으로 limit건 조회한다. */
+    public List<Long> findIdsByStatus(OrderStatus status, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("status", status.name())
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(FIND_IDS_BY_STATUS_SQL, params, Long.class);
+    }
+
+    public int updateOrderStatus(Collection<Long> orderIds, OrderStatus status) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", orderIds)
+                .addValue("status", status.name())
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(UPDATE_ORDERS_SQL, params);
+    }
+
+    /** 주문들의 아이템 중 from 상태인 것만 to로 바꾼다. 부분 취소된 아이템은 그대로 남는다. */
+    public int updateItemStatus(Collection<Long> orderIds, OrderItemStatus from, OrderItemStatus to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", orderIds)
+                .addValue("from", from.name())
+                .addValue("to", to.name())
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(UPDATE_ITEMS_SQL, params);
+    }
+}
@@ -0,0 +1,99 @@
+package com.hsj.repository.custom;
+
+import com.hsj.dto.order.OrderHistoryEntry;
+import com.hsj.dto.order.OrderHistoryResponse;
+import com.hsj.dto.outbox.OutboxMessage;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 주문 이력 JDBC 배치 적재와 지연 기록 모드의 조회.
+ * 조회는 반영된 이력과 아직 발행되지 않은 아웃박스 이벤트를 UNION ALL 한 문장으로 읽어,
+ * 릴레이가 그 사이에 커밋해도 같은 스냅샷 안에서 빠지거나 겹치는 행이 없다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderHistoryJdbcRepository {
+
+    /**
+     * ID는 엔티티와 같은 시퀀스에서 받는다. Hibernate의 pooled-lo 블록과 겹치지 않도록
+     * 행마다 nextval을 호출하며, 그만큼 ID에 간격이 생기는 것은 감수한다.
+     */
+    private static final String INSERT_SQL =
+            "INSERT INTO order_histories " +
+            "(order_history_id, order_id, previous_status, new_status, reason, changed_by, created_at) " +
+            "VALUES (nextval('order_histories_seq'), ?, ?, ?, ?, ?, ?)";
+
+    private static final String FIND_WITH_PENDING_SQL =
+            "SELECT 'H' AS source, h.order_history_id AS id, h.previous_status, h.new_status, h.reason, " +
+            "h.changed_by, h.created_at, CAST(NULL AS VARCHAR(50)) AS event_type, CAST(NULL AS TEXT) AS payload " +
+            "FROM order_histories h WHERE h.order_id = :orderId " +
+            "UNION ALL " +
+            "SELECT 'O', o.outbox_id, NULL, NULL, NULL, NULL, o.created_at, o.event_type, o.payload " +
+            "FROM outbox o WHERE o.aggregate_type = :aggregateType AND o.aggregate_id = :orderId " +
+            "AND o.published_at IS NULL AND o.event_type IN (:eventTypes)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<OrderHistoryEntry> entries) {
+        List<Object[]> args = entries.stream()
+                .map(e -> new Object[]{e.orderId(), name(e.previousStatus()), e.newStatus().name(),
+                        e.reason(), e.changedBy(), Timestamp.valueOf(e.createdAt())})
+                .toList();
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, args);
+    }
+
+    /**
+     * @param eventTypes 이력으로 바뀌는 이벤트 종류
+     */
+    public Snapshot findWithPending(Long orderId, Collection<OutboxEventType> eventTypes) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("orderId", orderId)
+                .addValue("aggregateType", OutboxEventType.ORDER_AGGREGATE)
+                .addValue("eventTypes", eventTypes.stream().map(Enum::name).toList());
+
+        List<OrderHistoryResponse> flushed = new ArrayList<>();
+        List<OutboxMessage> pending = new ArrayList<>();
+        jdbcTemplate.query(FIND_WITH_PENDING_SQL, params, rs -> {
+            if ("H".equals(rs.getString("source"))) {
+                flushed.add(toResponse(rs));
+            } else {
+                pending.add(new OutboxMessage(rs.getLong("id"), OutboxEventType.ORDER_AGGREGATE, orderId,
+                        OutboxEventType.valueOf(rs.getString("event_type")), rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime()));
+            }
+        });
+        return new Snapshot(flushed, pending);
+    }
+
+    private static OrderHistoryResponse toResponse(ResultSet rs) throws SQLException {
+        String previous = rs.getString("previous_status");
+        return OrderHistoryResponse.builder()
+                .id(rs.getLong("id"))
+                .previousStatus(previous != null ? OrderStatus.valueOf(previous) : null)
+                .newStatus(OrderStatus.valueOf(rs.getString("new_status")))
+                .reason(rs.getString("reason"))
+                .changedBy(rs.getString("changed_by"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+
+    private static String name(OrderStatus status) {
+        return status != null ? status.name() : null;
+    }
+
+    /** flushed는 order_histories에 반영된 이력, pending은 아직 발행되지 않은 아웃박스 이벤트다. */
+    public record Snapshot(List<OrderHistoryResponse> flushed, List<OutboxMessage> pending) {
+    }
+}
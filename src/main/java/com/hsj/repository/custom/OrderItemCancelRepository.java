@@ -0,0 +1,96 @@
+package com.hsj.repository.custom;
+
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주문 아이템 부분 취소용 집합 연산. 주문·아이템 엔티티를 로딩하지 않고 아이템 ID로 바로 잠그고 갱신한다.
+ * 금액은 원 단위 소수 둘째 자리까지이므로 long 센트로 주고받는다.
+ * {@link OrderBulkRepository}와 마찬가지로 호출자의 트랜잭션 커넥션을 그대로 사용한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderItemCancelRepository {
+
+    /** 주문 행과 아이템 행을 함께 잠근다. 여러 주문에 걸친 요청끼리 교착하지 않도록 주문 ID 순서로 잠근다. */
+    private static final String LOCK_ITEMS_SQL =
+            "SELECT oi.order_item_id, oi.order_id, oi.product_id, oi.snapshot_product_name, oi.snapshot_price, " +
+            "oi.quantity, oi.status, o.status AS order_status, o.total_amount " +
+            "FROM order_items oi JOIN orders o ON o.order_id = oi.order_id " +
+            "WHERE oi.order_item_id IN (:ids) AND o.is_deleted = false " +
+            "ORDER BY oi.order_id, oi.order_item_id FOR UPDATE";
+
+    private static final String CANCEL_ITEMS_SQL =
+            "UPDATE order_items SET status = :status, updated_at = :now WHERE order_item_id IN (:ids)";
+
+    private static final String SUBTRACT_TOTAL_SQL =
+            "UPDATE orders SET total_amount = total_amount - ?, updated_at = ? WHERE order_id = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * 아이템과 소속 주문을 잠그고 취소 판단에 필요한 값을 읽는다. 없거나 삭제된 주문의 아이템은 결과에 없다.
+     */
+    public List<LockedItem> lockItems(Collection<Long> orderItemIds) {
+        return jdbcTemplate.query(LOCK_ITEMS_SQL, new MapSqlParameterSource("ids", orderItemIds), (rs, rowNum) ->
+                new LockedItem(
+                        rs.getLong("order_item_id"),
+                        rs.getLong("order_id"),
+                        rs.getLong("product_id"),
+                        rs.getString("snapshot_product_name"),
+                        toCents(rs.getBigDecimal("snapshot_price")),
+                        rs.getInt("quantity"),
+                        OrderItemStatus.valueOf(rs.getString("status")),
+                        OrderStatus.valueOf(rs.getString("order_status")),
+                        toCents(rs.getBigDecimal("total_amount"))));
+    }
+
+    public int cancelItems(Collection<Long> orderItemIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", orderItemIds)
+                .addValue("status", OrderItemStatus.CANCELLED.name())
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(CANCEL_ITEMS_SQL, params);
+    }
+
+    /**
+     * 주문별 취소 금액을 total_amount에서 뺀다. 합계를 다시 계산하지 않으므로 아이템 수와 무관하게 주문당 UPDATE 한 건이다.
+     *
+     * @param centsByOrder 주문 ID별 차감할 금액(센트)
+     */
+    public int[] subtractTotals(Map<Long, Long> centsByOrder) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = centsByOrder.entrySet().stream()
+                .map(e -> new Object[]{fromCents(e.getValue()), now, e.getKey()})
+                .toList();
+        return jdbcTemplate.getJdbcTemplate().batchUpdate(SUBTRACT_TOTAL_SQL, args);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /** 잠근 아이템 한 건. 금액은 센트 단위다. */
+    public record LockedItem(Long orderItemId, Long orderId, Long productId, String productName, long priceCents,
+                             int quantity, OrderItemStatus status, OrderStatus orderStatus, long orderTotalCents) {
+
+        public long subtotalCents() {
+            return Math.multiplyExact(priceCents, quantity);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.hsj.repository.custom;
+
+import com.hsj.dto.order.OrderCursor;
+import com.hsj.dto.order.OrderResponse;
+import com.hsj.dto.order.OrderResponse.OrderItemResponse;
+import com.hsj.entity.QOrder;
+import com.hsj.entity.QOrderItem;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 주문 조회 화면 전용 읽기 쿼리. 엔티티를 거치지 않고 컬럼을 바로 {@link OrderResponse}로 옮긴다.
+ * 주문 헤더 1회 + 해당 주문들의 아이템 IN 조회 1회(+ 페이지면 count 1회)로 끝나며,
+ * 회원/상품 ID는 FK 컬럼에서 읽으므로 연관 엔티티를 초기화하지 않는다.
+ * 커서 조회는 (created_at, order_id) 내림차순 seek이며 orders의 복합 인덱스를 그대로 탄다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderQueryRepository {
+
+    private static final QOrder order = QOrder.order;
+    private static final QOrderItem orderItem = QOrderItem.orderItem;
+
+    /** 페이지 조회에서 허용하는 정렬 기준. 그 밖의 속성은 조용히 무시하지 않고 거절한다. */
+    private static final Map<String, ComparableExpressionBase<?>> SORTABLE = Map.of(
+            "id", order.id,
+            "createdAt", order.createdAt,
+            "totalAmount", order.totalAmount,
+            "status", order.status);
+
+    private final JPAQueryFactory queryFactory;
+
+    public Optional<OrderResponse> findById(Long orderId) {
+        return findOne(order.id.eq(orderId));
+    }
+
+    public Optional<OrderResponse> findByOrderNumber(String orderNumber) {
+        return findOne(order.orderNumber.eq(orderNumber));
+    }
+
+    public Page<OrderResponse> findByMemberId(Long memberId, Pageable pageable) {
+        BooleanExpression condition = order.member.id.eq(memberId).and(order.deleted.isFalse());
+
+        List<Tuple> headers = selectHeaders()
+                .where(condition)
+                .orderBy(orderSpecifiers(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(order.count())
+                .from(order)
+                .where(condition);
+
+        return PageableExecutionUtils.getPage(assemble(headers), pageable, countQuery::fetchOne);
+    }
+
+    /**
+     * 회원의 주문을 커서 이전부터 최신순으로 size + 1건 조회한다. 마지막 1건은 다음 페이지 존재 여부 판단용이다.
+     */
+    public List<OrderResponse> findByMemberIdBefore(Long memberId, OrderCursor cursor, int size) {
+        return assemble(selectHeaders()
+                .where(order.member.id.eq(memberId), order.deleted.isFalse(), before(cursor))
+                .orderBy(order.createdAt.desc(), order.id.desc())
+                .limit(size + 1L)
+                .fetch());
+    }
+
+    /** 관리자 주문 목록. 상태가 null이면 전체 주문을 대상으로 한다. */
+    public List<OrderResponse> findAllBefore(OrderStatus status, OrderCursor cursor, int size) {
+        return assemble(selectHeaders()
+                .where(status != null ? order.status.eq(status) : null, order.deleted.isFalse(), before(cursor))
+                .orderBy(order.createdAt.desc(), order.id.desc())
+                .limit(size + 1L)
+                .fetch());
+    }
+
+    /** 정렬이 없으면 최신 주문순이며, 동률이 나도 페이지 경계가 흔들리지 않도록 주문 ID를 마지막 기준으로 붙인다. */
+    private static OrderSpecifier<?>[] orderSpecifiers(Sort sort) {
+        List<OrderSpecifier<?>> specifiers = new ArrayList<>();
+        boolean byId = false;
+        for (Sort.Order sortOrder : sort) {
+            ComparableExpressionBase<?> path = SORTABLE.get(sortOrder.getProperty());
+            if (path == null) {
+                throw new BusinessException(ErrorCode.INVALID_INPUT,
+                        "지원하지 않는 주문 정렬 기준입니다: " + sortOrder.getProperty());
+            }
+            specifiers.add(sortOrder.isAscending() ? path.asc() : path.desc());
+            byId |= path == order.id;
+        }
+        if (!byId) {
+            specifiers.add(order.id.desc());
+        }
+        return specifiers.toArray(OrderSpecifier[]::new);
+    }
+
+    private BooleanExpression before(OrderCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return order.createdAt.lt(cursor.createdAt())
+                .or(order.createdAt.eq(cursor.createdAt()).and(order.id.lt(cursor.orderId())));
+    }
+
+    private Optional<OrderResponse> findOne(BooleanExpression condition) {
+        Tuple header = selectHeaders()
+                .where(condition, order.deleted.isFalse())
+                .fetchOne();
+        if (header == null) {
+            return Optional.empty();
+        }
+        return Optional.of(assemble(List.of(header)).get(0));
+    }
+
+    private JPAQuery<Tuple> selectHeaders() {
+        return queryFactory
+                .select(order.id, order.member.id, order.orderNumber, order.status, order.totalAmount,
+                        order.shippingAddress, order.receiverName, order.receiverPhone, order.createdAt)
+                .from(order);
+    }
+
+    private List<OrderResponse> assemble(List<Tuple> headers) {
+        if (headers.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> orderIds = headers.stream().map(header -> header.get(order.id)).toList();
+        Map<Long, List<OrderItemResponse>> itemsByOrder = findItems(orderIds);
+
+        List<OrderResponse> responses = new ArrayList<>(headers.size());
+        for (Tuple header : headers) {
+            Long orderId = header.get(order.id);
+            responses.add(OrderResponse.builder()
+                    .orderId(orderId)
+                    .memberId(header.get(order.member.id))
+                    .orderNumber(header.get(order.orderNumber))
+                    .status(header.get(order.status))
+                    .totalAmount(header.get(order.totalAmount))
+                    .shippingAddress(header.get(order.shippingAddress))
+                    .receiverName(header.get(order.receiverName))
+                    .receiverPhone(header.get(order.receiverPhone))
+                    .items(itemsByOrder.getOrDefault(orderId, List.of()))
+                    .createdAt(header.get(order.createdAt))
+                    .build());
+        }
+        return responses;
+    }
+
+    private Map<Long, List<OrderItemResponse>> findItems(Collection<Long> orderIds) {
+        List<Tuple> rows = queryFactory
+                .select(orderItem.order.id, orderItem.id, orderItem.product.id, orderItem.snapshotProductName,
+                        orderItem.snapshotPrice, orderItem.quantity, orderItem.status)
+                .from(orderItem)
+                .where(orderItem.order.id.in(orderIds))
+                .orderBy(orderItem.id.asc())
+                .fetch();
+
+        Map<Long, List<OrderItemResponse>> itemsByOrder = new HashMap<>();
+        for (Tuple row : rows) {
+            BigDecimal price = row.get(orderItem.snapshotPrice);
+            int quantity = row.get(orderItem.quantity);
+            itemsByOrder.computeIfAbsent(row.get(orderItem.order.id), id -> new ArrayList<>())
+                    .add(OrderItemResponse.builder()
+                            .orderItemId(row.get(orderItem.id))
+                            .productId(row.get(orderItem.product.id))
+                            .snapshotProductName(row.get(orderItem.snapshotProductName))
+                            .snapshotPrice(price)
+                            .quantity(quantity)
+                            .subtotal(price.multiply(BigDecimal.valueOf(quantity)))
+                            .status(row.get(orderItem.status))
+                            .build());
+        }
+        return itemsByOrder;
+    }
+}
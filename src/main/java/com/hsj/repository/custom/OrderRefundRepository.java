@@ -0,0 +1,140 @@
+package com.hsj.repository.custom;
+
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 환불 처리기용 집합 연산. 대기열 조회는 잠금 없이 하고, 반영은 호출자의 트랜잭션 안에서
+ * 주문 행을 잠근 뒤 집합 UPDATE로 한 번에 처리한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderRefundRepository {
+
+    /**
+     * 재시도 시각이 지났거나 실패 기록이 없는 환불 요청 주문을 요청 순서대로 가져온다.
+     * 결제는 승인됐거나 이미 환불된 것만 붙이며, 결제가 없는 주문은 payment_id가 NULL이다.
+     */
+    private static final String FIND_DUE_SQL =
+            "SELECT o.order_id, p.payment_id, p.idempotency_key, p.amount, p.payment_method, " +
+            "p.status AS payment_status, COALESCE(a.attempts, 0) AS attempts " +
+            "FROM orders o " +
+            "LEFT JOIN payments p ON p.order_id = o.order_id AND p.status IN ('COMPLETED', 'REFUNDED') " +
+            "LEFT JOIN order_refund_attempts a ON a.order_id = o.order_id " +
+            "WHERE o.status = 'REFUND_REQUESTED' AND o.is_deleted = false " +
+            "AND (a.order_id IS NULL OR a.next_attempt_at <= :now) " +
+            "ORDER BY o.updated_at, o.order_id LIMIT :limit";
+
+    /** 항상 ID 순으로 잠그고, 다른 노드나 사용자 요청이 잡고 있는 주문은 기다리지 않고 다음 주기로 넘긴다. */
+    private static final String LOCK_REFUNDABLE_SQL =
+            "SELECT order_id FROM orders WHERE order_id IN (:ids) AND status = 'REFUND_REQUESTED' " +
+            "AND is_deleted = false ORDER BY order_id FOR UPDATE SKIP LOCKED";
+
+    private static final String FIND_ITEMS_SQL =
+            "SELECT product_id, quantity FROM order_items WHERE order_id IN (:ids) AND status IN (:statuses)";
+
+    private static final String UPDATE_ITEMS_SQL =
+            "UPDATE order_items SET status = :to, updated_at = :now WHERE order_id IN (:ids) AND status IN (:from)";
+
+    private static final String REFUND_PAYMENTS_SQL =
+            "UPDATE payments SET status = 'REFUNDED', updated_at = :now WHERE payment_id IN (:ids) AND status = 'COMPLETED'";
+
+    private static final String UPSERT_ATTEMPT_SQL =
+            "INSERT INTO order_refund_attempts (order_id, attempts, next_attempt_at, last_error, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (order_id) DO UPDATE SET attempts = EXCLUDED.attempts, " +
+            "next_attempt_at = EXCLUDED.next_attempt_at, last_error = EXCLUDED.last_error, updated_at = EXCLUDED.updated_at";
+
+    private static final String DELETE_ATTEMPTS_SQL =
+            "DELETE FROM order_refund_attempts WHERE order_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<RefundCandidate> findDue(LocalDateTime now, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("limit", limit);
+        return jdbcTemplate.query(FIND_DUE_SQL, params, (rs, rowNum) -> {
+            long paymentId = rs.getLong("payment_id");
+            boolean hasPayment = !rs.wasNull();
+            return new RefundCandidate(
+                    rs.getLong("order_id"),
+                    hasPayment ? paymentId : null,
+                    rs.getString("idempotency_key"),
+                    rs.getBigDecimal("amount"),
+                    rs.getString("payment_method"),
+                    hasPayment ? PaymentStatus.valueOf(rs.getString("payment_status")) : null,
+                    rs.getInt("attempts"));
+        });
+    }
+
+    /**
+     * 아직 REFUND_REQUESTED인 주문만 잠가 돌려준다. 그사이 다른 노드가 반영했거나 잠금을 잡고 있는 주문은 빠진다.
+     */
+    public List<Long> lockRefundable(Collection<Long> orderIds) {
+        return jdbcTemplate.queryForList(LOCK_REFUNDABLE_SQL, new MapSqlParameterSource("ids", orderIds), Long.class);
+    }
+
+    /** 주문들의 아이템 중 주어진 상태인 것의 상품별 수량. 같은 상품이 여러 행으로 나올 수 있다. */
+    public List<StockDeduction> findItemQuantities(Collection<Long> orderIds, Collection<OrderItemStatus> statuses) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", orderIds)
+                .addValue("statuses", statuses.stream().map(Enum::name).toList());
+        return jdbcTemplate.query(FIND_ITEMS_SQL, params,
+                (rs, rowNum) -> new StockDeduction(rs.getLong("product_id"), rs.getInt("quantity")));
+    }
+
+    public int updateItemStatus(Collection<Long> orderIds, Collection<OrderItemStatus> from, OrderItemStatus to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", orderIds)
+                .addValue("from", from.stream().map(Enum::name).toList())
+                .addValue("to", to.name())
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(UPDATE_ITEMS_SQL, params);
+    }
+
+    public int markPaymentsRefunded(Collection<Long> paymentIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", paymentIds)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(REFUND_PAYMENTS_SQL, params);
+    }
+
+    /** 주문별 재시도 일정을 JDBC 배치 한 번으로 기록한다. */
+    public int[] saveAttempts(List<RefundAttempt> attempts) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = attempts.stream()
+                .map(a -> new Object[]{a.orderId(), a.attempts(),
+                        a.nextAttemptAt() != null ? Timestamp.valueOf(a.nextAttemptAt()) : null,
+                        truncate(a.lastError(), 500), now})
+                .toList();
+        return jdbcTemplate.getJdbcTemplate().batchUpdate(UPSERT_ATTEMPT_SQL, args);
+    }
+
+    public int deleteAttempts(Collection<Long> orderIds) {
+        return jdbcTemplate.update(DELETE_ATTEMPTS_SQL, new MapSqlParameterSource("ids", orderIds));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /** 환불 대기 주문과 되돌릴 결제. paymentId가 null이면 되돌릴 결제가 없는 주문이다. */
+    public record RefundCandidate(Long orderId, Long paymentId, String idempotencyKey, BigDecimal amount,
+                                  String paymentMethod, PaymentStatus paymentStatus, int attempts) {
+    }
+
+    /** nextAttemptAt이 null이면 자동 재시도를 멈춘다. */
+    public record RefundAttempt(Long orderId, int attempts, LocalDateTime nextAttemptAt, String lastError) {
+    }
+}
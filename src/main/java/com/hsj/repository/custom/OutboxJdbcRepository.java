@@ -0,0 +1,117 @@
+package com.hsj.repository.custom;
+
+import com.hsj.dto.outbox.OutboxMessage;
+import com.hsj.entity.enums.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * outbox 테이블 접근. 적재는 호출자의 트랜잭션 커넥션을 그대로 써서 도메인 변경과 함께 커밋된다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox (outbox_id, aggregate_type, aggregate_id, event_type, payload, created_at) " +
+            "VALUES (nextval('outbox_seq'), ?, ?, ?, ?, ?)";
+
+    /** 다른 릴레이가 잡고 있는 행은 건너뛴다. */
+    private static final String CLAIM_SQL =
+            "SELECT outbox_id, aggregate_type, aggregate_id, event_type, payload, created_at FROM outbox " +
+            "WHERE published_at IS NULL ORDER BY outbox_id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String PENDING_IDS_SQL =
+            "SELECT aggregate_id, outbox_id FROM outbox " +
+            "WHERE published_at IS NULL AND aggregate_type = :aggregateType AND aggregate_id IN (:aggregateIds) " +
+            "ORDER BY outbox_id";
+
+    private static final String MARK_PUBLISHED_SQL =
+            "UPDATE outbox SET published_at = :now WHERE outbox_id IN (:ids)";
+
+    private static final String OLDEST_PENDING_SQL =
+            "SELECT MIN(created_at) FROM outbox WHERE published_at IS NULL";
+
+    private static final String DELETE_PUBLISHED_SQL =
+            "DELETE FROM outbox WHERE outbox_id IN (" +
+            "SELECT outbox_id FROM outbox WHERE published_at < :cutoff ORDER BY outbox_id LIMIT :limit)";
+
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("outbox_id"),
+            rs.getString("aggregate_type"),
+            rs.getLong("aggregate_id"),
+            OutboxEventType.valueOf(rs.getString("event_type")),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insert(OutboxEventType eventType, Long aggregateId, String payload) {
+        jdbcTemplate.getJdbcTemplate().update(INSERT_SQL, eventType.aggregateType(), aggregateId, eventType.name(),
+                payload, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /** 같은 종류의 이벤트를 JDBC 배치 한 번으로 적재한다. 순서는 맵의 순회 순서를 따른다. */
+    public void insertAll(OutboxEventType eventType, Map<Long, String> payloadsByAggregate) {
+        insertAll(eventType, List.copyOf(payloadsByAggregate.entrySet()));
+    }
+
+    /** 한 집계에 이벤트가 여러 건일 수 있는 일괄 적재. 순서는 목록 순서를 따른다. */
+    public void insertAll(OutboxEventType eventType, List<Map.Entry<Long, String>> payloads) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = payloads.stream()
+                .map(e -> new Object[]{eventType.aggregateType(), e.getKey(), eventType.name(), e.getValue(), now})
+                .toList();
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, args);
+    }
+
+    public List<OutboxMessage> claim(int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, new MapSqlParameterSource("limit", limit), MESSAGE_MAPPER);
+    }
+
+    /**
+     * 집계별 미발행 이벤트 ID를 오름차순으로 돌려준다. 잠금 없이 읽으므로 다른 릴레이가 잡은 행도 포함된다.
+     */
+    public Map<Long, List<Long>> findPendingIds(String aggregateType, Collection<Long> aggregateIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("aggregateType", aggregateType)
+                .addValue("aggregateIds", aggregateIds);
+        Map<Long, List<Long>> pending = new HashMap<>();
+        jdbcTemplate.query(PENDING_IDS_SQL, params, rs -> {
+            pending.computeIfAbsent(rs.getLong("aggregate_id"), id -> new ArrayList<>())
+                    .add(rs.getLong("outbox_id"));
+        });
+        return pending;
+    }
+
+    public int markPublished(Collection<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(MARK_PUBLISHED_SQL, params);
+    }
+
+    public Optional<LocalDateTime> findOldestPendingCreatedAt() {
+        Timestamp oldest = jdbcTemplate.getJdbcTemplate().queryForObject(OLDEST_PENDING_SQL, Timestamp.class);
+        return Optional.ofNullable(oldest).map(Timestamp::toLocalDateTime);
+    }
+
+    public int deletePublishedBefore(LocalDateTime cutoff, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", limit);
+        return jdbcTemplate.update(DELETE_PUBLISHED_SQL, params);
+    }
+}
@@ -0,0 +1,294 @@
+package com.hsj.repository.custom;
+
+import com.hsj.dto.payment.ReconciliationMismatchResponse;
+import com.hsj.dto.payment.ReconciliationRunResponse;
+import com.hsj.entity.enums.PaymentStatus;
+import com.hsj.entity.enums.ReconciliationMismatchType;
+import com.hsj.entity.enums.ReconciliationStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 정산 대사 작업 상태와 불일치 보고서 저장소. 청크 단위 쓰기는 호출자의 트랜잭션 커넥션을 그대로 써서
+ * 불일치 행, 읽은 키, 체크포인트가 함께 커밋된다. 그래서 재시작해도 같은 행이 두 번 보고되지 않는다.
+ */
+@Repository
+public class PaymentReconciliationRepository {
+
+    private static final String RUN_COLUMNS =
+            "run_id, file_name, period_from, period_to, status, byte_offset, rows_read, mismatch_count, " +
+            "error_message, started_at, updated_at, finished_at";
+
+    private static final String INSERT_RUN_SQL =
+            "INSERT INTO payment_reconciliation_runs (run_id, file_name, period_from, period_to, status, " +
+            "started_at, updated_at) VALUES (:runId, :fileName, :from, :to, :status, :now, :now)";
+
+    private static final String FIND_RUN_SQL =
+            "SELECT " + RUN_COLUMNS + " FROM payment_reconciliation_runs WHERE run_id = :runId";
+
+    private static final String EXISTS_RUNNING_SQL =
+            "SELECT COUNT(*) FROM payment_reconciliation_runs WHERE file_name = :fileName AND status = :running";
+
+    /** 실패했거나, 실행 중인데 체크포인트가 오래 멈춘(작업 노드가 죽은) 작업만 다시 잡을 수 있다. */
+    private static final String CLAIM_SQL =
+            "UPDATE payment_reconciliation_runs SET status = :running, error_message = NULL, updated_at = :now " +
+            "WHERE run_id = :runId AND (status = :failed OR (status = :running AND updated_at < :staleBefore))";
+
+    private static final String FIND_PAYMENTS_SQL =
+            "SELECT idempotency_key, amount, status FROM payments WHERE idempotency_key IN (:keys)";
+
+    /**
+     * 실제로 들어간 키만 돌려받는다. 이미 읽은 키는 빠지며, 이를 파일 내 중복으로 본다.
+     * reWriteBatchedInserts가 켜진 드라이버는 배치의 건별 반영 수를 주지 않으므로 반영 수 대신 RETURNING을 쓴다.
+     */
+    private static final String INSERT_SEEN_SQL =
+            "INSERT INTO payment_reconciliation_seen (run_id, idempotency_key) VALUES :rows " +
+            "ON CONFLICT DO NOTHING RETURNING idempotency_key";
+
+    private static final String INSERT_MISMATCH_SQL =
+            "INSERT INTO payment_reconciliation_mismatches (mismatch_id, run_id, mismatch_type, idempotency_key, " +
+            "settled_amount, payment_amount, settled_status, payment_status, detail, created_at) " +
+            "VALUES (nextval('payment_reconciliation_mismatches_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CHECKPOINT_SQL =
+            "UPDATE payment_reconciliation_runs SET byte_offset = :offset, rows_read = rows_read + :rows, " +
+            "mismatch_count = mismatch_count + :mismatches, updated_at = :now WHERE run_id = :runId";
+
+    private static final String INSERT_MISSING_SETTLEMENTS_SQL =
+            "INSERT INTO payment_reconciliation_mismatches (mismatch_id, run_id, mismatch_type, idempotency_key, " +
+            "payment_amount, payment_status, created_at) " +
+            "SELECT nextval('payment_reconciliation_mismatches_seq'), :runId, :type, p.idempotency_key, " +
+            "p.amount, p.status, :now FROM payments p " +
+            "WHERE p.created_at >= :from AND p.created_at < :to AND p.status IN (:statuses) " +
+            "AND NOT EXISTS (SELECT 1 FROM payment_reconciliation_seen s " +
+            "WHERE s.run_id = :runId AND s.idempotency_key = p.idempotency_key)";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE payment_reconciliation_runs SET status = :completed, mismatch_count = mismatch_count + :mismatches, " +
+            "updated_at = :now, finished_at = :now WHERE run_id = :runId";
+
+    private static final String DELETE_SEEN_SQL =
+            "DELETE FROM payment_reconciliation_seen WHERE run_id = :runId";
+
+    private static final String FAIL_SQL =
+            "UPDATE payment_reconciliation_runs SET status = :failed, error_message = :message, updated_at = :now " +
+            "WHERE run_id = :runId";
+
+    private static final String MISMATCH_COLUMNS =
+            "mismatch_id, mismatch_type, idempotency_key, settled_amount, payment_amount, settled_status, " +
+            "payment_status, detail";
+
+    private static final String FIND_MISMATCHES_SQL =
+            "SELECT " + MISMATCH_COLUMNS + " FROM payment_reconciliation_mismatches " +
+            "WHERE run_id = :runId AND mismatch_id > :afterId ORDER BY mismatch_id LIMIT :limit";
+
+    private static final String ALL_MISMATCHES_SQL =
+            "SELECT " + MISMATCH_COLUMNS + " FROM payment_reconciliation_mismatches " +
+            "WHERE run_id = :runId ORDER BY mismatch_id";
+
+    private static final RowMapper<ReconciliationRunResponse> RUN_MAPPER = (rs, rowNum) ->
+            ReconciliationRunResponse.builder()
+                    .runId(rs.getLong("run_id"))
+                    .fileName(rs.getString("file_name"))
+                    .periodFrom(rs.getTimestamp("period_from").toLocalDateTime())
+                    .periodTo(rs.getTimestamp("period_to").toLocalDateTime())
+                    .status(ReconciliationStatus.valueOf(rs.getString("status")))
+                    .byteOffset(rs.getLong("byte_offset"))
+                    .rowsRead(rs.getLong("rows_read"))
+                    .mismatchCount(rs.getLong("mismatch_count"))
+                    .errorMessage(rs.getString("error_message"))
+                    .startedAt(rs.getTimestamp("started_at").toLocalDateTime())
+                    .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                    .finishedAt(toLocalDateTime(rs.getTimestamp("finished_at")))
+                    .build();
+
+    private static final RowMapper<ReconciliationMismatchResponse> MISMATCH_MAPPER = (rs, rowNum) -> {
+        String paymentStatus = rs.getString("payment_status");
+        return ReconciliationMismatchResponse.builder()
+                .mismatchId(rs.getLong("mismatch_id"))
+                .type(ReconciliationMismatchType.valueOf(rs.getString("mismatch_type")))
+                .idempotencyKey(rs.getString("idempotency_key"))
+                .settledAmount(rs.getBigDecimal("settled_amount"))
+                .paymentAmount(rs.getBigDecimal("payment_amount"))
+                .settledStatus(rs.getString("settled_status"))
+                .paymentStatus(paymentStatus != null ? PaymentStatus.valueOf(paymentStatus) : null)
+                .detail(rs.getString("detail"))
+                .build();
+    };
+
+    private static final int REPORT_FETCH_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    /** 보고서 내보내기 전용. fetch size를 줘야 PostgreSQL 드라이버가 결과를 한 번에 메모리로 올리지 않는다. */
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public PaymentReconciliationRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(REPORT_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    public Long createRun(String fileName, LocalDateTime from, LocalDateTime to) {
+        Long runId = jdbcTemplate.getJdbcTemplate()
+                .queryForObject("SELECT nextval('payment_reconciliation_runs_seq')", Long.class);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("runId", runId)
+                .addValue("fileName", fileName)
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to))
+                .addValue("status", ReconciliationStatus.RUNNING.name())
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(INSERT_RUN_SQL, params);
+        return runId;
+    }
+
+    public Optional<ReconciliationRunResponse> findRun(Long runId) {
+        return jdbcTemplate.query(FIND_RUN_SQL, new MapSqlParameterSource("runId", runId), RUN_MAPPER)
+                .stream().findFirst();
+    }
+
+    public boolean existsRunning(String fileName) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fileName", fileName)
+                .addValue("running", ReconciliationStatus.RUNNING.name());
+        Long count = jdbcTemplate.queryForObject(EXISTS_RUNNING_SQL, params, Long.class);
+        return count != null && count > 0;
+    }
+
+    /** 작업을 다시 RUNNING으로 잡는다. 다른 노드가 먼저 잡았거나 재시작할 수 없는 상태면 false. */
+    public boolean claim(Long runId, LocalDateTime staleBefore) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("runId", runId)
+                .addValue("running", ReconciliationStatus.RUNNING.name())
+                .addValue("failed", ReconciliationStatus.FAILED.name())
+                .addValue("staleBefore", Timestamp.valueOf(staleBefore))
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(CLAIM_SQL, params) == 1;
+    }
+
+    /** 멱등성 키로 결제 금액·상태를 한 번에 조회한다. 없는 키는 결과에 포함되지 않는다. */
+    public Map<String, PaymentSnapshot> findPayments(Collection<String> idempotencyKeys) {
+        Map<String, PaymentSnapshot> payments = new HashMap<>(idempotencyKeys.size() * 2);
+        jdbcTemplate.query(FIND_PAYMENTS_SQL, new MapSqlParameterSource("keys", idempotencyKeys), rs -> {
+            payments.put(rs.getString("idempotency_key"), new PaymentSnapshot(
+                    rs.getBigDecimal("amount"), PaymentStatus.valueOf(rs.getString("status"))));
+        });
+        return payments;
+    }
+
+    /**
+     * 읽은 키를 한 문장으로 기록하고, 이번에 처음 기록된 키를 돌려준다. 결과에 없는 키는 이 작업에서 이미 읽은 키다.
+     *
+     * @param idempotencyKeys 중복 없는 키 목록
+     */
+    public Set<String> markSeen(Long runId, Collection<String> idempotencyKeys) {
+        List<Object[]> rows = idempotencyKeys.stream()
+                .map(key -> new Object[]{runId, key})
+                .toList();
+        return new HashSet<>(jdbcTemplate.queryForList(INSERT_SEEN_SQL,
+                new MapSqlParameterSource("rows", rows), String.class));
+    }
+
+    public void insertMismatches(Long runId, List<ReconciliationMismatchResponse> mismatches) {
+        if (mismatches.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = mismatches.stream()
+                .map(m -> new Object[]{runId, m.getType().name(), m.getIdempotencyKey(), m.getSettledAmount(),
+                        m.getPaymentAmount(), truncate(m.getSettledStatus(), 30),
+                        m.getPaymentStatus() != null ? m.getPaymentStatus().name() : null,
+                        truncate(m.getDetail(), 255), now})
+                .toList();
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_MISMATCH_SQL, args);
+    }
+
+    public void checkpoint(Long runId, long byteOffset, int rows, int mismatches) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("runId", runId)
+                .addValue("offset", byteOffset)
+                .addValue("rows", rows)
+                .addValue("mismatches", mismatches)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(CHECKPOINT_SQL, params);
+    }
+
+    /** 정산 기간에 생성된 결제 중 이 작업에서 읽지 않은 결제를 MISSING_SETTLEMENT로 한 번에 적재한다. */
+    public int insertMissingSettlements(Long runId, LocalDateTime from, LocalDateTime to,
+                                       Collection<PaymentStatus> settledStatuses) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("runId", runId)
+                .addValue("type", ReconciliationMismatchType.MISSING_SETTLEMENT.name())
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to))
+                .addValue("statuses", settledStatuses.stream().map(Enum::name).toList())
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(INSERT_MISSING_SETTLEMENTS_SQL, params);
+    }
+
+    public void complete(Long runId, int mismatches) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("runId", runId)
+                .addValue("completed", ReconciliationStatus.COMPLETED.name())
+                .addValue("mismatches", mismatches)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(COMPLETE_SQL, params);
+    }
+
+    public void deleteSeen(Long runId) {
+        jdbcTemplate.update(DELETE_SEEN_SQL, new MapSqlParameterSource("runId", runId));
+    }
+
+    public void fail(Long runId, String message) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("runId", runId)
+                .addValue("failed", ReconciliationStatus.FAILED.name())
+                .addValue("message", truncate(message, 500))
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(FAIL_SQL, params);
+    }
+
+    public List<ReconciliationMismatchResponse> findMismatches(Long runId, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("runId", runId)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(FIND_MISMATCHES_SQL, params, MISMATCH_MAPPER);
+    }
+
+    /** 보고서 내보내기용. 결과를 모으지 않고 한 행씩 넘기며, 커서로 읽도록 읽기 전용 트랜잭션 안에서 호출한다. */
+    public void forEachMismatch(Long runId, Consumer<ReconciliationMismatchResponse> consumer) {
+        streamingJdbcTemplate.query(ALL_MISMATCHES_SQL, new MapSqlParameterSource("runId", runId),
+                rs -> {
+                    consumer.accept(MISMATCH_MAPPER.mapRow(rs, 0));
+                });
+    }
+
+    /** 정산 파일에서 온 문자열은 길이를 믿을 수 없으므로 열 크기에 맞춰 자른다. */
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    public record PaymentSnapshot(BigDecimal amount, PaymentStatus status) {
+    }
+}
@@ -5,7 +5,12 @@ import com.hsj.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+
 public interface ProductRepositoryCustom {
 
-    Page<Product> searchProducts(ProductSearchCondition condition, Pageable pageable);
+    /**
+     * @param soldOutIds inStock 필터에서 제외할 품절 상품 ID. null이면 products.stock_quantity로 거른다.
+     */
+    Page<Product> searchProducts(ProductSearchCondition condition, Collection<Long> soldOutIds, Pageable pageable);
 }
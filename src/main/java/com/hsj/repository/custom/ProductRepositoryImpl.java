@@ -5,6 +5,7 @@ import com.hsj.entity.Product;
 import com.hsj.entity.QProduct;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +15,7 @@ import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,7 +25,8 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
     private final JPAQueryFactory queryFactory;
 
     @Override
-    public Page<Product> searchProducts(ProductSearchCondition condition, Pageable pageable) {
+    public Page<Product> searchProducts(ProductSearchCondition condition, Collection<Long> soldOutIds,
+                                        Pageable pageable) {
         QProduct product = QProduct.product;
 
         BooleanBuilder builder = new BooleanBuilder();
@@ -49,7 +52,7 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
         }
 
         if (condition.getInStock() != null && condition.getInStock()) {
-            builder.and(product.stockQuantity.gt(0));
+            builder.and(inStock(product, soldOutIds));
         }
 
         OrderSpecifier<?> orderSpecifier = resolveOrder(product, condition);
@@ -71,6 +74,18 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
         return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
     }
 
+    /**
+     * 호출자가 품절 상품 ID를 넘기면 그 ID만 제외해 재고 컬럼을 조건에서 뺀다.
+     * 품절 상품은 보통 소수이므로 NOT IN 목록이 작고, 재고 변경으로 목록 쿼리 계획이 흔들리지 않는다.
+     * null이면 재고 컬럼으로 거른다.
+     */
+    private BooleanExpression inStock(QProduct product, Collection<Long> soldOutIds) {
+        if (soldOutIds == null) {
+            return product.stockQuantity.gt(0);
+        }
+        return soldOutIds.isEmpty() ? null : product.id.notIn(soldOutIds);
+    }
+
     private OrderSpecifier<?> resolveOrder(QProduct product, ProductSearchCondition condition) {
         String sortBy = condition.getSortBy();
         boolean asc = "asc".equalsIgnoreCase(condition.getSortDirection());
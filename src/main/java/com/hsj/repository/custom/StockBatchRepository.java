@@ -0,0 +1,48 @@
+package com.hsj.repository.custom;
+
+import com.hsj.dto.stock.StockDeduction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 여러 상품의 재고를 조건부 UPDATE 배치 한 번으로 갱신한다.
+ * 현재 트랜잭션의 커넥션을 사용하므로 호출자의 트랜잭션 경계 안에서 원자적으로 반영된다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockBatchRepository {
+
+    private static final String DEDUCT_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, version = version + 1, updated_at = ? " +
+            "WHERE product_id = ? AND stock_quantity >= ? AND is_deleted = false";
+
+    private static final String RESTORE_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ?, version = version + 1, updated_at = ? " +
+            "WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return 항목별 갱신 행 수. 0이면 재고 부족이거나 존재하지 않는 상품이다.
+     */
+    public int[] deductAll(List<StockDeduction> deductions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = deductions.stream()
+                .map(d -> new Object[]{d.quantity(), now, d.productId(), d.quantity()})
+                .toList();
+        return jdbcTemplate.batchUpdate(DEDUCT_SQL, args);
+    }
+
+    public int[] restoreAll(List<StockDeduction> deductions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = deductions.stream()
+                .map(d -> new Object[]{d.quantity(), now, d.productId()})
+                .toList();
+        return jdbcTemplate.batchUpdate(RESTORE_SQL, args);
+    }
+}
@@ -0,0 +1,46 @@
+package com.hsj.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 청크 단위 일괄 처리의 결과 누적. 실패 목록은 응답 크기를 제한하기 위해 상한까지만 담고,
+ * 전체 실패 건수는 따로 센다.
+ *
+ * @param <F> 응답에 담을 실패 항목 타입
+ */
+final class BulkReport<F> {
+
+    private final int maxFailures;
+    private final List<F> failures = new ArrayList<>();
+    private int succeeded;
+    private int failed;
+
+    BulkReport(int maxFailures) {
+        this.maxFailures = maxFailures;
+    }
+
+    void succeed(int count) {
+        succeeded += count;
+    }
+
+    void fail(F failure) {
+        failed++;
+        if (failures.size() < maxFailures) {
+            failures.add(failure);
+        }
+    }
+
+    int succeeded() {
+        return succeeded;
+    }
+
+    int failed() {
+        return failed;
+    }
+
+    List<F> failures() {
+        return Collections.unmodifiableList(failures);
+    }
+}
@@ -4,11 +4,13 @@ import com.hsj.dto.event.EventLogRequest;
 import com.hsj.entity.EventLog;
 import com.hsj.entity.enums.EventType;
 import com.hsj.repository.EventLogRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -17,33 +19,53 @@ import java.util.List;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class EventLogService {
 
     private final EventLogRepository eventLogRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public EventLogService(EventLogRepository eventLogRepository, PlatformTransactionManager transactionManager) {
+        this.eventLogRepository = eventLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Async("eventLogExecutor")
     @Transactional
     public void logEvent(EventLogRequest request, Long memberId, String ipAddress, String userAgent) {
-        EventLog eventLog = EventLog.builder()
-                .eventType(request.getEventType())
-                .memberId(memberId)
-                .sessionId(request.getSessionId())
-                .pageUrl(request.getPageUrl())
-                .referrerUrl(request.getReferrerUrl())
-                .targetId(request.getTargetId())
-                .targetType(request.getTargetType())
-                .metadata(request.getMetadata())
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .durationMs(request.getDurationMs())
-                .build();
-
-        eventLogRepository.save(eventLog);
+        eventLogRepository.save(toEventLog(request, memberId, ipAddress, userAgent));
         log.debug("이벤트 로그 저장: type={}, memberId={}, target={}",
                 request.getEventType(), memberId, request.getTargetId());
     }
 
+    /**
+     * 여러 이벤트를 한 트랜잭션에서 저장한다. 시퀀스 ID와 JDBC 배치 덕분에 INSERT가 batch_size 단위로 묶인다.
+     * 한 건 때문에 배치가 실패하면 이벤트마다 따로 저장해, 건별로 저장하던 때처럼 나머지 이벤트는 남긴다.
+     */
+    @Async("eventLogExecutor")
+    public void logEvents(List<EventLogRequest> requests, Long memberId, String ipAddress, String userAgent) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> eventLogRepository.saveAll(requests.stream()
+                    .map(request -> toEventLog(request, memberId, ipAddress, userAgent))
+                    .toList()));
+            log.debug("이벤트 로그 일괄 저장: {}건, memberId={}", requests.size(), memberId);
+        } catch (DataAccessException e) {
+            log.warn("이벤트 로그 일괄 저장 실패, 건별 저장으로 전환: {}건, error={}", requests.size(), e.getMessage());
+            for (EventLogRequest request : requests) {
+                logEachInOwnTransaction(request, memberId, ipAddress, userAgent);
+            }
+        }
+    }
+
+    private void logEachInOwnTransaction(EventLogRequest request, Long memberId, String ipAddress, String userAgent) {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> eventLogRepository.save(toEventLog(request, memberId, ipAddress, userAgent)));
+        } catch (DataAccessException e) {
+            log.warn("이벤트 로그 저장 실패: type={}, target={}, error={}",
+                    request.getEventType(), request.getTargetId(), e.getMessage());
+        }
+    }
+
     @Async("eventLogExecutor")
     @Transactional
     public void logPageView(Long memberId, String pageUrl, String sessionId,
@@ -88,4 +110,20 @@ public class EventLogService {
         LocalDateTime end = to.atTime(LocalTime.MAX);
         return eventLogRepository.findByEventTypeAndCreatedAtBetween(type, start, end);
     }
+
+    private EventLog toEventLog(EventLogRequest request, Long memberId, String ipAddress, String userAgent) {
+        return EventLog.builder()
+                .eventType(request.getEventType())
+                .memberId(memberId)
+                .sessionId(request.getSessionId())
+                .pageUrl(request.getPageUrl())
+                .referrerUrl(request.getReferrerUrl())
+                .targetId(request.getTargetId())
+                .targetType(request.getTargetType())
+                .metadata(request.getMetadata())
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .durationMs(request.getDurationMs())
+                .build();
+    }
 }
@@ -0,0 +1,167 @@
+package com.hsj.service;
+
+import com.hsj.dto.order.OrderBulkStatusChangeRequest;
+import com.hsj.dto.order.OrderBulkStatusChangeResponse;
+import com.hsj.dto.order.OrderBulkStatusChangeResponse.Failure;
+import com.hsj.dto.order.OrderHistoryEntry;
+import com.hsj.dto.outbox.OrderStatusChangedPayload;
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import com.hsj.repository.custom.OrderBulkRepository;
+import com.hsj.service.order.OrderDetailCache;
+import com.hsj.service.order.OrderHistoryRecorder;
+import com.hsj.service.outbox.OutboxWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 출고 담당자용 주문 일괄 상태 변경.
+ * 주문을 청크로 나눠 청크마다 별도 트랜잭션에서 행 잠금 조회 → 메모리 전이 검증 → 집합 UPDATE → 이력 배치 INSERT를 수행한다.
+ * 한 청크가 실패해도 이미 커밋된 청크는 유지되고, 실패한 주문은 사유와 함께 결과에 담긴다.
+ * <p>
+ * 재고·결제 부수효과가 없는 출고 흐름(PREPARING/SHIPPED/DELIVERED)만 지원한다.
+ * 결제 확정·취소·환불은 {@link OrderService}의 단건 경로를 거쳐야 한다.
+ */
+@Slf4j
+@Service
+public class OrderBulkStatusService {
+
+    /** 목표 주문 상태별로 함께 옮길 아이템의 이전 상태. */
+    private static final Map<OrderStatus, OrderItemStatus> ITEM_SOURCE = Map.of(
+            OrderStatus.PREPARING, OrderItemStatus.PAID,
+            OrderStatus.SHIPPED, OrderItemStatus.PREPARING,
+            OrderStatus.DELIVERED, OrderItemStatus.SHIPPED);
+
+    private final OrderBulkRepository orderBulkRepository;
+    private final OutboxWriter outboxWriter;
+    private final OrderHistoryRecorder orderHistoryRecorder;
+    private final OrderDetailCache orderDetailCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    public OrderBulkStatusService(OrderBulkRepository orderBulkRepository,
+                                  OutboxWriter outboxWriter,
+                                  OrderHistoryRecorder orderHistoryRecorder,
+                                  OrderDetailCache orderDetailCache,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${order.bulk.chunk-size:1000}") int chunkSize,
+                                  @Value("${order.bulk.max-reported-failures:1000}") int maxReportedFailures) {
+        this.orderBulkRepository = orderBulkRepository;
+        this.outboxWriter = outboxWriter;
+        this.orderHistoryRecorder = orderHistoryRecorder;
+        this.orderDetailCache = orderDetailCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    public OrderBulkStatusChangeResponse changeStatus(OrderBulkStatusChangeRequest request, String changedBy) {
+        OrderStatus target = request.getStatus();
+        if (!ITEM_SOURCE.containsKey(target)) {
+            throw new BusinessException(ErrorCode.INVALID_ORDER_STATUS,
+                    "일괄 변경은 PREPARING, SHIPPED, DELIVERED 상태만 지원합니다: " + target);
+        }
+
+        boolean byIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty();
+        if (byIds == (request.getCurrentStatus() != null)) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT, "orderIds와 currentStatus 중 하나만 지정해야 합니다.");
+        }
+
+        BulkReport<Failure> report = new BulkReport<>(maxReportedFailures);
+        if (byIds) {
+            List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()));
+            for (int from = 0; from < orderIds.size(); from += chunkSize) {
+                List<Long> chunk = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+                applyChunk(chunk, target, request.getReason(), changedBy, report);
+            }
+        } else {
+            OrderStatus current = request.getCurrentStatus();
+            if (!current.canTransitionTo(target)) {
+                throw new BusinessException(ErrorCode.INVALID_ORDER_STATUS,
+                        String.format("상태 전이 불가: %s → %s", current, target));
+            }
+            // 처리된 주문은 상태가 바뀌어 빠지지만, 실패한 청크가 다시 잡히지 않도록 ID로 seek한다.
+            long afterId = 0;
+            List<Long> chunk;
+            while (!(chunk = orderBulkRepository.findIdsByStatus(current, afterId, chunkSize)).isEmpty()) {
+                applyChunk(chunk, target, request.getReason(), changedBy, report);
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        }
+
+        log.info("주문 일괄 상태 변경 완료: → {}, 성공={}, 실패={}, by={}",
+                target, report.succeeded(), report.failed(), changedBy);
+        return OrderBulkStatusChangeResponse.builder()
+                .succeededCount(report.succeeded())
+                .failedCount(report.failed())
+                .failures(report.failures())
+                .build();
+    }
+
+    private void applyChunk(List<Long> orderIds, OrderStatus target, String reason, String changedBy,
+                            BulkReport<Failure> report) {
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> transition(orderIds, target, reason, changedBy));
+            report.succeed(result.succeeded());
+            result.failures().forEach(report::fail);
+        } catch (DataAccessException e) {
+            log.error("주문 일괄 상태 변경 청크 실패: {}건, 첫 주문={}", orderIds.size(), orderIds.get(0), e);
+            orderIds.forEach(id -> report.fail(new Failure(id, "처리 중 오류가 발생했습니다.")));
+        }
+    }
+
+    private ChunkResult transition(List<Long> orderIds, OrderStatus target, String reason, String changedBy) {
+        Map<Long, OrderStatus> current = orderBulkRepository.lockStatuses(orderIds);
+
+        Map<Long, OrderStatus> eligible = new LinkedHashMap<>();
+        List<Failure> failures = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            OrderStatus status = current.get(orderId);
+            if (status == null) {
+                failures.add(new Failure(orderId, ErrorCode.ORDER_NOT_FOUND.getMessage()));
+            } else if (!status.canTransitionTo(target)) {
+                failures.add(new Failure(orderId, String.format("상태 전이 불가: %s → %s", status, target)));
+            } else {
+                eligible.put(orderId, status);
+            }
+        }
+
+        if (!eligible.isEmpty()) {
+            orderBulkRepository.updateOrderStatus(eligible.keySet(), target);
+            orderBulkRepository.updateItemStatus(eligible.keySet(),
+                    ITEM_SOURCE.get(target), OrderItemStatus.valueOf(target.name()));
+
+            LocalDateTime now = LocalDateTime.now();
+            List<OrderHistoryEntry> histories = new ArrayList<>(eligible.size());
+            Map<Long, OrderStatusChangedPayload> events = new LinkedHashMap<>(eligible.size() * 2);
+            eligible.forEach((orderId, previous) -> {
+                histories.add(new OrderHistoryEntry(orderId, previous, target, reason, changedBy, now));
+                events.put(orderId, new OrderStatusChangedPayload(previous, target, reason, changedBy));
+            });
+            orderHistoryRecorder.recordAll(histories);
+            outboxWriter.appendAll(OutboxEventType.ORDER_STATUS_CHANGED, events);
+            orderDetailCache.evictAfterCommit(eligible.keySet());
+        }
+        return new ChunkResult(eligible.size(), failures);
+    }
+
+    private record ChunkResult(int succeeded, List<Failure> failures) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.hsj.service;
+
+import com.hsj.dto.order.OrderHistoryEntry;
+import com.hsj.dto.order.OrderItemBulkCancelRequest;
+import com.hsj.dto.order.OrderItemBulkCancelResponse;
+import com.hsj.dto.order.OrderItemBulkCancelResponse.Failure;
+import com.hsj.dto.outbox.OrderItemCancelledPayload;
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import com.hsj.exception.NotFoundException;
+import com.hsj.repository.custom.OrderItemCancelRepository;
+import com.hsj.repository.custom.OrderItemCancelRepository.LockedItem;
+import com.hsj.service.order.OrderDetailCache;
+import com.hsj.service.order.OrderHistoryRecorder;
+import com.hsj.service.outbox.OutboxWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 주문 아이템 부분 취소. 주문 엔티티 그래프를 로딩하지 않고 아이템 ID로 바로 잠근 뒤,
+ * 아이템 상태 UPDATE 1회 + 주문별 금액 차감 배치 1회 + 재고 복원 배치 + 이력/아웃박스 배치를 한 트랜잭션에서 처리한다.
+ * <p>
+ * 주문 금액은 다시 합산하지 않고 취소된 아이템의 소계(센트)만 total_amount에서 뺀다.
+ * 단건 취소는 호출자 트랜잭션에 참여하고, 반품 처리용 다건 취소는 청크마다 별도 트랜잭션으로 나눈다.
+ */
+@Slf4j
+@Service
+public class OrderItemCancelService {
+
+    private final OrderItemCancelRepository orderItemCancelRepository;
+    private final StockService stockService;
+    private final OrderHistoryRecorder orderHistoryRecorder;
+    private final OutboxWriter outboxWriter;
+    private final OrderDetailCache orderDetailCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    public OrderItemCancelService(OrderItemCancelRepository orderItemCancelRepository,
+                                  StockService stockService,
+                                  OrderHistoryRecorder orderHistoryRecorder,
+                                  OutboxWriter outboxWriter,
+                                  OrderDetailCache orderDetailCache,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${order.item-cancel.chunk-size:1000}") int chunkSize,
+                                  @Value("${order.item-cancel.max-reported-failures:1000}") int maxReportedFailures) {
+        this.orderItemCancelRepository = orderItemCancelRepository;
+        this.stockService = stockService;
+        this.orderHistoryRecorder = orderHistoryRecorder;
+        this.outboxWriter = outboxWriter;
+        this.orderDetailCache = orderDetailCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    /**
+     * 주문 아이템 한 건을 취소한다. 주문에 속하지 않거나 취소할 수 없는 상태면 예외를 던진다.
+     */
+    @Transactional
+    public void cancel(Long orderId, Long orderItemId, String reason, String cancelledBy) {
+        LockedItem item = orderItemCancelRepository.lockItems(List.of(orderItemId)).stream()
+                .filter(locked -> locked.orderId().equals(orderId))
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ORDER_ITEM_NOT_FOUND));
+
+        if (!item.status().canTransitionTo(OrderItemStatus.CANCELLED)) {
+            throw new BusinessException(ErrorCode.INVALID_ORDER_STATUS,
+                    "취소할 수 없는 주문 아이템 상태입니다: " + item.status());
+        }
+        apply(List.of(item), reason, cancelledBy);
+    }
+
+    /**
+     * 반품 처리용 일괄 취소. 한 청크가 실패해도 이미 커밋된 청크는 유지되고, 실패한 아이템은 사유와 함께 결과에 담긴다.
+     */
+    public OrderItemBulkCancelResponse cancelAll(OrderItemBulkCancelRequest request, String cancelledBy) {
+        List<Long> itemIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderItemIds()));
+        BulkReport<Failure> report = new BulkReport<>(maxReportedFailures);
+        for (int from = 0; from < itemIds.size(); from += chunkSize) {
+            List<Long> chunk = itemIds.subList(from, Math.min(from + chunkSize, itemIds.size()));
+            applyChunk(chunk, request.getReason(), cancelledBy, report);
+        }
+
+        log.info("주문 아이템 일괄 취소 완료: 성공={}, 실패={}, by={}", report.succeeded(), report.failed(), cancelledBy);
+        return OrderItemBulkCancelResponse.builder()
+                .succeededCount(report.succeeded())
+                .failedCount(report.failed())
+                .failures(report.failures())
+                .build();
+    }
+
+    private void applyChunk(List<Long> itemIds, String reason, String cancelledBy, BulkReport<Failure> report) {
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> cancelChunk(itemIds, reason, cancelledBy));
+            report.succeed(result.succeeded());
+            result.failures().forEach(report::fail);
+        } catch (DataAccessException e) {
+            log.error("주문 아이템 일괄 취소 청크 실패: {}건, 첫 아이템={}", itemIds.size(), itemIds.get(0), e);
+            itemIds.forEach(id -> report.fail(new Failure(id, "처리 중 오류가 발생했습니다.")));
+        }
+    }
+
+    private ChunkResult cancelChunk(List<Long> itemIds, String reason, String cancelledBy) {
+        Map<Long, LockedItem> locked = orderItemCancelRepository.lockItems(itemIds).stream()
+                .collect(Collectors.toMap(LockedItem::orderItemId, Function.identity()));
+
+        List<LockedItem> eligible = new ArrayList<>(locked.size());
+        List<Failure> failures = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            LockedItem item = locked.get(itemId);
+            if (item == null) {
+                failures.add(new Failure(itemId, ErrorCode.ORDER_ITEM_NOT_FOUND.getMessage()));
+            } else if (!item.status().canTransitionTo(OrderItemStatus.CANCELLED)) {
+                failures.add(new Failure(itemId, "취소할 수 없는 주문 아이템 상태입니다: " + item.status()));
+            } else {
+                eligible.add(item);
+            }
+        }
+
+        if (!eligible.isEmpty()) {
+            apply(eligible, reason, cancelledBy);
+        }
+        return new ChunkResult(eligible.size(), failures);
+    }
+
+    private void apply(List<LockedItem> items, String reason, String cancelledBy) {
+        orderItemCancelRepository.cancelItems(items.stream().map(LockedItem::orderItemId).toList());
+
+        Map<Long, Long> cancelledCents = new LinkedHashMap<>();
+        List<StockDeduction> reserved = new ArrayList<>();
+        List<StockDeduction> sold = new ArrayList<>();
+        for (LockedItem item : items) {
+            cancelledCents.merge(item.orderId(), item.subtotalCents(), Math::addExact);
+            StockDeduction deduction = new StockDeduction(item.productId(), item.quantity());
+            if (item.status() == OrderItemStatus.PENDING_PAYMENT) {
+                reserved.add(deduction);
+            } else {
+                sold.add(deduction);
+            }
+        }
+        orderItemCancelRepository.subtractTotals(cancelledCents);
+
+        // 결제 전 아이템은 예약분을, 결제된 아이템은 판매분을 되돌린다.
+        // 아이템 상태와 같은 트랜잭션에서 되돌려야 롤백 후 다시 취소해도 재고가 두 번 돌아오지 않는다.
+        if (!reserved.isEmpty()) {
+            stockService.releaseAllInTransaction(reserved);
+        }
+        if (!sold.isEmpty()) {
+            stockService.restoreAllInTransaction(sold);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Long> remainingCents = new HashMap<>();
+        List<OrderHistoryEntry> histories = new ArrayList<>(items.size());
+        List<Map.Entry<Long, OrderItemCancelledPayload>> events = new ArrayList<>(items.size());
+        for (LockedItem item : items) {
+            long remaining = remainingCents.merge(item.orderId(), item.orderTotalCents() - item.subtotalCents(),
+                    (previous, ignored) -> previous - item.subtotalCents());
+            histories.add(new OrderHistoryEntry(item.orderId(), item.orderStatus(), item.orderStatus(),
+                    OrderHistoryRecorder.itemCancelReason(item.productName(), reason), cancelledBy, now));
+            events.add(Map.entry(item.orderId(), new OrderItemCancelledPayload(item.orderItemId(), item.productId(),
+                    item.productName(), item.quantity(), OrderItemCancelRepository.fromCents(remaining),
+                    item.orderStatus(), reason, cancelledBy)));
+        }
+        orderHistoryRecorder.recordAll(histories);
+        outboxWriter.appendAll(OutboxEventType.ORDER_ITEM_CANCELLED, events);
+        orderDetailCache.evictAfterCommit(cancelledCents.keySet());
+
+        log.info("주문 아이템 취소: {}건, 주문 {}건", items.size(), cancelledCents.size());
+    }
+
+    private record ChunkResult(int succeeded, List<Failure> failures) {
+    }
+}
@@ -1,24 +1,43 @@
 package com.hsj.service;
 
+import com.hsj.dto.common.CursorResponse;
 import com.hsj.dto.common.PageResponse;
 import com.hsj.dto.order.*;
+import com.hsj.dto.outbox.OrderCreatedPayload;
+import com.hsj.dto.outbox.OrderStatusChangedPayload;
+import com.hsj.dto.stock.StockDeduction;
 import com.hsj.entity.*;
 import com.hsj.entity.enums.OrderItemStatus;
 import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
 import com.hsj.entity.enums.PaymentStatus;
 import com.hsj.exception.BusinessException;
 import com.hsj.exception.ErrorCode;
 import com.hsj.exception.NotFoundException;
 import com.hsj.repository.*;
+import com.hsj.repository.custom.OrderArchiveRepository;
+import com.hsj.repository.custom.OrderQueryRepository;
+import com.hsj.service.order.OrderDetailCache;
+import com.hsj.service.order.OrderHistoryRecorder;
+import com.hsj.service.order.OrderNumberGenerator;
+import com.hsj.service.outbox.OutboxWriter;
+import com.hsj.service.stock.StockHoldRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -28,11 +47,18 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final OrderHistoryRepository orderHistoryRepository;
+    private final OrderHistoryRecorder orderHistoryRecorder;
     private final ProductRepository productRepository;
     private final MemberRepository memberRepository;
     private final PaymentRepository paymentRepository;
     private final StockService stockService;
+    private final StockHoldRegistry stockHoldRegistry;
+    private final OrderQueryRepository orderQueryRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderDetailCache orderDetailCache;
+    private final OrderItemCancelService orderItemCancelService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OutboxWriter outboxWriter;
 
     @Transactional
     public OrderResponse createOrder(Long memberId, OrderCreateRequest request) {
@@ -45,21 +71,31 @@ public class OrderService {
         }
 
         Order order = Order.builder()
+                .orderNumber(orderNumberGenerator.next())
                 .member(member)
                 .shippingAddress(request.getShippingAddress())
                 .receiverName(request.getReceiverName())
                 .receiverPhone(request.getReceiverPhone())
                 .build();
 
-        List<StockDeduction> deducted = new ArrayList<>();
+        List<StockDeduction> deductions = request.getItems().stream()
+                .map(itemReq -> new StockDeduction(itemReq.getProductId(), itemReq.getQuantity()))
+                .toList();
+
+        // 장바구니 전체를 한 번에 예약한다. 실패하면 아무것도 차감되지 않는다.
+        stockService.reserveAll(deductions);
 
+        Order saved;
         try {
-            for (OrderCreateRequest.OrderItemRequest itemReq : request.getItems()) {
-                stockService.deductStock(itemReq.getProductId(), itemReq.getQuantity());
-                deducted.add(new StockDeduction(itemReq.getProductId(), itemReq.getQuantity()));
+            Map<Long, Product> products = productRepository.findByIdInAndDeletedFalse(
+                            deductions.stream().map(StockDeduction::productId).toList()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
 
-                Product product = productRepository.findByIdAndDeletedFalse(itemReq.getProductId())
-                        .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+            for (OrderCreateRequest.OrderItemRequest itemReq : request.getItems()) {
+                Product product = products.get(itemReq.getProductId());
+                if (product == null) {
+                    throw new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND);
+                }
 
                 OrderItem orderItem = OrderItem.builder()
                         .product(product)
@@ -68,17 +104,21 @@ public class OrderService {
 
                 order.addOrderItem(orderItem);
             }
-        } catch (Exception e) {
-            rollbackStock(deducted);
+
+            saved = orderRepository.save(order);
+
+            orderHistoryRecorder.recordCreated(saved, member.getEmail());
+            outboxWriter.append(OutboxEventType.ORDER_CREATED, saved.getId(),
+                    OrderCreatedPayload.from(saved, member.getEmail()));
+
+            // 시퀀스 ID라 INSERT가 커밋까지 미뤄지므로, 제약 위반이 이 안에서 드러나 예약이 복원되도록 미리 보낸다.
+            orderRepository.flush();
+        } catch (RuntimeException e) {
+            releaseStock(deductions);
             throw e;
         }
 
-        Order saved = orderRepository.save(order);
-
-        orderHistoryRepository.save(
-                OrderHistory.record(saved, null, OrderStatus.PENDING_PAYMENT,
-                        "주문 생성", member.getEmail())
-        );
+        holdAfterCommit(saved.getId(), deductions);
 
         log.info("주문 생성 완료: orderId={}, orderNumber={}, memberId={}, totalAmount={}",
                 saved.getId(), saved.getOrderNumber(), memberId, saved.getTotalAmount());
@@ -86,32 +126,77 @@ public class OrderService {
         return OrderResponse.from(saved);
     }
 
+    /**
+     * 조회 전용 경로. 캐시에 없을 때만 주문 엔티티를 로딩하지 않고 헤더/아이템 쿼리 두 번으로 응답을 만든다.
+     * 캐시 적중 시 커넥션도 잡지 않도록 트랜잭션을 새로 열지 않는다. 원본에 없으면 보관 테이블을 찾는다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public OrderResponse getOrder(Long orderId) {
-        Order order = findOrderOrThrow(orderId);
-        return OrderResponse.from(order);
+        return orderDetailCache.get(orderId, id -> orderQueryRepository.findById(id)
+                .or(() -> orderArchiveRepository.findById(id))
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ORDER_NOT_FOUND)));
+    }
+
+    /** 캐시된 응답의 memberId로 소유자를 확인하므로 캐시 적중 시 쿼리가 없다. */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OrderResponse getOrderForMember(Long orderId, Long memberId) {
+        OrderResponse response = getOrder(orderId);
+        if (!response.getMemberId().equals(memberId)) {
+            throw new BusinessException(ErrorCode.ACCESS_DENIED, "본인의 주문만 접근할 수 있습니다.");
+        }
+        return response;
     }
 
     public OrderResponse getOrderByNumber(String orderNumber) {
-        Order order = orderRepository.findByOrderNumberAndDeletedFalse(orderNumber)
+        return orderQueryRepository.findByOrderNumber(orderNumber)
+                .or(() -> orderArchiveRepository.findByOrderNumber(orderNumber))
                 .orElseThrow(() -> new NotFoundException(ErrorCode.ORDER_NOT_FOUND));
-        return OrderResponse.from(order);
     }
 
+    /** 페이지의 아이템은 주문 ID IN 조회 한 번으로 모아 온다. */
     public PageResponse<OrderResponse> getMyOrders(Long memberId, Pageable pageable) {
-        Page<OrderResponse> page = orderRepository.findByMemberIdAndDeletedFalse(memberId, pageable)
-                .map(OrderResponse::from);
-        return PageResponse.from(page);
+        return PageResponse.from(orderQueryRepository.findByMemberId(memberId, pageable));
+    }
+
+    /** 내 주문 커서 조회. count 없이 (created_at, order_id) 기준으로 이어서 읽는다. */
+    public CursorResponse<OrderResponse> getMyOrdersByCursor(Long memberId, String cursor, int size) {
+        OrderCursor decoded = OrderCursor.decode(cursor);
+        List<OrderResponse> fetched = orderQueryRepository.findByMemberIdBefore(memberId, decoded, size);
+        if (reachesArchive(fetched, size)) {
+            fetched = mergeNewestFirst(fetched, orderArchiveRepository.findByMemberIdBefore(memberId, decoded, size), size);
+        }
+        return CursorResponse.of(fetched, size, order -> OrderCursor.of(order).encode());
+    }
+
+    /** 관리자 주문 목록 커서 조회. status가 null이면 전체 상태를 조회한다. */
+    public CursorResponse<OrderResponse> getOrdersByCursor(OrderStatus status, String cursor, int size) {
+        OrderCursor decoded = OrderCursor.decode(cursor);
+        List<OrderResponse> fetched = orderQueryRepository.findAllBefore(status, decoded, size);
+        if (reachesArchive(fetched, size)) {
+            fetched = mergeNewestFirst(fetched, orderArchiveRepository.findAllBefore(status, decoded, size), size);
+        }
+        return CursorResponse.of(fetched, size, order -> OrderCursor.of(order).encode());
     }
 
     @Transactional
     public OrderResponse changeOrderStatus(Long orderId, OrderStatusChangeRequest request, String changedBy) {
+        if (request.getStatus() == OrderStatus.REFUNDED) {
+            // 환불 완료는 PG 환불과 재고 복원이 끝난 뒤 환불 처리기가 반영한다.
+            throw new BusinessException(ErrorCode.INVALID_ORDER_STATUS,
+                    "환불 완료는 환불 처리기가 반영합니다. REFUND_REQUESTED로 변경하세요.");
+        }
         Order order = findOrderOrThrow(orderId);
         OrderStatus previousStatus = order.getStatus();
 
         order.changeStatus(request.getStatus());
 
         if (request.getStatus() == OrderStatus.PAID) {
-            order.getOrderItems().forEach(item -> item.changeStatus(OrderItemStatus.PAID));
+            // 결제 전에 부분 취소된 아이템은 이미 예약이 풀렸으므로 제외한다.
+            List<OrderItem> pendingItems = order.getOrderItems().stream()
+                    .filter(item -> item.getStatus() == OrderItemStatus.PENDING_PAYMENT)
+                    .toList();
+            pendingItems.forEach(item -> item.changeStatus(OrderItemStatus.PAID));
+            stockService.settleReservations(toDeductions(pendingItems));
         } else if (request.getStatus() == OrderStatus.PREPARING) {
             order.getOrderItems().forEach(item -> {
                 if (item.getStatus() == OrderItemStatus.PAID) {
@@ -130,12 +215,19 @@ public class OrderService {
                     item.changeStatus(OrderItemStatus.DELIVERED);
                 }
             });
+        } else if (request.getStatus() == OrderStatus.REFUND_REQUESTED) {
+            // 재고 복원과 결제 환불은 OrderRefundProcessor가 배치로 처리한다.
+            order.getOrderItems().forEach(item -> {
+                if (item.getStatus().canTransitionTo(OrderItemStatus.REFUND_REQUESTED)) {
+                    item.changeStatus(OrderItemStatus.REFUND_REQUESTED);
+                }
+            });
         }
 
-        orderHistoryRepository.save(
-                OrderHistory.record(order, previousStatus, request.getStatus(),
-                        request.getReason(), changedBy)
-        );
+        orderHistoryRecorder.record(order, previousStatus, request.getStatus(), request.getReason(), changedBy);
+        orderDetailCache.evictAfterCommit(orderId);
+        outboxWriter.append(OutboxEventType.ORDER_STATUS_CHANGED, orderId,
+                new OrderStatusChangedPayload(previousStatus, request.getStatus(), request.getReason(), changedBy));
 
         log.info("주문 상태 변경: orderId={}, {} → {}", orderId, previousStatus, request.getStatus());
         return OrderResponse.from(order);
@@ -149,15 +241,50 @@ public class OrderService {
             throw new BusinessException(ErrorCode.ORDER_NOT_CANCELLABLE);
         }
 
+        boolean holding = order.getStatus() == OrderStatus.PENDING_PAYMENT;
+        cancel(order, reason != null ? reason : "고객 요청 취소", cancelledBy);
+        if (holding) {
+            releaseHold(orderId);
+        }
+        return OrderResponse.from(order);
+    }
+
+    /**
+     * 재고 홀드가 만료된 주문을 자동 취소한다. 그 사이 결제가 끝났거나 이미 취소된 주문은 건드리지 않는다.
+     * 결제 접수와 같은 행 잠금을 잡으므로 둘 중 먼저 잠근 쪽만 상태를 바꾼다. PG 결과를 기다리는 결제가 있으면
+     * 취소하지 않으며, 결제가 실패하면 결제 쪽에서 홀드를 다시 건다.
+     *
+     * @return 취소하고 재고를 되돌렸으면 true
+     */
+    @Transactional
+    public boolean expirePendingOrder(Long orderId) {
+        Order order = orderRepository.findByIdForUpdate(orderId).orElse(null);
+        if (order == null || order.getStatus() != OrderStatus.PENDING_PAYMENT
+                || paymentRepository.existsByOrderIdAndStatus(orderId, PaymentStatus.PENDING)) {
+            return false;
+        }
+        cancel(order, "결제 시간 초과로 자동 취소", "SYSTEM");
+        return true;
+    }
+
+    private void cancel(Order order, String reason, String cancelledBy) {
+        Long orderId = order.getId();
         OrderStatus previousStatus = order.getStatus();
         order.changeStatus(OrderStatus.CANCELLED);
 
+        List<OrderItem> pendingItems = new ArrayList<>();
         for (OrderItem item : order.getOrderItems()) {
             if (item.isCancellable()) {
+                if (item.getStatus() == OrderItemStatus.PENDING_PAYMENT) {
+                    pendingItems.add(item);
+                }
                 item.changeStatus(OrderItemStatus.CANCELLED);
                 stockService.restoreStock(item.getProduct().getId(), item.getQuantity());
             }
         }
+        if (!pendingItems.isEmpty()) {
+            stockService.settleReservations(toDeductions(pendingItems));
+        }
 
         // 결제가 완료된 상태에서 취소하는 경우 결제도 취소 처리
         if (previousStatus == OrderStatus.PAID || previousStatus == OrderStatus.PREPARING) {
@@ -169,75 +296,127 @@ public class OrderService {
             });
         }
 
-        orderHistoryRepository.save(
-                OrderHistory.record(order, previousStatus, OrderStatus.CANCELLED,
-                        reason != null ? reason : "고객 요청 취소", cancelledBy)
-        );
+        orderHistoryRecorder.record(order, previousStatus, OrderStatus.CANCELLED, reason, cancelledBy);
+        orderDetailCache.evictAfterCommit(orderId);
+        outboxWriter.append(OutboxEventType.ORDER_CANCELLED, orderId,
+                new OrderStatusChangedPayload(previousStatus, OrderStatus.CANCELLED, reason, cancelledBy));
 
         log.info("주문 취소 완료: orderId={}, orderNumber={}", orderId, order.getOrderNumber());
-        return OrderResponse.from(order);
     }
 
     @Transactional
     public OrderResponse cancelOrderItem(Long orderId, Long orderItemId, String reason, String cancelledBy) {
-        Order order = findOrderOrThrow(orderId);
-
-        OrderItem target = order.getOrderItems().stream()
-                .filter(item -> item.getId().equals(orderItemId))
-                .findFirst()
-                .orElseThrow(() -> new NotFoundException(ErrorCode.ORDER_ITEM_NOT_FOUND));
-
-        if (!target.isCancellable()) {
-            throw new BusinessException(ErrorCode.INVALID_ORDER_STATUS,
-                    "취소할 수 없는 주문 아이템 상태입니다: " + target.getStatus());
-        }
-
-        target.changeStatus(OrderItemStatus.CANCELLED);
-        stockService.restoreStock(target.getProduct().getId(), target.getQuantity());
-
-        order.calculateTotalAmount();
-
-        orderHistoryRepository.save(
-                OrderHistory.record(order, order.getStatus(), order.getStatus(),
-                        "아이템 부분 취소: " + target.getSnapshotProductName() +
-                                (reason != null ? " - " + reason : ""),
-                        cancelledBy)
-        );
+        orderItemCancelService.cancel(orderId, orderItemId, reason, cancelledBy);
 
         log.info("주문 아이템 취소: orderId={}, orderItemId={}", orderId, orderItemId);
-        return OrderResponse.from(order);
+        return orderQueryRepository.findById(orderId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ORDER_NOT_FOUND));
     }
 
     public List<OrderHistoryResponse> getOrderHistory(Long orderId) {
-        findOrderOrThrow(orderId);
-        return orderHistoryRepository.findByOrderIdOrderByCreatedAtDesc(orderId).stream()
-                .map(OrderHistoryResponse::from)
-                .toList();
+        if (orderRepository.findByIdAndDeletedFalse(orderId).isPresent()) {
+            return orderHistoryRecorder.findByOrderId(orderId);
+        }
+        orderArchiveRepository.findMemberIdById(orderId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ORDER_NOT_FOUND));
+        return orderArchiveRepository.findHistories(orderId);
     }
 
     /** 요청자가 주문 소유자인지 확인한다. 아닐 경우 ACCESS_DENIED 예외를 던진다. */
     public void verifyOwnership(Long orderId, Long memberId) {
-        Order order = findOrderOrThrow(orderId);
-        if (!order.getMember().getId().equals(memberId)) {
+        Long ownerId = orderRepository.findMemberIdById(orderId)
+                .or(() -> orderArchiveRepository.findMemberIdById(orderId))
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ORDER_NOT_FOUND));
+        if (!ownerId.equals(memberId)) {
             throw new BusinessException(ErrorCode.ACCESS_DENIED, "본인의 주문만 접근할 수 있습니다.");
         }
     }
 
+    /**
+     * 보관된 주문은 모두 horizon보다 오래됐으므로, 원본 페이지가 가득 찼고 마지막 주문이 horizon 이후면
+     * 보관 테이블을 읽지 않는다. 최근 주문 목록은 대부분 여기서 끝난다.
+     */
+    private boolean reachesArchive(List<OrderResponse> fetched, int size) {
+        if (!orderArchiveRepository.isEnabled()) {
+            return false;
+        }
+        return fetched.size() <= size
+                || fetched.get(fetched.size() - 1).getCreatedAt().isBefore(orderArchiveRepository.horizon());
+    }
+
+    /** 두 목록을 (created_at, order_id) 내림차순으로 합쳐 size + 1건까지 남긴다. */
+    private static List<OrderResponse> mergeNewestFirst(List<OrderResponse> hot, List<OrderResponse> archived,
+                                                        int size) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        return Stream.concat(hot.stream(), archived.stream())
+                .sorted(Comparator.comparing(OrderResponse::getCreatedAt)
+                        .thenComparing(OrderResponse::getOrderId).reversed())
+                .limit(size + 1L)
+                .toList();
+    }
+
     private Order findOrderOrThrow(Long orderId) {
         return orderRepository.findByIdAndDeletedFalse(orderId)
                 .orElseThrow(() -> new NotFoundException(ErrorCode.ORDER_NOT_FOUND));
     }
 
-    private void rollbackStock(List<StockDeduction> deducted) {
-        for (StockDeduction d : deducted) {
-            try {
-                stockService.restoreStock(d.productId(), d.quantity());
-            } catch (Exception rollbackEx) {
-                log.error("재고 복원 실패: productId={}, quantity={}", d.productId(), d.quantity(), rollbackEx);
+    /**
+     * 주문이 커밋된 뒤에 홀드를 등록한다. 커밋 단계에서 롤백되면 주문이 없으므로 홀드 대신 예약한 재고를 되돌린다.
+     * 트랜잭션 밖에서 호출되면 바로 등록한다.
+     */
+    private void holdAfterCommit(Long orderId, List<StockDeduction> deductions) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registerHold(orderId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                registerHold(orderId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    releaseStock(deductions);
+                }
             }
+        });
+    }
+
+    /**
+     * 결제 대기 동안 재고를 잡아 두는 홀드를 등록한다. 실패해도 주문은 유효하며 자동 만료만 되지 않는다.
+     */
+    private void registerHold(Long orderId) {
+        try {
+            stockHoldRegistry.hold(orderId);
+        } catch (Exception e) {
+            log.error("재고 홀드 등록 실패 (자동 만료 제외): orderId={}", orderId, e);
         }
     }
 
-    private record StockDeduction(Long productId, int quantity) {
+    /** 남은 홀드는 스위퍼가 꺼내더라도 취소된 주문이라 건너뛰므로, 실패는 기록만 한다. */
+    private void releaseHold(Long orderId) {
+        try {
+            stockHoldRegistry.release(orderId);
+        } catch (Exception e) {
+            log.warn("재고 홀드 해제 실패: orderId={}, error={}", orderId, e.getMessage());
+        }
+    }
+
+    private static List<StockDeduction> toDeductions(List<OrderItem> items) {
+        return items.stream()
+                .map(item -> new StockDeduction(item.getProduct().getId(), item.getQuantity()))
+                .toList();
+    }
+
+    private void releaseStock(List<StockDeduction> deductions) {
+        try {
+            stockService.releaseAll(deductions);
+        } catch (Exception releaseEx) {
+            log.error("재고 복원 실패: {}", deductions, releaseEx);
+        }
     }
 }
@@ -1,11 +1,15 @@
 package com.hsj.service;
 
 import com.hsj.dto.order.OrderStatusChangeRequest;
+import com.hsj.dto.outbox.PaymentPayload;
+import com.hsj.dto.payment.PaymentGatewayRequest;
+import com.hsj.dto.payment.PaymentGatewayResult;
 import com.hsj.dto.payment.PaymentRequest;
 import com.hsj.dto.payment.PaymentResponse;
 import com.hsj.entity.Order;
 import com.hsj.entity.Payment;
 import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
 import com.hsj.entity.enums.PaymentStatus;
 import com.hsj.exception.BusinessException;
 import com.hsj.exception.DuplicateException;
@@ -13,39 +17,128 @@ import com.hsj.exception.ErrorCode;
 import com.hsj.exception.NotFoundException;
 import com.hsj.repository.OrderRepository;
 import com.hsj.repository.PaymentRepository;
-import lombok.RequiredArgsConstructor;
+import com.hsj.service.outbox.OutboxWriter;
+import com.hsj.service.payment.PaymentIdempotencyGate;
+import com.hsj.service.payment.PaymentPipeline;
+import com.hsj.service.stock.StockHoldRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
     private final OrderService orderService;
+    private final StockHoldRegistry stockHoldRegistry;
+    private final OutboxWriter outboxWriter;
+    private final PaymentIdempotencyGate idempotencyGate;
+    private final PaymentPipeline paymentPipeline;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    public PaymentService(PaymentRepository paymentRepository,
+                          OrderRepository orderRepository,
+                          OrderService orderService,
+                          StockHoldRegistry stockHoldRegistry,
+                          OutboxWriter outboxWriter,
+                          PaymentIdempotencyGate idempotencyGate,
+                          PaymentPipeline paymentPipeline,
+                          PlatformTransactionManager transactionManager) {
+        this.paymentRepository = paymentRepository;
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.stockHoldRegistry = stockHoldRegistry;
+        this.outboxWriter = outboxWriter;
+        this.idempotencyGate = idempotencyGate;
+        this.paymentPipeline = paymentPipeline;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 결제를 접수한다. PENDING 결제를 커밋한 뒤 PG 호출은 {@link PaymentPipeline}에 맡기고 바로 돌려주므로
+     * PG 왕복 동안 요청 스레드도 DB 커넥션도 잡지 않는다. 결과는 두 번째 짧은 트랜잭션에서 반영되며,
+     * 클라이언트는 결제 조회로 확인하거나 PAYMENT_COMPLETED/PAYMENT_FAILED 이벤트를 받는다.
+     * <p>
+     * 멱등성 키는 Redis에서 먼저 선점한다. 이미 접수된 키는 DB를 거치지 않고 저장된 응답을 돌려주며,
+     * 게이트를 통과한 동시 요청은 DB 유니크 인덱스가 막는다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponse processPayment(PaymentRequest request, String paidBy) {
-        Optional<Payment> existingPayment = paymentRepository.findByIdempotencyKey(request.getIdempotencyKey());
-        if (existingPayment.isPresent()) {
-            Payment existing = existingPayment.get();
-            if (existing.getStatus() == PaymentStatus.COMPLETED) {
-                log.info("멱등성 키 중복 감지 (완료된 결제 반환): key={}", request.getIdempotencyKey());
-                return PaymentResponse.from(existing);
-            }
-            if (existing.getStatus() == PaymentStatus.PENDING) {
-                throw new DuplicateException(ErrorCode.DUPLICATE_PAYMENT,
-                        "이미 처리 중인 결제 요청입니다.");
+        PaymentIdempotencyGate.Claim claim = idempotencyGate.claim(request.getIdempotencyKey());
+        if (claim.isReplay()) {
+            log.info("멱등성 키 중복 감지 (저장된 응답 반환): key={}", request.getIdempotencyKey());
+            return claim.replay();
+        }
+        if (!paymentPipeline.isAvailable()) {
+            // PG 서킷이 열린 동안에는 처리되지 못할 PENDING 결제를 쌓지 않고 바로 거절한다.
+            idempotencyGate.release(claim);
+            throw new BusinessException(ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE);
+        }
+
+        Accepted accepted;
+        try {
+            accepted = transactionTemplate.execute(status -> accept(request));
+        } catch (DataIntegrityViolationException e) {
+            idempotencyGate.release(claim);
+            log.warn("멱등성 키 동시 요청 충돌: key={}", request.getIdempotencyKey());
+            throw new DuplicateException(ErrorCode.DUPLICATE_PAYMENT, "이미 처리 중인 결제 요청입니다.");
+        } catch (RuntimeException e) {
+            idempotencyGate.release(claim);
+            throw e;
+        }
+
+        idempotencyGate.complete(claim, accepted.response());
+        if (accepted.gatewayRequest() != null) {
+            dispatch(accepted.gatewayRequest(), paidBy);
+        }
+        return accepted.response();
+    }
+
+    /**
+     * 오래 PENDING으로 남은 결제를 PG로 다시 보낸다. PG는 같은 멱등성 키에 같은 결과를 주므로 중복 승인되지 않는다.
+     * giveUpBefore보다 오래된 결제는 더 기다리지 않고 실패로 닫으며, PG 서킷이 열려 있으면 다시 보내지 않는다.
+     *
+     * @return 다시 보낸 결제 수
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int resubmitPending(LocalDateTime retryBefore, LocalDateTime giveUpBefore, int limit) {
+        List<Payment> stale = paymentRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAtAsc(
+                PaymentStatus.PENDING, retryBefore, PageRequest.of(0, limit));
+        int resubmitted = 0;
+        for (Payment payment : stale) {
+            PaymentGatewayRequest gatewayRequest = PaymentGatewayRequest.from(payment);
+            if (payment.getCreatedAt().isBefore(giveUpBefore)) {
+                applyResult(gatewayRequest, PaymentGatewayResult.declined("PG 응답 대기 시간 초과"), "SYSTEM");
+            } else if (paymentPipeline.isAvailable() && dispatch(gatewayRequest, "SYSTEM")) {
+                resubmitted++;
             }
         }
+        return resubmitted;
+    }
+
+    private Accepted accept(PaymentRequest request) {
+        Optional<Payment> existing = paymentRepository.findByIdempotencyKey(request.getIdempotencyKey());
+        if (existing.isPresent()) {
+            // 같은 키의 재시도는 새 결제를 만들지 않고 현재 상태를 그대로 알려 준다.
+            log.info("멱등성 키 중복 감지 (기존 결제 반환): key={}, status={}",
+                    request.getIdempotencyKey(), existing.get().getStatus());
+            return new Accepted(PaymentResponse.from(existing.get()), null);
+        }
 
-        Order order = orderRepository.findByIdAndDeletedFalse(request.getOrderId())
+        // 재고 홀드 만료 처리와 겹치지 않도록 주문 행을 잠근다
+        Order order = orderRepository.findByIdForUpdate(request.getOrderId())
                 .orElseThrow(() -> new NotFoundException(ErrorCode.ORDER_NOT_FOUND));
 
         if (order.getStatus() != OrderStatus.PENDING_PAYMENT) {
@@ -53,32 +146,75 @@ public class PaymentService {
                     "결제 대기 상태의 주문만 결제할 수 있습니다. 현재 상태: " + order.getStatus());
         }
 
-        Payment payment = Payment.builder()
-                .order(order)
+        Payment payment = paymentRepository.save(Payment.builder()
+                .orderId(order.getId())
                 .idempotencyKey(request.getIdempotencyKey())
                 .amount(order.getTotalAmount())
                 .paymentMethod(request.getPaymentMethod())
-                .build();
+                .build());
 
-        payment = paymentRepository.save(payment);
+        log.info("결제 접수: paymentId={}, orderId={}, amount={}, key={}",
+                payment.getId(), order.getId(), payment.getAmount(), payment.getIdempotencyKey());
+        return new Accepted(PaymentResponse.from(payment), PaymentGatewayRequest.from(payment));
+    }
 
-        try {
-            processExternalPayment(payment);
-            payment.complete();
+    private boolean dispatch(PaymentGatewayRequest gatewayRequest, String paidBy) {
+        return paymentPipeline.submit(gatewayRequest, result -> applyResult(gatewayRequest, result, paidBy));
+    }
 
-            OrderStatusChangeRequest statusChange = OrderStatusChangeRequest.of(
-                    OrderStatus.PAID, "결제 완료");
-            orderService.changeOrderStatus(order.getId(), statusChange, paidBy);
+    /**
+     * PG 결과를 짧은 트랜잭션으로 반영하고, 커밋 후 멱등성 게이트의 응답을 최종 상태로 바꾼다.
+     * 이미 PENDING이 아닌 결제(중복 콜백, 스위퍼 재전송)는 건드리지 않는다.
+     */
+    void applyResult(PaymentGatewayRequest gatewayRequest, PaymentGatewayResult result, String paidBy) {
+        PaymentResponse response = transactionTemplate.execute(status -> complete(gatewayRequest, result, paidBy));
+        if (response != null) {
+            idempotencyGate.record(gatewayRequest.idempotencyKey(), response);
+        }
+    }
 
-            log.info("결제 완료: paymentId={}, orderId={}, amount={}, key={}",
-                    payment.getId(), order.getId(), payment.getAmount(), payment.getIdempotencyKey());
+    private PaymentResponse complete(PaymentGatewayRequest gatewayRequest, PaymentGatewayResult result,
+                                     String paidBy) {
+        // 접수·만료 취소와 같은 순서(주문 → 결제)로 잠근다.
+        Long orderId = gatewayRequest.orderId();
+        Order order = orderRepository.findByIdForUpdate(orderId).orElse(null);
+        Payment payment = paymentRepository.findByIdForUpdate(gatewayRequest.paymentId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PAYMENT_NOT_FOUND));
+        if (payment.getStatus() != PaymentStatus.PENDING) {
+            return null;
+        }
 
-        } catch (Exception e) {
+        if (result.approved() && (order == null || order.getStatus() != OrderStatus.PENDING_PAYMENT)) {
+            // PG 응답을 기다리는 사이 주문이 취소됐다. 승인된 금액은 PAYMENT_CANCELLED 이벤트로 환불 대상이 된다.
+            payment.cancel();
+            outboxWriter.append(OutboxEventType.PAYMENT_CANCELLED, orderId, PaymentPayload.from(payment));
+            log.warn("승인된 결제의 주문이 이미 종료됨 (취소로 기록): paymentId={}, orderId={}, tx={}",
+                    payment.getId(), orderId, result.transactionId());
+            return PaymentResponse.from(payment);
+        }
+
+        if (!result.approved()) {
             payment.fail();
-            log.error("결제 실패: orderId={}, key={}", order.getId(), request.getIdempotencyKey(), e);
-            throw new BusinessException(ErrorCode.PAYMENT_FAILED, "결제 처리 중 오류가 발생했습니다.");
+            outboxWriter.append(OutboxEventType.PAYMENT_FAILED, orderId, PaymentPayload.from(payment));
+            // 결제 대기 중에는 홀드 만료를 미뤘으므로, 다시 결제할 수 있도록 홀드를 새로 건다.
+            registerHold(orderId);
+            log.warn("결제 실패: paymentId={}, orderId={}, reason={}", payment.getId(), orderId, result.failureReason());
+            return PaymentResponse.from(payment);
         }
 
+        payment.complete();
+        orderService.changeOrderStatus(orderId, OrderStatusChangeRequest.of(OrderStatus.PAID, "결제 완료"), paidBy);
+        outboxWriter.append(OutboxEventType.PAYMENT_COMPLETED, orderId, PaymentPayload.from(payment));
+        confirmHold(orderId);
+
+        log.info("결제 완료: paymentId={}, orderId={}, amount={}, tx={}",
+                payment.getId(), orderId, payment.getAmount(), result.transactionId());
+        return PaymentResponse.from(payment);
+    }
+
+    public PaymentResponse getPayment(Long paymentId) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PAYMENT_NOT_FOUND));
         return PaymentResponse.from(payment);
     }
 
@@ -99,12 +235,29 @@ public class PaymentService {
         }
 
         payment.cancel();
+        outboxWriter.append(OutboxEventType.PAYMENT_CANCELLED, orderId, PaymentPayload.from(payment));
         log.info("결제 취소: paymentId={}, orderId={}", payment.getId(), orderId);
         return PaymentResponse.from(payment);
     }
 
-    private void processExternalPayment(Payment payment) {
-        log.info("외부 PG 결제 처리 (시뮬레이션): amount={}, method={}",
-                payment.getAmount(), payment.getPaymentMethod());
+    /** 결제가 끝난 주문의 재고 홀드를 확정한다. 실패해도 스위퍼가 PAID 주문은 건너뛴다. */
+    private void confirmHold(Long orderId) {
+        try {
+            stockHoldRegistry.confirm(orderId);
+        } catch (Exception e) {
+            log.warn("재고 홀드 확정 실패: orderId={}, error={}", orderId, e.getMessage());
+        }
+    }
+
+    private void registerHold(Long orderId) {
+        try {
+            stockHoldRegistry.hold(orderId);
+        } catch (Exception e) {
+            log.error("재고 홀드 재등록 실패 (자동 만료 제외): orderId={}", orderId, e);
+        }
+    }
+
+    /** 접수 결과. 새로 만든 결제면 PG로 보낼 요청을 함께 담는다. */
+    private record Accepted(PaymentResponse response, PaymentGatewayRequest gatewayRequest) {
     }
 }
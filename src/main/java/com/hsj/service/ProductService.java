@@ -17,15 +17,21 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ProductService {
 
+    /** 품절 상품이 이보다 많으면 NOT IN 목록이 커지므로 재고 컬럼 조건으로 되돌린다. */
+    private static final int MAX_SOLD_OUT_EXCLUSIONS = 1_000;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final StorageService storageService;
+    private final StockService stockService;
 
     @Transactional
     public ProductResponse create(ProductCreateRequest request) {
@@ -51,18 +57,21 @@ public class ProductService {
 
     public ProductResponse findById(Long id) {
         Product product = findProductOrThrow(id);
-        return ProductResponse.from(product);
+        Integer shardedStock = stockService.getShardedStock(id);
+        return shardedStock != null
+                ? ProductResponse.from(product, shardedStock, stockService.getProjectedReserved(id))
+                : toProjectedResponse(product);
     }
 
     public PageResponse<ProductResponse> findAll(Pageable pageable) {
         Page<ProductResponse> page = productRepository.findAllByDeletedFalse(pageable)
-                .map(ProductResponse::from);
+                .map(this::toProjectedResponse);
         return PageResponse.from(page);
     }
 
     public PageResponse<ProductResponse> search(ProductSearchCondition condition, Pageable pageable) {
-        Page<ProductResponse> page = productRepository.searchProducts(condition, pageable)
-                .map(ProductResponse::from);
+        Page<ProductResponse> page = productRepository.searchProducts(condition, soldOutExclusions(condition), pageable)
+                .map(this::toProjectedResponse);
         return PageResponse.from(page);
     }
 
@@ -109,11 +118,50 @@ public class ProductService {
     @Transactional
     public ProductResponse addStock(Long id, int quantity) {
         Product product = findProductOrThrow(id);
-        product.addStock(quantity);
-        log.info("재고 추가: productId={}, +{}, total={}", id, quantity, product.getStockQuantity());
+        int stockQuantity = stockService.addStock(product, quantity);
+        log.info("재고 추가: productId={}, +{}, total={}", id, quantity, stockQuantity);
+        return ProductResponse.from(product, stockQuantity);
+    }
+
+    /**
+     * 상품 행을 잠근 상태에서 현재 재고를 버킷으로 나눈다. 이후 products.stock_quantity는 버킷 합계로 동기화된다.
+     */
+    @Transactional
+    public ProductResponse enableStockSharding(Long id, int shards) {
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+        stockService.enableSharding(product, shards);
         return ProductResponse.from(product);
     }
 
+    @Transactional
+    public ProductResponse disableStockSharding(Long id) {
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+        int stockQuantity = stockService.disableSharding(id);
+        productRepository.updateStockQuantity(id, stockQuantity);
+        return ProductResponse.from(product, stockQuantity);
+    }
+
+    /**
+     * inStock 필터에 쓸 품절 상품 ID. 재고 투영이 준비되지 않았거나 목록이 너무 크면 null을 반환해
+     * 저장소가 재고 컬럼 조건으로 거르게 한다.
+     */
+    private List<Long> soldOutExclusions(ProductSearchCondition condition) {
+        if (!Boolean.TRUE.equals(condition.getInStock())) {
+            return null;
+        }
+        List<Long> soldOutIds = stockService.getProjectedSoldOutIds();
+        return soldOutIds != null && soldOutIds.size() <= MAX_SOLD_OUT_EXCLUSIONS ? soldOutIds : null;
+    }
+
+    /** 목록 조회는 DB 컬럼 대신 메모리 재고 투영의 가용/예약 수량을 노출한다. */
+    private ProductResponse toProjectedResponse(Product product) {
+        return ProductResponse.from(product,
+                stockService.getProjectedStock(product.getId(), product.getStockQuantity()),
+                stockService.getProjectedReserved(product.getId()));
+    }
+
     private Product findProductOrThrow(Long id) {
         return productRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
@@ -78,7 +78,7 @@ public class ReviewService {
         Review review = Review.builder()
                 .member(member)
                 .product(product)
-                .order(order)
+                .orderId(order.getId())
                 .rating(request.getRating())
                 .content(request.getContent())
                 .build();
@@ -1,95 +1,321 @@
 package com.hsj.service;
 
+import com.hsj.dto.stock.StockDeduction;
 import com.hsj.entity.Product;
+import com.hsj.exception.BusinessException;
 import com.hsj.exception.ErrorCode;
-import com.hsj.exception.NotFoundException;
 import com.hsj.exception.OutOfStockException;
-import com.hsj.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import com.hsj.service.stock.ShardedStockStore;
+import com.hsj.service.stock.StockMode;
+import com.hsj.service.stock.StockProjection;
+import com.hsj.service.stock.StockStrategy;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * 재고 차감/복원 진입점. 실제 처리는 {@code stock.mode}로 선택된 {@link StockStrategy}가 담당한다.
+ * {@code stock.sharding.enabled}가 켜져 있으면 샤딩으로 지정된 상품만 {@link ShardedStockStore}의 버킷에서 처리한다.
+ * 모든 재고 변경은 이 클래스를 거치므로, 변경이 끝날 때마다 {@link StockProjection}에 델타를 반영한다.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class StockService {
 
-    private static final String STOCK_LOCK_PREFIX = "LOCK:STOCK:";
-    private static final long WAIT_TIME = 5L;
-    private static final long LEASE_TIME = 3L;
+    private static final int MAX_SHARDS = 64;
 
-    private final ProductRepository productRepository;
-    private final RedissonClient redissonClient;
+    private final Map<StockMode, StockStrategy> strategies = new EnumMap<>(StockMode.class);
+    private final ShardedStockStore shardedStockStore;
+    private final StockProjection stockProjection;
+    private final StockMode stockMode;
+    private final boolean shardingEnabled;
+
+    public StockService(List<StockStrategy> strategies,
+                        ShardedStockStore shardedStockStore,
+                        StockProjection stockProjection,
+                        @Value("${stock.mode:LOCK}") StockMode stockMode,
+                        @Value("${stock.sharding.enabled:false}") boolean shardingEnabled) {
+        strategies.forEach(strategy -> this.strategies.put(strategy.mode(), strategy));
+        if (!this.strategies.containsKey(stockMode)) {
+            throw new IllegalStateException("지원하지 않는 재고 모드입니다: " + stockMode);
+        }
+        this.shardedStockStore = shardedStockStore;
+        this.stockProjection = stockProjection;
+        this.stockMode = stockMode;
+        this.shardingEnabled = shardingEnabled;
+        log.info("재고 처리 모드: {}, 샤딩={}", stockMode, shardingEnabled);
+    }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void deductStock(Long productId, int quantity) {
-        RLock lock = redissonClient.getLock(STOCK_LOCK_PREFIX + productId);
-        boolean acquired = false;
+        Integer shards = shardCount(productId);
+        if (shards == null || !deductSharded(productId, shards, quantity)) {
+            strategy().deduct(productId, quantity);
+        }
+        stockProjection.apply(productId, -quantity, 0);
+    }
+
+    public void restoreStock(Long productId, int quantity) {
+        Integer shards = shardCount(productId);
+        if (shards == null || !restoreSharded(productId, shards, quantity)) {
+            strategy().restore(productId, quantity);
+        }
+        stockProjection.apply(productId, quantity, 0);
+    }
 
+    /**
+     * 주문 상품 전체를 한 번에 예약한다(all-or-nothing).
+     * 같은 상품은 합산하고 상품 ID 순서로 정렬해 전략에 넘긴다.
+     */
+    public void reserveAll(List<StockDeduction> deductions) {
+        List<StockDeduction> merged = StockDeduction.mergeSorted(deductions);
+        Map<Long, Integer> shardCounts = shardCounts(merged);
+        if (shardCounts.isEmpty()) {
+            strategy().reserveAll(merged);
+            merged.forEach(d -> stockProjection.apply(d.productId(), -d.quantity(), d.quantity()));
+            return;
+        }
+
+        // 샤딩 상품을 먼저 버킷에서 차감하고, 나머지 상품 예약이 실패하면 버킷 차감분을 되돌린다.
+        List<StockDeduction> taken = new ArrayList<>();
+        List<StockDeduction> rest = new ArrayList<>();
         try {
-            acquired = lock.tryLock(WAIT_TIME, LEASE_TIME, TimeUnit.SECONDS);
-            if (!acquired) {
-                throw new IllegalStateException(
-                        "재고 차감 락 획득 실패: productId=" + productId);
+            for (StockDeduction deduction : merged) {
+                Integer shards = shardCounts.get(deduction.productId());
+                if (shards != null && deductSharded(deduction.productId(), shards, deduction.quantity())) {
+                    taken.add(deduction);
+                } else {
+                    rest.add(deduction);
+                }
             }
+            if (!rest.isEmpty()) {
+                strategy().reserveAll(rest);
+            }
+        } catch (RuntimeException e) {
+            taken.forEach(d -> restoreStock(d.productId(), d.quantity()));
+            throw e;
+        }
+        merged.forEach(d -> stockProjection.apply(d.productId(), -d.quantity(), d.quantity()));
+    }
 
-            Product product = productRepository.findByIdAndDeletedFalse(productId)
-                    .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+    /** 결제 대기로 예약돼 있던 수량을 되돌린다. 투영의 예약 수량도 함께 줄인다. */
+    public void releaseAll(List<StockDeduction> deductions) {
+        restoreAll(deductions, true);
+    }
 
-            if (product.getStockQuantity() < quantity) {
-                throw new OutOfStockException(
-                        String.format("재고 부족: 상품=%s, 현재=%d, 요청=%d",
-                                product.getName(), product.getStockQuantity(), quantity));
-            }
+    /** 이미 결제가 끝난 수량을 여러 상품에 걸쳐 한 번에 되돌린다. */
+    public void restoreAll(List<StockDeduction> deductions) {
+        restoreAll(deductions, false);
+    }
 
-            product.removeStock(quantity);
-            productRepository.saveAndFlush(product);
-
-            log.info("재고 차감 완료: productId={}, -{}, 잔여={}",
-                    productId, quantity, product.getStockQuantity());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("재고 차감 중 인터럽트 발생", e);
-        } finally {
-            if (acquired && lock.isHeldByCurrentThread()) {
-                lock.unlock();
+    private void restoreAll(List<StockDeduction> deductions, boolean reserved) {
+        List<StockDeduction> merged = StockDeduction.mergeSorted(deductions);
+        Map<Long, Integer> shardCounts = shardCounts(merged);
+
+        List<StockDeduction> rest = new ArrayList<>();
+        for (StockDeduction deduction : merged) {
+            Integer shards = shardCounts.get(deduction.productId());
+            if (shards == null || !restoreSharded(deduction.productId(), shards, deduction.quantity())) {
+                rest.add(deduction);
             }
         }
+        if (!rest.isEmpty()) {
+            strategy().releaseAll(rest);
+        }
+        merged.forEach(d -> stockProjection.apply(d.productId(), d.quantity(), reserved ? -d.quantity() : 0));
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void restoreStock(Long productId, int quantity) {
-        RLock lock = redissonClient.getLock(STOCK_LOCK_PREFIX + productId);
-        boolean acquired = false;
+    /** {@link #releaseAll}과 같지만 호출자의 트랜잭션 안에서 되돌린다({@link #restoreAllInTransaction} 참고). */
+    public void releaseAllInTransaction(List<StockDeduction> deductions) {
+        restoreAllInTransaction(deductions, true);
+    }
 
-        try {
-            acquired = lock.tryLock(WAIT_TIME, LEASE_TIME, TimeUnit.SECONDS);
-            if (!acquired) {
-                throw new IllegalStateException(
-                        "재고 복원 락 획득 실패: productId=" + productId);
+    /**
+     * {@link #restoreAll}과 같지만 DB 재고를 호출자의 트랜잭션 안에서 되돌려, 호출자가 롤백하면 복원도 함께 롤백된다.
+     * 주문·아이템 상태 변경과 같은 트랜잭션에서 재고를 돌려줘야 하는 취소/환불 경로가 쓴다.
+     * 버킷·원장·투영은 DB 트랜잭션에 묶을 수 없으므로 커밋된 뒤에 반영한다.
+     */
+    public void restoreAllInTransaction(List<StockDeduction> deductions) {
+        restoreAllInTransaction(deductions, false);
+    }
+
+    private void restoreAllInTransaction(List<StockDeduction> deductions, boolean reserved) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("진행 중인 트랜잭션 안에서만 호출할 수 있습니다.");
+        }
+        List<StockDeduction> merged = StockDeduction.mergeSorted(deductions);
+        Map<Long, Integer> shardCounts = shardCounts(merged);
+
+        List<StockDeduction> sharded = new ArrayList<>();
+        List<StockDeduction> rest = new ArrayList<>();
+        for (StockDeduction deduction : merged) {
+            if (shardCounts.containsKey(deduction.productId())) {
+                sharded.add(deduction);
+            } else {
+                rest.add(deduction);
             }
+        }
+        if (!rest.isEmpty()) {
+            strategy().restoreAllInTransaction(rest);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (!sharded.isEmpty()) {
+                    restoreAll(sharded, reserved);
+                }
+                rest.forEach(d -> stockProjection.apply(d.productId(), d.quantity(), reserved ? -d.quantity() : 0));
+            }
+        });
+    }
 
-            Product product = productRepository.findByIdAndDeletedFalse(productId)
-                    .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+    /**
+     * 결제 대기로 잡혀 있던 수량이 결제 완료나 취소로 끝났음을 투영의 예약 수량에 반영한다.
+     * 취소로 끝난 경우의 가용 재고 복원은 {@link #restoreStock}이 따로 반영한다.
+     */
+    public void settleReservations(List<StockDeduction> deductions) {
+        deductions.forEach(d -> stockProjection.apply(d.productId(), 0, -d.quantity()));
+    }
 
-            product.addStock(quantity);
-            productRepository.saveAndFlush(product);
+    /**
+     * 관리자 입고. 호출자의 트랜잭션 안에서 실행되며 반영 후 가용 재고를 반환한다.
+     * 샤딩된 상품은 입고 수량을 버킷에 나눠 담고 버킷 합계를 반환한다.
+     */
+    public int addStock(Product product, int quantity) {
+        int available = addStockInternal(product, quantity);
+        stockProjection.setAvailable(product.getId(), available);
+        return available;
+    }
 
-            log.info("재고 복원 완료: productId={}, +{}, 잔여={}",
-                    productId, quantity, product.getStockQuantity());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("재고 복원 중 인터럽트 발생", e);
-        } finally {
-            if (acquired && lock.isHeldByCurrentThread()) {
-                lock.unlock();
+    /**
+     * 투영에 있는 가용 재고를 반환하고, 투영에 없으면 {@code fallback}(보통 DB 컬럼 값)을 반환한다.
+     */
+    public int getProjectedStock(Long productId, int fallback) {
+        int available = stockProjection.getAvailable(productId);
+        return available != StockProjection.UNKNOWN ? available : fallback;
+    }
+
+    /**
+     * 투영 기준 품절 상품 ID. 투영이 아직 채워지지 않았으면 null을 반환하며, 호출자는 DB 재고 컬럼으로 걸러야 한다.
+     */
+    public List<Long> getProjectedSoldOutIds() {
+        return stockProjection.isReady() ? stockProjection.getSoldOutIds() : null;
+    }
+
+    /** 투영에 있는 결제 대기 수량. 투영에 없으면 0을 반환한다. */
+    public int getProjectedReserved(Long productId) {
+        int reserved = stockProjection.getReserved(productId);
+        return reserved != StockProjection.UNKNOWN ? reserved : 0;
+    }
+
+    /**
+     * 샤딩된 상품이면 버킷 합계를, 아니면 null을 반환한다.
+     * products.stock_quantity는 저널 동기화 주기만큼 늦으므로 조회 응답에는 이 값을 우선한다.
+     */
+    public Integer getShardedStock(Long productId) {
+        Integer shards = shardCount(productId);
+        if (shards == null) {
+            return null;
+        }
+        Long total = shardedStockStore.total(productId, shards);
+        return total != null ? total.intValue() : null;
+    }
+
+    /**
+     * 상품 재고를 버킷으로 나눈다. 호출자는 상품 행을 비관적 락으로 잡은 상태여야 하며,
+     * 진행 중인 DB 차감과 겹치지 않도록 판매 시작 전에 적용하는 것을 전제로 한다.
+     */
+    public void enableSharding(Product product, int shards) {
+        if (!shardingEnabled) {
+            throw new BusinessException(ErrorCode.STOCK_SHARDING_NOT_ALLOWED, "재고 샤딩이 비활성화되어 있습니다.");
+        }
+        if (stockMode == StockMode.LEDGER) {
+            throw new BusinessException(ErrorCode.STOCK_SHARDING_NOT_ALLOWED,
+                    "LEDGER 모드는 DB 행과 락을 거치지 않으므로 샤딩을 지원하지 않습니다.");
+        }
+        if (shards < 2 || shards > MAX_SHARDS) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT,
+                    String.format("버킷 수는 2~%d 사이여야 합니다: %d", MAX_SHARDS, shards));
+        }
+        if (!shardedStockStore.enable(product.getId(), shards, product.getStockQuantity())) {
+            throw new BusinessException(ErrorCode.STOCK_SHARDING_NOT_ALLOWED,
+                    "이미 재고 샤딩이 적용된 상품입니다: productId=" + product.getId());
+        }
+        log.info("재고 샤딩 적용: productId={}, shards={}, stock={}",
+                product.getId(), shards, product.getStockQuantity());
+    }
+
+    /**
+     * 버킷을 합쳐 샤딩을 해제하고 합계를 반환한다. 호출자가 합계를 products.stock_quantity에 기록해야 한다.
+     */
+    public int disableSharding(Long productId) {
+        Long total = shardedStockStore.disable(productId);
+        if (total == null) {
+            throw new BusinessException(ErrorCode.STOCK_SHARDING_NOT_ALLOWED,
+                    "재고 샤딩이 적용되지 않은 상품입니다: productId=" + productId);
+        }
+        log.info("재고 샤딩 해제: productId={}, stock={}", productId, total);
+        return total.intValue();
+    }
+
+    public StockMode getStockMode() {
+        return stockMode;
+    }
+
+    private int addStockInternal(Product product, int quantity) {
+        Integer shards = shardCount(product.getId());
+        if (shards != null) {
+            long total = shardedStockStore.spread(product.getId(), shards, quantity);
+            if (total != ShardedStockStore.NOT_SHARDED) {
+                return (int) total;
             }
         }
+        return strategy().addStock(product, quantity);
+    }
+
+    private StockStrategy strategy() {
+        return strategies.get(stockMode);
+    }
+
+    private Integer shardCount(Long productId) {
+        return shardingEnabled ? shardedStockStore.shardCount(productId) : null;
+    }
+
+    private Map<Long, Integer> shardCounts(List<StockDeduction> deductions) {
+        if (!shardingEnabled) {
+            return Map.of();
+        }
+        return shardedStockStore.shardCounts(deductions.stream().map(StockDeduction::productId).toList());
+    }
+
+    /**
+     * @return 버킷에서 처리했으면 true, 그 사이 샤딩이 해제되어 일반 경로로 넘겨야 하면 false
+     */
+    private boolean deductSharded(Long productId, int shards, int quantity) {
+        long remaining = shardedStockStore.take(productId, shards, quantity);
+        if (remaining == ShardedStockStore.NOT_SHARDED) {
+            return false;
+        }
+        if (remaining == ShardedStockStore.INSUFFICIENT) {
+            throw new OutOfStockException(
+                    String.format("재고 부족: productId=%d, 요청=%d", productId, quantity));
+        }
+        log.info("재고 차감 완료(샤드): productId={}, -{}", productId, quantity);
+        return true;
+    }
+
+    private boolean restoreSharded(Long productId, int shards, int quantity) {
+        if (shardedStockStore.put(productId, shards, quantity) == ShardedStockStore.NOT_SHARDED) {
+            return false;
+        }
+        log.info("재고 복원 완료(샤드): productId={}, +{}", productId, quantity);
+        return true;
     }
 }
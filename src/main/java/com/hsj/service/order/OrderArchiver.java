@@ -0,0 +1,105 @@
+package com.hsj.service.order;
+
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.repository.custom.OrderArchiveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 배송 완료·취소·환불로 끝난 지 보존 기간이 지난 주문을 보관 테이블로 옮긴다.
+ * <p>
+ * 청크마다 별도 트랜잭션으로 잠금 → 복사 → 삭제를 하므로 중간에 실패해도 이미 옮긴 청크는 유지되고,
+ * 남은 주문은 다음 주기에 다시 대상이 된다. 여러 노드가 동시에 돌아도 {@code SKIP LOCKED}로 서로 다른 주문을 가져간다.
+ * 보관 테이블의 월 파티션은 옮기기 전에 가장 오래된 대상 월부터 이번 달까지 만들어 둔다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "order.archive.enabled", havingValue = "true")
+public class OrderArchiver {
+
+    static final Set<OrderStatus> ARCHIVABLE_STATUSES =
+            EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED, OrderStatus.REFUNDED);
+
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderDetailCache orderDetailCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final Counter archivedCounter;
+    private final Counter failureCounter;
+
+    public OrderArchiver(OrderArchiveRepository orderArchiveRepository,
+                         OrderDetailCache orderDetailCache,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${order.archive.chunk-size:1000}") int chunkSize,
+                         @Value("${order.archive.max-chunks:100}") int maxChunks) {
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.orderDetailCache = orderDetailCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.archivedCounter = Counter.builder("order.archive.moved").register(meterRegistry);
+        this.failureCounter = Counter.builder("order.archive.failures").register(meterRegistry);
+    }
+
+    /**
+     * 청크가 가득 차는 동안 최대 maxChunks번까지 옮긴다.
+     *
+     * @return 이번 주기에 옮긴 주문 수
+     */
+    @Scheduled(cron = "${order.archive.cron:0 30 3 * * *}")
+    public int archive() {
+        LocalDateTime cutoff = orderArchiveRepository.horizon();
+        int archived = 0;
+        try {
+            Optional<LocalDateTime> oldest = orderArchiveRepository.findOldestArchivable(ARCHIVABLE_STATUSES, cutoff);
+            if (oldest.isEmpty()) {
+                return 0;
+            }
+            // 이력은 주문보다 늦게 쌓이므로 이번 달 파티션까지 만든다.
+            orderArchiveRepository.ensureMonthlyPartitions(YearMonth.from(oldest.get()), YearMonth.now());
+
+            for (int i = 0; i < maxChunks; i++) {
+                List<Long> moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                archived += moved.size();
+                archivedCounter.increment(moved.size());
+                orderDetailCache.evictAfterCommit(moved);
+                if (moved.size() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.error("주문 보관 실패: 이번 주기 이동={}건", archived, e);
+        }
+        if (archived > 0) {
+            log.info("주문 보관 완료: {}건, 기준={}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private List<Long> archiveChunk(LocalDateTime cutoff) {
+        List<Long> orderIds = orderArchiveRepository.lockArchivable(ARCHIVABLE_STATUSES, cutoff, chunkSize);
+        if (!orderIds.isEmpty()) {
+            orderArchiveRepository.moveAll(orderIds);
+        }
+        return orderIds;
+    }
+}
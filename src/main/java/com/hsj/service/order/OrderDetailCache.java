@@ -0,0 +1,168 @@
+package com.hsj.service.order;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsj.dto.order.OrderResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 주문 상세 응답 읽기 모델 캐시. 노드 로컬 Caffeine(L1) 뒤에 Redis(L2)를 두고, 둘 다 없을 때만 DB를 읽는다.
+ * <p>
+ * 주문 상태·아이템·금액을 바꾸는 경로는 {@link #evictAfterCommit}을 호출한다. 커밋 전에 지우면
+ * 동시에 읽은 요청이 옛 값을 다시 채울 수 있으므로 커밋 후에 Redis 키를 지우고, 다른 노드의 L1은
+ * pub/sub 무효화 메시지로 비운다. 무효화 메시지가 유실되거나 커밋 직전에 읽은 값이 늦게 채워지는 경우는
+ * 각 단계의 TTL이 상한이 된다.
+ */
+@Slf4j
+@Component
+public class OrderDetailCache {
+
+    static final String KEY_PREFIX = "order:detail:";
+    static final String INVALIDATION_CHANNEL = "order:detail:invalidate";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, OrderResponse> local;
+    private final Duration redisTtl;
+    private final boolean enabled;
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public OrderDetailCache(RedisTemplate<String, String> redisTemplate,
+                            ObjectMapper objectMapper,
+                            RedisMessageListenerContainer listenerContainer,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.detail-cache.enabled:true}") boolean enabled,
+                            @Value("${order.detail-cache.local-max-size:10000}") long localMaxSize,
+                            @Value("${order.detail-cache.local-ttl-seconds:5}") long localTtlSeconds,
+                            @Value("${order.detail-cache.redis-ttl-seconds:60}") long redisTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.redisTtl = Duration.ofSeconds(redisTtlSeconds);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build();
+        this.localHits = Counter.builder("order.detail.cache").tag("result", "local").register(meterRegistry);
+        this.redisHits = Counter.builder("order.detail.cache").tag("result", "redis").register(meterRegistry);
+        this.misses = Counter.builder("order.detail.cache").tag("result", "miss").register(meterRegistry);
+
+        if (enabled) {
+            listenerContainer.addMessageListener((message, pattern) ->
+                    onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(INVALIDATION_CHANNEL));
+        }
+    }
+
+    /**
+     * 캐시된 주문 상세를 돌려준다. 같은 노드에서 같은 주문을 동시에 놓친 요청은 한 번만 로딩한다.
+     * 로더가 예외를 던지면(없는 주문 등) 아무것도 캐시하지 않는다.
+     */
+    public OrderResponse get(Long orderId, Function<Long, OrderResponse> loader) {
+        if (!enabled) {
+            return loader.apply(orderId);
+        }
+
+        OrderResponse cached = local.getIfPresent(orderId);
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+        return local.get(orderId, id -> {
+            OrderResponse fromRedis = readRedis(id);
+            if (fromRedis != null) {
+                redisHits.increment();
+                return fromRedis;
+            }
+            misses.increment();
+            OrderResponse loaded = loader.apply(id);
+            writeRedis(id, loaded);
+            return loaded;
+        });
+    }
+
+    public void evictAfterCommit(Long orderId) {
+        evictAfterCommit(List.of(orderId));
+    }
+
+    /** 트랜잭션 안이면 커밋 후에, 아니면 바로 지운다. 롤백되면 바뀐 것이 없으므로 지우지 않는다. */
+    public void evictAfterCommit(Collection<Long> orderIds) {
+        if (!enabled || orderIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(orderIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(ids);
+            }
+        });
+    }
+
+    void evict(List<Long> orderIds) {
+        local.invalidateAll(orderIds);
+        try {
+            redisTemplate.delete(orderIds.stream().map(OrderDetailCache::key).toList());
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    String.join(",", orderIds.stream().map(String::valueOf).toList()));
+        } catch (Exception e) {
+            // 응답은 이미 커밋됐으므로 실패를 전파하지 않는다. 남은 값은 TTL이 지나면 사라진다.
+            log.warn("주문 상세 캐시 무효화 실패: orderIds={}, error={}", orderIds, e.getMessage());
+        }
+    }
+
+    void onInvalidation(String message) {
+        if (message.isBlank()) {
+            return;
+        }
+        local.invalidateAll(Arrays.stream(message.split(",")).map(Long::valueOf).toList());
+    }
+
+    private OrderResponse readRedis(Long orderId) {
+        try {
+            String json = redisTemplate.opsForValue().get(key(orderId));
+            return json != null ? objectMapper.readValue(json, OrderResponse.class) : null;
+        } catch (Exception e) {
+            log.warn("주문 상세 캐시 조회 실패 (DB 조회로 대체): orderId={}, error={}", orderId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(Long orderId, OrderResponse response) {
+        try {
+            redisTemplate.opsForValue().set(key(orderId), objectMapper.writeValueAsString(response), redisTtl);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("주문 상세 직렬화 실패: orderId=" + orderId, e);
+        } catch (Exception e) {
+            log.warn("주문 상세 캐시 저장 실패: orderId={}, error={}", orderId, e.getMessage());
+        }
+    }
+
+    private static String key(Long orderId) {
+        return KEY_PREFIX + orderId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.hsj.service.order;
+
+import com.hsj.dto.order.OrderHistoryEntry;
+import com.hsj.dto.outbox.OutboxMessage;
+import com.hsj.repository.custom.OrderHistoryJdbcRepository;
+import com.hsj.service.outbox.OutboxSink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 지연 기록 모드에서 아웃박스 이벤트를 order_histories로 일괄 반영한다.
+ * 릴레이 트랜잭션 안에서 실행되므로 이력 INSERT와 발행 완료 표시가 함께 커밋되거나 함께 롤백된다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "order.history.write-mode", havingValue = "WRITE_BEHIND")
+public class OrderHistoryOutboxSink implements OutboxSink {
+
+    private final OrderHistoryRecorder orderHistoryRecorder;
+    private final OrderHistoryJdbcRepository orderHistoryJdbcRepository;
+
+    @Override
+    public String name() {
+        return "order-history";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        List<OrderHistoryEntry> entries = messages.stream()
+                .map(orderHistoryRecorder::toEntry)
+                .flatMap(Optional::stream)
+                .toList();
+        if (!entries.isEmpty()) {
+            orderHistoryJdbcRepository.insertAll(entries);
+        }
+    }
+}
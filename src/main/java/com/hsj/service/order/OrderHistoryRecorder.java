@@ -0,0 +1,139 @@
+package com.hsj.service.order;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsj.dto.order.OrderHistoryEntry;
+import com.hsj.dto.order.OrderHistoryResponse;
+import com.hsj.dto.outbox.OrderCreatedPayload;
+import com.hsj.dto.outbox.OrderItemCancelledPayload;
+import com.hsj.dto.outbox.OrderStatusChangedPayload;
+import com.hsj.dto.outbox.OutboxMessage;
+import com.hsj.entity.Order;
+import com.hsj.entity.OrderHistory;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.repository.OrderHistoryRepository;
+import com.hsj.repository.custom.OrderHistoryJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 주문 이력 기록과 조회를 {@link OrderHistoryWriteMode}에 맞게 처리한다.
+ * <p>
+ * WRITE_BEHIND 모드에서는 {@link #record}가 아무것도 쓰지 않는다. 호출자가 같은 트랜잭션에서 적재한
+ * 아웃박스 이벤트가 이력의 원본이 되고, {@link OrderHistoryOutboxSink}가 릴레이 트랜잭션 안에서
+ * order_histories로 옮기면서 발행 완료 표시와 함께 커밋한다. 이벤트가 비즈니스 변경과 함께 커밋되고
+ * 이력 반영과 발행 표시가 원자적이므로 장애가 나도 이력이 빠지거나 두 번 쓰이지 않는다.
+ */
+@Slf4j
+@Component
+public class OrderHistoryRecorder {
+
+    static final Set<OutboxEventType> HISTORY_EVENTS = Set.of(
+            OutboxEventType.ORDER_CREATED,
+            OutboxEventType.ORDER_STATUS_CHANGED,
+            OutboxEventType.ORDER_CANCELLED,
+            OutboxEventType.ORDER_ITEM_CANCELLED);
+
+    private static final String ORDER_CREATED_REASON = "주문 생성";
+
+    private final OrderHistoryRepository orderHistoryRepository;
+    private final OrderHistoryJdbcRepository orderHistoryJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final OrderHistoryWriteMode mode;
+
+    public OrderHistoryRecorder(OrderHistoryRepository orderHistoryRepository,
+                                OrderHistoryJdbcRepository orderHistoryJdbcRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${order.history.write-mode:SYNC}") OrderHistoryWriteMode mode) {
+        this.orderHistoryRepository = orderHistoryRepository;
+        this.orderHistoryJdbcRepository = orderHistoryJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.mode = mode;
+        log.info("주문 이력 기록 방식: {}", mode);
+    }
+
+    /** 지연 기록 모드면 이력은 아웃박스 이벤트로부터 만들어지므로 호출자가 직접 INSERT하면 안 된다. */
+    public boolean isDeferred() {
+        return mode == OrderHistoryWriteMode.WRITE_BEHIND;
+    }
+
+    public void record(Order order, OrderStatus previousStatus, OrderStatus newStatus,
+                       String reason, String changedBy) {
+        if (isDeferred()) {
+            return;
+        }
+        orderHistoryRepository.save(OrderHistory.record(order, previousStatus, newStatus, reason, changedBy));
+    }
+
+    public void recordCreated(Order order, String createdBy) {
+        record(order, null, OrderStatus.PENDING_PAYMENT, ORDER_CREATED_REASON, createdBy);
+    }
+
+    /** 엔티티 없이 처리하는 일괄 경로용. SYNC 모드에서는 JDBC 배치 한 번으로 적재한다. */
+    public void recordAll(List<OrderHistoryEntry> entries) {
+        if (isDeferred() || entries.isEmpty()) {
+            return;
+        }
+        orderHistoryJdbcRepository.insertAll(entries);
+    }
+
+    /**
+     * 최신순 이력. 지연 기록 모드에서는 아직 반영되지 않은 이벤트를 합쳐 방금 바꾼 상태도 바로 보이게 한다.
+     */
+    public List<OrderHistoryResponse> findByOrderId(Long orderId) {
+        if (!isDeferred()) {
+            return orderHistoryRepository.findByOrderIdOrderByCreatedAtDesc(orderId).stream()
+                    .map(OrderHistoryResponse::from)
+                    .toList();
+        }
+
+        OrderHistoryJdbcRepository.Snapshot snapshot = orderHistoryJdbcRepository.findWithPending(orderId, HISTORY_EVENTS);
+        List<OrderHistoryResponse> merged = new ArrayList<>(snapshot.flushed());
+        snapshot.pending().forEach(message -> toEntry(message).ifPresent(entry -> merged.add(entry.toResponse())));
+        merged.sort(Comparator.comparing(OrderHistoryResponse::getCreatedAt).reversed());
+        return merged;
+    }
+
+    /** 아웃박스 이벤트를 이력 한 건으로 바꾼다. 결제 이벤트처럼 이력이 없는 종류는 비어 있다. */
+    public Optional<OrderHistoryEntry> toEntry(OutboxMessage message) {
+        try {
+            return Optional.ofNullable(switch (message.eventType()) {
+                case ORDER_CREATED -> {
+                    OrderCreatedPayload payload = read(message, OrderCreatedPayload.class);
+                    yield new OrderHistoryEntry(message.aggregateId(), null, OrderStatus.PENDING_PAYMENT,
+                            ORDER_CREATED_REASON, payload.createdBy(), message.createdAt());
+                }
+                case ORDER_STATUS_CHANGED, ORDER_CANCELLED -> {
+                    OrderStatusChangedPayload payload = read(message, OrderStatusChangedPayload.class);
+                    yield new OrderHistoryEntry(message.aggregateId(), payload.previousStatus(), payload.newStatus(),
+                            payload.reason(), payload.changedBy(), message.createdAt());
+                }
+                case ORDER_ITEM_CANCELLED -> {
+                    OrderItemCancelledPayload payload = read(message, OrderItemCancelledPayload.class);
+                    yield new OrderHistoryEntry(message.aggregateId(), payload.orderStatus(), payload.orderStatus(),
+                            itemCancelReason(payload.productName(), payload.reason()), payload.cancelledBy(),
+                            message.createdAt());
+                }
+                case PAYMENT_COMPLETED, PAYMENT_FAILED, PAYMENT_CANCELLED, PAYMENT_REFUNDED -> null;
+            });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("아웃박스 페이로드 해석 실패: outboxId=" + message.id(), e);
+        }
+    }
+
+    private <T> T read(OutboxMessage message, Class<T> type) throws JsonProcessingException {
+        return objectMapper.readValue(message.payload(), type);
+    }
+
+    public static String itemCancelReason(String productName, String reason) {
+        return "아이템 부분 취소: " + productName + (reason != null ? " - " + reason : "");
+    }
+}
@@ -0,0 +1,16 @@
+package com.hsj.service.order;
+
+/**
+ * 주문 이력 기록 방식.
+ */
+public enum OrderHistoryWriteMode {
+
+    /** 비즈니스 트랜잭션 안에서 order_histories에 바로 INSERT한다. */
+    SYNC,
+
+    /**
+     * 같은 트랜잭션에 이미 적재되는 아웃박스 이벤트를 이력의 원본으로 삼고,
+     * 릴레이가 발행하는 트랜잭션에서 order_histories에 일괄 INSERT한다. 아웃박스 릴레이가 켜져 있어야 한다.
+     */
+    WRITE_BEHIND
+}
@@ -0,0 +1,10 @@
+package com.hsj.service.order;
+
+/**
+ * 주문번호 생성기. 구현체는 노드 간 조율 없이 충돌하지 않는 값을 만들어야 한다.
+ * 생성 순서대로 사전순 정렬되는 값이면 orders.order_number 유니크 인덱스에 오른쪽 끝으로만 삽입되어 페이지 분할이 줄어든다.
+ */
+public interface OrderNumberGenerator {
+
+    String next();
+}
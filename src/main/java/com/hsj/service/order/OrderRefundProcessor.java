@@ -0,0 +1,311 @@
+package com.hsj.service.order;
+
+import com.hsj.dto.order.OrderHistoryEntry;
+import com.hsj.dto.outbox.OrderStatusChangedPayload;
+import com.hsj.dto.outbox.PaymentPayload;
+import com.hsj.dto.payment.PaymentGatewayRequest;
+import com.hsj.dto.payment.PaymentGatewayResult;
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.entity.enums.PaymentStatus;
+import com.hsj.exception.BusinessException;
+import com.hsj.repository.custom.OrderBulkRepository;
+import com.hsj.repository.custom.OrderRefundRepository;
+import com.hsj.repository.custom.OrderRefundRepository.RefundAttempt;
+import com.hsj.repository.custom.OrderRefundRepository.RefundCandidate;
+import com.hsj.service.StockService;
+import com.hsj.service.outbox.OutboxWriter;
+import com.hsj.service.payment.PaymentGateway;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * REFUND_REQUESTED 주문을 배치로 가져와 PG 환불 → 재고 복원 → REFUNDED 반영까지 진행한다.
+ * <p>
+ * PG 환불은 DB 트랜잭션 밖에서 전용 실행기로 병렬 호출하고, 환불된 주문만 모아 배치당 트랜잭션 하나에서
+ * 주문 잠금 → 재고 복원 → 주문·아이템·결제 상태 갱신 → 이력·이벤트 기록을 한다. 재고는 배치 전체의 아이템을
+ * 상품별로 합쳐 상품 ID 순으로 한 번씩만 갱신하므로, 같은 상품의 환불이 몰려도 상품 행 잠금은 배치당 한 번이다.
+ * <p>
+ * 반영 트랜잭션이 실패하거나 다른 노드가 주문을 잡고 있으면 주문은 REFUND_REQUESTED로 남아 다음 주기에 환불을 다시 보낸다.
+ * 재고 복원도 같은 트랜잭션에서 롤백되므로 다시 처리해도 재고가 두 번 돌아오지 않는다.
+ * PG 환불은 결제의 멱등성 키로 식별되므로 다시 보내도 두 번 환불되지 않는다.
+ * PG 오류는 짧게 몇 번 재시도한 뒤 지수 백오프로 다음 시도 시각을 미루고, 거절되거나 재시도 횟수를 넘긴 주문은 수동 처리로 남긴다.
+ * 한 주기에 한 배치만 처리해 처리량을 batch-size / interval로 고르게 유지한다.
+ * 배치가 끝날 때까지 스케줄러 스레드 하나를 잡고 있으므로 {@code spring.task.scheduling.pool.size}로
+ * 다른 주기 작업과 스레드를 나눠 쓴다.
+ */
+@Slf4j
+@Component
+public class OrderRefundProcessor {
+
+    static final String CHANGED_BY = "SYSTEM";
+    static final String REASON = "환불 완료";
+
+    /** 환불 요청 시점에 재고가 차감된 채로 남아 있는 아이템 상태. 부분 취소된 아이템은 이미 재고가 돌아왔다. */
+    static final Set<OrderItemStatus> RESTORABLE_ITEM_STATUSES =
+            EnumSet.of(OrderItemStatus.PAID, OrderItemStatus.DELIVERED, OrderItemStatus.REFUND_REQUESTED);
+
+    private final OrderRefundRepository orderRefundRepository;
+    private final OrderBulkRepository orderBulkRepository;
+    private final StockService stockService;
+    private final PaymentGateway paymentGateway;
+    private final OutboxWriter outboxWriter;
+    private final OrderHistoryRecorder orderHistoryRecorder;
+    private final OrderDetailCache orderDetailCache;
+    private final Executor refundExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int immediateAttempts;
+    private final long immediateBackoffMillis;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
+    private final Counter refundedCounter;
+    private final Counter deferredCounter;
+    private final Counter parkedCounter;
+
+    public OrderRefundProcessor(OrderRefundRepository orderRefundRepository,
+                                OrderBulkRepository orderBulkRepository,
+                                StockService stockService,
+                                PaymentGateway paymentGateway,
+                                OutboxWriter outboxWriter,
+                                OrderHistoryRecorder orderHistoryRecorder,
+                                OrderDetailCache orderDetailCache,
+                                @Qualifier("refundExecutor") Executor refundExecutor,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${order.refund.batch-size:200}") int batchSize,
+                                @Value("${order.refund.retry.immediate-attempts:3}") int immediateAttempts,
+                                @Value("${order.refund.retry.immediate-backoff-ms:200}") long immediateBackoffMillis,
+                                @Value("${order.refund.retry.max-attempts:10}") int maxAttempts,
+                                @Value("${order.refund.retry.delay-ms:30000}") long retryDelayMillis,
+                                @Value("${order.refund.retry.max-delay-ms:3600000}") long maxRetryDelayMillis) {
+        this.orderRefundRepository = orderRefundRepository;
+        this.orderBulkRepository = orderBulkRepository;
+        this.stockService = stockService;
+        this.paymentGateway = paymentGateway;
+        this.outboxWriter = outboxWriter;
+        this.orderHistoryRecorder = orderHistoryRecorder;
+        this.orderDetailCache = orderDetailCache;
+        this.refundExecutor = refundExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.immediateAttempts = immediateAttempts;
+        this.immediateBackoffMillis = immediateBackoffMillis;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+        this.refundedCounter = Counter.builder("order.refund.completed").register(meterRegistry);
+        this.deferredCounter = Counter.builder("order.refund.deferred").register(meterRegistry);
+        this.parkedCounter = Counter.builder("order.refund.parked").register(meterRegistry);
+    }
+
+    /**
+     * 환불 대기 주문 한 배치를 처리한다. PG 서킷이 열려 있으면 대기열을 건드리지 않고 다음 주기를 기다린다.
+     *
+     * @return REFUNDED로 반영한 주문 수
+     */
+    @Scheduled(fixedDelayString = "${order.refund.interval-ms:1000}")
+    public int process() {
+        if (!paymentGateway.isAvailable()) {
+            log.debug("PG 서킷이 열려 있어 환불 처리를 건너뜀");
+            return 0;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<RefundCandidate> candidates = orderRefundRepository.findDue(now, batchSize);
+            if (candidates.isEmpty()) {
+                return 0;
+            }
+            return processBatch(candidates, now);
+        } catch (DataAccessException e) {
+            log.warn("환불 처리 실패: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private int processBatch(List<RefundCandidate> candidates, LocalDateTime now) {
+        List<CompletableFuture<Reversal>> futures = candidates.stream()
+                .map(candidate -> CompletableFuture.supplyAsync(() -> reverse(candidate), refundExecutor))
+                .toList();
+
+        List<RefundCandidate> reversed = new ArrayList<>();
+        List<RefundAttempt> failures = new ArrayList<>();
+        for (CompletableFuture<Reversal> future : futures) {
+            Reversal reversal = future.join();
+            RefundCandidate candidate = reversal.candidate();
+            int attempts = candidate.attempts() + 1;
+            switch (reversal.outcome()) {
+                case REVERSED, NOT_REQUIRED -> reversed.add(candidate);
+                case DECLINED -> {
+                    log.error("PG 환불 거절, 수동 처리 필요: orderId={}, paymentId={}, reason={}",
+                            candidate.orderId(), candidate.paymentId(), reversal.error());
+                    parkedCounter.increment();
+                    failures.add(new RefundAttempt(candidate.orderId(), attempts, null, reversal.error()));
+                }
+                case RETRY -> {
+                    if (attempts >= maxAttempts) {
+                        log.error("PG 환불 재시도 횟수 초과, 수동 처리 필요: orderId={}, paymentId={}, attempts={}, error={}",
+                                candidate.orderId(), candidate.paymentId(), attempts, reversal.error());
+                        parkedCounter.increment();
+                        failures.add(new RefundAttempt(candidate.orderId(), attempts, null, reversal.error()));
+                    } else {
+                        deferredCounter.increment();
+                        failures.add(new RefundAttempt(candidate.orderId(), attempts,
+                                now.plus(retryDelay(attempts), ChronoUnit.MILLIS), reversal.error()));
+                    }
+                }
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            orderRefundRepository.saveAttempts(failures);
+        }
+        int applied = reversed.isEmpty() ? 0 : apply(reversed);
+        log.info("환불 배치 처리: 대상={}, 반영={}, 미룸·보류={}", candidates.size(), applied, failures.size());
+        return applied;
+    }
+
+    /**
+     * PG에 결제 환불을 보낸다. 결제가 없거나 이미 환불된 주문은 PG를 부르지 않는다.
+     * 장애 격리 계층이 거절한 호출(서킷 열림, 벌크헤드 포화, 타임아웃)은 PG가 버거운 상태이므로 제자리에서 다시 보내지 않는다.
+     */
+    private Reversal reverse(RefundCandidate candidate) {
+        if (candidate.paymentId() == null || candidate.paymentStatus() == PaymentStatus.REFUNDED) {
+            return new Reversal(candidate, Outcome.NOT_REQUIRED, null);
+        }
+        PaymentGatewayRequest request = new PaymentGatewayRequest(candidate.paymentId(), candidate.orderId(),
+                candidate.idempotencyKey(), candidate.amount(), candidate.paymentMethod());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                PaymentGatewayResult result = paymentGateway.refund(request);
+                return result.approved()
+                        ? new Reversal(candidate, Outcome.REVERSED, null)
+                        : new Reversal(candidate, Outcome.DECLINED, result.failureReason());
+            } catch (BusinessException e) {
+                return new Reversal(candidate, Outcome.RETRY, e.getMessage());
+            } catch (RuntimeException e) {
+                if (attempt >= immediateAttempts || !sleep(immediateBackoffMillis << (attempt - 1))) {
+                    return new Reversal(candidate, Outcome.RETRY, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** 반영 트랜잭션이 실패하면 주문은 그대로 남고, 다음 주기에 PG 환불(멱등)부터 다시 한다. */
+    private int apply(List<RefundCandidate> reversed) {
+        try {
+            Integer applied = transactionTemplate.execute(status -> applyBatch(reversed));
+            refundedCounter.increment(applied);
+            return applied;
+        } catch (DataAccessException e) {
+            log.error("환불 반영 실패: {}건, 첫 주문={}", reversed.size(), reversed.get(0).orderId(), e);
+            return 0;
+        }
+    }
+
+    private int applyBatch(List<RefundCandidate> reversed) {
+        Map<Long, RefundCandidate> byOrder = new LinkedHashMap<>(reversed.size() * 2);
+        reversed.forEach(candidate -> byOrder.put(candidate.orderId(), candidate));
+
+        List<Long> orderIds = orderRefundRepository.lockRefundable(byOrder.keySet());
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        // 배치 전체 아이템을 상품별로 합쳐 상품 ID 순으로 한 번씩 되돌린다.
+        // 이 트랜잭션 안에서 되돌려야 뒤 단계가 실패해 주문이 REFUND_REQUESTED로 남을 때 재고도 함께 롤백된다.
+        stockService.restoreAllInTransaction(orderRefundRepository.findItemQuantities(orderIds, RESTORABLE_ITEM_STATUSES));
+        orderRefundRepository.updateItemStatus(orderIds, RESTORABLE_ITEM_STATUSES, OrderItemStatus.REFUNDED);
+        orderBulkRepository.updateOrderStatus(orderIds, OrderStatus.REFUNDED);
+
+        Map<Long, PaymentPayload> paymentEvents = new LinkedHashMap<>();
+        for (Long orderId : orderIds) {
+            RefundCandidate candidate = byOrder.get(orderId);
+            if (candidate.paymentStatus() == PaymentStatus.COMPLETED) {
+                paymentEvents.put(orderId, new PaymentPayload(candidate.paymentId(), candidate.amount(),
+                        candidate.paymentMethod(), PaymentStatus.REFUNDED));
+            }
+        }
+        if (!paymentEvents.isEmpty()) {
+            orderRefundRepository.markPaymentsRefunded(
+                    paymentEvents.values().stream().map(PaymentPayload::paymentId).toList());
+        }
+        orderRefundRepository.deleteAttempts(orderIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderHistoryEntry> histories = new ArrayList<>(orderIds.size());
+        Map<Long, OrderStatusChangedPayload> statusEvents = new LinkedHashMap<>(orderIds.size() * 2);
+        for (Long orderId : orderIds) {
+            histories.add(new OrderHistoryEntry(orderId, OrderStatus.REFUND_REQUESTED, OrderStatus.REFUNDED,
+                    REASON, CHANGED_BY, now));
+            statusEvents.put(orderId, new OrderStatusChangedPayload(
+                    OrderStatus.REFUND_REQUESTED, OrderStatus.REFUNDED, REASON, CHANGED_BY));
+        }
+        orderHistoryRecorder.recordAll(histories);
+        outboxWriter.appendAll(OutboxEventType.ORDER_STATUS_CHANGED, statusEvents);
+        if (!paymentEvents.isEmpty()) {
+            outboxWriter.appendAll(OutboxEventType.PAYMENT_REFUNDED, paymentEvents);
+        }
+        orderDetailCache.evictAfterCommit(orderIds);
+        return orderIds.size();
+    }
+
+    /** attempts번째 실패 뒤의 대기 시간. delay-ms부터 두 배씩 늘려 max-delay-ms에서 멈춘다. */
+    long retryDelay(int attempts) {
+        long delay = retryDelayMillis;
+        for (int i = 1; i < attempts && delay < maxRetryDelayMillis; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, maxRetryDelayMillis);
+    }
+
+    private static boolean sleep(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private enum Outcome {
+        /** PG 환불 완료 */
+        REVERSED,
+        /** 되돌릴 결제가 없거나 이미 환불됨 */
+        NOT_REQUIRED,
+        /** PG가 환불을 거절함 — 자동 재시도하지 않는다 */
+        DECLINED,
+        /** 결과를 알 수 없거나 PG가 버거움 — 백오프 뒤 다시 보낸다 */
+        RETRY
+    }
+
+    private record Reversal(RefundCandidate candidate, Outcome outcome, String error) {
+    }
+}
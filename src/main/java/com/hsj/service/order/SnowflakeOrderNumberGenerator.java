@@ -0,0 +1,104 @@
+package com.hsj.service.order;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake 방식 주문번호. 64비트 = 기준 시각 이후 밀리초(41) + 노드(10) + 밀리초 내 순번(12)이며,
+ * Crockford Base32 고정 13자리로 렌더링해 {@code ORD-0GZ3X8K2M4T7Q} 형태가 된다.
+ * <p>
+ * 고정 폭이고 알파벳이 ASCII 오름차순이므로 문자열 정렬 순서가 생성 순서와 같다.
+ * 노드당 밀리초 4096건까지 발급하며, 순번이 넘치거나 시계가 뒤로 가면 마지막 시각을 논리적으로 앞당겨
+ * 대기나 실패 없이 단조 증가를 유지한다.
+ * <p>
+ * 노드 ID는 {@code order.number.node-id}로 지정한다. 지정하지 않으면 호스트명 해시를 쓰는데,
+ * 노드가 많으면 해시가 겹칠 수 있으므로 운영에서는 파드 순번 등으로 명시하는 것을 권장한다.
+ */
+@Slf4j
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    /** 2025-01-01T00:00:00Z. 41비트 밀리초로 약 69년을 쓸 수 있다. */
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+    private static final String PREFIX = "ORD-";
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    /** 마지막으로 발급한 (경과 밀리초 << SEQUENCE_BITS | 순번). */
+    private final AtomicLong lastState = new AtomicLong(-1);
+
+    @Autowired
+    public SnowflakeOrderNumberGenerator(@Value("${order.number.node-id:-1}") int nodeId) {
+        this(nodeId >= 0 ? nodeId : hostNodeId(), System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order.number.node-id는 0~" + MAX_NODE_ID + " 범위여야 합니다: " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        log.info("주문번호 생성기 초기화: nodeId={}", nodeId);
+    }
+
+    @Override
+    public String next() {
+        return PREFIX + encode(nextId());
+    }
+
+    long nextId() {
+        while (true) {
+            long last = lastState.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long lastMillis = last >>> SEQUENCE_BITS;
+
+            long next;
+            if (last < 0 || now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // 같은 밀리초이거나 시계가 뒤로 간 경우: 순번을 올리고, 넘치면 다음 밀리초로 넘어간다.
+                next = last + 1;
+            }
+
+            if (lastState.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = CROCKFORD[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static int hostNodeId() {
+        try {
+            return (InetAddress.getLocalHost().getHostName().hashCode() & 0x7FFFFFFF) % (MAX_NODE_ID + 1);
+        } catch (UnknownHostException e) {
+            log.warn("호스트명을 확인할 수 없어 주문번호 노드 ID를 0으로 사용합니다.", e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.hsj.service.outbox;
+
+import com.hsj.dto.outbox.OutboxMessage;
+import com.hsj.repository.custom.OutboxJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 미발행 아웃박스 이벤트를 배치로 가져와 모든 싱크에 발행하고 발행 시각을 기록한다.
+ * <p>
+ * 여러 노드가 동시에 돌 수 있도록 {@code FOR UPDATE SKIP LOCKED}로 서로 다른 행을 나눠 가진다.
+ * 이 경우 한 집계의 앞선 이벤트를 다른 노드가 잡고 있을 수 있으므로, 집계별 미발행 ID 목록의 앞부분 중
+ * 이번 배치가 연속으로 쥐고 있는 이벤트까지만 발행하고 나머지는 다음 주기로 미룬다.
+ * 싱크 발행 후 커밋 전에 실패하면 같은 이벤트가 다시 나갈 수 있다(최소 한 번 전달).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxJdbcRepository outboxJdbcRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int retentionHours;
+
+    private final Counter publishedCounter;
+    private final Counter deferredCounter;
+    private final Counter failureCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxJdbcRepository outboxJdbcRepository,
+                       List<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.max-batches:20}") int maxBatches,
+                       @Value("${outbox.retention-hours:24}") int retentionHours) {
+        this.outboxJdbcRepository = outboxJdbcRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.retentionHours = retentionHours;
+
+        this.publishedCounter = Counter.builder("outbox.relay.published").register(meterRegistry);
+        this.deferredCounter = Counter.builder("outbox.relay.deferred").register(meterRegistry);
+        this.failureCounter = Counter.builder("outbox.relay.failures").register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch").register(meterRegistry);
+        Gauge.builder("outbox.relay.lag.seconds", lagMillis, millis -> millis.get() / 1000.0)
+                .register(meterRegistry);
+
+        log.info("아웃박스 릴레이 시작: sinks={}", sinks.stream().map(OutboxSink::name).toList());
+    }
+
+    /**
+     * 배치가 가득 차는 동안 최대 maxBatches번까지 연달아 발행한다.
+     *
+     * @return 이번 주기에 발행한 이벤트 수
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public int relay() {
+        int published = 0;
+        try {
+            for (int i = 0; i < maxBatches; i++) {
+                BatchResult result = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+                published += result.published();
+                // 잡은 행이 모두 순서 대기로 밀렸으면 같은 행을 다시 잡게 되므로 다음 주기로 넘긴다.
+                if (result.claimed() < batchSize || result.published() == 0) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.error("아웃박스 발행 실패: 이번 주기 발행={}건", published, e);
+        } finally {
+            updateLag();
+        }
+        return published;
+    }
+
+    /** 발행이 끝난 지 보존 기간이 지난 행을 지운다. */
+    @Scheduled(fixedDelayString = "${outbox.cleanup.interval-ms:60000}")
+    public void purgePublished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = outboxJdbcRepository.deletePublishedBefore(cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            log.info("발행 완료 아웃박스 정리: {}건", total);
+        }
+    }
+
+    private BatchResult relayBatch() {
+        List<OutboxMessage> claimed = outboxJdbcRepository.claim(batchSize);
+        if (claimed.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<OutboxMessage> publishable = inAggregateOrder(claimed);
+        if (!publishable.isEmpty()) {
+            for (OutboxSink sink : sinks) {
+                sink.publish(publishable);
+            }
+            outboxJdbcRepository.markPublished(publishable.stream().map(OutboxMessage::id).toList());
+            publishedCounter.increment(publishable.size());
+        }
+        deferredCounter.increment(claimed.size() - publishable.size());
+        return new BatchResult(claimed.size(), publishable.size());
+    }
+
+    /**
+     * 집계별로 미발행 ID를 오름차순으로 훑으며, 이번 배치가 잡은 이벤트가 이어지는 동안만 발행 대상으로 삼는다.
+     * 앞선 이벤트를 다른 노드가 잡고 있으면 그 집계의 이후 이벤트는 모두 미룬다.
+     */
+    List<OutboxMessage> inAggregateOrder(List<OutboxMessage> claimed) {
+        Map<Long, OutboxMessage> claimedById = new HashMap<>(claimed.size() * 2);
+        Map<String, Set<Long>> aggregateIdsByType = new HashMap<>();
+        for (OutboxMessage message : claimed) {
+            claimedById.put(message.id(), message);
+            aggregateIdsByType.computeIfAbsent(message.aggregateType(), type -> new LinkedHashSet<>())
+                    .add(message.aggregateId());
+        }
+
+        List<OutboxMessage> publishable = new ArrayList<>(claimed.size());
+        aggregateIdsByType.forEach((aggregateType, aggregateIds) -> {
+            Map<Long, List<Long>> pending = outboxJdbcRepository.findPendingIds(aggregateType, aggregateIds);
+            for (List<Long> ids : pending.values()) {
+                for (Long id : ids) {
+                    OutboxMessage message = claimedById.get(id);
+                    if (message == null) {
+                        break;
+                    }
+                    publishable.add(message);
+                }
+            }
+        });
+        publishable.sort(Comparator.comparingLong(OutboxMessage::id));
+        return publishable;
+    }
+
+    private void updateLag() {
+        try {
+            lagMillis.set(outboxJdbcRepository.findOldestPendingCreatedAt()
+                    .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()))
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.warn("아웃박스 지연 측정 실패: {}", e.getMessage());
+        }
+    }
+
+    private record BatchResult(int claimed, int published) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.hsj.service.outbox;
+
+import com.hsj.dto.outbox.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * 아웃박스 이벤트 발행 대상. {@link OutboxRelay}가 ID 오름차순 배치를 넘기며,
+ * 예외를 던지면 배치 전체가 발행되지 않은 것으로 남아 다음 주기에 다시 전달된다(최소 한 번 전달).
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxMessage> messages);
+}
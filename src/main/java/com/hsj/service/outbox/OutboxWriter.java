@@ -0,0 +1,62 @@
+package com.hsj.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.repository.custom.OutboxJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 도메인 변경과 같은 트랜잭션에서 아웃박스 이벤트를 적재한다.
+ * 트랜잭션 밖에서 호출하면 변경 없이 이벤트만 남을 수 있으므로 MANDATORY로 막는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxJdbcRepository outboxJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType eventType, Long orderId, Object payload) {
+        outboxJdbcRepository.insert(eventType, orderId, serialize(payload));
+    }
+
+    /** 일괄 처리용. 주문 ID별 페이로드를 배치 한 번으로 적재한다. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(OutboxEventType eventType, Map<Long, ?> payloadsByOrder) {
+        if (payloadsByOrder.isEmpty()) {
+            return;
+        }
+        Map<Long, String> serialized = new LinkedHashMap<>(payloadsByOrder.size() * 2);
+        payloadsByOrder.forEach((orderId, payload) -> serialized.put(orderId, serialize(payload)));
+        outboxJdbcRepository.insertAll(eventType, serialized);
+    }
+
+    /** 한 주문에 이벤트가 여러 건인 일괄 처리용. (주문 ID, 페이로드) 목록을 순서대로 배치 한 번으로 적재한다. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(OutboxEventType eventType, List<? extends Map.Entry<Long, ?>> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, String>> serialized = payloads.stream()
+                .map(e -> Map.entry(e.getKey(), serialize(e.getValue())))
+                .toList();
+        outboxJdbcRepository.insertAll(eventType, serialized);
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("아웃박스 페이로드 직렬화 실패: " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
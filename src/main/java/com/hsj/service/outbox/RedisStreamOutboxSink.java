@@ -0,0 +1,66 @@
+package com.hsj.service.outbox;
+
+import com.hsj.dto.outbox.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 집계 종류별 Redis Stream({@code outbox:stream:order})에 이벤트를 추가한다.
+ * 배치를 파이프라인 한 번으로 보내며, 스트림은 max-length 근사치로 잘라 메모리를 제한한다.
+ * 소비자는 컨슈머 그룹으로 읽고 outboxId로 중복을 거른다.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.redis-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class RedisStreamOutboxSink implements OutboxSink {
+
+    private static final String STREAM_KEY_PREFIX = "outbox:stream:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final XAddOptions addOptions;
+
+    public RedisStreamOutboxSink(RedisTemplate<String, String> redisTemplate,
+                                 @Value("${outbox.sink.redis-stream.max-length:1000000}") long maxLength) {
+        this.redisTemplate = redisTemplate;
+        this.addOptions = XAddOptions.maxlen(maxLength).approximateTrimming(true);
+    }
+
+    @Override
+    public String name() {
+        return "redis-stream";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (OutboxMessage message : messages) {
+                byte[] key = bytes(STREAM_KEY_PREFIX + message.aggregateType().toLowerCase());
+                connection.streamCommands().xAdd(StreamRecords.newRecord().in(key).ofMap(fields(message)), addOptions);
+            }
+            return null;
+        });
+    }
+
+    private static Map<byte[], byte[]> fields(OutboxMessage message) {
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        fields.put(bytes("outboxId"), bytes(String.valueOf(message.id())));
+        fields.put(bytes("aggregateId"), bytes(String.valueOf(message.aggregateId())));
+        fields.put(bytes("eventType"), bytes(message.eventType().name()));
+        fields.put(bytes("payload"), bytes(message.payload()));
+        fields.put(bytes("occurredAt"), bytes(message.createdAt().toString()));
+        return fields;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,50 @@
+package com.hsj.service.payment;
+
+import java.util.Arrays;
+
+/**
+ * 최근 성공 호출 지연의 p99에 배수를 곱해 PG 호출 타임아웃을 정한다.
+ * <p>
+ * PG가 평소보다 느려지면 타임아웃도 따라 늘지만 상한을 넘지 않고, 빨라지면 하한까지 줄어들어
+ * 멈춘 호출을 빨리 끊는다. 표본이 충분히 모이기 전에는 상한을 쓴다.
+ */
+class AdaptiveTimeout {
+
+    static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 10;
+
+    private final long[] samples;
+    private final double multiplier;
+    private final long minMillis;
+    private final long maxMillis;
+
+    private int next;
+    private int recorded;
+    private int sinceRecompute;
+    private volatile long timeoutMillis;
+
+    AdaptiveTimeout(int windowSize, double multiplier, long minMillis, long maxMillis) {
+        this.samples = new long[windowSize];
+        this.multiplier = multiplier;
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+        this.timeoutMillis = maxMillis;
+    }
+
+    long currentMillis() {
+        return timeoutMillis;
+    }
+
+    synchronized void record(long elapsedMillis) {
+        samples[next] = elapsedMillis;
+        next = (next + 1) % samples.length;
+        recorded = Math.min(recorded + 1, samples.length);
+        if (recorded >= MIN_SAMPLES && ++sinceRecompute >= RECOMPUTE_EVERY) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, recorded);
+            Arrays.sort(sorted);
+            long p99 = sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+            timeoutMillis = Math.max(minMillis, Math.min(maxMillis, (long) Math.ceil(p99 * multiplier)));
+        }
+    }
+}
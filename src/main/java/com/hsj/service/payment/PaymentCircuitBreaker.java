@@ -0,0 +1,129 @@
+package com.hsj.service.payment;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 N건의 PG 호출 결과로 판단하는 슬라이딩 윈도우 서킷 브레이커.
+ * <p>
+ * 윈도우 안의 실패율(예외·타임아웃)이 임계치를 넘으면 OPEN으로 바뀌어 호출을 바로 거절한다.
+ * OPEN 유지 시간이 지나면 HALF_OPEN에서 정해진 수의 시험 호출만 보내고, 모두 성공하면 CLOSED로,
+ * 하나라도 실패하면 다시 OPEN으로 돌아간다. PG의 승인 거절은 정상 응답이므로 성공으로 센다.
+ */
+@Slf4j
+class PaymentCircuitBreaker {
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final String name;
+    private final boolean[] failures;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationMillis;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failureCount;
+    private long openedAt;
+    private int halfOpenIssued;
+    private int halfOpenSucceeded;
+
+    PaymentCircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          long openDurationMillis, int halfOpenCalls, LongSupplier clock) {
+        this.name = name;
+        this.failures = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+
+    /** 호출해도 되는지 판단한다. true를 받았으면 결과를 onSuccess/onFailure/release 중 하나로 알려야 한다. */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openDurationMillis) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenIssued >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenIssued++;
+        }
+        return true;
+    }
+
+    /** 허가를 받았지만 호출하지 못한 경우(벌크헤드 포화) 시험 호출 몫을 돌려준다. */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenIssued > 0) {
+            halfOpenIssued--;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && (double) failureCount / recorded >= failureRateThreshold) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == failures.length) {
+            if (failures[next]) {
+                failureCount--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[next] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        next = (next + 1) % failures.length;
+    }
+
+    private void transitionTo(State target) {
+        log.warn("PG 서킷 상태 변경: gateway={}, {} -> {}, failureRate={}/{}",
+                name, state, target, failureCount, recorded);
+        state = target;
+        halfOpenIssued = 0;
+        halfOpenSucceeded = 0;
+        if (target == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+        if (target == State.CLOSED) {
+            next = 0;
+            recorded = 0;
+            failureCount = 0;
+        }
+    }
+}
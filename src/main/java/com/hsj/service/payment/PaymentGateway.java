@@ -0,0 +1,29 @@
+package com.hsj.service.payment;
+
+import com.hsj.dto.payment.PaymentGatewayRequest;
+import com.hsj.dto.payment.PaymentGatewayResult;
+
+/**
+ * 외부 PG 포트. 구현체는 같은 멱등성 키의 재요청에 같은 결과를 돌려줘야 한다.
+ */
+public interface PaymentGateway {
+
+    /**
+     * 결제를 승인한다. 거절은 {@link PaymentGatewayResult#declined}로 돌려주고,
+     * 승인 여부를 알 수 없으면 예외를 던진다. 호출자는 같은 요청으로 다시 시도할 수 있다.
+     */
+    PaymentGatewayResult approve(PaymentGatewayRequest request);
+
+    /**
+     * 승인된 결제를 전액 환불한다. 환불도 결제의 멱등성 키로 식별하므로 같은 결제를 여러 번 보내도 한 번만 환불된다.
+     * 결과 처리 규칙은 {@link #approve}와 같다. approved는 환불 완료, declined는 PG가 환불을 거절한 것이다.
+     */
+    PaymentGatewayResult refund(PaymentGatewayRequest request);
+
+    String name();
+
+    /** 지금 호출을 받을 수 있는지. 장애 격리 계층이 서킷이 열린 동안 false를 돌려준다. */
+    default boolean isAvailable() {
+        return true;
+    }
+}
@@ -0,0 +1,158 @@
+package com.hsj.service.payment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsj.dto.payment.PaymentResponse;
+import com.hsj.exception.DuplicateException;
+import com.hsj.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 결제 멱등성 키의 Redis 선점/재생 게이트. DB 유니크 인덱스 앞단에서 같은 키의 재시도를 걸러낸다.
+ * <p>
+ * 키 값은 처리 중이면 {@code P:<토큰>}, 커밋된 결과가 있으면 {@code D:<응답 JSON>}이다.
+ * 처리 중인 키를 만난 요청은 잠시 기다렸다가 첫 요청의 결과를 그대로 돌려받고, 첫 요청이 실패해 키가
+ * 풀리면 다시 선점을 시도한다. Redis를 쓸 수 없으면 게이트를 건너뛰고 DB 조회와 유니크 인덱스로만 판단한다.
+ */
+@Slf4j
+@Component
+public class PaymentIdempotencyGate {
+
+    static final String KEY_PREFIX = "payment:idem:";
+    static final String PENDING = "P:";
+    static final String DONE = "D:";
+
+    // 선점한 토큰이 그대로일 때만 지운다. TTL이 지나 다른 요청이 다시 선점한 키는 건드리지 않는다.
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration inFlightTtl;
+    private final Duration resultTtl;
+    private final long waitTimeoutMillis;
+    private final long pollIntervalMillis;
+    private final Counter replayedCounter;
+    private final Counter waitedCounter;
+    private final Counter bypassedCounter;
+
+    public PaymentIdempotencyGate(RedisTemplate<String, String> redisTemplate,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${payment.idempotency.in-flight-ttl-seconds:30}") long inFlightTtlSeconds,
+                                  @Value("${payment.idempotency.result-ttl-hours:24}") long resultTtlHours,
+                                  @Value("${payment.idempotency.wait-timeout-ms:3000}") long waitTimeoutMillis,
+                                  @Value("${payment.idempotency.poll-interval-ms:20}") long pollIntervalMillis) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.inFlightTtl = Duration.ofSeconds(inFlightTtlSeconds);
+        this.resultTtl = Duration.ofHours(resultTtlHours);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.replayedCounter = meterRegistry.counter("payment.idempotency", "result", "replayed");
+        this.waitedCounter = meterRegistry.counter("payment.idempotency", "result", "waited");
+        this.bypassedCounter = meterRegistry.counter("payment.idempotency", "result", "bypassed");
+    }
+
+    /**
+     * 키를 선점한다. 이미 커밋된 결과가 있으면 재생할 응답을, 다른 요청이 처리 중이면 그 결과를 기다려 돌려준다.
+     * 대기 시간 안에 결과가 나오지 않으면 DUPLICATE_PAYMENT 예외를 던진다.
+     */
+    public Claim claim(String idempotencyKey) {
+        String key = KEY_PREFIX + idempotencyKey;
+        String token = PENDING + UUID.randomUUID();
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+        boolean waited = false;
+        try {
+            while (true) {
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, inFlightTtl))) {
+                    return new Claim(key, token, null);
+                }
+                String value = redisTemplate.opsForValue().get(key);
+                if (value != null && value.startsWith(DONE)) {
+                    (waited ? waitedCounter : replayedCounter).increment();
+                    return new Claim(key, null, objectMapper.readValue(value.substring(DONE.length()),
+                            PaymentResponse.class));
+                }
+                if (value != null && System.currentTimeMillis() >= deadline) {
+                    throw new DuplicateException(ErrorCode.DUPLICATE_PAYMENT, "이미 처리 중인 결제 요청입니다.");
+                }
+                // 처리 중이면 잠시 뒤 다시 보고, 그 사이 키가 풀렸으면(첫 요청 실패) 바로 선점을 다시 시도한다.
+                if (value != null) {
+                    waited = true;
+                    Thread.sleep(pollIntervalMillis);
+                }
+            }
+        } catch (DuplicateException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DuplicateException(ErrorCode.DUPLICATE_PAYMENT, "이미 처리 중인 결제 요청입니다.");
+        } catch (Exception e) {
+            bypassedCounter.increment();
+            log.warn("멱등성 게이트 사용 불가 (DB 조회로 대체): key={}, error={}", idempotencyKey, e.getMessage());
+            return new Claim(key, null, null);
+        }
+    }
+
+    /** 커밋된 결과를 저장해 이후 재시도가 DB를 거치지 않고 같은 응답을 받게 한다. */
+    public void complete(Claim claim, PaymentResponse response) {
+        store(claim.key(), response);
+    }
+
+    /**
+     * 접수 이후 결제 상태가 바뀌면(PG 승인·거절) 저장된 응답을 최종 상태로 덮어쓴다.
+     * 저장에 실패하면 재시도는 결과 TTL 동안 접수 시점 응답을 받으며, 최신 상태는 결제 조회로 확인한다.
+     */
+    public void record(String idempotencyKey, PaymentResponse response) {
+        store(KEY_PREFIX + idempotencyKey, response);
+    }
+
+    /** 결과 없이 끝난 요청(실패·검증 오류)의 선점을 풀어 같은 키로 다시 시도할 수 있게 한다. */
+    public void release(Claim claim) {
+        if (claim.token() == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(claim.key()), claim.token());
+        } catch (Exception e) {
+            log.warn("멱등성 키 해제 실패 (TTL 후 만료): key={}, error={}", claim.key(), e.getMessage());
+        }
+    }
+
+    private void store(String key, PaymentResponse response) {
+        try {
+            redisTemplate.opsForValue().set(key, DONE + objectMapper.writeValueAsString(response), resultTtl);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("결제 응답 직렬화 실패: key=" + key, e);
+        } catch (Exception e) {
+            // 결제는 이미 커밋됐다. 재시도는 DB 조회로 같은 결과를 받는다.
+            log.warn("멱등성 결과 저장 실패: key={}, error={}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 선점 결과. replay가 있으면 처리 없이 그 응답을 돌려주면 되고, token이 없으면 게이트를 건너뛴 것이다.
+     */
+    public record Claim(String key, String token, PaymentResponse replay) {
+
+        public boolean isReplay() {
+            return replay != null;
+        }
+    }
+}
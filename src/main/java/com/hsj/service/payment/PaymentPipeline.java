@@ -0,0 +1,86 @@
+package com.hsj.service.payment;
+
+import com.hsj.dto.payment.PaymentGatewayRequest;
+import com.hsj.dto.payment.PaymentGatewayResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * 커밋된 PENDING 결제를 전용 실행기에서 PG로 보내고, 결과를 콜백으로 넘긴다.
+ * <p>
+ * 요청 스레드와 DB 커넥션은 PG 왕복을 기다리지 않는다. 동시 호출 수는 실행기 스레드 수로 제한되며,
+ * 제출이 거절되거나 PG 결과를 알 수 없으면 결제는 PENDING으로 남고 {@link PaymentRecoverySweeper}가 다시 보낸다.
+ */
+@Slf4j
+@Component
+public class PaymentPipeline {
+
+    private final PaymentGateway paymentGateway;
+    private final ThreadPoolTaskExecutor executor;
+    private final Counter rejectedCounter;
+    private final Counter unknownCounter;
+    private final Timer gatewayTimer;
+
+    public PaymentPipeline(PaymentGateway paymentGateway,
+                           @Qualifier("paymentGatewayExecutor") ThreadPoolTaskExecutor executor,
+                           MeterRegistry meterRegistry) {
+        this.paymentGateway = paymentGateway;
+        this.executor = executor;
+        this.rejectedCounter = meterRegistry.counter("payment.pipeline.rejected");
+        this.unknownCounter = meterRegistry.counter("payment.pipeline.unknown");
+        this.gatewayTimer = Timer.builder("payment.gateway.latency")
+                .tag("gateway", paymentGateway.name())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("payment.pipeline.queued", executor,
+                e -> e.getThreadPoolExecutor().getQueue().size());
+    }
+
+    /**
+     * PG 호출을 예약한다. 결과가 나오면 onResult를 PG 실행기 스레드에서 호출한다.
+     *
+     * @return 실행기가 받아들였으면 true. false면 결제는 PENDING으로 남는다.
+     */
+    public boolean submit(PaymentGatewayRequest request, Consumer<PaymentGatewayResult> onResult) {
+        try {
+            executor.execute(() -> run(request, onResult));
+            return true;
+        } catch (TaskRejectedException e) {
+            rejectedCounter.increment();
+            log.warn("PG 호출 대기열 초과 (복구 스위퍼가 재시도): paymentId={}", request.paymentId());
+            return false;
+        }
+    }
+
+    /** PG 서킷이 열려 있으면 false. 이때 새 결제를 접수해도 PENDING으로 쌓이기만 한다. */
+    public boolean isAvailable() {
+        return paymentGateway.isAvailable();
+    }
+
+    private void run(PaymentGatewayRequest request, Consumer<PaymentGatewayResult> onResult) {
+        PaymentGatewayResult result;
+        try {
+            result = gatewayTimer.recordCallable(() -> paymentGateway.approve(request));
+        } catch (Exception e) {
+            unknownCounter.increment();
+            log.warn("PG 결과 확인 불가 (복구 스위퍼가 재시도): paymentId={}, error={}",
+                    request.paymentId(), e.getMessage());
+            return;
+        }
+
+        try {
+            onResult.accept(result);
+        } catch (Exception e) {
+            // 결과 반영 트랜잭션이 실패해도 결제는 PENDING으로 남아 다시 처리된다. PG는 같은 키에 같은 결과를 준다.
+            log.error("PG 결과 반영 실패: paymentId={}, approved={}", request.paymentId(), result.approved(), e);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.hsj.service.payment;
+
+import com.hsj.dto.common.CursorResponse;
+import com.hsj.dto.payment.ReconciliationMismatchResponse;
+import com.hsj.dto.payment.ReconciliationRequest;
+import com.hsj.dto.payment.ReconciliationRunResponse;
+import com.hsj.entity.enums.PaymentStatus;
+import com.hsj.entity.enums.ReconciliationMismatchType;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import com.hsj.repository.custom.PaymentReconciliationRepository;
+import com.hsj.repository.custom.PaymentReconciliationRepository.PaymentSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PG 정산 파일(CSV)과 payments 테이블의 대사.
+ * <p>
+ * 파일은 {@link SettlementFileReader}로 고정 크기 버퍼만 써서 스트리밍하고, 청크마다 멱등성 키 IN 조회 한 번으로
+ * 결제를 맞춰 본다. 청크의 불일치 행, 읽은 키, 파일 위치 체크포인트는 한 트랜잭션으로 커밋되므로 작업이 중간에
+ * 죽어도 마지막 체크포인트부터 다시 읽으면 된다. 파일 끝까지 읽은 뒤에는 정산 기간의 승인 결제 중 파일에
+ * 없던 결제를 anti-join 한 번으로 찾아 보고한다.
+ * <p>
+ * 파일 첫 줄은 헤더이며 idempotency_key, amount, status 열이 있어야 한다(순서 무관, 그 밖의 열은 무시).
+ * 값에 쉼표가 들어가는 따옴표 필드는 지원하지 않는다.
+ */
+@Slf4j
+@Service
+public class PaymentReconciliationService {
+
+    /** 정산 파일 상태 → 기대하는 결제 상태. */
+    static final Map<String, PaymentStatus> SETTLED_STATUSES = Map.of(
+            "APPROVED", PaymentStatus.COMPLETED,
+            "CANCELLED", PaymentStatus.CANCELLED,
+            "REFUNDED", PaymentStatus.REFUNDED,
+            "PARTIALLY_REFUNDED", PaymentStatus.PARTIALLY_REFUNDED);
+
+    private static final String KEY_COLUMN = "idempotency_key";
+    private static final String AMOUNT_COLUMN = "amount";
+    private static final String STATUS_COLUMN = "status";
+
+    private static final String REPORT_HEADER =
+            "mismatch_id,type,idempotency_key,settled_amount,payment_amount,settled_status,payment_status,detail";
+
+    private final PaymentReconciliationRepository reconciliationRepository;
+    private final TaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final int chunkSize;
+    private final int bufferBytes;
+    private final long staleMinutes;
+    private final Counter rowsCounter;
+    private final MeterRegistry meterRegistry;
+
+    public PaymentReconciliationService(PaymentReconciliationRepository reconciliationRepository,
+                                        @Qualifier("reconciliationExecutor") TaskExecutor executor,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${payment.reconciliation.directory:./settlements}") String directory,
+                                        @Value("${payment.reconciliation.chunk-size:5000}") int chunkSize,
+                                        @Value("${payment.reconciliation.buffer-bytes:1048576}") int bufferBytes,
+                                        @Value("${payment.reconciliation.stale-minutes:10}") long staleMinutes) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.chunkSize = chunkSize;
+        this.bufferBytes = bufferBytes;
+        this.staleMinutes = staleMinutes;
+        this.rowsCounter = meterRegistry.counter("payment.reconciliation.rows");
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** 헤더를 검증하고 작업을 만든 뒤 백그라운드에서 대사를 시작한다. */
+    public ReconciliationRunResponse start(ReconciliationRequest request) {
+        if (!request.getFrom().isBefore(request.getTo())) {
+            throw new BusinessException(ErrorCode.INVALID_INPUT, "정산 종료 시각은 시작 시각보다 늦어야 합니다.");
+        }
+        Path file = resolve(request.getFileName());
+        try (SettlementFileReader reader = SettlementFileReader.open(file, bufferBytes)) {
+            parseHeader(reader.nextLine());
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.INVALID_SETTLEMENT_FILE, "정산 파일을 열 수 없습니다: " + e.getMessage());
+        }
+        if (reconciliationRepository.existsRunning(request.getFileName())) {
+            throw new BusinessException(ErrorCode.RECONCILIATION_IN_PROGRESS);
+        }
+
+        Long runId = reconciliationRepository.createRun(request.getFileName(), request.getFrom(), request.getTo());
+        log.info("정산 대사 시작: runId={}, file={}, period=[{}, {})",
+                runId, request.getFileName(), request.getFrom(), request.getTo());
+        submit(runId);
+        return getRun(runId);
+    }
+
+    /**
+     * 실패했거나 작업 노드가 죽어 체크포인트가 멈춘 작업을 마지막 체크포인트부터 다시 실행한다.
+     */
+    public ReconciliationRunResponse resume(Long runId) {
+        getRun(runId);
+        if (!reconciliationRepository.claim(runId, LocalDateTime.now().minusMinutes(staleMinutes))) {
+            throw new BusinessException(ErrorCode.RECONCILIATION_IN_PROGRESS);
+        }
+        log.info("정산 대사 재시작: runId={}", runId);
+        submit(runId);
+        return getRun(runId);
+    }
+
+    public ReconciliationRunResponse getRun(Long runId) {
+        return reconciliationRepository.findRun(runId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.RECONCILIATION_NOT_FOUND));
+    }
+
+    /** 불일치 목록을 mismatch_id 오름차순 커서로 조회한다. 커서는 마지막으로 받은 mismatch_id다. */
+    public CursorResponse<ReconciliationMismatchResponse> getMismatches(Long runId, String cursor, int size) {
+        getRun(runId);
+        long afterId;
+        try {
+            afterId = cursor == null || cursor.isBlank() ? 0L : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new BusinessException(ErrorCode.INVALID_CURSOR);
+        }
+        List<ReconciliationMismatchResponse> fetched = reconciliationRepository.findMismatches(runId, afterId, size + 1);
+        return CursorResponse.of(fetched, size, mismatch -> String.valueOf(mismatch.getMismatchId()));
+    }
+
+    /** 불일치 보고서를 CSV로 쓴다. 건수가 많아도 한 행씩 흘려 보낸다. */
+    @Transactional(readOnly = true)
+    public void exportReport(Long runId, Writer writer) throws IOException {
+        getRun(runId);
+        PrintWriter pw = new PrintWriter(writer);
+        pw.println(REPORT_HEADER);
+        reconciliationRepository.forEachMismatch(runId, m -> pw.println(String.join(",",
+                String.valueOf(m.getMismatchId()),
+                m.getType().name(),
+                csv(m.getIdempotencyKey()),
+                csv(m.getSettledAmount()),
+                csv(m.getPaymentAmount()),
+                csv(m.getSettledStatus()),
+                csv(m.getPaymentStatus()),
+                csv(m.getDetail()))));
+        pw.flush();
+        if (pw.checkError()) {
+            throw new IOException("정산 대사 보고서 쓰기 실패: runId=" + runId);
+        }
+    }
+
+    /** 체크포인트부터 파일 끝까지 대사하고 작업을 완료한다. 실패하면 FAILED로 남겨 재시작할 수 있게 한다. */
+    void run(Long runId) {
+        ReconciliationRunResponse run = getRun(runId);
+        long startedAt = System.nanoTime();
+        try (SettlementFileReader reader = SettlementFileReader.open(resolve(run.getFileName()), bufferBytes)) {
+            Map<String, Integer> columns = parseHeader(reader.nextLine());
+            if (run.getByteOffset() > reader.offset()) {
+                reader.seek(run.getByteOffset());
+            }
+
+            List<SettlementRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            do {
+                line = reader.nextLine();
+                if (line != null && !line.isBlank()) {
+                    chunk.add(SettlementRow.parse(line, columns));
+                }
+                if (!chunk.isEmpty() && (chunk.size() >= chunkSize || line == null)) {
+                    long offset = reader.offset();
+                    transactionTemplate.executeWithoutResult(status -> reconcileChunk(runId, chunk, offset));
+                    rowsCounter.increment(chunk.size());
+                    chunk.clear();
+                }
+            } while (line != null);
+
+            transactionTemplate.executeWithoutResult(status -> finish(run));
+            ReconciliationRunResponse finished = getRun(runId);
+            log.info("정산 대사 완료: runId={}, rows={}, mismatches={}, elapsedMs={}", runId, finished.getRowsRead(),
+                    finished.getMismatchCount(), (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (Exception e) {
+            log.error("정산 대사 실패 (마지막 체크포인트부터 재시작 가능): runId={}", runId, e);
+            reconciliationRepository.fail(runId, e.getMessage());
+        }
+    }
+
+    private void reconcileChunk(Long runId, List<SettlementRow> rows, long offset) {
+        List<ReconciliationMismatchResponse> mismatches = new ArrayList<>();
+        List<SettlementRow> valid = new ArrayList<>(rows.size());
+        for (SettlementRow row : rows) {
+            if (row.error() != null) {
+                mismatches.add(mismatch(ReconciliationMismatchType.MALFORMED_ROW, row, null).detail(row.error()).build());
+            } else {
+                valid.add(row);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            List<String> keys = valid.stream().map(SettlementRow::idempotencyKey).distinct().toList();
+            Set<String> firstSeen = new HashSet<>(reconciliationRepository.markSeen(runId, keys));
+            Map<String, PaymentSnapshot> payments = reconciliationRepository.findPayments(keys);
+            for (SettlementRow row : valid) {
+                PaymentSnapshot payment = payments.get(row.idempotencyKey());
+                // 앞선 청크에서 읽은 키는 처음부터 결과에 없고, 청크 안에서 반복된 키는 첫 행만 통과한다.
+                if (!firstSeen.remove(row.idempotencyKey())) {
+                    mismatches.add(mismatch(ReconciliationMismatchType.DUPLICATE_SETTLEMENT, row, payment).build());
+                } else if (payment == null) {
+                    mismatches.add(mismatch(ReconciliationMismatchType.MISSING_PAYMENT, row, null).build());
+                } else {
+                    if (row.amount().compareTo(payment.amount()) != 0) {
+                        mismatches.add(mismatch(ReconciliationMismatchType.AMOUNT_MISMATCH, row, payment).build());
+                    }
+                    if (row.expectedStatus() != payment.status()) {
+                        mismatches.add(mismatch(ReconciliationMismatchType.STATUS_MISMATCH, row, payment).build());
+                    }
+                }
+            }
+        }
+
+        reconciliationRepository.insertMismatches(runId, mismatches);
+        reconciliationRepository.checkpoint(runId, offset, rows.size(), mismatches.size());
+        for (ReconciliationMismatchResponse m : mismatches) {
+            meterRegistry.counter("payment.reconciliation.mismatches", "type", m.getType().name()).increment();
+        }
+    }
+
+    private void finish(ReconciliationRunResponse run) {
+        int missing = reconciliationRepository.insertMissingSettlements(run.getRunId(), run.getPeriodFrom(),
+                run.getPeriodTo(), Set.copyOf(SETTLED_STATUSES.values()));
+        reconciliationRepository.complete(run.getRunId(), missing);
+        reconciliationRepository.deleteSeen(run.getRunId());
+        if (missing > 0) {
+            meterRegistry.counter("payment.reconciliation.mismatches",
+                    "type", ReconciliationMismatchType.MISSING_SETTLEMENT.name()).increment(missing);
+        }
+    }
+
+    private void submit(Long runId) {
+        try {
+            executor.execute(() -> run(runId));
+        } catch (TaskRejectedException e) {
+            reconciliationRepository.fail(runId, "대사 작업 실행기 포화");
+            throw new BusinessException(ErrorCode.RECONCILIATION_IN_PROGRESS,
+                    "다른 정산 대사 작업이 진행 중입니다. 잠시 후 재시작해주세요. runId=" + runId);
+        }
+    }
+
+    /** 정산 디렉터리 밖을 가리키는 파일명(../ 등)은 받지 않는다. */
+    private Path resolve(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new BusinessException(ErrorCode.INVALID_SETTLEMENT_FILE, "정산 파일을 찾을 수 없습니다: " + fileName);
+        }
+        return file;
+    }
+
+    private static Map<String, Integer> parseHeader(String header) {
+        if (header == null) {
+            throw new BusinessException(ErrorCode.INVALID_SETTLEMENT_FILE, "정산 파일이 비어 있습니다.");
+        }
+        String[] names = header.split(",", -1);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            columns.put(unquote(names[i]).toLowerCase(), i);
+        }
+        for (String required : List.of(KEY_COLUMN, AMOUNT_COLUMN, STATUS_COLUMN)) {
+            if (!columns.containsKey(required)) {
+                throw new BusinessException(ErrorCode.INVALID_SETTLEMENT_FILE, "정산 파일 헤더에 " + required + " 열이 없습니다.");
+            }
+        }
+        return columns;
+    }
+
+    private static ReconciliationMismatchResponse.ReconciliationMismatchResponseBuilder mismatch(
+            ReconciliationMismatchType type, SettlementRow row, PaymentSnapshot payment) {
+        return ReconciliationMismatchResponse.builder()
+                .type(type)
+                .idempotencyKey(row.idempotencyKey())
+                .settledAmount(row.amount())
+                .settledStatus(row.settledStatus())
+                .paymentAmount(payment != null ? payment.amount() : null)
+                .paymentStatus(payment != null ? payment.status() : null);
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    /** 정산 파일 한 행. 해석할 수 없는 행은 error에 사유를 담고 나머지 값은 읽은 만큼만 채운다. */
+    record SettlementRow(String idempotencyKey, BigDecimal amount, String settledStatus,
+                         PaymentStatus expectedStatus, String error) {
+
+        private static final int MAX_KEY_LENGTH = 100;
+
+        static SettlementRow parse(String line, Map<String, Integer> columns) {
+            String[] fields = line.split(",", -1);
+            String key = field(fields, columns.get(KEY_COLUMN));
+            String status = field(fields, columns.get(STATUS_COLUMN));
+            String amountText = field(fields, columns.get(AMOUNT_COLUMN));
+            String storedKey = key != null && key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+
+            if (key == null || key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+                return new SettlementRow(storedKey, null, status, null, "멱등성 키 누락 또는 길이 초과");
+            }
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(amountText);
+            } catch (NumberFormatException | NullPointerException e) {
+                return new SettlementRow(key, null, status, null, "금액 형식 오류: " + amountText);
+            }
+            PaymentStatus expected = status != null ? SETTLED_STATUSES.get(status.toUpperCase()) : null;
+            if (expected == null) {
+                return new SettlementRow(key, amount, status, null, "알 수 없는 정산 상태: " + status);
+            }
+            return new SettlementRow(key, amount, status, expected, null);
+        }
+
+        private static String field(String[] fields, int index) {
+            return index < fields.length ? unquote(fields[index]) : null;
+        }
+    }
+}
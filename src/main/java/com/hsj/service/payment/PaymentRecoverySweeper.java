@@ -0,0 +1,46 @@
+package com.hsj.service.payment;
+
+import com.hsj.service.PaymentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * PG 결과를 받지 못하고 PENDING으로 남은 결제를 다시 PG로 보낸다.
+ * 대기열 초과로 제출되지 못했거나, PG 결과를 알 수 없었거나, 처리 중 노드가 내려간 결제가 대상이다.
+ * give-up 시간이 지나도록 결과가 없으면 실패로 닫고, 실제 승인 여부는 정산 대사에서 확인한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentRecoverySweeper {
+
+    private final PaymentService paymentService;
+
+    @Value("${payment.pipeline.retry-after-seconds:60}")
+    private long retryAfterSeconds;
+
+    @Value("${payment.pipeline.give-up-minutes:30}")
+    private long giveUpMinutes;
+
+    @Value("${payment.pipeline.recovery-batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${payment.pipeline.recovery-interval-ms:30000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int resubmitted = paymentService.resubmitPending(
+                    now.minusSeconds(retryAfterSeconds), now.minusMinutes(giveUpMinutes), batchSize);
+            if (resubmitted > 0) {
+                log.info("PENDING 결제 재전송: {}건", resubmitted);
+            }
+        } catch (Exception e) {
+            log.warn("PENDING 결제 재전송 실패: {}", e.getMessage());
+        }
+    }
+}
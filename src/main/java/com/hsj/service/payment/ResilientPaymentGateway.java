@@ -0,0 +1,197 @@
+package com.hsj.service.payment;
+
+import com.hsj.dto.payment.PaymentGatewayRequest;
+import com.hsj.dto.payment.PaymentGatewayResult;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * PG 어댑터를 감싸는 장애 격리 계층. 서킷 브레이커 → 벌크헤드 → 적응형 타임아웃 순으로 호출을 통과시킨다.
+ * <p>
+ * 서킷이 열렸거나 벌크헤드가 가득 찼거나 타임아웃이 지나면 PAYMENT_GATEWAY_UNAVAILABLE로 바로 실패한다.
+ * 실제 호출은 벌크헤드 크기만큼의 전용 스레드에서 돌고, 호출자는 타임아웃까지만 기다린다. 타임아웃 뒤에도
+ * 끝나지 않은 호출은 끝날 때까지 벌크헤드 자리를 차지하므로 PG로 나가는 동시 요청 수는 상한을 넘지 않는다.
+ * <p>
+ * {@code @Primary}이므로 {@link PaymentGateway}를 주입받는 곳은 이 빈을 받고, 이 빈의 delegate에는
+ * 자기 자신을 뺀 실제 어댑터가 주입된다.
+ */
+@Primary
+@Component
+public class ResilientPaymentGateway implements PaymentGateway {
+
+    private static final int TIMEOUT_WINDOW = 200;
+
+    private final PaymentGateway delegate;
+    private final ThreadPoolTaskExecutor callExecutor;
+    private final PaymentCircuitBreaker circuitBreaker;
+    private final AdaptiveTimeout adaptiveTimeout;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitMillis;
+    private final MeterRegistry meterRegistry;
+
+    public ResilientPaymentGateway(PaymentGateway delegate,
+                                   @Qualifier("paymentGatewayCallExecutor") ThreadPoolTaskExecutor callExecutor,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${payment.gateway.resilience.circuit.window-size:50}") int windowSize,
+                                   @Value("${payment.gateway.resilience.circuit.minimum-calls:20}") int minimumCalls,
+                                   @Value("${payment.gateway.resilience.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                   @Value("${payment.gateway.resilience.circuit.open-duration-ms:10000}") long openDurationMillis,
+                                   @Value("${payment.gateway.resilience.circuit.half-open-calls:5}") int halfOpenCalls,
+                                   @Value("${payment.gateway.resilience.bulkhead.max-wait-ms:200}") long bulkheadWaitMillis,
+                                   @Value("${payment.gateway.resilience.timeout.multiplier:2.0}") double timeoutMultiplier,
+                                   @Value("${payment.gateway.resilience.timeout.min-ms:300}") long minTimeoutMillis,
+                                   @Value("${payment.gateway.resilience.timeout.max-ms:5000}") long maxTimeoutMillis) {
+        this(delegate, callExecutor, meterRegistry,
+                new PaymentCircuitBreaker(delegate.name(), windowSize, minimumCalls, failureRateThreshold,
+                        openDurationMillis, halfOpenCalls, System::currentTimeMillis),
+                new AdaptiveTimeout(TIMEOUT_WINDOW, timeoutMultiplier, minTimeoutMillis, maxTimeoutMillis),
+                bulkheadWaitMillis);
+    }
+
+    ResilientPaymentGateway(PaymentGateway delegate, ThreadPoolTaskExecutor callExecutor, MeterRegistry meterRegistry,
+                            PaymentCircuitBreaker circuitBreaker, AdaptiveTimeout adaptiveTimeout,
+                            long bulkheadWaitMillis) {
+        this.delegate = delegate;
+        this.callExecutor = callExecutor;
+        this.circuitBreaker = circuitBreaker;
+        this.adaptiveTimeout = adaptiveTimeout;
+        this.bulkhead = new Semaphore(callExecutor.getMaxPoolSize());
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+        this.meterRegistry = meterRegistry;
+
+        Tags tags = Tags.of("gateway", delegate.name());
+        meterRegistry.gauge("payment.gateway.circuit.state", tags, circuitBreaker, cb -> cb.state().ordinal());
+        meterRegistry.gauge("payment.gateway.bulkhead.available", tags, bulkhead, Semaphore::availablePermits);
+        meterRegistry.gauge("payment.gateway.timeout.ms", tags, adaptiveTimeout, AdaptiveTimeout::currentMillis);
+    }
+
+    @Override
+    public PaymentGatewayResult approve(PaymentGatewayRequest request) {
+        return call("approve", () -> delegate.approve(request));
+    }
+
+    @Override
+    public PaymentGatewayResult refund(PaymentGatewayRequest request) {
+        return call("refund", () -> delegate.refund(request));
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    /** 서킷이 열려 있으면 false. 결제 접수 단계에서 PENDING 결제를 쌓기 전에 거절하는 데 쓴다. */
+    @Override
+    public boolean isAvailable() {
+        return circuitBreaker.state() != PaymentCircuitBreaker.State.OPEN;
+    }
+
+    PaymentCircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    long currentTimeoutMillis() {
+        return adaptiveTimeout.currentMillis();
+    }
+
+    private <T> T call(String operation, Supplier<T> action) {
+        if (!circuitBreaker.tryAcquire()) {
+            count(operation, "rejected_open");
+            throw unavailable("PG 서킷 열림");
+        }
+        if (!acquireBulkhead()) {
+            circuitBreaker.release();
+            count(operation, "rejected_bulkhead");
+            throw unavailable("PG 동시 호출 상한 초과");
+        }
+
+        // 벌크헤드 자리는 호출을 실제로 시작한 쪽이 끝날 때 돌려주고, 시작 전에 취소됐으면 호출자가 돌려준다.
+        AtomicBoolean started = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = callExecutor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return action.get();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            bulkhead.release();
+            circuitBreaker.release();
+            count(operation, "rejected_bulkhead");
+            throw unavailable("PG 동시 호출 상한 초과");
+        }
+
+        long timeoutMillis = adaptiveTimeout.currentMillis();
+        long startedAt = System.nanoTime();
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            adaptiveTimeout.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            circuitBreaker.onSuccess();
+            count(operation, "success");
+            return result;
+        } catch (TimeoutException e) {
+            cancel(future, started);
+            circuitBreaker.onFailure();
+            count(operation, "timeout");
+            throw unavailable("PG 응답 시간 초과 (" + timeoutMillis + "ms)");
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            count(operation, "failure");
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("PG 호출 실패", e.getCause());
+        } catch (InterruptedException e) {
+            cancel(future, started);
+            circuitBreaker.release();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("PG 응답 대기 중 인터럽트 발생", e);
+        }
+    }
+
+    private void cancel(Future<?> future, AtomicBoolean started) {
+        future.cancel(true);
+        if (started.compareAndSet(false, true)) {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void count(String operation, String outcome) {
+        meterRegistry.counter("payment.gateway.calls",
+                "gateway", delegate.name(), "operation", operation, "outcome", outcome).increment();
+    }
+
+    private BusinessException unavailable(String reason) {
+        return new BusinessException(ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE, reason);
+    }
+}
@@ -0,0 +1,83 @@
+package com.hsj.service.payment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 정산 파일을 고정 크기 버퍼 하나로 한 줄씩 읽는다. 파일 크기와 무관하게 메모리는 버퍼 크기만 쓴다.
+ * <p>
+ * UTF-8에서 줄바꿈 바이트는 다른 문자의 일부가 될 수 없으므로 바이트 단위로 줄을 나누고,
+ * 마지막으로 돌려준 줄 다음의 바이트 위치를 {@link #offset()}으로 알려 준다. 이 위치로 {@link #seek}하면
+ * 그 줄부터 다시 읽을 수 있어 대사 작업의 체크포인트로 쓴다.
+ */
+final class SettlementFileReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long offset;
+    private boolean eof;
+
+    private SettlementFileReader(FileChannel channel, int bufferBytes) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferBytes);
+        this.buffer.flip();
+    }
+
+    static SettlementFileReader open(Path path, int bufferBytes) throws IOException {
+        return new SettlementFileReader(FileChannel.open(path, StandardOpenOption.READ), bufferBytes);
+    }
+
+    /** 다음 줄을 줄바꿈(\n, \r\n) 없이 돌려준다. 파일 끝이면 null. */
+    String nextLine() throws IOException {
+        int scanFrom = buffer.position();
+        while (true) {
+            for (int i = scanFrom; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    return take(i - buffer.position(), 1);
+                }
+            }
+            if (eof) {
+                return buffer.hasRemaining() ? take(buffer.remaining(), 0) : null;
+            }
+            scanFrom = buffer.remaining();
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                throw new IOException("정산 파일의 한 줄이 버퍼 크기(" + buffer.capacity() + " bytes)를 넘습니다: offset=" + offset);
+            }
+            eof = channel.read(buffer) < 0;
+            buffer.flip();
+        }
+    }
+
+    /** 마지막으로 돌려준 줄 다음의 바이트 위치. */
+    long offset() {
+        return offset;
+    }
+
+    /** 지정한 바이트 위치(줄의 시작)부터 다시 읽는다. */
+    void seek(long position) throws IOException {
+        channel.position(position);
+        buffer.clear().flip();
+        offset = position;
+        eof = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private String take(int length, int terminatorLength) {
+        int start = buffer.position();
+        int textLength = length > 0 && buffer.get(start + length - 1) == '\r' ? length - 1 : length;
+        String line = new String(buffer.array(), start, textLength, StandardCharsets.UTF_8);
+        buffer.position(start + length + terminatorLength);
+        offset += length + terminatorLength;
+        return line;
+    }
+}
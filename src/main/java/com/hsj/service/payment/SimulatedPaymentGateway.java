@@ -0,0 +1,81 @@
+package com.hsj.service.payment;
+
+import com.hsj.dto.payment.PaymentGatewayRequest;
+import com.hsj.dto.payment.PaymentGatewayResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하 테스트용 가짜 PG. 지연 시간과 거절·오류 비율을 설정으로 조절한다.
+ * <p>
+ * 거절 여부는 멱등성 키로 정해지므로 같은 결제를 다시 보내도 결과가 같다. 오류는 호출마다 따로 뽑으며
+ * 결과를 알 수 없는 PG 장애(타임아웃, 5xx)를 흉내 낸다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.gateway.type", havingValue = "SIMULATED", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final long latencyMillis;
+    private final long latencyJitterMillis;
+    private final double declineRate;
+    private final double errorRate;
+
+    public SimulatedPaymentGateway(@Value("${payment.gateway.simulated.latency-ms:50}") long latencyMillis,
+                                   @Value("${payment.gateway.simulated.latency-jitter-ms:20}") long latencyJitterMillis,
+                                   @Value("${payment.gateway.simulated.decline-rate:0.0}") double declineRate,
+                                   @Value("${payment.gateway.simulated.error-rate:0.0}") double errorRate) {
+        this.latencyMillis = latencyMillis;
+        this.latencyJitterMillis = latencyJitterMillis;
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public PaymentGatewayResult approve(PaymentGatewayRequest request) {
+        sleep(latencyMillis + (latencyJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1) : 0));
+
+        if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new IllegalStateException("PG 응답 오류 (시뮬레이션): paymentId=" + request.paymentId());
+        }
+        if (new SplittableRandom(request.idempotencyKey().hashCode()).nextDouble() < declineRate) {
+            return PaymentGatewayResult.declined("카드사 승인 거절 (시뮬레이션)");
+        }
+        log.debug("외부 PG 결제 승인 (시뮬레이션): paymentId={}, amount={}, method={}",
+                request.paymentId(), request.amount(), request.paymentMethod());
+        return PaymentGatewayResult.approved("SIM-" + request.paymentId());
+    }
+
+    @Override
+    public PaymentGatewayResult refund(PaymentGatewayRequest request) {
+        sleep(latencyMillis + (latencyJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1) : 0));
+
+        if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new IllegalStateException("PG 환불 응답 오류 (시뮬레이션): paymentId=" + request.paymentId());
+        }
+        log.debug("외부 PG 결제 환불 (시뮬레이션): paymentId={}, amount={}", request.paymentId(), request.amount());
+        return PaymentGatewayResult.approved("SIM-REFUND-" + request.paymentId());
+    }
+
+    @Override
+    public String name() {
+        return "simulated";
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("PG 호출 중 인터럽트 발생", e);
+        }
+    }
+}
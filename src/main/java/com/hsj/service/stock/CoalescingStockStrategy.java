@@ -0,0 +1,130 @@
+package com.hsj.service.stock;
+
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.entity.Product;
+import com.hsj.exception.ErrorCode;
+import com.hsj.exception.NotFoundException;
+import com.hsj.exception.OutOfStockException;
+import com.hsj.repository.ProductRepository;
+import com.hsj.repository.custom.StockBatchRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 상품의 동시 차감 요청을 {@link StockCoalescer}로 모아 배치마다
+ * 비관적 락 조회 1회 + 도착 순서대로 승인/거절 + UPDATE 1회로 처리하는 전략.
+ * 행 잠금이 노드 간 직렬화를 보장하므로 분산 락은 쓰지 않는다.
+ * 다건 예약은 여러 행을 한 트랜잭션에서 바꿔야 하므로 {@link LockStockStrategy}의 조건부 UPDATE 배치를 그대로 쓴다.
+ */
+@Slf4j
+@Component
+public class CoalescingStockStrategy implements StockStrategy {
+
+    private final ProductRepository productRepository;
+    private final StockBatchRepository stockBatchRepository;
+    private final LockStockStrategy lockStockStrategy;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSizeSummary;
+    private final StockCoalescer coalescer;
+
+    public CoalescingStockStrategy(ProductRepository productRepository,
+                                   StockBatchRepository stockBatchRepository,
+                                   LockStockStrategy lockStockStrategy,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${stock.coalescing.window-micros:2000}") long windowMicros,
+                                   @Value("${stock.coalescing.max-batch:64}") int maxBatch) {
+        this.productRepository = productRepository;
+        this.stockBatchRepository = stockBatchRepository;
+        this.lockStockStrategy = lockStockStrategy;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSizeSummary = DistributionSummary.builder("stock.coalescing.batch.size")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.coalescer = new StockCoalescer(TimeUnit.MICROSECONDS.toNanos(windowMicros), maxBatch, this::applyBatch);
+    }
+
+    @Override
+    public StockMode mode() {
+        return StockMode.COALESCING;
+    }
+
+    @Override
+    public void deduct(Long productId, int quantity) {
+        if (!coalescer.deduct(productId, quantity)) {
+            throw new OutOfStockException(
+                    String.format("재고 부족: productId=%d, 요청=%d", productId, quantity));
+        }
+    }
+
+    @Override
+    public void restore(Long productId, int quantity) {
+        transactionTemplate.executeWithoutResult(status ->
+                stockBatchRepository.restoreAll(List.of(new StockDeduction(productId, quantity))));
+        log.info("재고 복원 완료: productId={}, +{}", productId, quantity);
+    }
+
+    /**
+     * 단일 상품 주문은 합치기 큐를 타고, 여러 상품 주문은 all-or-nothing을 위해 조건부 UPDATE 배치로 처리한다.
+     */
+    @Override
+    public void reserveAll(List<StockDeduction> deductions) {
+        if (deductions.size() == 1) {
+            deduct(deductions.get(0).productId(), deductions.get(0).quantity());
+            return;
+        }
+        lockStockStrategy.reserveAll(deductions);
+    }
+
+    @Override
+    public void releaseAll(List<StockDeduction> deductions) {
+        lockStockStrategy.releaseAll(deductions);
+    }
+
+    @Override
+    public void restoreAllInTransaction(List<StockDeduction> deductions) {
+        lockStockStrategy.restoreAllInTransaction(deductions);
+    }
+
+    @Override
+    public int addStock(Product product, int quantity) {
+        return lockStockStrategy.addStock(product, quantity);
+    }
+
+    private boolean[] applyBatch(Long productId, int[] quantities) {
+        batchSizeSummary.record(quantities.length);
+
+        return transactionTemplate.execute(status -> {
+            Product product = productRepository.findByIdForUpdate(productId)
+                    .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+
+            boolean[] granted = new boolean[quantities.length];
+            int available = product.getStockQuantity();
+            int total = 0;
+            for (int i = 0; i < quantities.length; i++) {
+                if (quantities[i] <= available) {
+                    granted[i] = true;
+                    available -= quantities[i];
+                    total += quantities[i];
+                }
+            }
+
+            if (total > 0) {
+                product.removeStock(total);
+            }
+            log.info("재고 일괄 차감 완료: productId={}, 요청={}건, -{}, 잔여={}",
+                    productId, quantities.length, total, product.getStockQuantity());
+            return granted;
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.hsj.service.stock;
+
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.entity.Product;
+import com.hsj.exception.OutOfStockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Redis 재고 원장에 대해 락 없이 Lua 스크립트 한 번으로 예약하는 전략.
+ * DB 트랜잭션을 열지 않으며 products.stock_quantity는 {@link StockLedgerReconciler}가 맞춘다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LedgerStockStrategy implements StockStrategy {
+
+    private final RedisStockLedger stockLedger;
+
+    @Override
+    public StockMode mode() {
+        return StockMode.LEDGER;
+    }
+
+    @Override
+    public void deduct(Long productId, int quantity) {
+        long remaining = stockLedger.reserve(productId, quantity);
+        if (remaining < 0) {
+            throw new OutOfStockException(
+                    String.format("재고 부족: productId=%d, 요청=%d", productId, quantity));
+        }
+        log.info("재고 차감 완료(원장): productId={}, -{}, 잔여={}", productId, quantity, remaining);
+    }
+
+    @Override
+    public void restore(Long productId, int quantity) {
+        long remaining = stockLedger.release(productId, quantity);
+        log.info("재고 복원 완료(원장): productId={}, +{}, 잔여={}", productId, quantity, remaining);
+    }
+
+    @Override
+    public void reserveAll(List<StockDeduction> deductions) {
+        int failedIndex = stockLedger.reserveAll(deductions);
+        if (failedIndex >= 0) {
+            StockDeduction failed = deductions.get(failedIndex);
+            throw new OutOfStockException(
+                    String.format("재고 부족: productId=%d, 요청=%d", failed.productId(), failed.quantity()));
+        }
+        log.info("재고 일괄 차감 완료(원장): {}개 상품", deductions.size());
+    }
+
+    @Override
+    public void releaseAll(List<StockDeduction> deductions) {
+        stockLedger.releaseAll(deductions);
+        log.info("재고 일괄 복원 완료(원장): {}개 상품", deductions.size());
+    }
+
+    /** 원장은 DB 트랜잭션에 묶을 수 없으므로 호출자가 커밋한 뒤에 되돌린다. */
+    @Override
+    public void restoreAllInTransaction(List<StockDeduction> deductions) {
+        List<StockDeduction> copy = List.copyOf(deductions);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseAll(copy);
+            }
+        });
+    }
+
+    @Override
+    public int addStock(Product product, int quantity) {
+        return (int) stockLedger.release(product.getId(), quantity);
+    }
+}
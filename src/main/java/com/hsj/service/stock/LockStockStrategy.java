@@ -0,0 +1,125 @@
+package com.hsj.service.stock;
+
+import com.hsj.aop.lock.DistributedLock;
+import com.hsj.aop.lock.LockType;
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.entity.Product;
+import com.hsj.exception.ErrorCode;
+import com.hsj.exception.NotFoundException;
+import com.hsj.exception.OutOfStockException;
+import com.hsj.repository.ProductRepository;
+import com.hsj.repository.custom.StockBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 상품별 Redisson 분산 락({@code LOCK:STOCK:{productId}})을 잡고 DB 행을 직접 갱신하는 기본 전략.
+ * 락은 {@link DistributedLock}이 트랜잭션 바깥에서 잡으므로 커밋이 끝난 뒤에 풀린다.
+ * 같은 노드의 경합 스레드는 로컬 락에서 먼저 줄을 서므로 Redis에는 노드당 한 스레드만 나간다({@link LockType#TIERED}).
+ * <p>
+ * 주문 예약({@link #reserveAll})은 락 대신 상품 ID 순서의 조건부 UPDATE 배치로 처리하므로 2단 락을 거치지 않는다.
+ * 락을 쓰는 경로는 단건 {@link #deduct}/{@link #restore}뿐이고, 부하가 몰리는 곳은
+ * {@link OptimisticStockStrategy}가 경합 상품의 단일 상품 주문을 넘기는 차감과 주문 취소의 상품별 복원이다.
+ * LOCK 모드의 주문 예약에는 처음부터 Redis 락 트래픽이 없다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LockStockStrategy implements StockStrategy {
+
+    private static final long WAIT_TIME = 5L;
+    private static final long LEASE_TIME = 3L;
+
+    private final ProductRepository productRepository;
+    private final StockBatchRepository stockBatchRepository;
+
+    @Override
+    public StockMode mode() {
+        return StockMode.LOCK;
+    }
+
+    @Override
+    @DistributedLock(key = "'STOCK:' + #productId", name = "stock", type = LockType.TIERED,
+            waitTime = WAIT_TIME, leaseTime = LEASE_TIME)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void deduct(Long productId, int quantity) {
+        Product product = productRepository.findByIdAndDeletedFalse(productId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+
+        if (product.getStockQuantity() < quantity) {
+            throw new OutOfStockException(
+                    String.format("재고 부족: 상품=%s, 현재=%d, 요청=%d",
+                            product.getName(), product.getStockQuantity(), quantity));
+        }
+
+        product.removeStock(quantity);
+        productRepository.saveAndFlush(product);
+
+        log.info("재고 차감 완료: productId={}, -{}, 잔여={}",
+                productId, quantity, product.getStockQuantity());
+    }
+
+    @Override
+    @DistributedLock(key = "'STOCK:' + #productId", name = "stock", type = LockType.TIERED,
+            waitTime = WAIT_TIME, leaseTime = LEASE_TIME)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void restore(Long productId, int quantity) {
+        Product product = productRepository.findByIdAndDeletedFalse(productId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+
+        product.addStock(quantity);
+        productRepository.saveAndFlush(product);
+
+        log.info("재고 복원 완료: productId={}, +{}, 잔여={}",
+                productId, quantity, product.getStockQuantity());
+    }
+
+    /**
+     * 조건부 UPDATE(stock_quantity >= 요청 수량)를 상품 ID 순서대로 한 번의 JDBC 배치로 보낸다.
+     * 행 잠금 순서가 고정되어 데드락이 없고, 한 건이라도 실패하면 트랜잭션 전체가 롤백되어 보상이 필요 없다.
+     * version을 함께 올리므로 단건 경로의 @Version 검사와도 충돌 없이 공존한다.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void reserveAll(List<StockDeduction> deductions) {
+        int[] updated = stockBatchRepository.deductAll(deductions);
+
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                StockDeduction failed = deductions.get(i);
+                int current = productRepository.findStockQuantityById(failed.productId())
+                        .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+                throw new OutOfStockException(
+                        String.format("재고 부족: productId=%d, 현재=%d, 요청=%d",
+                                failed.productId(), current, failed.quantity()));
+            }
+        }
+
+        log.info("재고 일괄 차감 완료: {}개 상품", deductions.size());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void releaseAll(List<StockDeduction> deductions) {
+        stockBatchRepository.restoreAll(deductions);
+        log.info("재고 일괄 복원 완료: {}개 상품", deductions.size());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restoreAllInTransaction(List<StockDeduction> deductions) {
+        stockBatchRepository.restoreAll(deductions);
+        log.info("재고 일괄 복원(호출자 트랜잭션): {}개 상품", deductions.size());
+    }
+
+    @Override
+    public int addStock(Product product, int quantity) {
+        product.addStock(quantity);
+        return product.getStockQuantity();
+    }
+}
@@ -0,0 +1,192 @@
+package com.hsj.service.stock;
+
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.dto.stock.StockSnapshot;
+import com.hsj.entity.Product;
+import com.hsj.exception.ErrorCode;
+import com.hsj.exception.NotFoundException;
+import com.hsj.exception.OutOfStockException;
+import com.hsj.repository.ProductRepository;
+import com.hsj.repository.custom.StockBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Product의 {@code @Version}을 이용해 락 없이 차감하는 전략.
+ * (재고, version)을 읽고 version이 그대로일 때만 UPDATE하며, 충돌하면 지터 백오프 후 재시도한다.
+ * {@link StockContentionTracker}가 경합이 큰 상품으로 판단하면 그 상품만 {@link LockStockStrategy}로 보낸다.
+ * 주문 예약도 같은 방식으로 상품마다 version 비교 UPDATE를 재시도하고, 복원은 락이 필요 없는 조건부 UPDATE를 쓴다.
+ */
+@Slf4j
+@Component
+public class OptimisticStockStrategy implements StockStrategy {
+
+    private final ProductRepository productRepository;
+    private final StockBatchRepository stockBatchRepository;
+    private final LockStockStrategy lockStockStrategy;
+    private final StockContentionTracker contentionTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter attemptCounter;
+    private final Counter conflictCounter;
+    private final Counter fallbackCounter;
+
+    @Value("${stock.optimistic.max-attempts:4}")
+    private int maxAttempts = 4;
+
+    @Value("${stock.optimistic.backoff-ms:5}")
+    private long backoffMillis = 5;
+
+    public OptimisticStockStrategy(ProductRepository productRepository,
+                                   StockBatchRepository stockBatchRepository,
+                                   LockStockStrategy lockStockStrategy,
+                                   StockContentionTracker contentionTracker,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.stockBatchRepository = stockBatchRepository;
+        this.lockStockStrategy = lockStockStrategy;
+        this.contentionTracker = contentionTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.attemptCounter = meterRegistry.counter("stock.optimistic.attempts");
+        this.conflictCounter = meterRegistry.counter("stock.optimistic.conflicts");
+        this.fallbackCounter = meterRegistry.counter("stock.optimistic.fallbacks");
+    }
+
+    @Override
+    public StockMode mode() {
+        return StockMode.OPTIMISTIC;
+    }
+
+    @Override
+    public void deduct(Long productId, int quantity) {
+        if (contentionTracker.shouldUseLock(productId)) {
+            fallbackCounter.increment();
+            lockStockStrategy.deduct(productId, quantity);
+            return;
+        }
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            attemptCounter.increment();
+            if (tryDeduct(productId, quantity)) {
+                contentionTracker.recordSuccess(productId);
+                log.info("재고 차감 완료(낙관적): productId={}, -{}, attempt={}", productId, quantity, attempt);
+                return;
+            }
+
+            conflictCounter.increment();
+            contentionTracker.recordConflict(productId);
+            if (attempt < maxAttempts) {
+                backoff(attempt);
+            }
+        }
+
+        contentionTracker.recordExhausted(productId);
+        fallbackCounter.increment();
+        lockStockStrategy.deduct(productId, quantity);
+    }
+
+    @Override
+    public void restore(Long productId, int quantity) {
+        transactionTemplate.executeWithoutResult(status ->
+                stockBatchRepository.restoreAll(List.of(new StockDeduction(productId, quantity))));
+        log.info("재고 복원 완료(낙관적): productId={}, +{}", productId, quantity);
+    }
+
+    /**
+     * 단일 상품 주문은 {@link #deduct}를 그대로 탄다. 여러 상품 주문은 한 트랜잭션 안에서 상품마다
+     * version 비교 UPDATE를 재시도하고, 하나라도 재고가 부족하면 전체를 롤백한다.
+     * 분산 락은 트랜잭션 바깥에서 잡아야 하므로, 경합 상품은 락 대신 조건부 UPDATE로 행 잠금을 기다려 차감한다.
+     */
+    @Override
+    public void reserveAll(List<StockDeduction> deductions) {
+        if (deductions.size() == 1) {
+            deduct(deductions.get(0).productId(), deductions.get(0).quantity());
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> deductions.forEach(this::reserve));
+        log.info("재고 일괄 차감 완료(낙관적): {}개 상품", deductions.size());
+    }
+
+    @Override
+    public void releaseAll(List<StockDeduction> deductions) {
+        lockStockStrategy.releaseAll(deductions);
+    }
+
+    @Override
+    public void restoreAllInTransaction(List<StockDeduction> deductions) {
+        lockStockStrategy.restoreAllInTransaction(deductions);
+    }
+
+    @Override
+    public int addStock(Product product, int quantity) {
+        return lockStockStrategy.addStock(product, quantity);
+    }
+
+    /** 호출자의 트랜잭션 안에서 한 상품을 차감한다. 재시도를 소진했거나 경합 상품이면 조건부 UPDATE로 넘긴다. */
+    private void reserve(StockDeduction deduction) {
+        Long productId = deduction.productId();
+        int quantity = deduction.quantity();
+
+        if (!contentionTracker.shouldUseLock(productId)) {
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                attemptCounter.increment();
+                if (deductIfVersionMatches(productId, quantity)) {
+                    contentionTracker.recordSuccess(productId);
+                    return;
+                }
+
+                conflictCounter.increment();
+                contentionTracker.recordConflict(productId);
+                if (attempt < maxAttempts) {
+                    backoff(attempt);
+                }
+            }
+            contentionTracker.recordExhausted(productId);
+        }
+
+        fallbackCounter.increment();
+        if (stockBatchRepository.deductAll(List.of(deduction))[0] == 0) {
+            throw new OutOfStockException(
+                    String.format("재고 부족: productId=%d, 요청=%d", productId, quantity));
+        }
+    }
+
+    private boolean tryDeduct(Long productId, int quantity) {
+        Boolean updated = transactionTemplate.execute(status -> deductIfVersionMatches(productId, quantity));
+        return Boolean.TRUE.equals(updated);
+    }
+
+    private boolean deductIfVersionMatches(Long productId, int quantity) {
+        StockSnapshot snapshot = productRepository.findStockSnapshot(productId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+
+        if (snapshot.stockQuantity() < quantity) {
+            throw new OutOfStockException(
+                    String.format("재고 부족: productId=%d, 현재=%d, 요청=%d",
+                            productId, snapshot.stockQuantity(), quantity));
+        }
+
+        return productRepository.deductStockIfVersionMatches(productId, quantity, snapshot.version()) > 0;
+    }
+
+    /** full jitter: 0 ~ backoff * 2^(attempt-1) 사이에서 무작위로 기다린다. */
+    private void backoff(int attempt) {
+        long bound = backoffMillis << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재고 차감 재시도 중 인터럽트 발생", e);
+        }
+    }
+}
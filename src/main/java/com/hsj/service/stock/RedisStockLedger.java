@@ -0,0 +1,212 @@
+package com.hsj.service.stock;
+
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.exception.ErrorCode;
+import com.hsj.exception.NotFoundException;
+import com.hsj.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Redis 해시에 상품별 가용 재고를 보관하는 재고 원장.
+ * 확인과 차감을 하나의 Lua 스크립트로 처리하므로 락 없이도 초과 판매가 발생하지 않는다.
+ * 모든 변경은 저널 리스트에 "productId:delta" 형태로 함께 기록되며,
+ * {@link StockLedgerReconciler}가 저널을 읽어 products.stock_quantity를 비동기로 맞춘다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisStockLedger {
+
+    static final String LEDGER_KEY = "STOCK:LEDGER";
+    static final String JOURNAL_KEY = "STOCK:JOURNAL";
+    static final String JOURNAL_PROCESSING_KEY = "STOCK:JOURNAL:PROCESSING";
+
+    private static final long NOT_LOADED = -2L;
+
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local available = redis.call('HGET', KEYS[1], ARGV[1])
+            if not available then return -2 end
+            local qty = tonumber(ARGV[2])
+            if tonumber(available) < qty then return -1 end
+            local remaining = redis.call('HINCRBY', KEYS[1], ARGV[1], -qty)
+            redis.call('RPUSH', KEYS[2], ARGV[1] .. ':' .. (-qty))
+            return remaining
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then return -2 end
+            local remaining = redis.call('HINCRBY', KEYS[1], ARGV[1], tonumber(ARGV[2]))
+            redis.call('RPUSH', KEYS[2], ARGV[1] .. ':' .. ARGV[2])
+            return remaining
+            """, Long.class);
+
+    // ARGV: productId1, qty1, productId2, qty2, ... 모두 확인한 뒤에만 차감한다. 부족하면 1부터 시작하는 항목 번호를 반환한다.
+    private static final RedisScript<Long> RESERVE_ALL_SCRIPT = new DefaultRedisScript<>("""
+            local n = #ARGV / 2
+            for i = 1, n do
+              local available = redis.call('HGET', KEYS[1], ARGV[2 * i - 1])
+              if not available then return -2 end
+              if tonumber(available) < tonumber(ARGV[2 * i]) then return i end
+            end
+            for i = 1, n do
+              local qty = tonumber(ARGV[2 * i])
+              redis.call('HINCRBY', KEYS[1], ARGV[2 * i - 1], -qty)
+              redis.call('RPUSH', KEYS[2], ARGV[2 * i - 1] .. ':' .. (-qty))
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_ALL_SCRIPT = new DefaultRedisScript<>("""
+            local n = #ARGV / 2
+            for i = 1, n do
+              if redis.call('HEXISTS', KEYS[1], ARGV[2 * i - 1]) == 0 then return -2 end
+            end
+            for i = 1, n do
+              redis.call('HINCRBY', KEYS[1], ARGV[2 * i - 1], tonumber(ARGV[2 * i]))
+              redis.call('RPUSH', KEYS[2], ARGV[2 * i - 1] .. ':' .. ARGV[2 * i])
+            end
+            return 0
+            """, Long.class);
+
+    // 처리 중 리스트가 비어 있을 때만 새 배치를 옮긴다. 남아 있으면 이전 배치를 다시 돌려준다.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('LLEN', KEYS[2]) > 0 then
+              return redis.call('LRANGE', KEYS[2], 0, -1)
+            end
+            local entries = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1)
+            if #entries > 0 then
+              redis.call('LTRIM', KEYS[1], #entries, -1)
+              redis.call('RPUSH', KEYS[2], unpack(entries))
+            end
+            return entries
+            """, List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ProductRepository productRepository;
+
+    /**
+     * 재고를 원자적으로 예약(확인 + 차감)한다.
+     *
+     * @return 예약 후 잔여 수량, 재고가 부족하면 -1
+     */
+    public long reserve(Long productId, int quantity) {
+        long result = executeLoaded(RESERVE_SCRIPT, productId, quantity);
+        if (result >= 0) {
+            log.debug("원장 재고 예약: productId={}, -{}, 잔여={}", productId, quantity, result);
+        }
+        return result;
+    }
+
+    /**
+     * 예약 취소 또는 입고로 재고를 되돌린다.
+     *
+     * @return 반영 후 잔여 수량
+     */
+    public long release(Long productId, int quantity) {
+        long result = executeLoaded(RELEASE_SCRIPT, productId, quantity);
+        log.debug("원장 재고 복원: productId={}, +{}, 잔여={}", productId, quantity, result);
+        return result;
+    }
+
+    /**
+     * 여러 상품을 스크립트 한 번으로 예약한다. 하나라도 부족하면 아무것도 차감하지 않는다.
+     *
+     * @return 성공하면 -1, 실패하면 재고가 부족한 항목의 인덱스
+     */
+    public int reserveAll(List<StockDeduction> deductions) {
+        long result = executeAllLoaded(RESERVE_ALL_SCRIPT, deductions);
+        return result == 0 ? -1 : (int) result - 1;
+    }
+
+    public void releaseAll(List<StockDeduction> deductions) {
+        executeAllLoaded(RELEASE_ALL_SCRIPT, deductions);
+    }
+
+    public List<Long> getAvailable(Collection<Long> productIds) {
+        List<Object> fields = new ArrayList<>(productIds.size());
+        productIds.forEach(id -> fields.add(String.valueOf(id)));
+        List<Object> values = redisTemplate.opsForHash().multiGet(LEDGER_KEY, fields);
+
+        List<Long> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            result.add(value != null ? Long.parseLong(value.toString()) : null);
+        }
+        return result;
+    }
+
+    /**
+     * 저널에서 최대 batchSize건을 처리 중 리스트로 옮겨 반환한다.
+     * {@link #acknowledgeJournal()} 전에 프로세스가 죽으면 다음 호출에서 같은 배치를 다시 받는다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> drainJournal(int batchSize) {
+        List<String> entries = redisTemplate.execute(DRAIN_SCRIPT,
+                List.of(JOURNAL_KEY, JOURNAL_PROCESSING_KEY), String.valueOf(batchSize));
+        return entries != null ? entries : List.of();
+    }
+
+    public void acknowledgeJournal() {
+        redisTemplate.delete(JOURNAL_PROCESSING_KEY);
+    }
+
+    /**
+     * 원장에 상품이 아직 적재되지 않았으면 DB 값을 HSETNX로 적재한 뒤 스크립트를 한 번 더 실행한다.
+     */
+    private long executeLoaded(RedisScript<Long> script, Long productId, int quantity) {
+        List<String> keys = List.of(LEDGER_KEY, JOURNAL_KEY);
+        String field = String.valueOf(productId);
+        String qty = String.valueOf(quantity);
+
+        Long result = redisTemplate.execute(script, keys, field, qty);
+        if (result != null && result == NOT_LOADED) {
+            load(productId);
+            result = redisTemplate.execute(script, keys, field, qty);
+        }
+        if (result == null || result == NOT_LOADED) {
+            throw new IllegalStateException("재고 원장 스크립트 실행 실패: productId=" + productId);
+        }
+        return result;
+    }
+
+    private long executeAllLoaded(RedisScript<Long> script, List<StockDeduction> deductions) {
+        List<String> keys = List.of(LEDGER_KEY, JOURNAL_KEY);
+        Object[] args = new String[deductions.size() * 2];
+        for (int i = 0; i < deductions.size(); i++) {
+            args[2 * i] = String.valueOf(deductions.get(i).productId());
+            args[2 * i + 1] = String.valueOf(deductions.get(i).quantity());
+        }
+
+        Long result = redisTemplate.execute(script, keys, args);
+        if (result != null && result == NOT_LOADED) {
+            deductions.stream()
+                    .filter(d -> !Boolean.TRUE.equals(
+                            redisTemplate.opsForHash().hasKey(LEDGER_KEY, String.valueOf(d.productId()))))
+                    .forEach(d -> load(d.productId()));
+            result = redisTemplate.execute(script, keys, args);
+        }
+        if (result == null || result == NOT_LOADED) {
+            throw new IllegalStateException("재고 원장 스크립트 실행 실패: " + deductions);
+        }
+        return result;
+    }
+
+    private void load(Long productId) {
+        int stockQuantity = productRepository.findStockQuantityById(productId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND));
+        Boolean loaded = redisTemplate.opsForHash()
+                .putIfAbsent(LEDGER_KEY, String.valueOf(productId), String.valueOf(stockQuantity));
+        if (Boolean.TRUE.equals(loaded)) {
+            log.info("재고 원장 적재: productId={}, stock={}", productId, stockQuantity);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.hsj.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 샤딩된 상품의 버킷 잔량이 한쪽으로 쏠리면 주기적으로 균등하게 다시 나눈다.
+ * 빈 버킷이 많아질수록 이웃 버킷 탐색과 모으기 차감이 늘어나므로 이를 미리 줄여 준다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stock.sharding.enabled", havingValue = "true")
+public class ShardedStockRebalancer {
+
+    private final ShardedStockStore shardedStockStore;
+
+    @Value("${stock.sharding.rebalance-min-spread:10}")
+    private int minSpread;
+
+    @Scheduled(fixedDelayString = "${stock.sharding.rebalance-interval-ms:500}")
+    public void rebalance() {
+        shardedStockStore.shardedProducts().forEach((productId, shards) -> {
+            try {
+                shardedStockStore.rebalance(productId, shards, minSpread);
+            } catch (Exception e) {
+                log.warn("샤드 재고 재분배 실패: productId={}, error={}", productId, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,332 @@
+package com.hsj.service.stock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 주문이 몰리는 상품의 재고를 N개의 버킷으로 나눠 보관하는 저장소.
+ * 요청은 임의의 버킷에서 차감하고, 부족하면 이웃 버킷으로 넘어간 뒤 마지막에는 전체 버킷에서 모아 차감한다.
+ * 버킷 키는 {@code STOCK:SHARD:{productId}:i} 형식이다.
+ * 변경 내역은 재고 원장과 같은 저널에 기록되어 {@link StockLedgerReconciler}가 products.stock_quantity를 합계로 맞춘다.
+ * 스크립트가 버킷과 함께 전역 저널({@link RedisStockLedger#JOURNAL_KEY})과 레지스트리 키를 건드리므로
+ * 재고 원장과 마찬가지로 단일 Redis 노드(또는 복제본을 둔 단일 샤드)를 전제로 하며 Redis Cluster에서는 CROSSSLOT으로 실패한다.
+ */
+@Slf4j
+@Component
+public class ShardedStockStore {
+
+    static final String REGISTRY_KEY = "STOCK:SHARDS";
+    private static final String BUCKET_KEY_FORMAT = "STOCK:SHARD:{%d}:%d";
+
+    public static final long INSUFFICIENT = -1L;
+    public static final long NOT_SHARDED = -2L;
+
+    private static final RedisScript<Long> TAKE_SCRIPT = new DefaultRedisScript<>("""
+            local available = redis.call('GET', KEYS[1])
+            if not available then return -2 end
+            local qty = tonumber(ARGV[2])
+            if tonumber(available) < qty then return -1 end
+            local remaining = redis.call('DECRBY', KEYS[1], qty)
+            redis.call('RPUSH', KEYS[2], ARGV[1] .. ':' .. (-qty))
+            return remaining
+            """, Long.class);
+
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end
+            local remaining = redis.call('INCRBY', KEYS[1], tonumber(ARGV[2]))
+            redis.call('RPUSH', KEYS[2], ARGV[1] .. ':' .. ARGV[2])
+            return remaining
+            """, Long.class);
+
+    // KEYS: 버킷 전체 + 저널. 버킷 하나로는 부족하지만 합계로는 충분할 때 앞 버킷부터 채워 차감한다.
+    private static final RedisScript<Long> GATHER_SCRIPT = new DefaultRedisScript<>("""
+            local n = #KEYS - 1
+            local qty = tonumber(ARGV[2])
+            local values = {}
+            local total = 0
+            for i = 1, n do
+              local v = redis.call('GET', KEYS[i])
+              if not v then return -2 end
+              values[i] = tonumber(v)
+              total = total + values[i]
+            end
+            if total < qty then return -1 end
+            local need = qty
+            for i = 1, n do
+              if need == 0 then break end
+              local take = math.min(values[i], need)
+              if take > 0 then
+                redis.call('DECRBY', KEYS[i], take)
+                need = need - take
+              end
+            end
+            redis.call('RPUSH', KEYS[n + 1], ARGV[1] .. ':' .. (-qty))
+            return total - qty
+            """, Long.class);
+
+    // KEYS: 버킷 전체 + 저널. 입고 수량을 버킷에 고르게 나눠 더하고 합계를 반환한다.
+    private static final RedisScript<Long> SPREAD_SCRIPT = new DefaultRedisScript<>("""
+            local n = #KEYS - 1
+            local qty = tonumber(ARGV[2])
+            for i = 1, n do
+              if redis.call('EXISTS', KEYS[i]) == 0 then return -2 end
+            end
+            local base = math.floor(qty / n)
+            local extra = qty % n
+            local total = 0
+            for i = 1, n do
+              local add = base
+              if i <= extra then add = add + 1 end
+              total = total + redis.call('INCRBY', KEYS[i], add)
+            end
+            redis.call('RPUSH', KEYS[n + 1], ARGV[1] .. ':' .. ARGV[2])
+            return total
+            """, Long.class);
+
+    // KEYS: 버킷 전체. 최대/최소 버킷 차이가 ARGV[1]을 넘으면 합계를 유지한 채 균등하게 다시 나누고 옮긴 수량을 반환한다.
+    private static final RedisScript<Long> REBALANCE_SCRIPT = new DefaultRedisScript<>("""
+            local n = #KEYS
+            local values = {}
+            local total = 0
+            local min, max
+            for i = 1, n do
+              local v = redis.call('GET', KEYS[i])
+              if not v then return -2 end
+              values[i] = tonumber(v)
+              total = total + values[i]
+              if not min or values[i] < min then min = values[i] end
+              if not max or values[i] > max then max = values[i] end
+            end
+            if max - min <= tonumber(ARGV[1]) then return 0 end
+            local base = math.floor(total / n)
+            local extra = total % n
+            local moved = 0
+            for i = 1, n do
+              local target = base
+              if i <= extra then target = target + 1 end
+              if values[i] > target then moved = moved + values[i] - target end
+              redis.call('SET', KEYS[i], target)
+            end
+            return moved
+            """, Long.class);
+
+    // KEYS: 버킷 전체 + 등록부. 버킷을 채운 뒤 등록부에 올린다. 이미 샤딩된 상품이면 -3.
+    private static final RedisScript<Long> ENABLE_SCRIPT = new DefaultRedisScript<>("""
+            local n = #KEYS - 1
+            if redis.call('HEXISTS', KEYS[n + 1], ARGV[1]) == 1 then return -3 end
+            local total = tonumber(ARGV[2])
+            local base = math.floor(total / n)
+            local extra = total % n
+            for i = 1, n do
+              local units = base
+              if i <= extra then units = units + 1 end
+              redis.call('SET', KEYS[i], units)
+            end
+            redis.call('HSET', KEYS[n + 1], ARGV[1], n)
+            return n
+            """, Long.class);
+
+    // KEYS: 버킷 전체 + 등록부. 등록부에서 내리고 버킷 합계를 반환하며 버킷을 지운다.
+    private static final RedisScript<Long> DISABLE_SCRIPT = new DefaultRedisScript<>("""
+            local n = #KEYS - 1
+            if redis.call('HDEL', KEYS[n + 1], ARGV[1]) == 0 then return -2 end
+            local total = 0
+            for i = 1, n do
+              local v = redis.call('GET', KEYS[i])
+              if v then total = total + tonumber(v) end
+              redis.call('DEL', KEYS[i])
+            end
+            return total
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Counter spillCounter;
+    private final Counter gatherCounter;
+    private final Counter rebalancedUnitsCounter;
+
+    @Value("${stock.sharding.spill-probes:2}")
+    private int spillProbes = 2;
+
+    public ShardedStockStore(RedisTemplate<String, String> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.spillCounter = meterRegistry.counter("stock.shard.spills");
+        this.gatherCounter = meterRegistry.counter("stock.shard.gathers");
+        this.rebalancedUnitsCounter = meterRegistry.counter("stock.shard.rebalanced.units");
+    }
+
+    /**
+     * @return 샤딩된 상품이면 버킷 수, 아니면 null
+     */
+    public Integer shardCount(Long productId) {
+        Object value = redisTemplate.opsForHash().get(REGISTRY_KEY, String.valueOf(productId));
+        return value != null ? Integer.valueOf(value.toString()) : null;
+    }
+
+    /**
+     * 여러 상품의 버킷 수를 한 번에 조회한다. 샤딩되지 않은 상품은 결과에 포함되지 않는다.
+     */
+    public Map<Long, Integer> shardCounts(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        List<Object> fields = new ArrayList<>(ids.size());
+        ids.forEach(id -> fields.add(String.valueOf(id)));
+        List<Object> values = redisTemplate.opsForHash().multiGet(REGISTRY_KEY, fields);
+
+        Map<Long, Integer> result = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (values.get(i) != null) {
+                result.put(ids.get(i), Integer.valueOf(values.get(i).toString()));
+            }
+        }
+        return result;
+    }
+
+    public Map<Long, Integer> shardedProducts() {
+        Map<Long, Integer> result = new HashMap<>();
+        redisTemplate.opsForHash().entries(REGISTRY_KEY).forEach((id, shards) ->
+                result.put(Long.valueOf(id.toString()), Integer.valueOf(shards.toString())));
+        return result;
+    }
+
+    /**
+     * 임의의 버킷에서 차감하고, 부족하면 이웃 버킷을 최대 spill-probes개까지 살핀 뒤 전체 버킷에서 모아 차감한다.
+     *
+     * @return 차감한 버킷(모으기는 전체)의 잔여 수량, 재고 부족이면 {@link #INSUFFICIENT}, 샤딩이 해제됐으면 {@link #NOT_SHARDED}
+     */
+    public long take(Long productId, int shards, int quantity) {
+        String field = String.valueOf(productId);
+        String qty = String.valueOf(quantity);
+        int home = ThreadLocalRandom.current().nextInt(shards);
+        int probes = Math.min(spillProbes, shards - 1);
+
+        for (int probe = 0; probe <= probes; probe++) {
+            Long result = redisTemplate.execute(TAKE_SCRIPT,
+                    List.of(bucketKey(productId, (home + probe) % shards), RedisStockLedger.JOURNAL_KEY), field, qty);
+            if (result == null) {
+                throw new IllegalStateException("샤드 재고 스크립트 실행 실패: productId=" + productId);
+            }
+            if (result != INSUFFICIENT) {
+                if (probe > 0) {
+                    spillCounter.increment();
+                }
+                return result;
+            }
+        }
+
+        gatherCounter.increment();
+        return executeOnAllBuckets(GATHER_SCRIPT, productId, shards, qty);
+    }
+
+    /**
+     * 예약 취소분을 임의의 버킷에 되돌린다.
+     */
+    public long put(Long productId, int shards, int quantity) {
+        int bucket = ThreadLocalRandom.current().nextInt(shards);
+        Long result = redisTemplate.execute(PUT_SCRIPT,
+                List.of(bucketKey(productId, bucket), RedisStockLedger.JOURNAL_KEY),
+                String.valueOf(productId), String.valueOf(quantity));
+        if (result == null) {
+            throw new IllegalStateException("샤드 재고 스크립트 실행 실패: productId=" + productId);
+        }
+        return result;
+    }
+
+    /**
+     * 입고 수량을 모든 버킷에 나눠 더한다.
+     *
+     * @return 반영 후 전체 합계, 샤딩이 해제됐으면 {@link #NOT_SHARDED}
+     */
+    public long spread(Long productId, int shards, int quantity) {
+        return executeOnAllBuckets(SPREAD_SCRIPT, productId, shards, String.valueOf(quantity));
+    }
+
+    /**
+     * @return 버킷 합계, 버킷이 없으면 null
+     */
+    public Long total(Long productId, int shards) {
+        List<String> values = redisTemplate.opsForValue().multiGet(bucketKeys(productId, shards));
+        if (values == null) {
+            return null;
+        }
+        long total = 0;
+        for (String value : values) {
+            if (value == null) {
+                return null;
+            }
+            total += Long.parseLong(value);
+        }
+        return total;
+    }
+
+    public long rebalance(Long productId, int shards, int minSpread) {
+        Long moved = redisTemplate.execute(REBALANCE_SCRIPT, bucketKeys(productId, shards), String.valueOf(minSpread));
+        if (moved != null && moved > 0) {
+            rebalancedUnitsCounter.increment(moved);
+            log.debug("샤드 재고 재분배: productId={}, moved={}", productId, moved);
+        }
+        return moved != null ? moved : 0;
+    }
+
+    /**
+     * 현재 재고를 버킷에 나눠 담고 등록부에 올린다.
+     *
+     * @return 이미 샤딩된 상품이면 false
+     */
+    public boolean enable(Long productId, int shards, int stockQuantity) {
+        List<String> keys = new ArrayList<>(bucketKeys(productId, shards));
+        keys.add(REGISTRY_KEY);
+        Long result = redisTemplate.execute(ENABLE_SCRIPT, keys,
+                String.valueOf(productId), String.valueOf(stockQuantity));
+        return result != null && result == shards;
+    }
+
+    /**
+     * 등록부에서 내리고 버킷을 합쳐 지운다.
+     *
+     * @return 버킷 합계, 샤딩되지 않은 상품이면 null
+     */
+    public Long disable(Long productId) {
+        Integer shards = shardCount(productId);
+        if (shards == null) {
+            return null;
+        }
+        List<String> keys = new ArrayList<>(bucketKeys(productId, shards));
+        keys.add(REGISTRY_KEY);
+        Long total = redisTemplate.execute(DISABLE_SCRIPT, keys, String.valueOf(productId));
+        return total != null && total != NOT_SHARDED ? total : null;
+    }
+
+    private long executeOnAllBuckets(RedisScript<Long> script, Long productId, int shards, String qty) {
+        List<String> keys = new ArrayList<>(bucketKeys(productId, shards));
+        keys.add(RedisStockLedger.JOURNAL_KEY);
+        Long result = redisTemplate.execute(script, keys, String.valueOf(productId), qty);
+        if (result == null) {
+            throw new IllegalStateException("샤드 재고 스크립트 실행 실패: productId=" + productId);
+        }
+        return result;
+    }
+
+    static String bucketKey(Long productId, int bucket) {
+        return String.format(BUCKET_KEY_FORMAT, productId, bucket);
+    }
+
+    private static List<String> bucketKeys(Long productId, int shards) {
+        List<String> keys = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            keys.add(bucketKey(productId, i));
+        }
+        return keys;
+    }
+}
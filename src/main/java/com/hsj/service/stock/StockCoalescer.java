@@ -0,0 +1,155 @@
+package com.hsj.service.stock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 같은 상품에 대한 차감 요청을 짧은 구간 동안 모아 한 번에 처리하는 프로세스 내 합치기 큐.
+ * 별도 스레드 없이 먼저 도착한 호출자가 리더가 되어 window 동안(또는 maxBatch개가 찰 때까지) 기다린 뒤
+ * 큐를 비워 {@link BatchApplier}를 한 번 호출하고, 도착 순서대로 나온 결과로 각 호출자의 future를 완료한다.
+ * 상품별 큐는 남은 요청이 없으면 리더가 물러날 때 지우므로, 한 번 차감된 상품이 맵에 계속 남지 않는다.
+ */
+public class StockCoalescer {
+
+    /**
+     * 한 상품에 대한 차감 수량 배열을 한 번에 반영하고 요청별 승인 여부를 돌려준다.
+     * 예외를 던지면 배치에 포함된 모든 요청이 같은 예외로 실패한다.
+     */
+    @FunctionalInterface
+    public interface BatchApplier {
+        boolean[] apply(Long productId, int[] quantities);
+    }
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final long windowNanos;
+    private final int maxBatch;
+    private final BatchApplier applier;
+    private final Map<Long, Batch> batches = new ConcurrentHashMap<>();
+
+    public StockCoalescer(long windowNanos, int maxBatch, BatchApplier applier) {
+        this.windowNanos = windowNanos;
+        this.maxBatch = maxBatch;
+        this.applier = applier;
+    }
+
+    /**
+     * 요청을 큐에 넣고 결과가 나올 때까지 기다린다. 리더가 없으면 호출 스레드가 리더가 된다.
+     *
+     * @return 재고가 충분해 승인되면 true
+     */
+    public boolean deduct(Long productId, int quantity) {
+        // 대기 수를 맵 갱신과 함께 올려, 지우는 쪽이 대기 중인 요청이 있는 큐를 지우지 않게 한다.
+        Batch batch = batches.compute(productId, (id, current) -> {
+            Batch target = current != null ? current : new Batch();
+            target.pending.incrementAndGet();
+            return target;
+        });
+        Request request = new Request(quantity);
+        batch.queue.add(request);
+
+        while (!request.future.isDone()) {
+            if (batch.leader.compareAndSet(false, true)) {
+                try {
+                    lead(productId, batch);
+                } finally {
+                    batch.leader.set(false);
+                    batches.computeIfPresent(productId,
+                            (id, current) -> current == batch && current.pending.get() == 0 ? null : current);
+                }
+            } else {
+                // 리더가 큐를 비운 직후에 들어온 요청이 남지 않도록, 잠시 기다린 뒤 리더 자리를 다시 확인한다.
+                try {
+                    return request.future.get(windowNanos * 2, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException ignored) {
+                    // 다음 루프에서 리더 획득 재시도
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("재고 차감 대기 중 인터럽트 발생", e);
+                } catch (ExecutionException e) {
+                    throw unwrap(e);
+                }
+            }
+        }
+        return join(request.future);
+    }
+
+    private void lead(Long productId, Batch batch) {
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.pending.get() < maxBatch && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+
+        List<Request> drained = new ArrayList<>(maxBatch);
+        Request next;
+        while (drained.size() < maxBatch && (next = batch.queue.poll()) != null) {
+            drained.add(next);
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        batch.pending.addAndGet(-drained.size());
+
+        int[] quantities = new int[drained.size()];
+        for (int i = 0; i < quantities.length; i++) {
+            quantities[i] = drained.get(i).quantity;
+        }
+
+        try {
+            boolean[] granted = applier.apply(productId, quantities);
+            for (int i = 0; i < drained.size(); i++) {
+                drained.get(i).future.complete(granted[i]);
+            }
+        } catch (RuntimeException e) {
+            drained.forEach(request -> request.future.completeExceptionally(e));
+        }
+    }
+
+    /** 큐가 남아 있는 상품 수. 테스트용. */
+    int trackedProducts() {
+        return batches.size();
+    }
+
+    private static boolean join(CompletableFuture<Boolean> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재고 차감 대기 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException cause
+                ? cause
+                : new IllegalStateException("재고 일괄 차감 실패", e.getCause());
+    }
+
+    private static final class Batch {
+        private final Queue<Request> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean leader = new AtomicBoolean();
+    }
+
+    private static final class Request {
+        private final int quantity;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private Request(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
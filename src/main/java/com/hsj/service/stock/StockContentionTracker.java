@@ -0,0 +1,158 @@
+package com.hsj.service.stock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상품별 낙관적 차감 충돌률을 지수 이동 평균으로 추적한다.
+ * 충돌률이 임계치를 넘은 상품은 쿨다운 동안 분산 락 경로로 보낸다.
+ * 충돌이 한 번도 없었던 상품은 항목을 만들지 않으므로 롱테일 상품은 비용이 들지 않고,
+ * 쿨다운이 끝난 뒤 쿨다운 시간만큼 충돌이 없던 상품은 주기적으로 지운다.
+ * <p>
+ * 메트릭: {@code stock.contention.rate{productId}}(락 경로로 전환된 동안만 등록), {@code stock.contention.locked.products}
+ */
+@Slf4j
+@Component
+public class StockContentionTracker {
+
+    private static final double ALPHA = 0.1;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, Contention> contentions = new ConcurrentHashMap<>();
+
+    @Value("${stock.optimistic.contention-threshold:0.2}")
+    private double threshold = 0.2;
+
+    @Value("${stock.optimistic.lock-cooldown-ms:30000}")
+    private long cooldownMillis = 30_000;
+
+    public StockContentionTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("stock.contention.locked.products", this, StockContentionTracker::lockedProductCount)
+                .description("분산 락 경로로 전환된 상품 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 충돌률이 임계치를 넘어 쿨다운 중인 상품이면 true.
+     * 쿨다운이 끝나면 충돌률을 절반으로 낮추고 다시 낙관적 경로로 시도한다.
+     */
+    public boolean shouldUseLock(Long productId) {
+        Contention contention = contentions.get(productId);
+        return contention != null && isLocked(productId, contention, System.currentTimeMillis());
+    }
+
+    public void recordSuccess(Long productId) {
+        Contention contention = contentions.get(productId);
+        if (contention != null) {
+            contention.record(0.0);
+        }
+    }
+
+    public void recordConflict(Long productId) {
+        Contention contention = contentions.computeIfAbsent(productId, id -> new Contention());
+        double rate = contention.record(1.0);
+        if (rate >= threshold && lock(productId, contention)) {
+            log.warn("재고 경합 임계치 초과, 분산 락 경로로 전환: productId={}, rate={}", productId,
+                    String.format("%.2f", rate));
+        }
+    }
+
+    /** 재시도를 모두 소진한 상품은 충돌률과 관계없이 바로 락 경로로 전환한다. */
+    public void recordExhausted(Long productId) {
+        Contention contention = contentions.computeIfAbsent(productId, id -> new Contention());
+        if (lock(productId, contention)) {
+            log.warn("낙관적 재시도 소진, 분산 락 경로로 전환: productId={}", productId);
+        }
+    }
+
+    public double getContentionRate(Long productId) {
+        Contention contention = contentions.get(productId);
+        return contention != null ? contention.rate : 0.0;
+    }
+
+    /** 쿨다운이 끝났고 쿨다운 시간 동안 충돌이 없던 상품을 지운다. */
+    @Scheduled(fixedDelayString = "${stock.optimistic.contention-sweep-interval-ms:60000}")
+    public void evictCooled() {
+        long now = System.currentTimeMillis();
+        contentions.entrySet().removeIf(entry -> !isLocked(entry.getKey(), entry.getValue(), now)
+                && now - entry.getValue().updatedAt > cooldownMillis);
+    }
+
+    private long lockedProductCount() {
+        long now = System.currentTimeMillis();
+        return contentions.values().stream().filter(c -> c.lockedUntil > now).count();
+    }
+
+    /** 락 경로로 전환되면 true. 상품별 충돌률 게이지는 전환된 동안만 등록해 태그 수를 락 상품 수로 묶는다. */
+    private boolean lock(Long productId, Contention contention) {
+        synchronized (contention) {
+            if (!contention.lockUntil(System.currentTimeMillis() + cooldownMillis)) {
+                return false;
+            }
+            if (contention.gauge == null) {
+                contention.gauge = Gauge.builder("stock.contention.rate", contention, c -> c.rate)
+                        .description("상품별 낙관적 재고 차감 충돌률 (EWMA)")
+                        .tag("productId", String.valueOf(productId))
+                        .register(meterRegistry);
+            }
+            return true;
+        }
+    }
+
+    private boolean isLocked(Long productId, Contention contention, long now) {
+        synchronized (contention) {
+            if (contention.isLocked(now)) {
+                return true;
+            }
+            if (contention.gauge != null) {
+                meterRegistry.remove(contention.gauge);
+                contention.gauge = null;
+                log.info("재고 경합 쿨다운 종료, 낙관적 경로로 복귀: productId={}", productId);
+            }
+            return false;
+        }
+    }
+
+    private static final class Contention {
+
+        private volatile double rate;
+        private volatile long lockedUntil;
+        /** 마지막 충돌 시각. 성공만 이어지는 상품도 이 시각 기준으로 지운다. */
+        private volatile long updatedAt = System.currentTimeMillis();
+        private Gauge gauge;
+
+        synchronized double record(double sample) {
+            rate = rate * (1 - ALPHA) + sample * ALPHA;
+            if (sample > 0) {
+                updatedAt = System.currentTimeMillis();
+            }
+            return rate;
+        }
+
+        synchronized boolean lockUntil(long until) {
+            boolean wasUnlocked = lockedUntil <= System.currentTimeMillis();
+            lockedUntil = Math.max(lockedUntil, until);
+            return wasUnlocked;
+        }
+
+        synchronized boolean isLocked(long now) {
+            if (lockedUntil == 0) {
+                return false;
+            }
+            if (lockedUntil > now) {
+                return true;
+            }
+            lockedUntil = 0;
+            rate = rate / 2;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.hsj.service.stock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 결제 대기 주문이 잡고 있는 재고(홀드)의 만료 시각을 Redis 정렬 집합에 보관한다.
+ * member는 주문 ID, score는 만료 시각(epoch ms)이다. 만료된 홀드는 {@link StockHoldSweeper}가
+ * orders 테이블을 훑지 않고 이 집합에서 바로 꺼내 처리한다.
+ */
+@Slf4j
+@Component
+public class StockHoldRegistry {
+
+    static final String HOLD_KEY = "STOCK:HOLD:EXPIRY";
+
+    // 만료된 홀드를 최대 ARGV[2]건 꺼내 score를 ARGV[3](처리 유예 시각)으로 미룬다.
+    // 처리 도중 노드가 죽으면 유예 시각이 지난 뒤 다른 스위퍼가 다시 가져간다.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+            for _, member in ipairs(due) do
+              redis.call('ZADD', KEYS[1], ARGV[3], member)
+            end
+            return due
+            """, List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Counter confirmedCounter;
+    private final Counter cancelledCounter;
+    private final Counter expiredCounter;
+
+    @Value("${stock.hold.ttl-minutes:15}")
+    private long ttlMinutes = 15;
+
+    @Value("${stock.hold.claim-timeout-ms:60000}")
+    private long claimTimeoutMillis = 60_000;
+
+    public StockHoldRegistry(RedisTemplate<String, String> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.confirmedCounter = meterRegistry.counter("stock.holds.confirmed");
+        this.cancelledCounter = meterRegistry.counter("stock.holds.released", "reason", "cancelled");
+        this.expiredCounter = meterRegistry.counter("stock.holds.released", "reason", "expired");
+        Gauge.builder("stock.holds.outstanding", this, StockHoldRegistry::outstanding)
+                .register(meterRegistry);
+    }
+
+    public void hold(Long orderId) {
+        long expiresAt = System.currentTimeMillis() + Duration.ofMinutes(ttlMinutes).toMillis();
+        redisTemplate.opsForZSet().add(HOLD_KEY, String.valueOf(orderId), expiresAt);
+    }
+
+    /** 결제 완료로 홀드를 확정한다. 이후 재고는 영구 차감으로 본다. */
+    public void confirm(Long orderId) {
+        if (remove(orderId)) {
+            confirmedCounter.increment();
+        }
+    }
+
+    /** 주문 취소로 홀드를 해제한다. 재고 복원은 호출자가 한다. */
+    public void release(Long orderId) {
+        if (remove(orderId)) {
+            cancelledCounter.increment();
+        }
+    }
+
+    /** 스위퍼가 만료 처리를 끝낸 홀드를 지운다. */
+    public void completeExpiry(Long orderId, boolean released) {
+        remove(orderId);
+        if (released) {
+            expiredCounter.increment();
+        }
+    }
+
+    /**
+     * 만료된 홀드를 최대 limit건 선점한다. 선점한 홀드는 claim-timeout 동안 다른 스위퍼에게 보이지 않는다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> claimExpired(int limit) {
+        long now = System.currentTimeMillis();
+        List<String> due = redisTemplate.execute(CLAIM_SCRIPT, List.of(HOLD_KEY),
+                String.valueOf(now), String.valueOf(limit), String.valueOf(now + claimTimeoutMillis));
+        if (due == null) {
+            return List.of();
+        }
+        return due.stream().map(Long::valueOf).toList();
+    }
+
+    public double outstanding() {
+        Long size = redisTemplate.opsForZSet().zCard(HOLD_KEY);
+        return size != null ? size : 0;
+    }
+
+    private boolean remove(Long orderId) {
+        Long removed = redisTemplate.opsForZSet().remove(HOLD_KEY, String.valueOf(orderId));
+        return removed != null && removed > 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hsj.service.stock;
+
+import com.hsj.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 만료된 재고 홀드를 배치로 꺼내 결제 대기 주문을 자동 취소하고 재고를 되돌린다.
+ * 여러 노드가 동시에 돌아도 {@link StockHoldRegistry#claimExpired}가 서로 다른 홀드를 나눠 준다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockHoldSweeper {
+
+    private final StockHoldRegistry holdRegistry;
+    private final OrderService orderService;
+
+    @Value("${stock.hold.sweep-batch-size:200}")
+    private int batchSize;
+
+    @Value("${stock.hold.sweep-max-batches:10}")
+    private int maxBatches;
+
+    @Scheduled(fixedDelayString = "${stock.hold.sweep-interval-ms:5000}")
+    public void sweep() {
+        int released = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> orderIds = holdRegistry.claimExpired(batchSize);
+            for (Long orderId : orderIds) {
+                try {
+                    boolean expired = orderService.expirePendingOrder(orderId);
+                    holdRegistry.completeExpiry(orderId, expired);
+                    if (expired) {
+                        released++;
+                    }
+                } catch (Exception e) {
+                    // 홀드는 claim-timeout 뒤 다시 선점된다
+                    log.warn("재고 홀드 만료 처리 실패: orderId={}, error={}", orderId, e.getMessage());
+                }
+            }
+            if (orderIds.size() < batchSize) {
+                break;
+            }
+        }
+        if (released > 0) {
+            log.info("재고 홀드 만료 처리: {}건 자동 취소", released);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.hsj.service.stock;
+
+import com.hsj.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 재고 원장 저널을 주기적으로 읽어 변경된 상품의 products.stock_quantity를 원장 값으로 덮어쓴다.
+ * 델타를 더하지 않고 원장의 현재 값을 기록하므로 같은 배치를 두 번 처리해도 결과가 같다.
+ * 샤딩된 상품은 원장 대신 {@link ShardedStockStore}의 버킷 합계를 기록한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${stock.mode:LOCK}' == 'LEDGER' or ${stock.sharding.enabled:false}")
+public class StockLedgerReconciler {
+
+    private final RedisStockLedger stockLedger;
+    private final ShardedStockStore shardedStockStore;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stock.ledger.reconcile-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${stock.ledger.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        List<String> entries = stockLedger.drainJournal(batchSize);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (String entry : entries) {
+            productIds.add(Long.parseLong(entry.substring(0, entry.indexOf(':'))));
+        }
+
+        List<Long> ids = new ArrayList<>(productIds);
+        List<Long> available = resolveAvailable(ids);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ids.size(); i++) {
+                if (available.get(i) != null) {
+                    productRepository.updateStockQuantity(ids.get(i), available.get(i).intValue());
+                }
+            }
+        });
+        stockLedger.acknowledgeJournal();
+
+        log.info("재고 원장 동기화: journal={}건, products={}개", entries.size(), ids.size());
+    }
+
+    private List<Long> resolveAvailable(List<Long> ids) {
+        Map<Long, Integer> shardCounts = shardedStockStore.shardCounts(ids);
+        if (shardCounts.isEmpty()) {
+            return stockLedger.getAvailable(ids);
+        }
+
+        List<Long> ledgerIds = ids.stream().filter(id -> !shardCounts.containsKey(id)).toList();
+        List<Long> ledgerValues = ledgerIds.isEmpty() ? List.of() : stockLedger.getAvailable(ledgerIds);
+
+        List<Long> available = new ArrayList<>(ids.size());
+        int ledgerIndex = 0;
+        for (Long id : ids) {
+            Integer shards = shardCounts.get(id);
+            available.add(shards != null ? shardedStockStore.total(id, shards) : ledgerValues.get(ledgerIndex++));
+        }
+        return available;
+    }
+}
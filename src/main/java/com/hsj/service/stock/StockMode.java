@@ -0,0 +1,19 @@
+package com.hsj.service.stock;
+
+/**
+ * 재고 차감 방식. 배포 단위로 {@code stock.mode} 프로퍼티(환경변수 STOCK_MODE)로 선택한다.
+ */
+public enum StockMode {
+
+    /** Redisson 분산 락 + DB 행 갱신 (기본값) */
+    LOCK,
+
+    /** {@code @Version} 조건부 UPDATE + 지터 재시도, 경합이 큰 상품만 분산 락으로 전환 */
+    OPTIMISTIC,
+
+    /** 상품별 요청 합치기 큐 + 배치당 비관적 락 조회 1회와 UPDATE 1회 */
+    COALESCING,
+
+    /** Redis 해시 원장 + Lua 원자 예약, DB는 저널 기반 비동기 동기화 */
+    LEDGER
+}
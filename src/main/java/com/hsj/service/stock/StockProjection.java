@@ -0,0 +1,256 @@
+package com.hsj.service.stock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 상품별 가용/예약 재고를 메모리에 들고 있는 근실시간 투영.
+ * 목록·검색 응답과 {@code inStock} 필터가 products.stock_quantity 대신 이 값을 읽는다.
+ * <p>
+ * {@link com.hsj.service.StockService}가 재고를 바꿀 때마다 델타를 반영하고,
+ * {@link StockProjectionRefresher}가 주기적으로 DB 값으로 통째로 교체한다.
+ * 다른 노드에서 일어난 변경과 롤백된 트랜잭션의 델타는 다음 교체 때 바로잡힌다.
+ * <p>
+ * 상품 수만큼 Long 박싱이 생기지 않도록 키와 값을 원시 배열 기반 open addressing 테이블에 담고,
+ * 가용(상위 32비트)과 예약(하위 32비트)을 long 하나로 묶는다. 읽기는 {@link StampedLock} 낙관적 읽기로 처리한다.
+ */
+@Component
+public class StockProjection {
+
+    /** 투영에 없는 상품. 호출자는 DB 값을 그대로 쓴다. */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final StampedLock lock = new StampedLock();
+    private Table table = new Table(16);
+    private volatile boolean ready;
+    private volatile List<Long> soldOutCache;
+
+    public StockProjection(MeterRegistry meterRegistry) {
+        Gauge.builder("stock.projection.products", this, StockProjection::size)
+                .register(meterRegistry);
+    }
+
+    /** 첫 교체가 끝나기 전에는 모든 상품이 UNKNOWN이므로 검색 필터는 SQL로 처리해야 한다. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getAvailable(long productId) {
+        long packed = read(productId);
+        return packed == Table.EMPTY ? UNKNOWN : available(packed);
+    }
+
+    public int getReserved(long productId) {
+        long packed = read(productId);
+        return packed == Table.EMPTY ? UNKNOWN : reserved(packed);
+    }
+
+    /** 가용 재고가 0 이하인 상품 ID. 품절 전이가 있을 때만 다시 계산한다. */
+    public List<Long> getSoldOutIds() {
+        List<Long> cached = soldOutCache;
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Long> soldOut = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            Table current = table;
+            for (int i = 0; i < current.keys.length; i++) {
+                if (current.values[i] != Table.EMPTY && available(current.values[i]) <= 0) {
+                    soldOut.add(current.keys[i]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        cached = Collections.unmodifiableList(soldOut);
+        soldOutCache = cached;
+        return cached;
+    }
+
+    /**
+     * 재고 변경 델타를 반영한다. 아직 투영에 없는 상품은 다음 교체 때 DB 값으로 들어오므로 무시한다.
+     */
+    public void apply(long productId, int availableDelta, int reservedDelta) {
+        long stamp = lock.writeLock();
+        try {
+            long packed = table.get(productId);
+            if (packed == Table.EMPTY) {
+                return;
+            }
+            int before = available(packed);
+            int after = before + availableDelta;
+            table.put(productId, pack(after, Math.max(0, reserved(packed) + reservedDelta)));
+            if ((before <= 0) != (after <= 0)) {
+                soldOutCache = null;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** 입고처럼 반영 후 가용 재고를 이미 알고 있을 때 값을 덮어쓴다. 예약 수량은 유지한다. */
+    public void setAvailable(long productId, int available) {
+        long stamp = lock.writeLock();
+        try {
+            long packed = table.get(productId);
+            table.put(productId, pack(available, packed == Table.EMPTY ? 0 : reserved(packed)));
+            soldOutCache = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * DB에서 읽은 전체 재고로 투영을 교체한다. 새 테이블은 잠금 밖에서 만들고 참조만 바꾼다.
+     *
+     * @param reserved 결제 대기 수량. 가용 재고 목록에 없는 상품은 무시한다.
+     */
+    public void replace(long[] productIds, int[] available, long[] reservedIds, int[] reserved) {
+        Table next = new Table(productIds.length);
+        for (int i = 0; i < productIds.length; i++) {
+            next.put(productIds[i], pack(available[i], 0));
+        }
+        for (int i = 0; i < reservedIds.length; i++) {
+            long packed = next.get(reservedIds[i]);
+            if (packed != Table.EMPTY) {
+                next.put(reservedIds[i], pack(available(packed), reserved[i]));
+            }
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            table = next;
+            soldOutCache = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        ready = true;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return table.size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long read(long productId) {
+        long stamp = lock.tryOptimisticRead();
+        long packed;
+        try {
+            packed = table.get(productId);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // 읽는 도중 리사이즈가 일어난 경우. validate에서 걸러지므로 아래에서 다시 읽는다.
+            packed = Table.EMPTY;
+        }
+        if (lock.validate(stamp)) {
+            return packed;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return table.get(productId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int available(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int reserved(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * long → long 선형 탐사 해시 테이블. 상품은 삭제해도 행이 남는 soft delete이므로 제거 연산은 두지 않는다.
+     * 값이 EMPTY인 칸이 빈 칸이며, pack 결과는 가용 재고가 Integer.MIN_VALUE가 아닌 한 EMPTY와 겹치지 않는다.
+     */
+    private static final class Table {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private long[] values;
+        private int size;
+
+        private Table(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            allocate(capacity);
+        }
+
+        private long get(long key) {
+            long[] k = keys;
+            long[] v = values;
+            int mask = k.length - 1;
+            // 낙관적 읽기 중에는 배열이 바뀌는 중일 수 있으므로 탐사 횟수를 용량으로 제한한다.
+            for (int i = index(key, mask), probes = 0; probes < k.length; i = (i + 1) & mask, probes++) {
+                if (v[i] == EMPTY) {
+                    return EMPTY;
+                }
+                if (k[i] == key) {
+                    return v[i];
+                }
+            }
+            return EMPTY;
+        }
+
+        private void put(long key, long value) {
+            int mask = keys.length - 1;
+            for (int i = index(key, mask); ; i = (i + 1) & mask) {
+                if (values[i] == EMPTY) {
+                    keys[i] = key;
+                    values[i] = value;
+                    if (++size * 2 > keys.length) {
+                        resize();
+                    }
+                    return;
+                }
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            allocate(oldKeys.length << 1);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            long[] emptyValues = new long[capacity];
+            Arrays.fill(emptyValues, EMPTY);
+            values = emptyValues;
+            keys = new long[capacity];
+        }
+
+        private static int index(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
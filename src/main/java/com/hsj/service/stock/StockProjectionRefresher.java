@@ -0,0 +1,50 @@
+package com.hsj.service.stock;
+
+import com.hsj.dto.stock.StockLevel;
+import com.hsj.repository.OrderItemRepository;
+import com.hsj.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 주기적으로 DB의 가용 재고와 결제 대기 수량을 읽어 {@link StockProjection}을 교체한다.
+ * 이 노드를 거치지 않은 변경(다른 노드, 원장/샤드 동기화, 롤백)은 여기서 맞춰진다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockProjectionRefresher {
+
+    private final StockProjection stockProjection;
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${stock.projection.refresh-interval-ms:5000}")
+    public void refresh() {
+        List<StockLevel> levels = productRepository.findAllStockLevels();
+        List<StockLevel> reserved = orderItemRepository.sumPendingQuantityByProduct();
+
+        long[] productIds = new long[levels.size()];
+        int[] available = new int[levels.size()];
+        for (int i = 0; i < levels.size(); i++) {
+            productIds[i] = levels.get(i).productId();
+            available[i] = (int) levels.get(i).quantity();
+        }
+
+        long[] reservedIds = new long[reserved.size()];
+        int[] reservedQuantities = new int[reserved.size()];
+        for (int i = 0; i < reserved.size(); i++) {
+            reservedIds[i] = reserved.get(i).productId();
+            reservedQuantities[i] = (int) reserved.get(i).quantity();
+        }
+
+        stockProjection.replace(productIds, available, reservedIds, reservedQuantities);
+        log.debug("재고 투영 갱신: products={}, reserved={}", productIds.length, reservedIds.length);
+    }
+}
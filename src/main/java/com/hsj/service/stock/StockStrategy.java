@@ -0,0 +1,37 @@
+package com.hsj.service.stock;
+
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.entity.Product;
+
+import java.util.List;
+
+/**
+ * 재고 차감/복원 전략. {@link com.hsj.service.StockService}가 설정된 {@link StockMode}에 맞는 구현으로 위임한다.
+ */
+public interface StockStrategy {
+
+    StockMode mode();
+
+    void deduct(Long productId, int quantity);
+
+    void restore(Long productId, int quantity);
+
+    /**
+     * 여러 상품을 한 번에 예약한다. 하나라도 부족하면 아무것도 차감하지 않고 예외를 던진다.
+     * 전달되는 목록은 {@link StockDeduction#mergeSorted}로 정규화되어 있다.
+     */
+    void reserveAll(List<StockDeduction> deductions);
+
+    void releaseAll(List<StockDeduction> deductions);
+
+    /**
+     * 호출자의 트랜잭션 안에서 여러 상품을 되돌린다. 호출자가 롤백하면 복원도 반영되지 않으므로,
+     * 같은 트랜잭션에서 주문 상태를 바꾸는 취소/환불이 실패 후 재시도돼도 재고가 두 번 돌아오지 않는다.
+     */
+    void restoreAllInTransaction(List<StockDeduction> deductions);
+
+    /**
+     * 관리자 입고. 호출자의 트랜잭션 안에서 실행되며 반영 후 가용 재고를 반환한다.
+     */
+    int addStock(Product product, int quantity);
+}
@@ -20,6 +20,11 @@ public final class PageUtils {
         );
     }
 
+    /** 커서 페이지 크기. 오프셋 페이지와 같은 범위로 제한한다. */
+    public static int cursorSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+
     public static Pageable of(int page, int size, Sort sort) {
         return PageRequest.of(
                 Math.max(page, DEFAULT_PAGE),
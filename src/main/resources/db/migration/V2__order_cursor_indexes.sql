@@ -0,0 +1,9 @@
+-- 주문 커서 조회용 (created_at, order_id) 복합 인덱스. Order 엔티티의 @Index와 이름·컬럼을 맞춘다.
+-- 테이블이 아직 없으면(신규 dev DB) Hibernate가 엔티티의 @Index로 생성하므로 건너뛴다.
+DO $$
+BEGIN
+    IF to_regclass('orders') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_orders_member_created ON orders (member_id, created_at, order_id);
+        CREATE INDEX IF NOT EXISTS idx_orders_created ON orders (created_at, order_id);
+    END IF;
+END $$;
@@ -0,0 +1,28 @@
+-- 주문/결제/이벤트 로그 쓰기 경로를 IDENTITY에서 pooled-lo 시퀀스(allocationSize = 50)로 전환한다.
+-- 시퀀스 값은 블록의 시작 ID이므로 INCREMENT BY는 allocationSize와 같아야 하고,
+-- 다음 nextval이 기존 최대 ID + 1을 돌려주도록 맞춘다.
+DO $$
+DECLARE
+    target RECORD;
+BEGIN
+    FOR target IN
+        SELECT * FROM (VALUES
+            ('orders', 'order_id', 'orders_seq'),
+            ('order_items', 'order_item_id', 'order_items_seq'),
+            ('order_histories', 'order_history_id', 'order_histories_seq'),
+            ('payments', 'payment_id', 'payments_seq'),
+            ('event_logs', 'event_log_id', 'event_logs_seq')
+        ) AS t (table_name, id_column, sequence_name)
+    LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', target.sequence_name);
+
+        IF to_regclass(target.table_name) IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN %I DROP IDENTITY IF EXISTS',
+                    target.table_name, target.id_column);
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN %I DROP DEFAULT',
+                    target.table_name, target.id_column);
+            EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(%I) FROM %I), 0) + 1, false)',
+                    target.sequence_name, target.id_column, target.table_name);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,19 @@
+-- 주문/결제 도메인 이벤트 아웃박스.
+-- 같은 주문의 이벤트는 ID 순서로 발행되므로 시퀀스는 캐시나 블록 할당 없이 1씩 증가시킨다.
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS outbox (
+    outbox_id      BIGINT       NOT NULL PRIMARY KEY,
+    aggregate_type VARCHAR(30)  NOT NULL,
+    aggregate_id   BIGINT       NOT NULL,
+    event_type     VARCHAR(50)  NOT NULL,
+    payload        TEXT         NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    published_at   TIMESTAMP(6)
+);
+
+-- 미발행 행만 담는 부분 인덱스라 발행이 끝난 행이 쌓여도 릴레이 조회 비용이 늘지 않는다.
+CREATE INDEX IF NOT EXISTS idx_outbox_pending ON outbox (outbox_id) WHERE published_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_aggregate ON outbox (aggregate_type, aggregate_id, outbox_id)
+    WHERE published_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_published ON outbox (published_at) WHERE published_at IS NOT NULL;
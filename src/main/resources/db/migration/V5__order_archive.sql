@@ -0,0 +1,69 @@
+-- 배송 완료·취소·환불로 끝난 지 오래된 주문을 옮겨 두는 보관 테이블.
+-- created_at 월 단위 선언적 파티션이며, 월 파티션은 보관 작업이 옮기기 전에 필요한 만큼 만든다.
+-- 파티션 키가 기본 키에 포함돼야 하므로 (id, created_at)을 기본 키로 둔다.
+-- 원본 테이블에 컬럼을 추가하면 여기와 OrderArchiveRepository의 컬럼 목록에도 함께 추가해야 한다.
+CREATE TABLE IF NOT EXISTS orders_archive (
+    order_id         BIGINT         NOT NULL,
+    order_number     VARCHAR(50)    NOT NULL,
+    member_id        BIGINT         NOT NULL,
+    status           VARCHAR(30)    NOT NULL,
+    total_amount     NUMERIC(14, 2) NOT NULL,
+    shipping_address VARCHAR(500),
+    receiver_name    VARCHAR(50),
+    receiver_phone   VARCHAR(20),
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6),
+    is_deleted       BOOLEAN        NOT NULL,
+    PRIMARY KEY (order_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS order_items_archive (
+    order_item_id         BIGINT         NOT NULL,
+    order_id              BIGINT         NOT NULL,
+    product_id            BIGINT         NOT NULL,
+    quantity              INTEGER        NOT NULL,
+    snapshot_product_name VARCHAR(200)   NOT NULL,
+    snapshot_price        NUMERIC(12, 2) NOT NULL,
+    snapshot_image_url    VARCHAR(500),
+    snapshot_description  TEXT,
+    status                VARCHAR(30)    NOT NULL,
+    created_at            TIMESTAMP(6)   NOT NULL,
+    updated_at            TIMESTAMP(6),
+    is_deleted            BOOLEAN        NOT NULL,
+    PRIMARY KEY (order_item_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS order_histories_archive (
+    order_history_id BIGINT       NOT NULL,
+    order_id         BIGINT       NOT NULL,
+    previous_status  VARCHAR(30),
+    new_status       VARCHAR(30)  NOT NULL,
+    reason           VARCHAR(500),
+    changed_by       VARCHAR(100),
+    created_at       TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (order_history_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_member_created ON orders_archive (member_id, created_at, order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_number ON orders_archive (order_number);
+CREATE INDEX IF NOT EXISTS idx_order_items_archive_order ON order_items_archive (order_id);
+CREATE INDEX IF NOT EXISTS idx_order_histories_archive_order ON order_histories_archive (order_id);
+
+-- 결제와 리뷰는 보관 후에도 원본 테이블에 남으므로 orders를 가리키는 외래 키를 제거한다.
+-- 주문 ID 참조는 그대로 유지되며, 보관된 주문은 보관 테이블에서 조회한다.
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    IF to_regclass('orders') IS NOT NULL THEN
+        FOR fk IN
+            SELECT conrelid::regclass AS table_name, conname
+            FROM pg_constraint
+            WHERE contype = 'f'
+              AND confrelid = 'orders'::regclass
+              AND conrelid::regclass::text IN ('payments', 'reviews')
+        LOOP
+            EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.conname);
+        END LOOP;
+    END IF;
+END $$;
@@ -0,0 +1,9 @@
+-- 결제 복구 스위퍼가 오래 PENDING으로 남은 결제를 찾는 부분 인덱스.
+-- 완료·실패한 결제가 쌓여도 PENDING 행만 담기므로 조회 비용이 늘지 않는다.
+-- 테이블이 아직 없으면(신규 dev DB) 건너뛴다. 부분 인덱스는 엔티티로 표현할 수 없어 신규 dev DB에서는 생기지 않는다.
+DO $$
+BEGIN
+    IF to_regclass('payments') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_payments_pending ON payments (created_at, payment_id) WHERE status = 'PENDING';
+    END IF;
+END $$;
@@ -0,0 +1,52 @@
+-- PG 정산 파일 대사 작업. byte_offset은 마지막으로 커밋된 청크 다음 줄의 파일 위치이며, 재시작은 여기서부터 읽는다.
+CREATE SEQUENCE IF NOT EXISTS payment_reconciliation_runs_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS payment_reconciliation_runs (
+    run_id         BIGINT        NOT NULL PRIMARY KEY,
+    file_name      VARCHAR(255)  NOT NULL,
+    period_from    TIMESTAMP(6)  NOT NULL,
+    period_to      TIMESTAMP(6)  NOT NULL,
+    status         VARCHAR(20)   NOT NULL,
+    byte_offset    BIGINT        NOT NULL DEFAULT 0,
+    rows_read      BIGINT        NOT NULL DEFAULT 0,
+    mismatch_count BIGINT        NOT NULL DEFAULT 0,
+    error_message  VARCHAR(500),
+    started_at     TIMESTAMP(6)  NOT NULL,
+    updated_at     TIMESTAMP(6)  NOT NULL,
+    finished_at    TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_reconciliation_runs_file ON payment_reconciliation_runs (file_name, status);
+
+-- 파일에서 읽은 멱등성 키. 파일 내 중복 검출과 "결제는 있는데 정산에 없는" 행의 anti-join에 쓰고, 작업이 끝나면 지운다.
+CREATE TABLE IF NOT EXISTS payment_reconciliation_seen (
+    run_id          BIGINT       NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    PRIMARY KEY (run_id, idempotency_key)
+);
+
+CREATE SEQUENCE IF NOT EXISTS payment_reconciliation_mismatches_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS payment_reconciliation_mismatches (
+    mismatch_id     BIGINT        NOT NULL PRIMARY KEY,
+    run_id          BIGINT        NOT NULL,
+    mismatch_type   VARCHAR(30)   NOT NULL,
+    idempotency_key VARCHAR(100),
+    settled_amount  NUMERIC(14, 2),
+    payment_amount  NUMERIC(14, 2),
+    settled_status  VARCHAR(30),
+    payment_status  VARCHAR(30),
+    detail          VARCHAR(255),
+    created_at      TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_reconciliation_mismatches_run ON payment_reconciliation_mismatches (run_id, mismatch_id);
+
+-- 정산 기간 안의 결제를 훑는 anti-join용.
+-- 테이블이 아직 없으면(신규 dev DB) Hibernate가 엔티티의 @Index로 생성하므로 건너뛴다.
+DO $$
+BEGIN
+    IF to_regclass('payments') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_payments_created_at ON payments (created_at);
+    END IF;
+END $$;
@@ -0,0 +1,20 @@
+-- 환불 처리기가 REFUND_REQUESTED 주문을 요청 순서대로 찾는 부분 인덱스.
+-- 끝난 주문이 쌓여도 처리 대기 중인 행만 담기므로 대기열 조회 비용이 늘지 않는다.
+-- 테이블이 아직 없으면(신규 dev DB) 건너뛴다. 부분 인덱스는 엔티티로 표현할 수 없어 신규 dev DB에서는 생기지 않는다.
+DO $$
+BEGIN
+    IF to_regclass('orders') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_orders_refund_requested ON orders (updated_at, order_id)
+            WHERE status = 'REFUND_REQUESTED';
+    END IF;
+END $$;
+
+-- PG 환불에 실패한 주문의 재시도 일정. next_attempt_at이 NULL이면 자동 재시도를 멈추고 수동 처리를 기다린다.
+-- 환불이 반영되면 행을 지운다.
+CREATE TABLE IF NOT EXISTS order_refund_attempts (
+    order_id        BIGINT        NOT NULL PRIMARY KEY,
+    attempts        INT           NOT NULL,
+    next_attempt_at TIMESTAMP(6),
+    last_error      VARCHAR(500),
+    updated_at      TIMESTAMP(6)  NOT NULL
+);
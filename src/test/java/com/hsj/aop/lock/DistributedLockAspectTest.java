@@ -0,0 +1,175 @@
+package com.hsj.aop.lock;
+
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DistributedLockAspect 단위 테스트 (락 엔진)")
+class DistributedLockAspectTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock rLock;
+
+    private MeterRegistry meterRegistry;
+    private LockedTarget target;
+    /** 필드는 프록시를 거치지 않으므로 호출 횟수는 원본 객체에서 읽는다. */
+    private LockedTarget raw;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DistributedLockAspect aspect = new DistributedLockAspect(
+                List.of(new RedissonLockProvider(redissonClient), new LocalLockProvider(16)), meterRegistry);
+
+        raw = new LockedTarget();
+        AspectJProxyFactory factory = new AspectJProxyFactory(raw);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        target = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("SpEL 키가 'LOCK:' 접두사와 함께 해석되고, 실행 후 락이 해제되며 대기/보유 시간이 기록된다")
+    void 단일키_획득_해제_메트릭() throws InterruptedException {
+        when(redissonClient.getLock("LOCK:STOCK:7")).thenReturn(rLock);
+        when(rLock.tryLock(5L, 3L, TimeUnit.SECONDS)).thenReturn(true);
+        when(rLock.isHeldByCurrentThread()).thenReturn(true);
+
+        target.single(7L);
+        target.single(7L);
+
+        verify(rLock, times(2)).unlock();
+        assertThat(meterRegistry.get("lock.wait").tag("name", "stock").tag("result", "acquired").timer().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("lock.hold").tag("name", "stock").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("락 획득 실패 시 LOCK_ACQUISITION_FAILED가 발생하고 본문은 실행되지 않으며 실패 횟수가 기록된다")
+    void 획득실패_BusinessException() throws InterruptedException {
+        when(redissonClient.getLock(anyString())).thenReturn(rLock);
+        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(false);
+
+        assertThatThrownBy(() -> target.single(1L))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.LOCK_ACQUISITION_FAILED);
+
+        assertThat(raw.invocations).isZero();
+        verify(rLock, never()).unlock();
+        assertThat(meterRegistry.get("lock.failures").tag("reason", "timeout").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("락 대기 중 인터럽트가 발생하면 IllegalStateException으로 감싼다")
+    void 인터럽트_IllegalStateException() throws InterruptedException {
+        when(redissonClient.getLock(anyString())).thenReturn(rLock);
+        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class)))
+                .thenThrow(new InterruptedException("테스트 인터럽트"));
+
+        assertThatThrownBy(() -> target.single(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("인터럽트");
+        Thread.interrupted(); // 다음 테스트를 위해 인터럽트 플래그 초기화
+    }
+
+    @Test
+    @DisplayName("키가 컬렉션이면 중복을 제거하고 정렬한 순서로 MultiLock을 만든다")
+    void 멀티키_정렬_MultiLock() throws InterruptedException {
+        RLock lock1 = mock(RLock.class);
+        RLock lock3 = mock(RLock.class);
+        RLock multiLock = mock(RLock.class);
+        when(redissonClient.getLock("LOCK:STOCK:1")).thenReturn(lock1);
+        when(redissonClient.getLock("LOCK:STOCK:3")).thenReturn(lock3);
+        when(redissonClient.getMultiLock(lock1, lock3)).thenReturn(multiLock);
+        when(multiLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+
+        target.multi(List.of(3L, 1L, 3L));
+
+        verify(redissonClient).getMultiLock(lock1, lock3);
+        verify(multiLock).unlock();
+    }
+
+    @Test
+    @DisplayName("FAIR 타입은 Redisson 공정 락을 사용한다")
+    void 공정락() throws InterruptedException {
+        when(redissonClient.getFairLock("LOCK:COUPON:5")).thenReturn(rLock);
+        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(rLock.isHeldByCurrentThread()).thenReturn(true);
+
+        target.fair(5L);
+
+        verify(redissonClient, never()).getLock(anyString());
+        verify(rLock).unlock();
+    }
+
+    @Test
+    @DisplayName("LOCAL 타입은 Redis 없이 JVM 안에서 상호 배제를 보장한다")
+    void 로컬락_상호배제() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 1_000; j++) {
+                    target.local(1L);
+                }
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(raw.counter).isEqualTo(8_000);
+        verifyNoInteractions(redissonClient);
+    }
+
+    static class LockedTarget {
+
+        int invocations;
+        int counter;
+
+        @DistributedLock(key = "'STOCK:' + #productId", name = "stock")
+        public void single(Long productId) {
+            invocations++;
+        }
+
+        @DistributedLock(key = "#productIds.!['STOCK:' + #this]", name = "stock-multi")
+        public void multi(List<Long> productIds) {
+            invocations++;
+        }
+
+        @DistributedLock(key = "'COUPON:' + #couponId", type = LockType.FAIR)
+        public void fair(Long couponId) {
+            invocations++;
+        }
+
+        @DistributedLock(key = "'COUNTER:' + #id", type = LockType.LOCAL)
+        public void local(Long id) {
+            counter++;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.hsj.aop.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TieredLockProvider 단위 테스트 (로컬 + Redis 2단 락)")
+class TieredLockProviderTest {
+
+    private static final String KEY = "LOCK:STOCK:1";
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock rLock;
+
+    @Mock
+    private RFuture<Boolean> lockFuture;
+
+    @Mock
+    private RFuture<Void> unlockFuture;
+
+    private MeterRegistry meterRegistry;
+    private TieredLockProvider provider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        provider = new TieredLockProvider(redissonClient, meterRegistry);
+
+        when(redissonClient.getLock(KEY)).thenReturn(rLock);
+        when(rLock.tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong())).thenReturn(lockFuture);
+        when(lockFuture.get()).thenReturn(true);
+        lenient().when(rLock.unlockAsync(anyLong())).thenReturn(unlockFuture);
+    }
+
+    @Test
+    @DisplayName("경합이 없으면 Redis 락을 한 번 잡고 한 번 푼다")
+    void 무경합_획득해제() throws InterruptedException {
+        LockHandle lock = provider.getLock(List.of(KEY), LockType.TIERED);
+
+        assertThat(lock.tryLock(5, 3, TimeUnit.SECONDS)).isTrue();
+        lock.unlock();
+
+        verify(rLock, times(1)).tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong());
+        verify(rLock, times(1)).unlockAsync(anyLong());
+        assertThat(meterRegistry.counter("lock.tiered.redis.ops.saved").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Redis 락을 풀고 대기자가 없으면 키 상태를 맵에서 지운다")
+    void 해제후_키상태_제거() throws InterruptedException {
+        LockHandle lock = provider.getLock(List.of(KEY), LockType.TIERED);
+        assertThat(lock.tryLock(5, 3, TimeUnit.SECONDS)).isTrue();
+        assertThat(provider.trackedKeys()).isEqualTo(1);
+
+        lock.unlock();
+
+        assertThat(provider.trackedKeys()).isZero();
+    }
+
+    @Test
+    @DisplayName("같은 노드의 스레드가 몰리면 Redis 락을 넘겨주어 Redis 호출이 획득 횟수보다 적고 상호 배제는 유지된다")
+    void 경합_인계_Redis호출감소() throws InterruptedException {
+        int threads = 8;
+        int perThread = 50;
+        AtomicInteger inCriticalSection = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger acquisitions = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        LockHandle lock = provider.getLock(List.of(KEY), LockType.TIERED);
+                        if (!lock.tryLock(5, 3, TimeUnit.SECONDS)) {
+                            continue;
+                        }
+                        try {
+                            if (inCriticalSection.incrementAndGet() > 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            acquisitions.incrementAndGet();
+                            Thread.sleep(0, 200_000);
+                            inCriticalSection.decrementAndGet();
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        assertThat(overlaps.get()).isZero();
+        assertThat(acquisitions.get()).isEqualTo(threads * perThread);
+        assertThat(meterRegistry.counter("lock.tiered.handoffs").count()).isPositive();
+        assertThat(meterRegistry.counter("lock.tiered.redis.ops.saved").count()).isPositive();
+        verify(rLock, atMost(threads * perThread - 1))
+                .tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong());
+    }
+}
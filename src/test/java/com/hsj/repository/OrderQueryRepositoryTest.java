@@ -0,0 +1,204 @@
+package com.hsj.repository;
+
+import com.hsj.config.JpaConfig;
+import com.hsj.config.QuerydslConfig;
+import com.hsj.dto.order.OrderCursor;
+import com.hsj.dto.order.OrderResponse;
+import com.hsj.entity.Member;
+import com.hsj.entity.Order;
+import com.hsj.entity.OrderItem;
+import com.hsj.entity.Product;
+import com.hsj.entity.enums.MemberRole;
+import com.hsj.exception.BusinessException;
+import com.hsj.repository.custom.OrderQueryRepository;
+import com.hsj.service.stock.StockProjection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({QuerydslConfig.class, JpaConfig.class, OrderQueryRepository.class, StockProjection.class,
+        OrderQueryRepositoryTest.MetricsConfig.class})
+@DisplayName("OrderQueryRepository 조회 쿼리 수 테스트")
+class OrderQueryRepositoryTest {
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private OrderQueryRepository orderQueryRepository;
+
+    private Statistics statistics;
+    private Member member;
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        member = em.persist(Member.builder()
+                .email("reader@test.com")
+                .password("encoded_pw")
+                .name("조회자")
+                .role(MemberRole.CUSTOMER)
+                .build());
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            products.add(em.persist(Product.builder()
+                    .name("상품-" + i)
+                    .price(BigDecimal.valueOf(1_000L * (i + 1)))
+                    .stockQuantity(100)
+                    .build()));
+        }
+
+        for (int i = 0; i < 12; i++) {
+            Order order = Order.builder()
+                    .orderNumber(String.format("ORD-%013d", i))
+                    .member(member)
+                    .shippingAddress("addr")
+                    .receiverName("name")
+                    .receiverPhone("phone")
+                    .build();
+            for (Product product : products) {
+                order.addOrderItem(OrderItem.builder().product(product).quantity(2).build());
+            }
+            orders.add(em.persist(order));
+        }
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("내 주문 페이지는 주문 수와 상관없이 헤더 + 아이템 IN + count 3개 문장으로 조회된다")
+    void findByMemberId_페이지크기무관_고정쿼리수() {
+        Page<OrderResponse> small = orderQueryRepository.findByMemberId(member.getId(), PageRequest.of(0, 2));
+        long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Page<OrderResponse> large = orderQueryRepository.findByMemberId(member.getId(), PageRequest.of(0, 10));
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        assertThat(smallStatements).isEqualTo(3);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        assertThat(large.getContent()).hasSize(10);
+        assertThat(large.getTotalElements()).isEqualTo(12);
+        assertThat(small.getContent()).allSatisfy(response -> {
+            assertThat(response.getMemberId()).isEqualTo(member.getId());
+            assertThat(response.getItems()).hasSize(3);
+            assertThat(response.getItems()).allSatisfy(item -> assertThat(item.getProductId()).isNotNull());
+        });
+    }
+
+    @Test
+    @DisplayName("내 주문 페이지는 요청한 정렬을 따르고, 지원하지 않는 정렬 기준은 거절한다")
+    void findByMemberId_정렬() {
+        Page<OrderResponse> ascending = orderQueryRepository.findByMemberId(member.getId(),
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.ASC, "id")));
+        assertThat(ascending.getContent())
+                .extracting(OrderResponse::getOrderId)
+                .containsExactly(orders.subList(0, 5).stream().map(Order::getId).toArray(Long[]::new));
+
+        assertThatThrownBy(() -> orderQueryRepository.findByMemberId(member.getId(),
+                PageRequest.of(0, 5, Sort.by("receiverPhone"))))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("단건 조회는 주문 ID/주문번호 모두 헤더 + 아이템 2개 문장으로 조회되고 금액이 엔티티 계산과 같다")
+    void findOne_두문장() {
+        Order target = orders.get(0);
+
+        OrderResponse byId = orderQueryRepository.findById(target.getId()).orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        OrderResponse byNumber = orderQueryRepository.findByOrderNumber(target.getOrderNumber()).orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        assertThat(byNumber.getOrderId()).isEqualTo(byId.getOrderId());
+        assertThat(byId.getTotalAmount()).isEqualByComparingTo(target.getTotalAmount());
+        assertThat(byId.getItems())
+                .extracting(OrderResponse.OrderItemResponse::getSubtotal)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(2_000), BigDecimal.valueOf(4_000), BigDecimal.valueOf(6_000));
+    }
+
+    @Test
+    @DisplayName("커서 조회는 count 없이 페이지마다 2개 문장이며, 끝까지 넘기면 중복/누락 없이 최신순으로 모두 읽힌다")
+    void findByMemberIdBefore_커서순회() {
+        Set<Long> seen = new HashSet<>();
+        List<OrderResponse> all = new ArrayList<>();
+        OrderCursor cursor = null;
+        int pages = 0;
+
+        while (true) {
+            statistics.clear();
+            List<OrderResponse> fetched = orderQueryRepository.findByMemberIdBefore(member.getId(), cursor, 5);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            pages++;
+
+            List<OrderResponse> page = fetched.size() > 5 ? fetched.subList(0, 5) : fetched;
+            page.forEach(order -> assertThat(seen.add(order.getOrderId())).isTrue());
+            all.addAll(page);
+            if (fetched.size() <= 5) {
+                break;
+            }
+            cursor = OrderCursor.decode(OrderCursor.of(page.get(page.size() - 1)).encode());
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(12);
+        for (int i = 1; i < all.size(); i++) {
+            OrderResponse newer = all.get(i - 1);
+            OrderResponse older = all.get(i);
+            assertThat(newer.getCreatedAt()).isAfterOrEqualTo(older.getCreatedAt());
+            if (newer.getCreatedAt().equals(older.getCreatedAt())) {
+                assertThat(newer.getOrderId()).isGreaterThan(older.getOrderId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("없는 주문은 아이템 조회 없이 빈 결과를 반환한다")
+    void findById_없음() {
+        assertThat(orderQueryRepository.findById(-1L)).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.hsj.service;
+
+import com.hsj.dto.event.EventLogRequest;
+import com.hsj.entity.EventLog;
+import com.hsj.entity.enums.EventType;
+import com.hsj.repository.EventLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventLogService 단위 테스트")
+class EventLogServiceTest {
+
+    @Mock private EventLogRepository eventLogRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private EventLogService eventLogService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        eventLogService = new EventLogService(eventLogRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("일괄 저장은 한 트랜잭션에서 saveAll 한 번으로 끝난다")
+    void logEvents_일괄저장() {
+        eventLogService.logEvents(List.of(request(1L), request(2L)), 7L, "127.0.0.1", "UA");
+
+        verify(eventLogRepository, times(1)).saveAll(argThat((List<EventLog> logs) -> logs.size() == 2));
+        verify(eventLogRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("일괄 저장이 실패하면 이벤트마다 따로 저장해 실패한 건만 버린다")
+    void logEvents_일괄실패_건별저장() {
+        when(eventLogRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("too long"));
+        when(eventLogRepository.save(any())).thenAnswer(inv -> {
+            EventLog log = inv.getArgument(0);
+            if (log.getTargetId() == 2L) {
+                throw new DataIntegrityViolationException("too long");
+            }
+            return log;
+        });
+
+        eventLogService.logEvents(List.of(request(1L), request(2L), request(3L)), 7L, "127.0.0.1", "UA");
+
+        verify(eventLogRepository, times(3)).save(any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    private static EventLogRequest request(Long targetId) {
+        EventLogRequest request = new EventLogRequest();
+        ReflectionTestUtils.setField(request, "eventType", EventType.PRODUCT_VIEW);
+        ReflectionTestUtils.setField(request, "targetId", targetId);
+        return request;
+    }
+}
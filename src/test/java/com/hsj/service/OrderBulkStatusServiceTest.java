@@ -0,0 +1,141 @@
+package com.hsj.service;
+
+import com.hsj.dto.order.OrderBulkStatusChangeRequest;
+import com.hsj.dto.order.OrderBulkStatusChangeResponse;
+import com.hsj.dto.outbox.OrderStatusChangedPayload;
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.exception.BusinessException;
+import com.hsj.repository.custom.OrderBulkRepository;
+import com.hsj.service.order.OrderDetailCache;
+import com.hsj.service.order.OrderHistoryRecorder;
+import com.hsj.service.outbox.OutboxWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderBulkStatusService 단위 테스트")
+class OrderBulkStatusServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock private OrderBulkRepository orderBulkRepository;
+    @Mock private OutboxWriter outboxWriter;
+    @Mock private OrderHistoryRecorder orderHistoryRecorder;
+    @Mock private OrderDetailCache orderDetailCache;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private OrderBulkStatusService orderBulkStatusService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        orderBulkStatusService = new OrderBulkStatusService(orderBulkRepository, outboxWriter,
+                orderHistoryRecorder, orderDetailCache, transactionManager, CHUNK_SIZE, 10);
+    }
+
+    @Test
+    @DisplayName("ID 목록은 청크별로 검증 후 전이 가능한 주문만 집합 UPDATE하고 나머지는 사유와 함께 보고한다")
+    void changeStatus_ID목록_부분실패() {
+        when(orderBulkRepository.lockStatuses(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, OrderStatus.PAID, 2L, OrderStatus.PENDING_PAYMENT));
+        when(orderBulkRepository.lockStatuses(List.of(3L)))
+                .thenReturn(Map.of());
+
+        OrderBulkStatusChangeResponse response = orderBulkStatusService.changeStatus(
+                OrderBulkStatusChangeRequest.ofIds(List.of(1L, 2L, 3L, 1L), OrderStatus.PREPARING, "출고 준비"),
+                "admin@test.com");
+
+        assertThat(response.getSucceededCount()).isEqualTo(1);
+        assertThat(response.getFailedCount()).isEqualTo(2);
+        assertThat(response.getFailures())
+                .extracting(OrderBulkStatusChangeResponse.Failure::orderId)
+                .containsExactly(2L, 3L);
+
+        verify(orderBulkRepository).updateOrderStatus(Set.of(1L), OrderStatus.PREPARING);
+        verify(orderBulkRepository).updateItemStatus(Set.of(1L), OrderItemStatus.PAID, OrderItemStatus.PREPARING);
+        verify(orderHistoryRecorder).recordAll(argThat(entries -> entries.size() == 1
+                && entries.get(0).orderId().equals(1L)
+                && entries.get(0).previousStatus() == OrderStatus.PAID
+                && entries.get(0).newStatus() == OrderStatus.PREPARING
+                && "출고 준비".equals(entries.get(0).reason())));
+        verify(outboxWriter).appendAll(OutboxEventType.ORDER_STATUS_CHANGED, Map.of(1L,
+                new OrderStatusChangedPayload(OrderStatus.PAID, OrderStatus.PREPARING, "출고 준비", "admin@test.com")));
+        verify(orderDetailCache).evictAfterCommit(Set.of(1L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("상태 필터는 주문 ID로 seek하며 빈 청크가 나올 때까지 반복한다")
+    void changeStatus_상태필터_청크반복() {
+        when(orderBulkRepository.findIdsByStatus(OrderStatus.PREPARING, 0L, CHUNK_SIZE)).thenReturn(List.of(1L, 2L));
+        when(orderBulkRepository.findIdsByStatus(OrderStatus.PREPARING, 2L, CHUNK_SIZE)).thenReturn(List.of(5L));
+        when(orderBulkRepository.findIdsByStatus(OrderStatus.PREPARING, 5L, CHUNK_SIZE)).thenReturn(List.of());
+        when(orderBulkRepository.lockStatuses(anyCollection())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> OrderStatus.PREPARING));
+        });
+
+        OrderBulkStatusChangeResponse response = orderBulkStatusService.changeStatus(
+                OrderBulkStatusChangeRequest.ofFilter(OrderStatus.PREPARING, OrderStatus.SHIPPED, null),
+                "admin@test.com");
+
+        assertThat(response.getSucceededCount()).isEqualTo(3);
+        assertThat(response.getFailedCount()).isZero();
+        verify(orderBulkRepository, times(2)).updateItemStatus(anyCollection(),
+                eq(OrderItemStatus.PREPARING), eq(OrderItemStatus.SHIPPED));
+    }
+
+    @Test
+    @DisplayName("청크 처리 중 DB 오류가 나면 해당 청크만 실패로 보고하고 다음 청크를 계속 처리한다")
+    void changeStatus_청크오류_격리() {
+        when(orderBulkRepository.lockStatuses(List.of(1L, 2L))).thenThrow(new QueryTimeoutException("timeout"));
+        when(orderBulkRepository.lockStatuses(List.of(3L))).thenReturn(Map.of(3L, OrderStatus.SHIPPED));
+
+        OrderBulkStatusChangeResponse response = orderBulkStatusService.changeStatus(
+                OrderBulkStatusChangeRequest.ofIds(List.of(1L, 2L, 3L), OrderStatus.DELIVERED, null),
+                "admin@test.com");
+
+        assertThat(response.getSucceededCount()).isEqualTo(1);
+        assertThat(response.getFailedCount()).isEqualTo(2);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("재고·결제 부수효과가 있는 상태로의 일괄 변경은 거부한다")
+    void changeStatus_지원하지않는상태_예외() {
+        assertThatThrownBy(() -> orderBulkStatusService.changeStatus(
+                OrderBulkStatusChangeRequest.ofIds(List.of(1L), OrderStatus.CANCELLED, null), "admin@test.com"))
+                .isInstanceOf(BusinessException.class);
+
+        verifyNoInteractions(orderBulkRepository);
+    }
+
+    @Test
+    @DisplayName("상태 필터가 목표 상태로 전이할 수 없으면 조회 전에 거부한다")
+    void changeStatus_필터전이불가_예외() {
+        assertThatThrownBy(() -> orderBulkStatusService.changeStatus(
+                OrderBulkStatusChangeRequest.ofFilter(OrderStatus.PAID, OrderStatus.SHIPPED, null), "admin@test.com"))
+                .isInstanceOf(BusinessException.class);
+
+        verifyNoInteractions(orderBulkRepository);
+    }
+}
@@ -0,0 +1,173 @@
+package com.hsj.service;
+
+import com.hsj.dto.order.OrderHistoryEntry;
+import com.hsj.dto.order.OrderItemBulkCancelRequest;
+import com.hsj.dto.order.OrderItemBulkCancelResponse;
+import com.hsj.dto.outbox.OrderItemCancelledPayload;
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.NotFoundException;
+import com.hsj.repository.custom.OrderItemCancelRepository;
+import com.hsj.repository.custom.OrderItemCancelRepository.LockedItem;
+import com.hsj.service.order.OrderDetailCache;
+import com.hsj.service.order.OrderHistoryRecorder;
+import com.hsj.service.outbox.OutboxWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderItemCancelService 단위 테스트")
+class OrderItemCancelServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock private OrderItemCancelRepository orderItemCancelRepository;
+    @Mock private StockService stockService;
+    @Mock private OrderHistoryRecorder orderHistoryRecorder;
+    @Mock private OutboxWriter outboxWriter;
+    @Mock private OrderDetailCache orderDetailCache;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private OrderItemCancelService orderItemCancelService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        orderItemCancelService = new OrderItemCancelService(orderItemCancelRepository, stockService,
+                orderHistoryRecorder, outboxWriter, orderDetailCache, transactionManager, CHUNK_SIZE, 10);
+    }
+
+    @Test
+    @DisplayName("cancel: 소계만큼 주문 금액을 센트 단위로 차감하고 결제된 수량을 재고로 되돌린다")
+    void cancel_금액차감_재고복원() {
+        // 12,500.50원 × 2개 = 25,001.00원, 주문 합계 30,000.00원
+        when(orderItemCancelRepository.lockItems(List.of(10L)))
+                .thenReturn(List.of(item(10L, 1L, 100L, 1_250_050L, 2, OrderItemStatus.PAID, 3_000_000L)));
+
+        orderItemCancelService.cancel(1L, 10L, "단순 변심", "user@test.com");
+
+        verify(orderItemCancelRepository).cancelItems(List.of(10L));
+        verify(orderItemCancelRepository).subtractTotals(Map.of(1L, 2_500_100L));
+        verify(stockService).restoreAllInTransaction(List.of(new StockDeduction(100L, 2)));
+        verify(stockService, never()).releaseAllInTransaction(any());
+
+        ArgumentCaptor<List<Map.Entry<Long, OrderItemCancelledPayload>>> events = ArgumentCaptor.forClass(List.class);
+        verify(outboxWriter).appendAll(eq(OutboxEventType.ORDER_ITEM_CANCELLED), events.capture());
+        assertThat(events.getValue()).singleElement().satisfies(event ->
+                assertThat(event.getValue().totalAmount()).isEqualByComparingTo(new BigDecimal("4999.00")));
+
+        ArgumentCaptor<List<OrderHistoryEntry>> histories = ArgumentCaptor.forClass(List.class);
+        verify(orderHistoryRecorder).recordAll(histories.capture());
+        assertThat(histories.getValue()).singleElement()
+                .extracting(OrderHistoryEntry::reason).isEqualTo("아이템 부분 취소: 상품-10 - 단순 변심");
+        verify(orderDetailCache).evictAfterCommit(Set.of(1L));
+    }
+
+    @Test
+    @DisplayName("cancel: 결제 대기 아이템은 예약을 해제한다")
+    void cancel_결제대기_예약해제() {
+        when(orderItemCancelRepository.lockItems(List.of(10L)))
+                .thenReturn(List.of(item(10L, 1L, 100L, 1_000L, 3, OrderItemStatus.PENDING_PAYMENT, 3_000L)));
+
+        orderItemCancelService.cancel(1L, 10L, null, "user@test.com");
+
+        verify(stockService).releaseAllInTransaction(List.of(new StockDeduction(100L, 3)));
+        verify(stockService, never()).restoreAllInTransaction(any());
+    }
+
+    @Test
+    @DisplayName("cancel: 다른 주문의 아이템이면 NotFoundException, 취소할 수 없는 상태면 BusinessException")
+    void cancel_검증실패_예외() {
+        when(orderItemCancelRepository.lockItems(List.of(10L)))
+                .thenReturn(List.of(item(10L, 2L, 100L, 1_000L, 1, OrderItemStatus.PAID, 1_000L)));
+        when(orderItemCancelRepository.lockItems(List.of(11L)))
+                .thenReturn(List.of(item(11L, 1L, 100L, 1_000L, 1, OrderItemStatus.SHIPPED, 1_000L)));
+
+        assertThatThrownBy(() -> orderItemCancelService.cancel(1L, 10L, null, "user@test.com"))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> orderItemCancelService.cancel(1L, 11L, null, "user@test.com"))
+                .isInstanceOf(BusinessException.class);
+        verify(orderItemCancelRepository, never()).cancelItems(any());
+    }
+
+    @Test
+    @DisplayName("cancelAll: 여러 주문의 아이템을 청크별로 취소하고, 같은 주문의 아이템은 금액 차감을 합친다")
+    void cancelAll_여러주문_청크처리() {
+        when(orderItemCancelRepository.lockItems(List.of(10L, 11L))).thenReturn(List.of(
+                item(10L, 1L, 100L, 1_000L, 1, OrderItemStatus.PAID, 5_000L),
+                item(11L, 1L, 101L, 2_000L, 1, OrderItemStatus.PAID, 5_000L)));
+        when(orderItemCancelRepository.lockItems(List.of(12L))).thenReturn(List.of(
+                item(12L, 2L, 100L, 1_000L, 1, OrderItemStatus.DELIVERED, 1_000L)));
+
+        OrderItemBulkCancelResponse response = orderItemCancelService.cancelAll(
+                new OrderItemBulkCancelRequest(List.of(10L, 11L, 12L, 10L), "반품"), "admin@test.com");
+
+        assertThat(response.getSucceededCount()).isEqualTo(2);
+        assertThat(response.getFailedCount()).isEqualTo(1);
+        assertThat(response.getFailures()).extracting(OrderItemBulkCancelResponse.Failure::orderItemId)
+                .containsExactly(12L);
+        verify(orderItemCancelRepository).subtractTotals(Map.of(1L, 3_000L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("cancelAll: 청크 처리 중 DB 오류가 나면 해당 청크만 실패로 보고한다")
+    void cancelAll_청크오류_격리() {
+        when(orderItemCancelRepository.lockItems(List.of(10L, 11L))).thenThrow(new QueryTimeoutException("timeout"));
+        when(orderItemCancelRepository.lockItems(List.of(12L))).thenReturn(List.of(
+                item(12L, 2L, 100L, 1_000L, 1, OrderItemStatus.PAID, 1_000L)));
+
+        OrderItemBulkCancelResponse response = orderItemCancelService.cancelAll(
+                new OrderItemBulkCancelRequest(List.of(10L, 11L, 12L), null), "admin@test.com");
+
+        assertThat(response.getSucceededCount()).isEqualTo(1);
+        assertThat(response.getFailedCount()).isEqualTo(2);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("cancelAll: 재고 복원 뒤 단계가 실패하면 재고도 청크 트랜잭션과 함께 롤백된다")
+    void cancelAll_뒤단계실패_재고복원롤백() {
+        when(orderItemCancelRepository.lockItems(List.of(10L))).thenReturn(List.of(
+                item(10L, 1L, 100L, 1_000L, 2, OrderItemStatus.PAID, 2_000L)));
+        doThrow(new QueryTimeoutException("outbox"))
+                .when(outboxWriter).appendAll(eq(OutboxEventType.ORDER_ITEM_CANCELLED), anyList());
+
+        OrderItemBulkCancelResponse response = orderItemCancelService.cancelAll(
+                new OrderItemBulkCancelRequest(List.of(10L), null), "admin@test.com");
+
+        assertThat(response.getFailedCount()).isEqualTo(1);
+        // 별도 트랜잭션으로 먼저 커밋되는 복원은 쓰지 않는다
+        verify(stockService).restoreAllInTransaction(List.of(new StockDeduction(100L, 2)));
+        verify(stockService, never()).restoreAll(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private static LockedItem item(Long itemId, Long orderId, Long productId, long priceCents, int quantity,
+                                   OrderItemStatus status, long orderTotalCents) {
+        return new LockedItem(itemId, orderId, productId, "상품-" + itemId, priceCents, quantity, status,
+                OrderStatus.PAID, orderTotalCents);
+    }
+}
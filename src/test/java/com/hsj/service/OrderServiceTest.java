@@ -1,23 +1,37 @@
 package com.hsj.service;
 
+import com.hsj.dto.common.CursorResponse;
 import com.hsj.dto.order.OrderCreateRequest;
+import com.hsj.dto.order.OrderCursor;
 import com.hsj.dto.order.OrderResponse;
 import com.hsj.dto.order.OrderStatusChangeRequest;
+import com.hsj.dto.outbox.OrderCreatedPayload;
+import com.hsj.dto.stock.StockDeduction;
 import com.hsj.entity.Member;
 import com.hsj.entity.Order;
-import com.hsj.entity.OrderHistory;
 import com.hsj.entity.OrderItem;
 import com.hsj.entity.Product;
 import com.hsj.entity.enums.MemberRole;
+import com.hsj.entity.enums.OrderItemStatus;
 import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.entity.enums.PaymentStatus;
 import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
 import com.hsj.exception.NotFoundException;
+import com.hsj.exception.OutOfStockException;
 import com.hsj.repository.MemberRepository;
-import com.hsj.repository.OrderHistoryRepository;
 import com.hsj.repository.OrderItemRepository;
 import com.hsj.repository.OrderRepository;
 import com.hsj.repository.PaymentRepository;
 import com.hsj.repository.ProductRepository;
+import com.hsj.repository.custom.OrderArchiveRepository;
+import com.hsj.repository.custom.OrderQueryRepository;
+import com.hsj.service.order.OrderDetailCache;
+import com.hsj.service.order.OrderHistoryRecorder;
+import com.hsj.service.order.OrderNumberGenerator;
+import com.hsj.service.outbox.OutboxWriter;
+import com.hsj.service.stock.StockHoldRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,16 +39,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,11 +65,18 @@ class OrderServiceTest {
 
     @Mock private OrderRepository orderRepository;
     @Mock private OrderItemRepository orderItemRepository;
-    @Mock private OrderHistoryRepository orderHistoryRepository;
+    @Mock private OrderHistoryRecorder orderHistoryRecorder;
     @Mock private ProductRepository productRepository;
     @Mock private MemberRepository memberRepository;
     @Mock private PaymentRepository paymentRepository;
     @Mock private StockService stockService;
+    @Mock private StockHoldRegistry stockHoldRegistry;
+    @Mock private OrderQueryRepository orderQueryRepository;
+    @Mock private OrderArchiveRepository orderArchiveRepository;
+    @Mock private OrderDetailCache orderDetailCache;
+    @Mock private OrderItemCancelService orderItemCancelService;
+    @Mock private OrderNumberGenerator orderNumberGenerator;
+    @Mock private OutboxWriter outboxWriter;
 
     @InjectMocks
     private OrderService orderService;
@@ -69,6 +98,7 @@ class OrderServiceTest {
                 .price(BigDecimal.valueOf(10_000))
                 .stockQuantity(50)
                 .build();
+        ReflectionTestUtils.setField(product, "id", 1L);
     }
 
     // ─── 헬퍼: OrderCreateRequest 필드를 Reflection으로 세팅 ─────────────
@@ -90,24 +120,28 @@ class OrderServiceTest {
     // ═══════════════════════ createOrder ═══════════════════════
 
     @Test
-    @DisplayName("createOrder: 정상 주문 생성 - 재고 차감 후 Order가 저장된다")
+    @DisplayName("createOrder: 정상 주문 생성 - 재고 일괄 예약 후 Order가 저장된다")
     void createOrder_정상생성() {
         OrderCreateRequest request = buildRequest(1L, 2);
 
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(productRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
-        doNothing().when(stockService).deductStock(1L, 2);
+        when(productRepository.findByIdInAndDeletedFalse(List.of(1L))).thenReturn(List.of(product));
+        when(orderNumberGenerator.next()).thenReturn("ORD-0000000000001");
 
         // save()가 호출될 때 넘겨받은 Order 객체 그대로 반환
         when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(orderHistoryRepository.save(any(OrderHistory.class))).thenAnswer(inv -> inv.getArgument(0));
 
         OrderResponse response = orderService.createOrder(1L, request);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
-        verify(stockService).deductStock(1L, 2);
+        assertThat(response.getOrderNumber()).isEqualTo("ORD-0000000000001");
+        verify(stockService).reserveAll(List.of(new StockDeduction(1L, 2)));
+        verify(stockService, never()).releaseAll(any());
         verify(orderRepository).save(any(Order.class));
+        verify(stockHoldRegistry).hold(any());
+        verify(orderHistoryRecorder).recordCreated(any(Order.class), any());
+        verify(outboxWriter).append(eq(OutboxEventType.ORDER_CREATED), any(), any(OrderCreatedPayload.class));
     }
 
     @Test
@@ -140,8 +174,8 @@ class OrderServiceTest {
     }
 
     @Test
-    @DisplayName("createOrder: 재고 차감 실패 시 이미 차감된 재고를 롤백한다")
-    void createOrder_재고차감실패_롤백() {
+    @DisplayName("createOrder: 일괄 예약이 실패하면 보상 없이 예외가 전파되고 주문이 저장되지 않는다")
+    void createOrder_일괄예약실패_보상없음() {
         // 상품 2개짜리 주문 (productId=1, productId=2)
         OrderCreateRequest request = new OrderCreateRequest();
         ReflectionTestUtils.setField(request, "shippingAddress", "addr");
@@ -159,17 +193,73 @@ class OrderServiceTest {
         ReflectionTestUtils.setField(request, "items", List.of(item1, item2));
 
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        doNothing().when(stockService).deductStock(1L, 2);                       // 첫 번째 차감 성공
-        doThrow(new RuntimeException("재고 서버 오류")).when(stockService).deductStock(2L, 3); // 두 번째 차감 실패
+        doThrow(new OutOfStockException("재고 부족")).when(stockService).reserveAll(anyList());
 
         assertThatThrownBy(() -> orderService.createOrder(1L, request))
-                .isInstanceOf(RuntimeException.class);
+                .isInstanceOf(OutOfStockException.class);
 
-        // 첫 번째 차감분 롤백 호출 확인
-        verify(stockService).restoreStock(1L, 2);
+        // all-or-nothing 예약이므로 보상(복원) 호출이 없어야 한다
+        verify(stockService, never()).releaseAll(any());
+        verify(stockService, never()).restoreStock(anyLong(), anyInt());
         verify(orderRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("createOrder: 예약 후 주문 저장 단계에서 실패하면 예약한 재고를 한 번에 복원한다")
+    void createOrder_예약후실패_일괄복원() {
+        OrderCreateRequest request = buildRequest(1L, 2);
+
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(productRepository.findByIdInAndDeletedFalse(List.of(1L))).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenThrow(new RuntimeException("DB 오류"));
+
+        assertThatThrownBy(() -> orderService.createOrder(1L, request))
+                .isInstanceOf(RuntimeException.class);
+
+        verify(stockService).releaseAll(List.of(new StockDeduction(1L, 2)));
+    }
+
+    @Test
+    @DisplayName("createOrder: 미뤄진 INSERT가 flush에서 실패해도 예약한 재고를 복원하고 홀드를 등록하지 않는다")
+    void createOrder_flush실패_일괄복원() {
+        OrderCreateRequest request = buildRequest(1L, 2);
+
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(productRepository.findByIdInAndDeletedFalse(List.of(1L))).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new DataIntegrityViolationException("order_number")).when(orderRepository).flush();
+
+        assertThatThrownBy(() -> orderService.createOrder(1L, request))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        verify(stockService).releaseAll(List.of(new StockDeduction(1L, 2)));
+        verifyNoInteractions(stockHoldRegistry);
+    }
+
+    @Test
+    @DisplayName("createOrder: 홀드는 커밋된 뒤에 등록하고, 커밋 단계에서 롤백되면 홀드 대신 재고를 복원한다")
+    void createOrder_커밋후홀드_롤백시복원() {
+        OrderCreateRequest request = buildRequest(1L, 2);
+
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(productRepository.findByIdInAndDeletedFalse(List.of(1L))).thenReturn(List.of(product));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            orderService.createOrder(1L, request);
+            verifyNoInteractions(stockHoldRegistry);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(stockService).releaseAll(List.of(new StockDeduction(1L, 2)));
+        verifyNoInteractions(stockHoldRegistry);
+    }
+
     // ═══════════════════════ getOrder ═══════════════════════
 
     @Test
@@ -181,23 +271,103 @@ class OrderServiceTest {
                 .receiverName("name")
                 .receiverPhone("phone")
                 .build();
-        when(orderRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(order));
+        when(orderQueryRepository.findById(1L)).thenReturn(Optional.of(OrderResponse.from(order)));
+        loadThroughCache();
 
         OrderResponse response = orderService.getOrder(1L);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
+        verify(orderRepository, never()).findByIdAndDeletedFalse(any());
     }
 
     @Test
     @DisplayName("getOrder: 존재하지 않는 주문 ID이면 NotFoundException 발생")
     void getOrder_없는ID_NotFoundException() {
-        when(orderRepository.findByIdAndDeletedFalse(99L)).thenReturn(Optional.empty());
+        when(orderQueryRepository.findById(99L)).thenReturn(Optional.empty());
+        loadThroughCache();
 
         assertThatThrownBy(() -> orderService.getOrder(99L))
                 .isInstanceOf(NotFoundException.class);
     }
 
+    @Test
+    @DisplayName("getOrderForMember: 캐시된 응답의 memberId로 소유자를 확인하고 소유자 조회 쿼리는 실행하지 않는다")
+    void getOrderForMember_캐시응답으로_소유자확인() {
+        OrderResponse cached = OrderResponse.builder().orderId(1L).memberId(1L).build();
+        when(orderDetailCache.get(eq(1L), any())).thenReturn(cached);
+
+        assertThat(orderService.getOrderForMember(1L, 1L)).isSameAs(cached);
+        assertThatThrownBy(() -> orderService.getOrderForMember(1L, 2L))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.ACCESS_DENIED);
+        verifyNoInteractions(orderRepository, orderQueryRepository);
+    }
+
+    @Test
+    @DisplayName("getMyOrdersByCursor: 다음 페이지가 있으면 마지막 주문으로 커서를 만들고, 위조된 커서는 INVALID_CURSOR")
+    void getMyOrdersByCursor_커서생성_위조커서거부() {
+        OrderResponse first = OrderResponse.builder().orderId(3L).createdAt(LocalDateTime.of(2026, 1, 2, 0, 0)).build();
+        OrderResponse second = OrderResponse.builder().orderId(2L).createdAt(LocalDateTime.of(2026, 1, 1, 0, 0)).build();
+        when(orderQueryRepository.findByMemberIdBefore(1L, null, 1)).thenReturn(List.of(first, second));
+
+        CursorResponse<OrderResponse> response = orderService.getMyOrdersByCursor(1L, null, 1);
+
+        assertThat(response.getContent()).containsExactly(first);
+        assertThat(response.isHasNext()).isTrue();
+        assertThat(OrderCursor.decode(response.getNextCursor())).isEqualTo(OrderCursor.of(first));
+
+        assertThatThrownBy(() -> orderService.getMyOrdersByCursor(1L, "not-a-cursor", 10))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+
+    @Test
+    @DisplayName("getOrder: 원본에 없는 주문은 보관 테이블에서 찾는다")
+    void getOrder_보관주문_조회() {
+        OrderResponse archived = OrderResponse.builder().orderId(5L).status(OrderStatus.DELIVERED).build();
+        when(orderArchiveRepository.findById(5L)).thenReturn(Optional.of(archived));
+        loadThroughCache();
+
+        assertThat(orderService.getOrder(5L)).isSameAs(archived);
+    }
+
+    @Test
+    @DisplayName("getMyOrdersByCursor: 최근 주문으로 페이지가 차면 보관 테이블을 읽지 않고, 보존 기간을 넘으면 합쳐서 최신순으로 자른다")
+    void getMyOrdersByCursor_보관테이블_병합() {
+        LocalDateTime horizon = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(orderArchiveRepository.isEnabled()).thenReturn(true);
+        when(orderArchiveRepository.horizon()).thenReturn(horizon);
+
+        OrderResponse recent = OrderResponse.builder().orderId(9L).createdAt(horizon.plusDays(2)).build();
+        OrderResponse lessRecent = OrderResponse.builder().orderId(8L).createdAt(horizon.plusDays(1)).build();
+        when(orderQueryRepository.findByMemberIdBefore(1L, null, 1)).thenReturn(List.of(recent, lessRecent));
+
+        assertThat(orderService.getMyOrdersByCursor(1L, null, 1).getContent()).containsExactly(recent);
+        verify(orderArchiveRepository, never()).findByMemberIdBefore(any(), any(), anyInt());
+
+        OrderResponse old = OrderResponse.builder().orderId(3L).createdAt(horizon.minusDays(1)).build();
+        OrderResponse archived = OrderResponse.builder().orderId(2L).createdAt(horizon.minusDays(2)).build();
+        when(orderQueryRepository.findByMemberIdBefore(1L, null, 2)).thenReturn(List.of(recent, old));
+        when(orderArchiveRepository.findByMemberIdBefore(1L, null, 2)).thenReturn(List.of(archived));
+
+        CursorResponse<OrderResponse> merged = orderService.getMyOrdersByCursor(1L, null, 2);
+
+        assertThat(merged.getContent()).containsExactly(recent, old);
+        assertThat(merged.isHasNext()).isTrue();
+    }
+
+    // ═══════════════════════ verifyOwnership ═══════════════════════
+
+    @Test
+    @DisplayName("verifyOwnership: 다른 회원의 주문이면 BusinessException 발생")
+    void verifyOwnership_타인주문_BusinessException() {
+        when(orderRepository.findMemberIdById(1L)).thenReturn(Optional.of(2L));
+
+        assertThatThrownBy(() -> orderService.verifyOwnership(1L, 1L))
+                .isInstanceOf(BusinessException.class);
+    }
+
     // ═══════════════════════ cancelOrder ═══════════════════════
 
     @Test
@@ -218,12 +388,12 @@ class OrderServiceTest {
 
         when(orderRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(order));
         doNothing().when(stockService).restoreStock(anyLong(), anyInt());
-        when(orderHistoryRepository.save(any(OrderHistory.class))).thenAnswer(inv -> inv.getArgument(0));
 
         OrderResponse response = orderService.cancelOrder(1L, "고객 변심", "test@test.com");
 
         assertThat(response.getStatus()).isEqualTo(OrderStatus.CANCELLED);
         verify(stockService).restoreStock(any(), eq(3));
+        verify(stockHoldRegistry).release(1L);
     }
 
     @Test
@@ -248,6 +418,66 @@ class OrderServiceTest {
         verifyNoInteractions(stockService);
     }
 
+    // ═══════════════════════ expirePendingOrder ═══════════════════════
+
+    @Test
+    @DisplayName("expirePendingOrder: 결제 대기 주문이면 시스템 취소 후 재고를 복원한다")
+    void expirePendingOrder_결제대기_자동취소() {
+        Order order = Order.builder()
+                .member(member)
+                .shippingAddress("addr")
+                .receiverName("name")
+                .receiverPhone("phone")
+                .build();
+        order.addOrderItem(OrderItem.builder().product(product).quantity(2).build());
+
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+
+        assertThat(orderService.expirePendingOrder(1L)).isTrue();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(stockService).restoreStock(any(), eq(2));
+        verifyNoInteractions(stockHoldRegistry);
+    }
+
+    @Test
+    @DisplayName("expirePendingOrder: 그 사이 결제된 주문은 건드리지 않는다")
+    void expirePendingOrder_이미결제_무시() {
+        Order order = Order.builder()
+                .member(member)
+                .shippingAddress("addr")
+                .receiverName("name")
+                .receiverPhone("phone")
+                .build();
+        order.changeStatus(OrderStatus.PAID);
+
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+
+        assertThat(orderService.expirePendingOrder(1L)).isFalse();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PAID);
+        verifyNoInteractions(stockService, orderHistoryRecorder);
+    }
+
+    @Test
+    @DisplayName("expirePendingOrder: PG 결과를 기다리는 결제가 있으면 만료하지 않는다")
+    void expirePendingOrder_결제진행중_무시() {
+        Order order = Order.builder()
+                .member(member)
+                .shippingAddress("addr")
+                .receiverName("name")
+                .receiverPhone("phone")
+                .build();
+
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+        when(paymentRepository.existsByOrderIdAndStatus(1L, PaymentStatus.PENDING)).thenReturn(true);
+
+        assertThat(orderService.expirePendingOrder(1L)).isFalse();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
+        verifyNoInteractions(stockService, orderHistoryRecorder);
+    }
+
     // ═══════════════════════ changeOrderStatus ═══════════════════════
 
     @Test
@@ -261,12 +491,12 @@ class OrderServiceTest {
                 .build();
 
         when(orderRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(order));
-        when(orderHistoryRepository.save(any(OrderHistory.class))).thenAnswer(inv -> inv.getArgument(0));
 
         OrderStatusChangeRequest req = OrderStatusChangeRequest.of(OrderStatus.PAID, "결제 완료");
         OrderResponse response = orderService.changeOrderStatus(1L, req, "admin");
 
         assertThat(response.getStatus()).isEqualTo(OrderStatus.PAID);
+        verify(orderDetailCache).evictAfterCommit(1L);
     }
 
     @Test
@@ -286,4 +516,49 @@ class OrderServiceTest {
         assertThatThrownBy(() -> orderService.changeOrderStatus(1L, req, "admin"))
                 .isInstanceOf(Exception.class); // IllegalStateException (OrderStatus.transitionTo)
     }
+
+    @Test
+    @DisplayName("changeOrderStatus: 환불 요청이면 결제·배송 완료된 아이템도 REFUND_REQUESTED로 옮기고 취소된 아이템은 그대로 둔다")
+    void changeOrderStatus_REFUND_REQUESTED_아이템전이() {
+        Order order = Order.builder()
+                .member(member)
+                .shippingAddress("addr")
+                .receiverName("name")
+                .receiverPhone("phone")
+                .build();
+        OrderItem paid = OrderItem.builder().product(product).quantity(1).build();
+        OrderItem cancelled = OrderItem.builder().product(product).quantity(2).build();
+        order.addOrderItem(paid);
+        order.addOrderItem(cancelled);
+        paid.changeStatus(OrderItemStatus.PAID);
+        cancelled.changeStatus(OrderItemStatus.CANCELLED);
+        order.changeStatus(OrderStatus.PAID);
+
+        when(orderRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(order));
+
+        orderService.changeOrderStatus(1L, OrderStatusChangeRequest.of(OrderStatus.REFUND_REQUESTED, "단순 변심"), "admin");
+
+        assertThat(paid.getStatus()).isEqualTo(OrderItemStatus.REFUND_REQUESTED);
+        assertThat(cancelled.getStatus()).isEqualTo(OrderItemStatus.CANCELLED);
+        verifyNoInteractions(stockService);
+    }
+
+    @Test
+    @DisplayName("changeOrderStatus: REFUNDED로 직접 바꾸는 요청은 환불 처리기를 거치도록 거절한다")
+    void changeOrderStatus_REFUNDED_직접변경_거절() {
+        OrderStatusChangeRequest req = OrderStatusChangeRequest.of(OrderStatus.REFUNDED, "수동 환불");
+
+        assertThatThrownBy(() -> orderService.changeOrderStatus(1L, req, "admin"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_ORDER_STATUS);
+        verifyNoInteractions(orderRepository);
+    }
+
+    /** 캐시 미스처럼 로더를 그대로 실행한다. */
+    private void loadThroughCache() {
+        when(orderDetailCache.get(anyLong(), any())).thenAnswer(inv -> {
+            Function<Long, OrderResponse> loader = inv.getArgument(1);
+            return loader.apply(inv.getArgument(0));
+        });
+    }
 }
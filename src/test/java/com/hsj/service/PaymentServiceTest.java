@@ -1,6 +1,8 @@
 package com.hsj.service;
 
 import com.hsj.dto.order.OrderStatusChangeRequest;
+import com.hsj.dto.outbox.PaymentPayload;
+import com.hsj.dto.payment.PaymentGatewayResult;
 import com.hsj.dto.payment.PaymentRequest;
 import com.hsj.dto.payment.PaymentResponse;
 import com.hsj.entity.Member;
@@ -8,12 +10,19 @@ import com.hsj.entity.Order;
 import com.hsj.entity.Payment;
 import com.hsj.entity.enums.MemberRole;
 import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
 import com.hsj.entity.enums.PaymentStatus;
 import com.hsj.exception.BusinessException;
 import com.hsj.exception.DuplicateException;
+import com.hsj.exception.ErrorCode;
 import com.hsj.exception.NotFoundException;
 import com.hsj.repository.OrderRepository;
 import com.hsj.repository.PaymentRepository;
+import com.hsj.service.outbox.OutboxWriter;
+import com.hsj.service.payment.PaymentIdempotencyGate;
+import com.hsj.service.payment.PaymentIdempotencyGate.Claim;
+import com.hsj.service.payment.PaymentPipeline;
+import com.hsj.service.stock.StockHoldRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,10 +30,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -35,9 +49,16 @@ import static org.mockito.Mockito.*;
 @DisplayName("PaymentService 단위 테스트")
 class PaymentServiceTest {
 
+    private static final Claim CLAIMED = new Claim("payment:idem:IDEM-KEY-001", "P:token", null);
+
     @Mock private PaymentRepository paymentRepository;
     @Mock private OrderRepository orderRepository;
     @Mock private OrderService orderService;
+    @Mock private StockHoldRegistry stockHoldRegistry;
+    @Mock private OutboxWriter outboxWriter;
+    @Mock private PaymentIdempotencyGate idempotencyGate;
+    @Mock private PaymentPipeline paymentPipeline;
+    @Mock private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private PaymentService paymentService;
@@ -45,6 +66,7 @@ class PaymentServiceTest {
     private Member member;
     private Order order;
     private PaymentRequest paymentRequest;
+    private Payment savedPayment;
 
     @BeforeEach
     void setUp() {
@@ -68,33 +90,164 @@ class PaymentServiceTest {
         ReflectionTestUtils.setField(paymentRequest, "orderId", 1L);
         ReflectionTestUtils.setField(paymentRequest, "idempotencyKey", "IDEM-KEY-001");
         ReflectionTestUtils.setField(paymentRequest, "paymentMethod", "CARD");
+
+        ReflectionTestUtils.setField(order, "id", 1L);
+        lenient().when(idempotencyGate.claim("IDEM-KEY-001")).thenReturn(CLAIMED);
+        lenient().when(paymentPipeline.isAvailable()).thenReturn(true);
+    }
+
+    private Payment withId(Payment payment) {
+        ReflectionTestUtils.setField(payment, "id", 10L);
+        savedPayment = payment;
+        return payment;
+    }
+
+    private Payment pendingPayment(Long id, LocalDateTime createdAt) {
+        Payment payment = Payment.builder()
+                .orderId(order.getId())
+                .idempotencyKey("IDEM-" + id)
+                .amount(BigDecimal.valueOf(30_000))
+                .paymentMethod("CARD")
+                .build();
+        ReflectionTestUtils.setField(payment, "id", id);
+        ReflectionTestUtils.setField(payment, "createdAt", createdAt);
+        return payment;
+    }
+
+    /** PG 실행기 대신 제출 즉시 결과 콜백을 호출한다. */
+    @SuppressWarnings("unchecked")
+    private void respondWith(PaymentGatewayResult result) {
+        when(paymentPipeline.submit(any(), any())).thenAnswer(inv -> {
+            inv.<Consumer<PaymentGatewayResult>>getArgument(1).accept(result);
+            return true;
+        });
     }
 
     // ═══════════════════════ processPayment ═══════════════════════
 
     @Test
-    @DisplayName("processPayment: 정상 결제 처리 - Payment가 COMPLETED 상태로 저장된다")
-    void processPayment_정상결제() {
+    @DisplayName("processPayment: PENDING 결제를 커밋해 바로 돌려주고, PG 승인 결과는 두 번째 트랜잭션에서 반영한다")
+    void processPayment_접수후_승인반영() {
         when(paymentRepository.findByIdempotencyKey("IDEM-KEY-001")).thenReturn(Optional.empty());
-        when(orderRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(order));
-        // save()는 넘겨받은 Payment 객체 그대로 반환
-        when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(orderService.changeOrderStatus(anyLong(), any(OrderStatusChangeRequest.class), anyString()))
-                .thenReturn(null);
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> withId(inv.getArgument(0)));
+        when(paymentRepository.findByIdForUpdate(10L)).thenAnswer(inv -> Optional.of(savedPayment));
+        respondWith(PaymentGatewayResult.approved("TX-1"));
 
         PaymentResponse response = paymentService.processPayment(paymentRequest, "buyer@test.com");
 
-        assertThat(response).isNotNull();
-        assertThat(response.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(response.getStatus()).isEqualTo(PaymentStatus.PENDING);
         assertThat(response.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(30_000));
-        verify(orderService).changeOrderStatus(anyLong(), any(), eq("buyer@test.com"));
+        verify(idempotencyGate).complete(CLAIMED, response);
+        verify(transactionManager, times(2)).commit(any());
+
+        assertThat(savedPayment.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        verify(orderService).changeOrderStatus(eq(1L), any(), eq("buyer@test.com"));
+        verify(stockHoldRegistry).confirm(1L);
+        verify(outboxWriter).append(eq(OutboxEventType.PAYMENT_COMPLETED), eq(1L), any(PaymentPayload.class));
+        verify(idempotencyGate).record(eq("IDEM-KEY-001"),
+                argThat(completed -> completed.getStatus() == PaymentStatus.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("processPayment: PG가 거절하면 결제를 실패로 닫고 다시 결제할 수 있도록 재고 홀드를 새로 건다")
+    void processPayment_PG거절_실패처리() {
+        when(paymentRepository.findByIdempotencyKey("IDEM-KEY-001")).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> withId(inv.getArgument(0)));
+        when(paymentRepository.findByIdForUpdate(10L)).thenAnswer(inv -> Optional.of(savedPayment));
+        respondWith(PaymentGatewayResult.declined("한도 초과"));
+
+        paymentService.processPayment(paymentRequest, "buyer@test.com");
+
+        assertThat(savedPayment.getStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(outboxWriter).append(eq(OutboxEventType.PAYMENT_FAILED), eq(1L), any(PaymentPayload.class));
+        verify(stockHoldRegistry).hold(1L);
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("processPayment: 승인 결과가 오기 전에 주문이 취소됐으면 결제를 취소로 기록한다")
+    void processPayment_승인전_주문취소() {
+        when(paymentRepository.findByIdempotencyKey("IDEM-KEY-001")).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> withId(inv.getArgument(0)));
+        when(paymentRepository.findByIdForUpdate(10L)).thenAnswer(inv -> {
+            order.changeStatus(OrderStatus.CANCELLED);
+            return Optional.of(savedPayment);
+        });
+        respondWith(PaymentGatewayResult.approved("TX-1"));
+
+        paymentService.processPayment(paymentRequest, "buyer@test.com");
+
+        assertThat(savedPayment.getStatus()).isEqualTo(PaymentStatus.CANCELLED);
+        verify(outboxWriter).append(eq(OutboxEventType.PAYMENT_CANCELLED), eq(1L), any(PaymentPayload.class));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("processPayment: PG 서킷이 열려 있으면 결제를 만들지 않고 PAYMENT_GATEWAY_UNAVAILABLE로 바로 거절한다")
+    void processPayment_PG서킷열림_즉시거절() {
+        when(paymentPipeline.isAvailable()).thenReturn(false);
+
+        assertThatThrownBy(() -> paymentService.processPayment(paymentRequest, "buyer@test.com"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE);
+
+        verify(idempotencyGate).release(CLAIMED);
+        verifyNoInteractions(paymentRepository, orderRepository);
+    }
+
+    @Test
+    @DisplayName("resubmitPending: 오래 PENDING인 결제를 PG로 다시 보내고, 포기 시간이 지난 결제는 실패로 닫는다")
+    void resubmitPending_재전송_포기() {
+        LocalDateTime now = LocalDateTime.now();
+        Payment recent = pendingPayment(11L, now.minusMinutes(5));
+        Payment abandoned = pendingPayment(12L, now.minusHours(1));
+        when(paymentRepository.findByStatusAndCreatedAtBeforeOrderByCreatedAtAsc(
+                eq(PaymentStatus.PENDING), any(), any())).thenReturn(List.of(abandoned, recent));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+        when(paymentRepository.findByIdForUpdate(12L)).thenReturn(Optional.of(abandoned));
+        when(paymentPipeline.submit(any(), any())).thenReturn(true);
+
+        int resubmitted = paymentService.resubmitPending(now.minusMinutes(1), now.minusMinutes(30), 100);
+
+        assertThat(resubmitted).isEqualTo(1);
+        assertThat(abandoned.getStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(paymentPipeline).submit(argThat(request -> request.paymentId().equals(11L)), any());
+    }
+
+    @Test
+    @DisplayName("processPayment: 게이트에 저장된 응답이 있으면 트랜잭션도 DB 조회도 없이 그대로 돌려준다")
+    void processPayment_게이트_저장된응답_재생() {
+        PaymentResponse stored = PaymentResponse.builder()
+                .paymentId(7L).idempotencyKey("IDEM-KEY-001").status(PaymentStatus.COMPLETED).build();
+        when(idempotencyGate.claim("IDEM-KEY-001")).thenReturn(new Claim("payment:idem:IDEM-KEY-001", null, stored));
+
+        assertThat(paymentService.processPayment(paymentRequest, "buyer@test.com")).isSameAs(stored);
+        verifyNoInteractions(paymentRepository, orderRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("processPayment: 동시 요청이 유니크 인덱스에 걸리면 DUPLICATE_PAYMENT로 답하고 선점을 푼다")
+    void processPayment_유니크인덱스충돌_DuplicateException() {
+        when(paymentRepository.findByIdempotencyKey("IDEM-KEY-001")).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new DataIntegrityViolationException("uk_payments_idempotency_key"))
+                .when(transactionManager).commit(any());
+
+        assertThatThrownBy(() -> paymentService.processPayment(paymentRequest, "buyer@test.com"))
+                .isInstanceOf(DuplicateException.class);
+        verify(idempotencyGate).release(CLAIMED);
+        verify(idempotencyGate, never()).complete(any(), any());
     }
 
     @Test
     @DisplayName("processPayment: 동일 멱등성 키로 이미 완료된 결제가 있으면 기존 결제를 그대로 반환한다")
     void processPayment_멱등성_완료된결제_재반환() {
         Payment completedPayment = Payment.builder()
-                .order(order)
+                .orderId(order.getId())
                 .idempotencyKey("IDEM-KEY-001")
                 .amount(BigDecimal.valueOf(30_000))
                 .paymentMethod("CARD")
@@ -113,10 +266,10 @@ class PaymentServiceTest {
     }
 
     @Test
-    @DisplayName("processPayment: 동일 멱등성 키로 처리 중(PENDING) 결제가 있으면 DuplicateException 발생")
-    void processPayment_멱등성_처리중결제_DuplicateException() {
+    @DisplayName("processPayment: 동일 멱등성 키로 처리 중(PENDING) 결제가 있으면 새로 만들거나 다시 보내지 않고 그대로 반환한다")
+    void processPayment_멱등성_처리중결제_재반환() {
         Payment pendingPayment = Payment.builder()
-                .order(order)
+                .orderId(order.getId())
                 .idempotencyKey("IDEM-KEY-001")
                 .amount(BigDecimal.valueOf(30_000))
                 .paymentMethod("CARD")
@@ -126,20 +279,24 @@ class PaymentServiceTest {
         when(paymentRepository.findByIdempotencyKey("IDEM-KEY-001"))
                 .thenReturn(Optional.of(pendingPayment));
 
-        assertThatThrownBy(() -> paymentService.processPayment(paymentRequest, "buyer@test.com"))
-                .isInstanceOf(DuplicateException.class);
+        PaymentResponse response = paymentService.processPayment(paymentRequest, "buyer@test.com");
+
+        assertThat(response.getStatus()).isEqualTo(PaymentStatus.PENDING);
+        verify(paymentRepository, never()).save(any());
+        verify(paymentPipeline, never()).submit(any(), any());
     }
 
     @Test
     @DisplayName("processPayment: 주문을 찾을 수 없으면 NotFoundException 발생")
     void processPayment_주문없음_NotFoundException() {
         when(paymentRepository.findByIdempotencyKey("IDEM-KEY-001")).thenReturn(Optional.empty());
-        when(orderRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> paymentService.processPayment(paymentRequest, "buyer@test.com"))
                 .isInstanceOf(NotFoundException.class);
 
         verify(paymentRepository, never()).save(any());
+        verify(idempotencyGate).release(CLAIMED);
     }
 
     @Test
@@ -149,7 +306,7 @@ class PaymentServiceTest {
         order.changeStatus(OrderStatus.PAID);
 
         when(paymentRepository.findByIdempotencyKey("IDEM-KEY-001")).thenReturn(Optional.empty());
-        when(orderRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(order));
 
         assertThatThrownBy(() -> paymentService.processPayment(paymentRequest, "buyer@test.com"))
                 .isInstanceOf(BusinessException.class)
@@ -164,7 +321,7 @@ class PaymentServiceTest {
     @DisplayName("cancelPayment: COMPLETED 결제를 취소하면 CANCELLED 상태가 된다")
     void cancelPayment_정상취소() {
         Payment payment = Payment.builder()
-                .order(order)
+                .orderId(order.getId())
                 .idempotencyKey("IDEM-KEY-001")
                 .amount(BigDecimal.valueOf(30_000))
                 .paymentMethod("CARD")
@@ -176,13 +333,14 @@ class PaymentServiceTest {
         PaymentResponse response = paymentService.cancelPayment(1L, "admin");
 
         assertThat(response.getStatus()).isEqualTo(PaymentStatus.CANCELLED);
+        verify(outboxWriter).append(eq(OutboxEventType.PAYMENT_CANCELLED), eq(1L), any(PaymentPayload.class));
     }
 
     @Test
     @DisplayName("cancelPayment: 완료되지 않은 결제는 취소할 수 없어서 BusinessException 발생")
     void cancelPayment_미완료결제_BusinessException() {
         Payment payment = Payment.builder()
-                .order(order)
+                .orderId(order.getId())
                 .idempotencyKey("IDEM-KEY-001")
                 .amount(BigDecimal.valueOf(30_000))
                 .paymentMethod("CARD")
@@ -211,7 +369,7 @@ class PaymentServiceTest {
     @DisplayName("getPaymentByOrderId: 정상적으로 결제 정보를 조회한다")
     void getPaymentByOrderId_정상조회() {
         Payment payment = Payment.builder()
-                .order(order)
+                .orderId(order.getId())
                 .idempotencyKey("IDEM-KEY-001")
                 .amount(BigDecimal.valueOf(30_000))
                 .paymentMethod("CARD")
@@ -1,22 +1,30 @@
 package com.hsj.service;
 
+import com.hsj.dto.stock.StockDeduction;
 import com.hsj.entity.Product;
 import com.hsj.exception.NotFoundException;
 import com.hsj.exception.OutOfStockException;
 import com.hsj.repository.ProductRepository;
+import com.hsj.repository.custom.StockBatchRepository;
+import com.hsj.service.stock.LockStockStrategy;
+import com.hsj.service.stock.ShardedStockStore;
+import com.hsj.service.stock.StockMode;
+import com.hsj.service.stock.StockProjection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -24,25 +32,30 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
-@DisplayName("StockService 단위 테스트 (분산 락)")
+@DisplayName("StockService 단위 테스트 (LOCK 전략 위임)")
 class StockServiceTest {
 
     @Mock
     private ProductRepository productRepository;
 
     @Mock
-    private RedissonClient redissonClient;
+    private StockBatchRepository stockBatchRepository;
 
     @Mock
-    private RLock rLock;
+    private ShardedStockStore shardedStockStore;
 
-    @InjectMocks
+    private StockProjection stockProjection;
     private StockService stockService;
 
     private Product product;
 
     @BeforeEach
     void setUp() {
+        stockProjection = new StockProjection(new SimpleMeterRegistry());
+        stockService = new StockService(
+                List.of(new LockStockStrategy(productRepository, stockBatchRepository)),
+                shardedStockStore, stockProjection, StockMode.LOCK, false);
+
         product = Product.builder()
                 .name("테스트 상품")
                 .price(BigDecimal.valueOf(10_000))
@@ -53,53 +66,28 @@ class StockServiceTest {
     // ═══════════════════════ deductStock ═══════════════════════
 
     @Test
-    @DisplayName("deductStock: 정상 수량 차감 - 재고가 줄어들고 락이 해제된다")
-    void deductStock_정상차감() throws InterruptedException {
-        when(redissonClient.getLock(anyString())).thenReturn(rLock);
-        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
-        when(rLock.isHeldByCurrentThread()).thenReturn(true);
+    @DisplayName("deductStock: 정상 수량 차감 - 재고가 줄어든다")
+    void deductStock_정상차감() {
         when(productRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
         when(productRepository.saveAndFlush(product)).thenReturn(product);
 
         stockService.deductStock(1L, 10);
 
         assertThat(product.getStockQuantity()).isEqualTo(90);
-        verify(rLock).unlock();
     }
 
     @Test
-    @DisplayName("deductStock: 분산 락 획득 실패 시 IllegalStateException 발생")
-    void deductStock_락획득실패_예외() throws InterruptedException {
-        when(redissonClient.getLock(anyString())).thenReturn(rLock);
-        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(false);
-
-        assertThatThrownBy(() -> stockService.deductStock(1L, 10))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("락 획득 실패");
-
-        verify(rLock, never()).unlock();
-    }
-
-    @Test
-    @DisplayName("deductStock: 상품을 찾을 수 없으면 NotFoundException 발생 + 락 해제")
-    void deductStock_상품없음_NotFoundException() throws InterruptedException {
-        when(redissonClient.getLock(anyString())).thenReturn(rLock);
-        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
-        when(rLock.isHeldByCurrentThread()).thenReturn(true);
+    @DisplayName("deductStock: 상품을 찾을 수 없으면 NotFoundException 발생")
+    void deductStock_상품없음_NotFoundException() {
         when(productRepository.findByIdAndDeletedFalse(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> stockService.deductStock(99L, 5))
                 .isInstanceOf(NotFoundException.class);
-
-        verify(rLock).unlock();
     }
 
     @Test
-    @DisplayName("deductStock: 재고 부족 시 OutOfStockException 발생 + 락 해제")
-    void deductStock_재고부족_OutOfStockException() throws InterruptedException {
-        when(redissonClient.getLock(anyString())).thenReturn(rLock);
-        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
-        when(rLock.isHeldByCurrentThread()).thenReturn(true);
+    @DisplayName("deductStock: 재고 부족 시 OutOfStockException 발생")
+    void deductStock_재고부족_OutOfStockException() {
         when(productRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
 
         // 현재 재고 100, 200개 요청 → 부족
@@ -108,76 +96,194 @@ class StockServiceTest {
 
         // 재고는 차감되지 않아야 한다
         assertThat(product.getStockQuantity()).isEqualTo(100);
-        verify(rLock).unlock();
     }
 
+    // ═══════════════════════ restoreStock ═══════════════════════
+
     @Test
-    @DisplayName("deductStock: 인터럽트 발생 시 InterruptedException을 감싸서 IllegalStateException 발생")
-    void deductStock_인터럽트_IllegalStateException() throws InterruptedException {
-        when(redissonClient.getLock(anyString())).thenReturn(rLock);
-        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class)))
-                .thenThrow(new InterruptedException("테스트 인터럽트"));
+    @DisplayName("restoreStock: 정상 재고 복원 - 재고가 증가한다")
+    void restoreStock_정상복원() {
+        when(productRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
+
+        stockService.restoreStock(1L, 10);
 
-        assertThatThrownBy(() -> stockService.deductStock(1L, 10))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("인터럽트");
+        assertThat(product.getStockQuantity()).isEqualTo(110);
     }
 
     @Test
-    @DisplayName("deductStock: 락 키 형식이 'LOCK:STOCK:{productId}'여야 한다")
-    void deductStock_락키형식_검증() throws InterruptedException {
-        when(redissonClient.getLock("LOCK:STOCK:7")).thenReturn(rLock);
-        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
-        when(rLock.isHeldByCurrentThread()).thenReturn(true);
-        when(productRepository.findByIdAndDeletedFalse(7L)).thenReturn(Optional.of(product));
-        when(productRepository.saveAndFlush(product)).thenReturn(product);
+    @DisplayName("restoreStock: 상품을 찾을 수 없으면 NotFoundException 발생")
+    void restoreStock_상품없음_NotFoundException() {
+        when(productRepository.findByIdAndDeletedFalse(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> stockService.restoreStock(99L, 5))
+                .isInstanceOf(NotFoundException.class);
+    }
 
-        stockService.deductStock(7L, 1);
+    // ═══════════════════════ reserveAll ═══════════════════════
 
-        verify(redissonClient).getLock("LOCK:STOCK:7");
+    @Test
+    @DisplayName("reserveAll: 같은 상품은 합산되고 상품 ID 오름차순으로 한 번의 배치로 차감된다")
+    void reserveAll_정렬합산_단일배치() {
+        when(stockBatchRepository.deductAll(anyList())).thenReturn(new int[]{1, 1});
+
+        stockService.reserveAll(List.of(
+                new StockDeduction(9L, 1),
+                new StockDeduction(3L, 2),
+                new StockDeduction(9L, 4)));
+
+        verify(stockBatchRepository).deductAll(List.of(
+                new StockDeduction(3L, 2),
+                new StockDeduction(9L, 5)));
     }
 
-    // ═══════════════════════ restoreStock ═══════════════════════
+    @Test
+    @DisplayName("reserveAll: 한 상품이라도 재고가 부족하면 OutOfStockException 발생 (트랜잭션 전체 롤백)")
+    void reserveAll_일부재고부족_OutOfStockException() {
+        when(stockBatchRepository.deductAll(anyList())).thenReturn(new int[]{1, 0});
+        when(productRepository.findStockQuantityById(2L)).thenReturn(Optional.of(1));
+
+        assertThatThrownBy(() -> stockService.reserveAll(List.of(
+                new StockDeduction(1L, 1),
+                new StockDeduction(2L, 5))))
+                .isInstanceOf(OutOfStockException.class)
+                .hasMessageContaining("productId=2");
+
+        verify(stockBatchRepository, never()).restoreAll(anyList());
+    }
 
     @Test
-    @DisplayName("restoreStock: 정상 재고 복원 - 재고가 증가하고 락이 해제된다")
-    void restoreStock_정상복원() throws InterruptedException {
-        when(redissonClient.getLock(anyString())).thenReturn(rLock);
-        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
-        when(rLock.isHeldByCurrentThread()).thenReturn(true);
-        when(productRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
-        when(productRepository.saveAndFlush(product)).thenReturn(product);
+    @DisplayName("reserveAll: 존재하지 않는 상품이 포함되면 NotFoundException 발생")
+    void reserveAll_상품없음_NotFoundException() {
+        when(stockBatchRepository.deductAll(anyList())).thenReturn(new int[]{0});
+        when(productRepository.findStockQuantityById(99L)).thenReturn(Optional.empty());
 
-        stockService.restoreStock(1L, 10);
+        assertThatThrownBy(() -> stockService.reserveAll(List.of(new StockDeduction(99L, 1))))
+                .isInstanceOf(NotFoundException.class);
+    }
 
-        assertThat(product.getStockQuantity()).isEqualTo(110);
-        verify(rLock).unlock();
+    // ═══════════════════════ 재고 투영 ═══════════════════════
+
+    @Test
+    @DisplayName("reserveAll/settleReservations: 예약하면 가용이 줄고 예약이 늘며, 결제로 끝나면 예약만 줄어든다")
+    void projection_예약후결제_가용예약반영() {
+        stockProjection.replace(new long[]{3L}, new int[]{10}, new long[0], new int[0]);
+        when(stockBatchRepository.deductAll(anyList())).thenReturn(new int[]{1});
+
+        stockService.reserveAll(List.of(new StockDeduction(3L, 4)));
+
+        assertThat(stockService.getProjectedStock(3L, -1)).isEqualTo(6);
+        assertThat(stockService.getProjectedReserved(3L)).isEqualTo(4);
+
+        stockService.settleReservations(List.of(new StockDeduction(3L, 4)));
+
+        assertThat(stockService.getProjectedStock(3L, -1)).isEqualTo(6);
+        assertThat(stockService.getProjectedReserved(3L)).isZero();
     }
 
     @Test
-    @DisplayName("restoreStock: 분산 락 획득 실패 시 IllegalStateException 발생")
-    void restoreStock_락획득실패_예외() throws InterruptedException {
-        when(redissonClient.getLock(anyString())).thenReturn(rLock);
-        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(false);
+    @DisplayName("reserveAll: 예약이 실패하면 투영은 바뀌지 않고, 투영에 없는 상품은 DB 값으로 대체된다")
+    void projection_예약실패_변경없음() {
+        stockProjection.replace(new long[]{2L}, new int[]{1}, new long[0], new int[0]);
+        when(stockBatchRepository.deductAll(anyList())).thenReturn(new int[]{0});
+        when(productRepository.findStockQuantityById(2L)).thenReturn(Optional.of(1));
 
-        assertThatThrownBy(() -> stockService.restoreStock(1L, 10))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("락 획득 실패");
+        assertThatThrownBy(() -> stockService.reserveAll(List.of(new StockDeduction(2L, 5))))
+                .isInstanceOf(OutOfStockException.class);
 
-        verify(rLock, never()).unlock();
+        assertThat(stockService.getProjectedStock(2L, -1)).isEqualTo(1);
+        assertThat(stockService.getProjectedStock(7L, 42)).isEqualTo(42);
     }
 
+    // ═══════════════════════ 호출자 트랜잭션 복원 ═══════════════════════
+
     @Test
-    @DisplayName("restoreStock: 상품을 찾을 수 없으면 NotFoundException 발생 + 락 해제")
-    void restoreStock_상품없음_NotFoundException() throws InterruptedException {
-        when(redissonClient.getLock(anyString())).thenReturn(rLock);
-        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
-        when(rLock.isHeldByCurrentThread()).thenReturn(true);
-        when(productRepository.findByIdAndDeletedFalse(99L)).thenReturn(Optional.empty());
+    @DisplayName("releaseAllInTransaction: DB 재고는 호출자 트랜잭션에서 되돌리고, 투영은 커밋된 뒤에만 반영한다")
+    void releaseAllInTransaction_커밋후투영반영() {
+        stockProjection.replace(new long[]{3L}, new int[]{6}, new long[]{3L}, new int[]{4});
 
-        assertThatThrownBy(() -> stockService.restoreStock(99L, 5))
-                .isInstanceOf(NotFoundException.class);
+        inTransaction(() -> {
+            stockService.releaseAllInTransaction(List.of(new StockDeduction(3L, 4)));
+
+            verify(stockBatchRepository).restoreAll(List.of(new StockDeduction(3L, 4)));
+            assertThat(stockService.getProjectedStock(3L, -1)).isEqualTo(6);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        });
+
+        assertThat(stockService.getProjectedStock(3L, -1)).isEqualTo(10);
+        assertThat(stockService.getProjectedReserved(3L)).isZero();
+    }
+
+    @Test
+    @DisplayName("restoreAllInTransaction: 호출자가 롤백하면 투영도 바뀌지 않는다")
+    void restoreAllInTransaction_롤백_투영변경없음() {
+        stockProjection.replace(new long[]{3L}, new int[]{6}, new long[0], new int[0]);
+
+        inTransaction(() -> {
+            stockService.restoreAllInTransaction(List.of(new StockDeduction(3L, 2)));
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        });
+
+        assertThat(stockService.getProjectedStock(3L, -1)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("restoreAllInTransaction: 진행 중인 트랜잭션이 없으면 따로 커밋하지 않고 예외를 던진다")
+    void restoreAllInTransaction_트랜잭션없음_예외() {
+        assertThatThrownBy(() -> stockService.restoreAllInTransaction(List.of(new StockDeduction(3L, 2))))
+                .isInstanceOf(IllegalStateException.class);
+
+        verifyNoInteractions(stockBatchRepository);
+    }
+
+    // ═══════════════════════ 샤딩 상품 ═══════════════════════
+
+    @Test
+    @DisplayName("deductStock: 샤딩된 상품은 DB를 거치지 않고 버킷에서 차감된다")
+    void deductStock_샤딩상품_버킷차감() {
+        StockService shardedService = shardingEnabledService();
+        when(shardedStockStore.shardCount(1L)).thenReturn(8);
+        when(shardedStockStore.take(1L, 8, 3)).thenReturn(12L);
+
+        shardedService.deductStock(1L, 3);
+
+        verifyNoInteractions(productRepository, stockBatchRepository);
+    }
+
+    @Test
+    @DisplayName("reserveAll: 일반 상품 예약이 실패하면 이미 차감한 샤딩 상품 수량을 버킷에 되돌린다")
+    void reserveAll_혼합_일반상품실패_샤드보상() {
+        StockService shardedService = shardingEnabledService();
+        when(shardedStockStore.shardCounts(List.of(1L, 2L))).thenReturn(Map.of(1L, 4));
+        when(shardedStockStore.take(1L, 4, 2)).thenReturn(5L);
+        when(stockBatchRepository.deductAll(List.of(new StockDeduction(2L, 1)))).thenReturn(new int[]{0});
+        when(productRepository.findStockQuantityById(2L)).thenReturn(Optional.of(0));
+        when(shardedStockStore.shardCount(1L)).thenReturn(4);
+        when(shardedStockStore.put(1L, 4, 2)).thenReturn(7L);
+
+        assertThatThrownBy(() -> shardedService.reserveAll(List.of(
+                new StockDeduction(2L, 1),
+                new StockDeduction(1L, 2))))
+                .isInstanceOf(OutOfStockException.class);
+
+        verify(shardedStockStore).put(1L, 4, 2);
+    }
+
+    private static void inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            action.run();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
 
-        verify(rLock).unlock();
+    private StockService shardingEnabledService() {
+        return new StockService(
+                List.of(new LockStockStrategy(productRepository, stockBatchRepository)),
+                shardedStockStore, stockProjection, StockMode.LOCK, true);
     }
 }
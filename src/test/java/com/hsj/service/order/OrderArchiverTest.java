@@ -0,0 +1,88 @@
+package com.hsj.service.order;
+
+import com.hsj.repository.custom.OrderArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderArchiver 단위 테스트")
+class OrderArchiverTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 4, 1, 0, 0);
+
+    @Mock private OrderArchiveRepository orderArchiveRepository;
+    @Mock private OrderDetailCache orderDetailCache;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private OrderArchiver orderArchiver;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(orderArchiveRepository.horizon()).thenReturn(CUTOFF);
+        orderArchiver = new OrderArchiver(orderArchiveRepository, orderDetailCache, transactionManager,
+                new SimpleMeterRegistry(), CHUNK_SIZE, 10);
+    }
+
+    @Test
+    @DisplayName("가장 오래된 대상 월부터 이번 달까지 파티션을 만들고, 청크가 가득 차는 동안 이어서 옮긴다")
+    void archive_파티션생성_청크반복() {
+        when(orderArchiveRepository.findOldestArchivable(OrderArchiver.ARCHIVABLE_STATUSES, CUTOFF))
+                .thenReturn(Optional.of(LocalDateTime.of(2025, 11, 15, 10, 0)));
+        when(orderArchiveRepository.lockArchivable(OrderArchiver.ARCHIVABLE_STATUSES, CUTOFF, CHUNK_SIZE))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        int archived = orderArchiver.archive();
+
+        assertThat(archived).isEqualTo(3);
+        verify(orderArchiveRepository).ensureMonthlyPartitions(YearMonth.of(2025, 11), YearMonth.now());
+        verify(orderArchiveRepository).moveAll(List.of(1L, 2L));
+        verify(orderArchiveRepository).moveAll(List.of(3L));
+        verify(orderDetailCache).evictAfterCommit(List.of(1L, 2L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("대상이 없으면 파티션도 만들지 않는다")
+    void archive_대상없음() {
+        when(orderArchiveRepository.findOldestArchivable(any(), any())).thenReturn(Optional.empty());
+
+        assertThat(orderArchiver.archive()).isZero();
+        verify(orderArchiveRepository, never()).ensureMonthlyPartitions(any(), any());
+        verify(orderArchiveRepository, never()).lockArchivable(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("청크 이동 중 오류가 나면 그 청크는 롤백되고 이미 옮긴 청크는 유지된다")
+    void archive_청크오류_중단() {
+        when(orderArchiveRepository.findOldestArchivable(any(), any()))
+                .thenReturn(Optional.of(LocalDateTime.of(2026, 3, 1, 0, 0)));
+        when(orderArchiveRepository.lockArchivable(any(), any(), anyInt()))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L));
+        when(orderArchiveRepository.moveAll(anyCollection()))
+                .thenReturn(2)
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThat(orderArchiver.archive()).isEqualTo(2);
+        verify(transactionManager).commit(any());
+        verify(transactionManager).rollback(any());
+    }
+}
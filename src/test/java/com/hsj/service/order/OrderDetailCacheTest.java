@@ -0,0 +1,128 @@
+package com.hsj.service.order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hsj.dto.order.OrderResponse;
+import com.hsj.entity.enums.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderDetailCache 단위 테스트")
+class OrderDetailCacheTest {
+
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private RedisMessageListenerContainer listenerContainer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final AtomicInteger loads = new AtomicInteger();
+    private OrderDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cache = new OrderDetailCache(redisTemplate, objectMapper, listenerContainer, new SimpleMeterRegistry(),
+                true, 100, 60, 60);
+    }
+
+    @Test
+    @DisplayName("처음에는 DB에서 읽어 Redis에 저장하고, 이후 조회는 로컬 캐시에서 바로 돌려준다")
+    void get_미스후_로컬적중() {
+        OrderResponse first = cache.get(1L, loader());
+        OrderResponse second = cache.get(1L, loader());
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        verify(valueOperations).set(eq("order:detail:1"), anyString(), eq(Duration.ofSeconds(60)));
+    }
+
+    @Test
+    @DisplayName("다른 노드가 채운 Redis 값이 있으면 DB를 읽지 않는다")
+    void get_Redis적중() throws Exception {
+        when(valueOperations.get("order:detail:1")).thenReturn(objectMapper.writeValueAsString(response(1L)));
+
+        OrderResponse response = cache.get(1L, loader());
+
+        assertThat(response.getMemberId()).isEqualTo(7L);
+        assertThat(response.getItems()).singleElement()
+                .extracting(OrderResponse.OrderItemResponse::getSnapshotProductName).isEqualTo("노트북");
+        assertThat(loads.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("무효화하면 로컬·Redis 값을 지우고 다른 노드에 알리며, 다음 조회는 DB를 다시 읽는다")
+    void evict_다음조회_재로딩() {
+        cache.get(1L, loader());
+
+        cache.evictAfterCommit(1L);
+        cache.get(1L, loader());
+
+        assertThat(loads.get()).isEqualTo(2);
+        verify(redisTemplate).delete(List.of("order:detail:1"));
+        verify(redisTemplate).convertAndSend(OrderDetailCache.INVALIDATION_CHANNEL, "1");
+    }
+
+    @Test
+    @DisplayName("다른 노드의 무효화 메시지를 받으면 로컬 값만 비운다")
+    void onInvalidation_로컬무효화() {
+        cache.get(1L, loader());
+        cache.get(2L, loader());
+
+        cache.onInvalidation("1,2");
+        cache.get(1L, loader());
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Redis 장애 시에도 DB 조회로 응답한다")
+    void get_Redis장애_DB대체() {
+        when(valueOperations.get(anyString())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertThat(cache.get(1L, loader()).getOrderId()).isEqualTo(1L);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    private Function<Long, OrderResponse> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            return response(id);
+        };
+    }
+
+    private static OrderResponse response(Long orderId) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .memberId(7L)
+                .status(OrderStatus.PAID)
+                .totalAmount(BigDecimal.valueOf(1000))
+                .items(List.of(OrderResponse.OrderItemResponse.builder()
+                        .orderItemId(10L)
+                        .snapshotProductName("노트북")
+                        .snapshotPrice(BigDecimal.valueOf(1000))
+                        .quantity(1)
+                        .build()))
+                .createdAt(LocalDateTime.of(2025, 3, 1, 12, 0))
+                .build();
+    }
+}
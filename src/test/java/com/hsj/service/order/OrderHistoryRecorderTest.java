@@ -0,0 +1,116 @@
+package com.hsj.service.order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hsj.dto.order.OrderHistoryEntry;
+import com.hsj.dto.order.OrderHistoryResponse;
+import com.hsj.dto.outbox.OrderCreatedPayload;
+import com.hsj.dto.outbox.OrderItemCancelledPayload;
+import com.hsj.dto.outbox.OrderStatusChangedPayload;
+import com.hsj.dto.outbox.OutboxMessage;
+import com.hsj.entity.Order;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.repository.OrderHistoryRepository;
+import com.hsj.repository.custom.OrderHistoryJdbcRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderHistoryRecorder 단위 테스트")
+class OrderHistoryRecorderTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock private OrderHistoryRepository orderHistoryRepository;
+    @Mock private OrderHistoryJdbcRepository orderHistoryJdbcRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    @DisplayName("SYNC 모드는 비즈니스 트랜잭션 안에서 이력을 바로 저장한다")
+    void record_SYNC_즉시저장() {
+        OrderHistoryRecorder recorder = recorder(OrderHistoryWriteMode.SYNC);
+
+        recorder.record(mock(Order.class), OrderStatus.PAID, OrderStatus.PREPARING, null, "admin@test.com");
+
+        assertThat(recorder.isDeferred()).isFalse();
+        verify(orderHistoryRepository).save(any());
+    }
+
+    @Test
+    @DisplayName("WRITE_BEHIND 모드는 이력을 직접 쓰지 않는다 (아웃박스 이벤트가 원본)")
+    void record_지연기록_저장안함() {
+        OrderHistoryRecorder recorder = recorder(OrderHistoryWriteMode.WRITE_BEHIND);
+
+        recorder.record(mock(Order.class), OrderStatus.PAID, OrderStatus.PREPARING, null, "admin@test.com");
+        recorder.recordAll(List.of(new OrderHistoryEntry(1L, OrderStatus.PAID, OrderStatus.PREPARING,
+                null, "admin@test.com", BASE)));
+
+        assertThat(recorder.isDeferred()).isTrue();
+        verifyNoInteractions(orderHistoryRepository, orderHistoryJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("아웃박스 이벤트 종류별로 이력 한 건으로 변환하고, 결제 이벤트는 이력이 없다")
+    void toEntry_이벤트종류별변환() throws Exception {
+        OrderHistoryRecorder recorder = recorder(OrderHistoryWriteMode.WRITE_BEHIND);
+
+        OrderHistoryEntry created = recorder.toEntry(message(1L, OutboxEventType.ORDER_CREATED,
+                new OrderCreatedPayload("ORD-1", 7L, BigDecimal.TEN, List.of(), "user@test.com"), BASE)).orElseThrow();
+        assertThat(created.previousStatus()).isNull();
+        assertThat(created.newStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
+        assertThat(created.changedBy()).isEqualTo("user@test.com");
+
+        OrderHistoryEntry itemCancelled = recorder.toEntry(message(2L, OutboxEventType.ORDER_ITEM_CANCELLED,
+                new OrderItemCancelledPayload(10L, 20L, "노트북", 1, BigDecimal.ONE, OrderStatus.PAID,
+                        "단순 변심", "user@test.com"), BASE)).orElseThrow();
+        assertThat(itemCancelled.previousStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(itemCancelled.newStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(itemCancelled.reason()).isEqualTo("아이템 부분 취소: 노트북 - 단순 변심");
+
+        assertThat(recorder.toEntry(new OutboxMessage(3L, OutboxEventType.ORDER_AGGREGATE, 1L,
+                OutboxEventType.PAYMENT_COMPLETED, "{}", BASE))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("WRITE_BEHIND 조회는 반영된 이력과 미발행 이벤트를 합쳐 최신순으로 돌려준다")
+    void findByOrderId_미반영이벤트병합() throws Exception {
+        OrderHistoryRecorder recorder = recorder(OrderHistoryWriteMode.WRITE_BEHIND);
+        OrderHistoryResponse flushed = OrderHistoryResponse.builder()
+                .id(1L).newStatus(OrderStatus.PAID).createdAt(BASE.plusMinutes(1)).build();
+        OutboxMessage pending = message(5L, OutboxEventType.ORDER_STATUS_CHANGED,
+                new OrderStatusChangedPayload(OrderStatus.PAID, OrderStatus.PREPARING, null, "admin@test.com"),
+                BASE.plusMinutes(2));
+        when(orderHistoryJdbcRepository.findWithPending(eq(1L), any()))
+                .thenReturn(new OrderHistoryJdbcRepository.Snapshot(List.of(flushed), List.of(pending)));
+
+        List<OrderHistoryResponse> histories = recorder.findByOrderId(1L);
+
+        assertThat(histories).extracting(OrderHistoryResponse::getNewStatus)
+                .containsExactly(OrderStatus.PREPARING, OrderStatus.PAID);
+        verifyNoInteractions(orderHistoryRepository);
+    }
+
+    private OrderHistoryRecorder recorder(OrderHistoryWriteMode mode) {
+        return new OrderHistoryRecorder(orderHistoryRepository, orderHistoryJdbcRepository, objectMapper, mode);
+    }
+
+    private OutboxMessage message(Long id, OutboxEventType type, Object payload, LocalDateTime createdAt)
+            throws Exception {
+        return new OutboxMessage(id, OutboxEventType.ORDER_AGGREGATE, 1L, type,
+                objectMapper.writeValueAsString(payload), createdAt);
+    }
+}
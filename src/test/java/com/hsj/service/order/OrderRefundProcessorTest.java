@@ -0,0 +1,208 @@
+package com.hsj.service.order;
+
+import com.hsj.dto.payment.PaymentGatewayRequest;
+import com.hsj.dto.payment.PaymentGatewayResult;
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.entity.enums.OrderItemStatus;
+import com.hsj.entity.enums.OrderStatus;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.entity.enums.PaymentStatus;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import com.hsj.repository.custom.OrderBulkRepository;
+import com.hsj.repository.custom.OrderRefundRepository;
+import com.hsj.repository.custom.OrderRefundRepository.RefundAttempt;
+import com.hsj.repository.custom.OrderRefundRepository.RefundCandidate;
+import com.hsj.service.StockService;
+import com.hsj.service.outbox.OutboxWriter;
+import com.hsj.service.payment.PaymentGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderRefundProcessor 단위 테스트")
+class OrderRefundProcessorTest {
+
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock private OrderRefundRepository orderRefundRepository;
+    @Mock private OrderBulkRepository orderBulkRepository;
+    @Mock private StockService stockService;
+    @Mock private PaymentGateway paymentGateway;
+    @Mock private OutboxWriter outboxWriter;
+    @Mock private OrderHistoryRecorder orderHistoryRecorder;
+    @Mock private OrderDetailCache orderDetailCache;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private OrderRefundProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(paymentGateway.isAvailable()).thenReturn(true);
+        processor = new OrderRefundProcessor(orderRefundRepository, orderBulkRepository, stockService,
+                paymentGateway, outboxWriter, orderHistoryRecorder, orderDetailCache, new SyncTaskExecutor(),
+                transactionManager, new SimpleMeterRegistry(), BATCH_SIZE, 3, 0, MAX_ATTEMPTS, 1_000, 4_000);
+    }
+
+    @Test
+    @DisplayName("환불된 주문을 모아 한 트랜잭션에서 재고를 한 번에 되돌리고 주문·아이템·결제를 REFUNDED로 바꾼다")
+    void process_배치환불_재고일괄복원() {
+        when(orderRefundRepository.findDue(any(), eq(BATCH_SIZE)))
+                .thenReturn(List.of(paid(1L, 11L), paid(2L, 12L), withoutPayment(3L)));
+        when(paymentGateway.refund(any())).thenAnswer(inv ->
+                PaymentGatewayResult.approved("R-" + inv.<PaymentGatewayRequest>getArgument(0).paymentId()));
+        when(orderRefundRepository.lockRefundable(anyCollection())).thenReturn(List.of(1L, 2L, 3L));
+        List<StockDeduction> items = List.of(
+                new StockDeduction(100L, 1), new StockDeduction(200L, 2), new StockDeduction(100L, 3));
+        when(orderRefundRepository.findItemQuantities(List.of(1L, 2L, 3L), OrderRefundProcessor.RESTORABLE_ITEM_STATUSES))
+                .thenReturn(items);
+
+        int refunded = processor.process();
+
+        assertThat(refunded).isEqualTo(3);
+        verify(paymentGateway, times(2)).refund(any());
+        verify(stockService, times(1)).restoreAllInTransaction(items);
+        verify(orderRefundRepository).updateItemStatus(List.of(1L, 2L, 3L),
+                OrderRefundProcessor.RESTORABLE_ITEM_STATUSES, OrderItemStatus.REFUNDED);
+        verify(orderBulkRepository).updateOrderStatus(List.of(1L, 2L, 3L), OrderStatus.REFUNDED);
+        verify(orderRefundRepository).markPaymentsRefunded(List.of(11L, 12L));
+        verify(orderRefundRepository).deleteAttempts(List.of(1L, 2L, 3L));
+        verify(orderHistoryRecorder).recordAll(argThat(entries -> entries.size() == 3 && entries.stream()
+                .allMatch(e -> e.previousStatus() == OrderStatus.REFUND_REQUESTED && e.newStatus() == OrderStatus.REFUNDED
+                        && OrderRefundProcessor.REASON.equals(e.reason()))));
+        verify(outboxWriter).appendAll(eq(OutboxEventType.ORDER_STATUS_CHANGED), anyMap());
+        verify(outboxWriter).appendAll(eq(OutboxEventType.PAYMENT_REFUNDED),
+                argThat((Map<Long, ?> events) -> events.keySet().equals(Set.of(1L, 2L))));
+        verify(orderDetailCache).evictAfterCommit(List.of(1L, 2L, 3L));
+        verify(orderRefundRepository, never()).saveAttempts(any());
+    }
+
+    @Test
+    @DisplayName("재고 복원 뒤 단계가 실패하면 재고 복원도 반영 트랜잭션과 함께 롤백되고 주문은 다음 주기로 남는다")
+    void process_반영실패_재고복원롤백() {
+        when(orderRefundRepository.findDue(any(), eq(BATCH_SIZE))).thenReturn(List.of(paid(1L, 11L)));
+        when(paymentGateway.refund(any())).thenReturn(PaymentGatewayResult.approved("R-11"));
+        when(orderRefundRepository.lockRefundable(anyCollection())).thenReturn(List.of(1L));
+        List<StockDeduction> items = List.of(new StockDeduction(100L, 1));
+        when(orderRefundRepository.findItemQuantities(List.of(1L), OrderRefundProcessor.RESTORABLE_ITEM_STATUSES))
+                .thenReturn(items);
+        doThrow(new DataIntegrityViolationException("outbox"))
+                .when(outboxWriter).appendAll(eq(OutboxEventType.ORDER_STATUS_CHANGED), anyMap());
+
+        assertThat(processor.process()).isZero();
+
+        // 별도 트랜잭션으로 먼저 커밋되는 복원은 쓰지 않는다
+        verify(stockService).restoreAllInTransaction(items);
+        verify(stockService, never()).restoreAll(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("PG 오류는 제자리에서 재시도한 뒤 백오프로 미루고, PG가 거절한 환불은 자동 재시도하지 않는다")
+    void process_PG오류_백오프_거절보류() {
+        when(orderRefundRepository.findDue(any(), eq(BATCH_SIZE))).thenReturn(List.of(paid(1L, 11L), paid(2L, 12L)));
+        when(paymentGateway.refund(argThat(r -> r != null && r.paymentId() == 11L)))
+                .thenThrow(new IllegalStateException("PG 5xx"));
+        when(paymentGateway.refund(argThat(r -> r != null && r.paymentId() == 12L)))
+                .thenReturn(PaymentGatewayResult.declined("환불 기간 경과"));
+
+        assertThat(processor.process()).isZero();
+
+        verify(paymentGateway, times(3)).refund(argThat(r -> r != null && r.paymentId() == 11L));
+        List<RefundAttempt> attempts = savedAttempts();
+        assertThat(attempts).extracting(RefundAttempt::orderId).containsExactly(1L, 2L);
+        assertThat(attempts.get(0).attempts()).isEqualTo(1);
+        assertThat(attempts.get(0).nextAttemptAt()).isNotNull();
+        assertThat(attempts.get(1).nextAttemptAt()).isNull();
+        assertThat(attempts.get(1).lastError()).isEqualTo("환불 기간 경과");
+        verify(orderRefundRepository, never()).lockRefundable(any());
+        verifyNoInteractions(stockService);
+    }
+
+    @Test
+    @DisplayName("장애 격리 계층이 거절하면 제자리 재시도 없이 미루고, 재시도 횟수를 넘기면 수동 처리로 남긴다")
+    void process_PG불가_재시도초과_보류() {
+        RefundCandidate exhausted = new RefundCandidate(1L, 11L, "IDEM-11", BigDecimal.valueOf(10_000), "CARD",
+                PaymentStatus.COMPLETED, MAX_ATTEMPTS - 1);
+        when(orderRefundRepository.findDue(any(), eq(BATCH_SIZE))).thenReturn(List.of(exhausted));
+        when(paymentGateway.refund(any()))
+                .thenThrow(new BusinessException(ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE, "PG 응답 시간 초과"));
+
+        processor.process();
+
+        verify(paymentGateway, times(1)).refund(any());
+        RefundAttempt attempt = savedAttempts().get(0);
+        assertThat(attempt.attempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(attempt.nextAttemptAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("다른 노드가 먼저 반영했거나 잡고 있는 주문은 잠금에서 빠지고 재고도 건드리지 않는다")
+    void process_이미처리된주문_건너뜀() {
+        when(orderRefundRepository.findDue(any(), eq(BATCH_SIZE))).thenReturn(List.of(paid(1L, 11L)));
+        when(paymentGateway.refund(any())).thenReturn(PaymentGatewayResult.approved("R-11"));
+        when(orderRefundRepository.lockRefundable(anyCollection())).thenReturn(List.of());
+
+        assertThat(processor.process()).isZero();
+
+        verifyNoInteractions(stockService, outboxWriter);
+        verify(orderBulkRepository, never()).updateOrderStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("PG 서킷이 열려 있으면 대기열을 조회하지 않는다")
+    void process_서킷열림_건너뜀() {
+        when(paymentGateway.isAvailable()).thenReturn(false);
+
+        assertThat(processor.process()).isZero();
+
+        verifyNoInteractions(orderRefundRepository);
+    }
+
+    @Test
+    @DisplayName("재시도 대기 시간은 두 배씩 늘다가 상한에서 멈춘다")
+    void retryDelay_지수백오프_상한() {
+        assertThat(processor.retryDelay(1)).isEqualTo(1_000);
+        assertThat(processor.retryDelay(2)).isEqualTo(2_000);
+        assertThat(processor.retryDelay(3)).isEqualTo(4_000);
+        assertThat(processor.retryDelay(10)).isEqualTo(4_000);
+    }
+
+    private List<RefundAttempt> savedAttempts() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RefundAttempt>> captor = ArgumentCaptor.forClass(List.class);
+        verify(orderRefundRepository).saveAttempts(captor.capture());
+        return captor.getValue();
+    }
+
+    private static RefundCandidate paid(Long orderId, Long paymentId) {
+        return new RefundCandidate(orderId, paymentId, "IDEM-" + paymentId, BigDecimal.valueOf(10_000), "CARD",
+                PaymentStatus.COMPLETED, 0);
+    }
+
+    private static RefundCandidate withoutPayment(Long orderId) {
+        return new RefundCandidate(orderId, null, null, null, null, null, 0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.hsj.service.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SnowflakeOrderNumberGenerator 단위 테스트")
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final long NOW = SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    @DisplayName("ORD- 접두사 + Crockford Base32 13자리 고정 폭이다")
+    void next_형식() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7, () -> NOW);
+
+        assertThat(generator.next()).matches("ORD-[0-9A-HJKMNP-TV-Z]{13}");
+    }
+
+    @Test
+    @DisplayName("같은 밀리초에 순번이 넘쳐도 문자열 정렬 순서가 발급 순서와 같다")
+    void next_같은밀리초_순번초과_단조증가() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, () -> NOW);
+
+        List<String> issued = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            issued.add(generator.next());
+        }
+
+        assertThat(issued).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("시계가 뒤로 가도 마지막 시각을 이어 써서 단조 증가를 유지한다")
+    void next_시계역행_단조증가() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, clock::get);
+
+        String before = generator.next();
+        clock.set(NOW - 5_000);
+        String after = generator.next();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("같은 시각이라도 노드가 다르면 번호가 겹치지 않는다")
+    void next_노드별_충돌없음() {
+        SnowflakeOrderNumberGenerator node1 = new SnowflakeOrderNumberGenerator(1, () -> NOW);
+        SnowflakeOrderNumberGenerator node2 = new SnowflakeOrderNumberGenerator(2, () -> NOW);
+
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 1_000; i++) {
+            issued.add(node1.next());
+            issued.add(node2.next());
+        }
+
+        assertThat(issued).hasSize(2_000);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 발급해도 중복이 없다")
+    void next_동시발급_중복없음() throws InterruptedException {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(3, System::currentTimeMillis);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    issued.add(generator.next());
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(issued).hasSize(40_000);
+    }
+
+    @Test
+    @DisplayName("노드 ID가 10비트 범위를 벗어나면 생성 시 거부한다")
+    void constructor_노드범위초과_예외() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1, () -> NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,131 @@
+package com.hsj.service.outbox;
+
+import com.hsj.dto.outbox.OutboxMessage;
+import com.hsj.entity.enums.OutboxEventType;
+import com.hsj.repository.custom.OutboxJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay 단위 테스트")
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    @Mock private OutboxJdbcRepository outboxJdbcRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final RecordingSink sink = new RecordingSink();
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(outboxJdbcRepository.findOldestPendingCreatedAt()).thenReturn(Optional.empty());
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxJdbcRepository, List.of(sink), transactionManager, meterRegistry,
+                BATCH_SIZE, 5, 24);
+    }
+
+    @Test
+    @DisplayName("잡은 이벤트를 ID 순서대로 싱크에 발행하고 발행 완료로 표시한다")
+    void relay_정상발행() {
+        List<OutboxMessage> claimed = List.of(message(1L, 100L), message(2L, 200L), message(3L, 100L));
+        when(outboxJdbcRepository.claim(BATCH_SIZE)).thenReturn(claimed);
+        when(outboxJdbcRepository.findPendingIds(eq(OutboxEventType.ORDER_AGGREGATE), anyCollection()))
+                .thenReturn(Map.of(100L, List.of(1L, 3L), 200L, List.of(2L)));
+
+        int published = relay.relay();
+
+        assertThat(published).isEqualTo(3);
+        assertThat(sink.published).extracting(OutboxMessage::id).containsExactly(1L, 2L, 3L);
+        verify(outboxJdbcRepository).markPublished(List.of(1L, 2L, 3L));
+        assertThat(meterRegistry.get("outbox.relay.published").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("같은 집계의 앞선 이벤트를 다른 노드가 잡고 있으면 그 집계의 이벤트는 다음 주기로 미룬다")
+    void relay_앞선이벤트_다른노드점유_순서대기() {
+        // 주문 100의 5번 이벤트를 다른 릴레이가 잡고 있어 이번 배치에는 7, 9번만 들어왔다.
+        List<OutboxMessage> claimed = List.of(message(6L, 200L), message(7L, 100L), message(9L, 100L));
+        when(outboxJdbcRepository.claim(BATCH_SIZE)).thenReturn(claimed);
+        when(outboxJdbcRepository.findPendingIds(eq(OutboxEventType.ORDER_AGGREGATE), anyCollection()))
+                .thenReturn(Map.of(100L, List.of(5L, 7L, 9L), 200L, List.of(6L)));
+
+        relay.relay();
+
+        assertThat(sink.published).extracting(OutboxMessage::id).containsExactly(6L);
+        verify(outboxJdbcRepository).markPublished(List.of(6L));
+        assertThat(meterRegistry.get("outbox.relay.deferred").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("싱크 발행이 실패하면 발행 완료로 표시하지 않고 트랜잭션을 롤백한다")
+    void relay_싱크실패_미표시() {
+        sink.failing = true;
+        when(outboxJdbcRepository.claim(BATCH_SIZE)).thenReturn(List.of(message(1L, 100L)));
+        when(outboxJdbcRepository.findPendingIds(eq(OutboxEventType.ORDER_AGGREGATE), anyCollection()))
+                .thenReturn(Map.of(100L, List.of(1L)));
+
+        int published = relay.relay();
+
+        assertThat(published).isZero();
+        verify(outboxJdbcRepository, never()).markPublished(any());
+        verify(transactionManager).rollback(any());
+        assertThat(meterRegistry.get("outbox.relay.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("가장 오래된 미발행 이벤트의 나이를 지연 게이지로 노출한다")
+    void relay_지연게이지() {
+        when(outboxJdbcRepository.claim(BATCH_SIZE)).thenReturn(List.of());
+        when(outboxJdbcRepository.findOldestPendingCreatedAt())
+                .thenReturn(Optional.of(LocalDateTime.now().minusSeconds(30)));
+
+        relay.relay();
+
+        assertThat(meterRegistry.get("outbox.relay.lag.seconds").gauge().value()).isBetween(29.0, 35.0);
+    }
+
+    private static OutboxMessage message(Long id, Long orderId) {
+        return new OutboxMessage(id, OutboxEventType.ORDER_AGGREGATE, orderId, OutboxEventType.ORDER_STATUS_CHANGED,
+                "{}", LocalDateTime.now());
+    }
+
+    private static final class RecordingSink implements OutboxSink {
+
+        private final List<OutboxMessage> published = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void publish(List<OutboxMessage> messages) {
+            if (failing) {
+                throw new IllegalStateException("sink down");
+            }
+            published.addAll(messages);
+        }
+    }
+}
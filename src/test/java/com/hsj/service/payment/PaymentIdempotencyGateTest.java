@@ -0,0 +1,107 @@
+package com.hsj.service.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hsj.dto.payment.PaymentResponse;
+import com.hsj.entity.enums.PaymentStatus;
+import com.hsj.exception.DuplicateException;
+import com.hsj.service.payment.PaymentIdempotencyGate.Claim;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentIdempotencyGate 단위 테스트")
+class PaymentIdempotencyGateTest {
+
+    private static final String KEY = "payment:idem:IDEM-1";
+
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private PaymentIdempotencyGate gate;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        gate = new PaymentIdempotencyGate(redisTemplate, objectMapper, new SimpleMeterRegistry(), 30, 24, 100, 1);
+    }
+
+    @Test
+    @DisplayName("비어 있는 키는 처리 중 토큰으로 선점하고, 완료 후 응답을 결과 TTL로 저장한다")
+    void claim_선점_완료저장() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), startsWith("P:"), eq(Duration.ofSeconds(30)))).thenReturn(true);
+
+        Claim claim = gate.claim("IDEM-1");
+        gate.complete(claim, response());
+
+        assertThat(claim.isReplay()).isFalse();
+        assertThat(claim.token()).startsWith("P:");
+        verify(valueOperations).set(KEY, "D:" + objectMapper.writeValueAsString(response()), Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("처리 중인 키는 첫 요청의 결과가 저장될 때까지 기다렸다가 그 응답을 돌려준다")
+    void claim_처리중_대기후재생() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn("P:other", "P:other",
+                "D:" + objectMapper.writeValueAsString(response()));
+
+        Claim claim = gate.claim("IDEM-1");
+
+        assertThat(claim.isReplay()).isTrue();
+        assertThat(claim.replay().getPaymentId()).isEqualTo(7L);
+        assertThat(claim.replay().getAmount()).isEqualByComparingTo("30000");
+    }
+
+    @Test
+    @DisplayName("대기 시간 안에 결과가 나오지 않으면 DUPLICATE_PAYMENT")
+    void claim_대기초과_DuplicateException() {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn("P:other");
+
+        assertThatThrownBy(() -> gate.claim("IDEM-1")).isInstanceOf(DuplicateException.class);
+    }
+
+    @Test
+    @DisplayName("Redis를 쓸 수 없으면 게이트를 건너뛰고 해제도 하지 않는다")
+    void claim_Redis장애_우회() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        Claim claim = gate.claim("IDEM-1");
+        gate.release(claim);
+
+        assertThat(claim.isReplay()).isFalse();
+        assertThat(claim.token()).isNull();
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+    }
+
+    private static PaymentResponse response() {
+        return PaymentResponse.builder()
+                .paymentId(7L)
+                .orderId(1L)
+                .idempotencyKey("IDEM-1")
+                .amount(new BigDecimal("30000.00"))
+                .paymentMethod("CARD")
+                .status(PaymentStatus.COMPLETED)
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.hsj.service.payment;
+
+import com.hsj.dto.payment.ReconciliationMismatchResponse;
+import com.hsj.dto.payment.ReconciliationRequest;
+import com.hsj.dto.payment.ReconciliationRunResponse;
+import com.hsj.entity.enums.PaymentStatus;
+import com.hsj.entity.enums.ReconciliationMismatchType;
+import com.hsj.entity.enums.ReconciliationStatus;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import com.hsj.repository.custom.PaymentReconciliationRepository;
+import com.hsj.repository.custom.PaymentReconciliationRepository.PaymentSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentReconciliationService 단위 테스트")
+class PaymentReconciliationServiceTest {
+
+    private static final String HEADER = "settled_at,idempotency_key,amount,status\n";
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 10, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 10, 2, 0, 0);
+
+    @Mock private PaymentReconciliationRepository reconciliationRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @TempDir Path directory;
+
+    private PaymentReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new PaymentReconciliationService(reconciliationRepository, new SyncTaskExecutor(),
+                transactionManager, new SimpleMeterRegistry(), directory.toString(), 2, 64, 10);
+    }
+
+    @Test
+    @DisplayName("파일을 청크 단위로 IN 조회해 누락·금액·상태 불일치와 깨진 행을 보고하고, 청크마다 체크포인트를 남긴다")
+    void run_청크대사_불일치보고() throws IOException {
+        writeFile("settle.csv", HEADER
+                + "2026-10-01,K1,10000,APPROVED\n"
+                + "2026-10-01,K2,20000,APPROVED\r\n"
+                + "2026-10-01,K3,30000,REFUNDED\n"
+                + "2026-10-01,K4,abc,APPROVED\n"
+                + "2026-10-01,K5,50000,APPROVED");
+        when(reconciliationRepository.findRun(1L)).thenReturn(Optional.of(run(0)));
+        when(reconciliationRepository.markSeen(1L, List.of("K1", "K2"))).thenReturn(Set.of("K1", "K2"));
+        when(reconciliationRepository.markSeen(1L, List.of("K3"))).thenReturn(Set.of("K3"));
+        when(reconciliationRepository.markSeen(1L, List.of("K5"))).thenReturn(Set.of("K5"));
+        when(reconciliationRepository.findPayments(anyCollection())).thenReturn(Map.of(
+                "K1", new PaymentSnapshot(new BigDecimal("10000.00"), PaymentStatus.COMPLETED),
+                "K2", new PaymentSnapshot(new BigDecimal("19000.00"), PaymentStatus.COMPLETED),
+                "K3", new PaymentSnapshot(new BigDecimal("30000.00"), PaymentStatus.COMPLETED)));
+        when(reconciliationRepository.insertMissingSettlements(eq(1L), eq(FROM), eq(TO), anyCollection()))
+                .thenReturn(1);
+
+        service.run(1L);
+
+        List<ReconciliationMismatchType> reported = reportedTypes();
+        assertThat(reported).containsExactly(
+                ReconciliationMismatchType.AMOUNT_MISMATCH,
+                ReconciliationMismatchType.MALFORMED_ROW,
+                ReconciliationMismatchType.STATUS_MISMATCH,
+                ReconciliationMismatchType.MISSING_PAYMENT);
+
+        long fileSize = Files.size(directory.resolve("settle.csv"));
+        verify(reconciliationRepository).checkpoint(eq(1L), anyLong(), eq(2), eq(1));
+        verify(reconciliationRepository).checkpoint(eq(1L), anyLong(), eq(2), eq(2));
+        verify(reconciliationRepository).checkpoint(1L, fileSize, 1, 1);
+        verify(reconciliationRepository).complete(1L, 1);
+        verify(reconciliationRepository).deleteSeen(1L);
+        verify(reconciliationRepository, never()).fail(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("재시작하면 체크포인트 위치부터 읽어 이미 커밋된 행은 다시 대사하지 않는다")
+    void run_체크포인트재시작() throws IOException {
+        String firstTwo = "2026-10-01,K1,10000,APPROVED\n2026-10-01,K2,20000,APPROVED\n";
+        writeFile("settle.csv", HEADER + firstTwo + "2026-10-01,K3,30000,APPROVED\n");
+        long checkpoint = (HEADER + firstTwo).getBytes(StandardCharsets.UTF_8).length;
+        when(reconciliationRepository.findRun(1L)).thenReturn(Optional.of(run(checkpoint)));
+        when(reconciliationRepository.markSeen(1L, List.of("K3"))).thenReturn(Set.of("K3"));
+        when(reconciliationRepository.findPayments(anyCollection())).thenReturn(Map.of(
+                "K3", new PaymentSnapshot(new BigDecimal("30000"), PaymentStatus.COMPLETED)));
+
+        service.run(1L);
+
+        verify(reconciliationRepository).markSeen(1L, List.of("K3"));
+        verify(reconciliationRepository, times(1)).markSeen(anyLong(), anyCollection());
+        verify(reconciliationRepository).checkpoint(eq(1L), anyLong(), eq(1), eq(0));
+        verify(reconciliationRepository).complete(1L, 0);
+    }
+
+    @Test
+    @DisplayName("같은 멱등성 키가 파일에 다시 나오면 DUPLICATE_SETTLEMENT로 보고한다")
+    void run_파일내중복() throws IOException {
+        writeFile("settle.csv", HEADER + "2026-10-01,K1,10000,APPROVED\n2026-10-01,K1,10000,APPROVED\n");
+        when(reconciliationRepository.findRun(1L)).thenReturn(Optional.of(run(0)));
+        when(reconciliationRepository.markSeen(1L, List.of("K1"))).thenReturn(Set.of("K1"));
+        when(reconciliationRepository.findPayments(anyCollection())).thenReturn(Map.of(
+                "K1", new PaymentSnapshot(new BigDecimal("10000"), PaymentStatus.COMPLETED)));
+
+        service.run(1L);
+
+        assertThat(reportedTypes()).containsExactly(ReconciliationMismatchType.DUPLICATE_SETTLEMENT);
+    }
+
+    @Test
+    @DisplayName("청크 처리 중 오류가 나면 작업을 FAILED로 남기고 완료 처리하지 않는다")
+    void run_청크오류_FAILED() throws IOException {
+        writeFile("settle.csv", HEADER + "2026-10-01,K1,10000,APPROVED\n");
+        when(reconciliationRepository.findRun(1L)).thenReturn(Optional.of(run(0)));
+        when(reconciliationRepository.markSeen(anyLong(), anyCollection())).thenThrow(new QueryTimeoutException("timeout"));
+
+        service.run(1L);
+
+        verify(reconciliationRepository).fail(eq(1L), any());
+        verify(reconciliationRepository, never()).checkpoint(anyLong(), anyLong(), anyInt(), anyInt());
+        verify(reconciliationRepository, never()).complete(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("정산 디렉터리 밖을 가리키는 파일명은 INVALID_SETTLEMENT_FILE")
+    void start_디렉터리이탈_거절() {
+        ReconciliationRequest request = new ReconciliationRequest("../etc/passwd", FROM, TO);
+
+        assertThatThrownBy(() -> service.start(request))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_SETTLEMENT_FILE);
+        verifyNoInteractions(reconciliationRepository);
+    }
+
+    @Test
+    @DisplayName("필수 열이 없는 헤더는 작업을 만들기 전에 거절한다")
+    void start_헤더누락_거절() throws IOException {
+        writeFile("settle.csv", "idempotency_key,amount\nK1,10000\n");
+
+        assertThatThrownBy(() -> service.start(new ReconciliationRequest("settle.csv", FROM, TO)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("status");
+        verify(reconciliationRepository, never()).createRun(any(), any(), any());
+    }
+
+    private List<ReconciliationMismatchType> reportedTypes() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReconciliationMismatchResponse>> captor = ArgumentCaptor.forClass(List.class);
+        verify(reconciliationRepository, atLeastOnce()).insertMismatches(eq(1L), captor.capture());
+        List<ReconciliationMismatchType> types = new ArrayList<>();
+        captor.getAllValues().forEach(chunk -> chunk.forEach(m -> types.add(m.getType())));
+        return types;
+    }
+
+    private void writeFile(String name, String content) throws IOException {
+        Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private static ReconciliationRunResponse run(long byteOffset) {
+        return ReconciliationRunResponse.builder()
+                .runId(1L)
+                .fileName("settle.csv")
+                .periodFrom(FROM)
+                .periodTo(TO)
+                .status(ReconciliationStatus.RUNNING)
+                .byteOffset(byteOffset)
+                .build();
+    }
+}
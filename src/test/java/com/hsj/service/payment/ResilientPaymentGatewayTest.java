@@ -0,0 +1,199 @@
+package com.hsj.service.payment;
+
+import com.hsj.dto.payment.PaymentGatewayRequest;
+import com.hsj.dto.payment.PaymentGatewayResult;
+import com.hsj.exception.BusinessException;
+import com.hsj.exception.ErrorCode;
+import com.hsj.service.payment.PaymentCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ResilientPaymentGateway 단위 테스트")
+class ResilientPaymentGatewayTest {
+
+    private static final long MIN_TIMEOUT_MS = 50;
+    private static final long MAX_TIMEOUT_MS = 200;
+    private static final long OPEN_DURATION_MS = 1_000;
+
+    private final AtomicLong now = new AtomicLong();
+    private final SlowFakeGateway fake = new SlowFakeGateway();
+    private ThreadPoolTaskExecutor callExecutor;
+
+    @AfterEach
+    void tearDown() {
+        fake.unblock();
+        callExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("빠른 PG 응답이 쌓이면 타임아웃이 p99 x 배수로 줄어들고, 하한 아래로는 내려가지 않는다")
+    void approve_적응형타임아웃() {
+        ResilientPaymentGateway gateway = gateway(4);
+        assertThat(gateway.currentTimeoutMillis()).isEqualTo(MAX_TIMEOUT_MS);
+
+        for (int i = 0; i < AdaptiveTimeout.MIN_SAMPLES + 10; i++) {
+            assertThat(gateway.approve(request(i)).approved()).isTrue();
+        }
+
+        assertThat(gateway.currentTimeoutMillis()).isEqualTo(MIN_TIMEOUT_MS);
+        assertThat(gateway.circuitState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("PG가 느려져 타임아웃이 이어지면 서킷이 열리고, 이후 호출은 PG에 닿지 않고 PAYMENT_GATEWAY_UNAVAILABLE로 실패한다")
+    void approve_느린PG_서킷열림() {
+        ResilientPaymentGateway gateway = gateway(4);
+        fake.delayMillis = MAX_TIMEOUT_MS * 3;
+
+        for (int i = 0; i < 4; i++) {
+            int id = i;
+            assertThatThrownBy(() -> gateway.approve(request(id)))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("errorCode").isEqualTo(ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE);
+        }
+        assertThat(gateway.circuitState()).isEqualTo(State.OPEN);
+        assertThat(gateway.isAvailable()).isFalse();
+
+        int callsBefore = fake.calls.get();
+        assertThatThrownBy(() -> gateway.approve(request(99)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("서킷");
+        assertThat(fake.calls.get()).isEqualTo(callsBefore);
+    }
+
+    @Test
+    @DisplayName("OPEN 유지 시간이 지나면 시험 호출을 보내고, 시험 호출이 모두 성공하면 서킷이 닫힌다")
+    void approve_반개방_회복() {
+        ResilientPaymentGateway gateway = gateway(4);
+        fake.failing = true;
+        for (int i = 0; i < 4; i++) {
+            int id = i;
+            assertThatThrownBy(() -> gateway.approve(request(id))).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(gateway.circuitState()).isEqualTo(State.OPEN);
+
+        fake.failing = false;
+        now.addAndGet(OPEN_DURATION_MS);
+        gateway.approve(request(10));
+        assertThat(gateway.circuitState()).isEqualTo(State.HALF_OPEN);
+        gateway.approve(request(11));
+
+        assertThat(gateway.circuitState()).isEqualTo(State.CLOSED);
+        assertThat(gateway.isAvailable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("환불도 승인과 같은 서킷을 거치므로 승인 실패로 서킷이 열리면 환불도 PG에 닿지 않는다")
+    void refund_서킷공유() {
+        ResilientPaymentGateway gateway = gateway(4);
+        fake.failing = true;
+        for (int i = 0; i < 4; i++) {
+            int id = i;
+            assertThatThrownBy(() -> gateway.approve(request(id))).isInstanceOf(IllegalStateException.class);
+        }
+
+        int callsBefore = fake.calls.get();
+        assertThatThrownBy(() -> gateway.refund(request(1)))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.PAYMENT_GATEWAY_UNAVAILABLE);
+        assertThat(fake.calls.get()).isEqualTo(callsBefore);
+    }
+
+    @Test
+    @DisplayName("동시 호출이 벌크헤드 크기를 넘으면 기다리지 않고 거절한다")
+    void approve_벌크헤드포화_거절() throws Exception {
+        ResilientPaymentGateway gateway = gateway(1);
+        fake.blocked = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                gateway.approve(request(1));
+            } catch (BusinessException ignored) {
+                // 타임아웃으로 끝나도 PG 호출은 막힌 채 벌크헤드 자리를 잡고 있다
+            }
+        });
+        fake.entered.await(1, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> gateway.approve(request(2)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("동시 호출");
+        assertThat(fake.calls.get()).isEqualTo(1);
+        first.get(1, TimeUnit.SECONDS);
+    }
+
+    private ResilientPaymentGateway gateway(int bulkheadSize) {
+        callExecutor = new ThreadPoolTaskExecutor();
+        callExecutor.setCorePoolSize(bulkheadSize);
+        callExecutor.setMaxPoolSize(bulkheadSize);
+        callExecutor.setQueueCapacity(bulkheadSize);
+        callExecutor.initialize();
+        return new ResilientPaymentGateway(fake, callExecutor, new SimpleMeterRegistry(),
+                new PaymentCircuitBreaker("fake", 10, 4, 0.5, OPEN_DURATION_MS, 2, now::get),
+                new AdaptiveTimeout(100, 2.0, MIN_TIMEOUT_MS, MAX_TIMEOUT_MS),
+                0);
+    }
+
+    private static PaymentGatewayRequest request(long paymentId) {
+        return new PaymentGatewayRequest(paymentId, 1L, "IDEM-" + paymentId, BigDecimal.valueOf(10_000), "CARD");
+    }
+
+    /** 지연·실패·무기한 대기를 주입할 수 있는 로컬 PG. */
+    private static class SlowFakeGateway implements PaymentGateway {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile long delayMillis;
+        private volatile boolean failing;
+        private volatile CountDownLatch blocked;
+
+        @Override
+        public PaymentGatewayResult approve(PaymentGatewayRequest request) {
+            calls.incrementAndGet();
+            entered.countDown();
+            try {
+                if (blocked != null) {
+                    blocked.await();
+                }
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("PG 호출 취소", e);
+            }
+            if (failing) {
+                throw new IllegalStateException("PG 5xx");
+            }
+            return PaymentGatewayResult.approved("FAKE-" + request.paymentId());
+        }
+
+        @Override
+        public PaymentGatewayResult refund(PaymentGatewayRequest request) {
+            return approve(request);
+        }
+
+        @Override
+        public String name() {
+            return "fake";
+        }
+
+        void unblock() {
+            if (blocked != null) {
+                blocked.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.hsj.service.stock;
+
+import com.hsj.dto.stock.StockDeduction;
+import com.hsj.dto.stock.StockSnapshot;
+import com.hsj.exception.OutOfStockException;
+import com.hsj.repository.ProductRepository;
+import com.hsj.repository.custom.StockBatchRepository;
+import com.hsj.service.StockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OptimisticStockStrategy 단위 테스트 (낙관적 차감 + 경합 시 락 전환)")
+class OptimisticStockStrategyTest {
+
+    @Mock private ProductRepository productRepository;
+    @Mock private StockBatchRepository stockBatchRepository;
+    @Mock private LockStockStrategy lockStockStrategy;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private ShardedStockStore shardedStockStore;
+
+    private MeterRegistry meterRegistry;
+    private StockContentionTracker contentionTracker;
+    private OptimisticStockStrategy strategy;
+    private StockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        contentionTracker = new StockContentionTracker(meterRegistry);
+        strategy = new OptimisticStockStrategy(productRepository, stockBatchRepository,
+                lockStockStrategy, contentionTracker, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(strategy, "backoffMillis", 0L);
+        stockService = new StockService(List.of(strategy), shardedStockStore,
+                new StockProjection(meterRegistry), StockMode.OPTIMISTIC, false);
+    }
+
+    @Test
+    @DisplayName("deduct: 충돌이 없으면 조건부 UPDATE 한 번으로 끝나고 분산 락을 쓰지 않는다")
+    void deduct_무경합_락미사용() {
+        when(productRepository.findStockSnapshot(1L)).thenReturn(Optional.of(new StockSnapshot(10, 3L)));
+        when(productRepository.deductStockIfVersionMatches(1L, 2, 3L)).thenReturn(1);
+
+        strategy.deduct(1L, 2);
+
+        verify(productRepository, times(1)).deductStockIfVersionMatches(1L, 2, 3L);
+        verifyNoInteractions(lockStockStrategy);
+        assertThat(contentionTracker.getContentionRate(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("deduct: version 충돌 시 최신 version으로 재시도하고 충돌률이 기록된다")
+    void deduct_충돌후재시도_성공() {
+        when(productRepository.findStockSnapshot(1L))
+                .thenReturn(Optional.of(new StockSnapshot(10, 3L)))
+                .thenReturn(Optional.of(new StockSnapshot(9, 4L)));
+        when(productRepository.deductStockIfVersionMatches(1L, 1, 3L)).thenReturn(0);
+        when(productRepository.deductStockIfVersionMatches(1L, 1, 4L)).thenReturn(1);
+
+        strategy.deduct(1L, 1);
+
+        assertThat(contentionTracker.getContentionRate(1L)).isGreaterThan(0.0);
+        assertThat(meterRegistry.counter("stock.optimistic.conflicts").count()).isEqualTo(1.0);
+        // 임계치 아래라 락 경로로 전환되지 않았으므로 상품별 게이지는 등록하지 않는다
+        assertThat(meterRegistry.find("stock.contention.rate").tag("productId", "1").gauge()).isNull();
+        verifyNoInteractions(lockStockStrategy);
+    }
+
+    @Test
+    @DisplayName("deduct: 재시도를 모두 소진하면 분산 락 경로로 넘기고 이후 요청도 쿨다운 동안 락을 쓴다")
+    void deduct_재시도소진_락전환() {
+        when(productRepository.findStockSnapshot(1L)).thenReturn(Optional.of(new StockSnapshot(10, 3L)));
+        when(productRepository.deductStockIfVersionMatches(anyLong(), anyInt(), anyLong())).thenReturn(0);
+
+        strategy.deduct(1L, 1);
+        strategy.deduct(1L, 1);
+
+        verify(lockStockStrategy, times(2)).deduct(1L, 1);
+        // 두 번째 요청은 낙관적 시도 없이 바로 락 경로로 간다
+        verify(productRepository, times(4)).deductStockIfVersionMatches(anyLong(), anyInt(), anyLong());
+        assertThat(contentionTracker.shouldUseLock(1L)).isTrue();
+        assertThat(meterRegistry.find("stock.contention.rate").tag("productId", "1").gauge()).isNotNull();
+        assertThat(meterRegistry.counter("stock.optimistic.fallbacks").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("deduct: 재고가 부족하면 재시도 없이 OutOfStockException 발생")
+    void deduct_재고부족_OutOfStockException() {
+        when(productRepository.findStockSnapshot(1L)).thenReturn(Optional.of(new StockSnapshot(1, 3L)));
+
+        assertThatThrownBy(() -> strategy.deduct(1L, 5))
+                .isInstanceOf(OutOfStockException.class);
+
+        verify(productRepository, never()).deductStockIfVersionMatches(anyLong(), anyInt(), anyLong());
+        verifyNoInteractions(lockStockStrategy);
+    }
+
+    @Test
+    @DisplayName("reserveAll: 주문 예약도 상품마다 낙관적 차감을 재시도하고 충돌이 기록된다")
+    void reserveAll_다건_낙관적재시도_경합기록() {
+        when(productRepository.findStockSnapshot(1L))
+                .thenReturn(Optional.of(new StockSnapshot(10, 3L)))
+                .thenReturn(Optional.of(new StockSnapshot(9, 4L)));
+        when(productRepository.findStockSnapshot(2L)).thenReturn(Optional.of(new StockSnapshot(5, 1L)));
+        when(productRepository.deductStockIfVersionMatches(1L, 1, 3L)).thenReturn(0);
+        when(productRepository.deductStockIfVersionMatches(1L, 1, 4L)).thenReturn(1);
+        when(productRepository.deductStockIfVersionMatches(2L, 2, 1L)).thenReturn(1);
+
+        stockService.reserveAll(List.of(new StockDeduction(2L, 2), new StockDeduction(1L, 1)));
+
+        assertThat(contentionTracker.getContentionRate(1L)).isGreaterThan(0.0);
+        assertThat(meterRegistry.counter("stock.optimistic.conflicts").count()).isEqualTo(1.0);
+        // 두 상품이 한 트랜잭션에서 차감된다
+        verify(transactionManager, times(1)).getTransaction(any());
+        verifyNoInteractions(lockStockStrategy, stockBatchRepository);
+    }
+
+    @Test
+    @DisplayName("reserveAll: 단일 상품 주문은 deduct 경로를 타고 재시도를 소진하면 분산 락으로 넘어간다")
+    void reserveAll_단건_재시도소진_락전환() {
+        when(productRepository.findStockSnapshot(1L)).thenReturn(Optional.of(new StockSnapshot(10, 3L)));
+        when(productRepository.deductStockIfVersionMatches(anyLong(), anyInt(), anyLong())).thenReturn(0);
+
+        stockService.reserveAll(List.of(new StockDeduction(1L, 1)));
+
+        verify(lockStockStrategy, times(1)).deduct(1L, 1);
+        verify(lockStockStrategy, never()).reserveAll(anyList());
+        assertThat(contentionTracker.shouldUseLock(1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("reserveAll: 락 경로로 전환된 상품은 조건부 UPDATE로 차감하고, 재고가 부족하면 전체가 실패한다")
+    void reserveAll_경합상품_조건부UPDATE_재고부족() {
+        contentionTracker.recordExhausted(1L);
+        when(stockBatchRepository.deductAll(List.of(new StockDeduction(1L, 1)))).thenReturn(new int[]{0});
+
+        assertThatThrownBy(() -> stockService.reserveAll(
+                List.of(new StockDeduction(1L, 1), new StockDeduction(2L, 1))))
+                .isInstanceOf(OutOfStockException.class);
+
+        verify(productRepository, never()).deductStockIfVersionMatches(anyLong(), anyInt(), anyLong());
+        verify(transactionManager, times(1)).rollback(any());
+        assertThat(meterRegistry.counter("stock.optimistic.fallbacks").count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,148 @@
+package com.hsj.service.stock;
+
+import com.hsj.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("RedisStockLedger 동시성 테스트 (초과 판매 방지)")
+class RedisStockLedgerConcurrencyTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static final int THREADS = 32;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> redisTemplate;
+    private ProductRepository productRepository;
+    private RedisStockLedger stockLedger;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.delete(List.of(RedisStockLedger.LEDGER_KEY,
+                RedisStockLedger.JOURNAL_KEY, RedisStockLedger.JOURNAL_PROCESSING_KEY));
+
+        productRepository = mock(ProductRepository.class);
+        stockLedger = new RedisStockLedger(redisTemplate, productRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("재고 50개 상품에 200명이 동시에 1개씩 예약하면 정확히 50명만 성공한다")
+    void reserve_동시요청_초과판매없음() throws InterruptedException {
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(50));
+
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(200, () -> {
+            if (stockLedger.reserve(1L, 1) >= 0) {
+                success.incrementAndGet();
+            } else {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(success.get()).isEqualTo(50);
+        assertThat(rejected.get()).isEqualTo(150);
+        assertThat(stockLedger.getAvailable(List.of(1L))).containsExactly(0L);
+        assertThat(stockLedger.drainJournal(1_000)).hasSize(50);
+    }
+
+    @Test
+    @DisplayName("수량이 제각각인 동시 예약에서도 성공한 수량의 합이 재고를 넘지 않고 원장과 일치한다")
+    void reserve_혼합수량_원장일치() throws InterruptedException {
+        when(productRepository.findStockQuantityById(2L)).thenReturn(Optional.of(100));
+
+        AtomicInteger reservedTotal = new AtomicInteger();
+        runConcurrently(300, () -> {
+            int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+            if (stockLedger.reserve(2L, quantity) >= 0) {
+                reservedTotal.addAndGet(quantity);
+            }
+        });
+
+        assertThat(reservedTotal.get()).isLessThanOrEqualTo(100);
+        assertThat(stockLedger.getAvailable(List.of(2L)))
+                .containsExactly((long) (100 - reservedTotal.get()));
+    }
+
+    @Test
+    @DisplayName("예약과 복원이 동시에 섞여도 최종 재고가 음수가 되지 않고 정확히 맞는다")
+    void reserveAndRelease_동시실행_정합성() throws InterruptedException {
+        when(productRepository.findStockQuantityById(3L)).thenReturn(Optional.of(10));
+
+        AtomicInteger reserved = new AtomicInteger();
+        runConcurrently(200, () -> {
+            if (stockLedger.reserve(3L, 1) >= 0) {
+                reserved.incrementAndGet();
+                stockLedger.release(3L, 1);
+                reserved.decrementAndGet();
+            }
+        });
+
+        assertThat(reserved.get()).isZero();
+        assertThat(stockLedger.getAvailable(List.of(3L))).containsExactly(10L);
+    }
+
+    private void runConcurrently(int tasks, Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            executor.submit(() -> {
+                try {
+                    ready.await();
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        ready.countDown();
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,138 @@
+package com.hsj.service.stock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("ShardedStockStore 동시성 테스트 (버킷 분할 재고)")
+class ShardedStockStoreConcurrencyTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static final int THREADS = 32;
+    private static final int SHARDS = 8;
+
+    private LettuceConnectionFactory connectionFactory;
+    private ShardedStockStore store;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        store = new ShardedStockStore(redisTemplate, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("재고 50개를 8개 버킷에 나눠도 200명이 동시에 1개씩 차감하면 정확히 50명만 성공한다")
+    void take_동시요청_초과판매없음() throws InterruptedException {
+        store.enable(1L, SHARDS, 50);
+
+        AtomicInteger success = new AtomicInteger();
+        runConcurrently(200, () -> {
+            if (store.take(1L, SHARDS, 1) >= 0) {
+                success.incrementAndGet();
+            }
+        });
+
+        assertThat(success.get()).isEqualTo(50);
+        assertThat(store.total(1L, SHARDS)).isZero();
+    }
+
+    @Test
+    @DisplayName("버킷마다 조금씩 남아 있어도 합계가 충분하면 모으기 차감으로 성공한다")
+    void take_버킷분산잔량_모아서차감() {
+        store.enable(2L, SHARDS, SHARDS); // 버킷마다 1개씩
+
+        assertThat(store.take(2L, SHARDS, 5)).isEqualTo(SHARDS - 5);
+        assertThat(store.take(2L, SHARDS, 4)).isEqualTo(ShardedStockStore.INSUFFICIENT);
+        assertThat(store.total(2L, SHARDS)).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("차감과 재분배가 동시에 실행되어도 합계가 보존된다")
+    void takeAndRebalance_동시실행_합계보존() throws InterruptedException {
+        store.enable(3L, SHARDS, 1_000);
+
+        AtomicInteger taken = new AtomicInteger();
+        runConcurrently(400, () -> {
+            int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+            if (store.take(3L, SHARDS, quantity) >= 0) {
+                taken.addAndGet(quantity);
+            }
+            store.rebalance(3L, SHARDS, 0);
+        });
+
+        assertThat(store.total(3L, SHARDS)).isEqualTo(1_000L - taken.get());
+    }
+
+    @Test
+    @DisplayName("입고는 버킷에 나눠 더해지고, 해제하면 합계를 돌려주며 이후 차감은 NOT_SHARDED를 반환한다")
+    void spreadAndDisable_합계반환() {
+        store.enable(4L, 4, 10);
+
+        assertThat(store.spread(4L, 4, 7)).isEqualTo(17L);
+        assertThat(store.disable(4L)).isEqualTo(17L);
+        assertThat(store.shardCount(4L)).isNull();
+        assertThat(store.take(4L, 4, 1)).isEqualTo(ShardedStockStore.NOT_SHARDED);
+    }
+
+    private void runConcurrently(int tasks, Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            executor.submit(() -> {
+                try {
+                    ready.await();
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        ready.countDown();
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+    }
+}
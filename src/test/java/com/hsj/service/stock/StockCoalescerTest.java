@@ -0,0 +1,175 @@
+package com.hsj.service.stock;
+
+import com.hsj.exception.ErrorCode;
+import com.hsj.exception.NotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StockCoalescer 단위 테스트 (요청 합치기)")
+class StockCoalescerTest {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int MAX_BATCH = 64;
+    private static final int THREADS = 32;
+
+    @Test
+    @DisplayName("단건 요청은 window가 지나면 혼자 배치로 처리된다")
+    void deduct_단건_승인() {
+        SimulatedStock stock = new SimulatedStock(10, 0);
+        StockCoalescer coalescer = new StockCoalescer(WINDOW_NANOS, MAX_BATCH, stock::applyBatch);
+
+        assertThat(coalescer.deduct(1L, 3)).isTrue();
+        assertThat(coalescer.deduct(1L, 8)).isFalse();
+        assertThat(stock.remaining()).isEqualTo(7);
+        assertThat(stock.roundTrips()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("동시 요청 200건이 재고 50개를 두고 경쟁하면 정확히 50건만 승인되고 왕복 횟수는 요청 수보다 훨씬 적다")
+    void deduct_동시요청_초과판매없음_왕복감소() throws InterruptedException {
+        SimulatedStock stock = new SimulatedStock(50, 0);
+        StockCoalescer coalescer = new StockCoalescer(WINDOW_NANOS, MAX_BATCH, stock::applyBatch);
+
+        AtomicInteger granted = new AtomicInteger();
+        runConcurrently(200, () -> {
+            if (coalescer.deduct(1L, 1)) {
+                granted.incrementAndGet();
+            }
+        });
+
+        assertThat(granted.get()).isEqualTo(50);
+        assertThat(stock.remaining()).isZero();
+        assertThat(stock.roundTrips()).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("남은 요청이 없는 상품의 큐는 배치가 끝나면 지워진다")
+    void deduct_처리완료_큐정리() throws InterruptedException {
+        SimulatedStock stock = new SimulatedStock(1_000, 0);
+        StockCoalescer coalescer = new StockCoalescer(WINDOW_NANOS, MAX_BATCH, stock::applyBatch);
+
+        AtomicInteger productSeq = new AtomicInteger();
+        runConcurrently(200, () -> coalescer.deduct((long) (productSeq.incrementAndGet() % 20), 1));
+
+        assertThat(stock.remaining()).isEqualTo(800);
+        assertThat(coalescer.trackedProducts()).isZero();
+    }
+
+    @Test
+    @DisplayName("배치 반영 중 예외가 나면 같은 배치의 모든 호출자가 그 예외를 받는다")
+    void deduct_반영예외_전파() {
+        StockCoalescer coalescer = new StockCoalescer(WINDOW_NANOS, MAX_BATCH, (productId, quantities) -> {
+            throw new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND);
+        });
+
+        assertThatThrownBy(() -> coalescer.deduct(99L, 1))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    /**
+     * 요청마다 락 + 조회 + UPDATE를 하는 기존 경로와 합치기 경로를 같은 가상 DB 지연(왕복당 1ms)으로 돌려
+     * 둘 다 재고를 정확히 소진하되 합치기 경로의 DB 왕복 수가 더 적은지 확인한다.
+     * 처리량과 지연 비교는 benchmark 프로파일의 {@code StockCoalescingHarness}가 출력한다.
+     */
+    @Test
+    @DisplayName("부하 비교: 같은 요청 수에서 합치기 경로가 요청별 경로보다 DB 왕복이 적다")
+    void loadComparison_요청별경로_대비_합치기경로() throws InterruptedException {
+        int requests = 400;
+        long roundTripNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+        SimulatedStock perRequestStock = new SimulatedStock(requests, roundTripNanos);
+        runConcurrently(requests, () -> perRequestStock.applyBatch(1L, new int[]{1}));
+
+        SimulatedStock coalescedStock = new SimulatedStock(requests, roundTripNanos);
+        StockCoalescer coalescer = new StockCoalescer(WINDOW_NANOS, MAX_BATCH, coalescedStock::applyBatch);
+        runConcurrently(requests, () -> coalescer.deduct(1L, 1));
+
+        assertThat(perRequestStock.remaining()).isZero();
+        assertThat(coalescedStock.remaining()).isZero();
+        assertThat(coalescedStock.roundTrips()).isLessThan(perRequestStock.roundTrips());
+    }
+
+    private void runConcurrently(int tasks, Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            executor.submit(() -> {
+                try {
+                    ready.await();
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        ready.countDown();
+        assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+    }
+
+    /**
+     * 행 잠금으로 직렬화되는 상품 재고 한 행을 흉내 낸다. 배치 한 번이 잠금 조회 + UPDATE 왕복 한 번이다.
+     */
+    private static final class SimulatedStock {
+
+        private final ReentrantLock rowLock = new ReentrantLock();
+        private final long roundTripNanos;
+        private final AtomicInteger roundTrips = new AtomicInteger();
+        private int stock;
+
+        private SimulatedStock(int stock, long roundTripNanos) {
+            this.stock = stock;
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        private boolean[] applyBatch(Long productId, int[] quantities) {
+            rowLock.lock();
+            try {
+                roundTrips.incrementAndGet();
+                if (roundTripNanos > 0) {
+                    busyWait(roundTripNanos);
+                }
+                boolean[] granted = new boolean[quantities.length];
+                for (int i = 0; i < quantities.length; i++) {
+                    if (quantities[i] <= stock) {
+                        stock -= quantities[i];
+                        granted[i] = true;
+                    }
+                }
+                return granted;
+            } finally {
+                rowLock.unlock();
+            }
+        }
+
+        private int remaining() {
+            return stock;
+        }
+
+        private int roundTrips() {
+            return roundTrips.get();
+        }
+
+        private static void busyWait(long nanos) {
+            long deadline = System.nanoTime() + nanos;
+            while (System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
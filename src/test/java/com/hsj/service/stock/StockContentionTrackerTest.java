@@ -0,0 +1,57 @@
+package com.hsj.service.stock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StockContentionTracker 단위 테스트 (상품별 경합 추적)")
+class StockContentionTrackerTest {
+
+    private MeterRegistry meterRegistry;
+    private StockContentionTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new StockContentionTracker(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("락 경로로 전환된 상품은 쿨다운 중 게이지가 있고 정리 대상에서 빠진다")
+    void 쿨다운중_게이지유지_정리제외() {
+        tracker.recordExhausted(1L);
+
+        tracker.evictCooled();
+
+        assertThat(tracker.shouldUseLock(1L)).isTrue();
+        assertThat(rateGauge(1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("쿨다운이 끝나면 게이지를 지우고, 쿨다운 시간 동안 충돌이 없던 상품은 정리된다")
+    void 쿨다운종료_게이지제거_정리() throws InterruptedException {
+        ReflectionTestUtils.setField(tracker, "cooldownMillis", 0L);
+        tracker.recordConflict(1L);
+        tracker.recordExhausted(1L);
+        assertThat(rateGauge(1L)).isTrue();
+
+        Thread.sleep(5);
+
+        assertThat(tracker.shouldUseLock(1L)).isFalse();
+        assertThat(rateGauge(1L)).isFalse();
+        assertThat(tracker.getContentionRate(1L)).isGreaterThan(0.0);
+
+        tracker.evictCooled();
+
+        assertThat(tracker.getContentionRate(1L)).isZero();
+    }
+
+    private boolean rateGauge(Long productId) {
+        return meterRegistry.find("stock.contention.rate").tag("productId", String.valueOf(productId)).gauge() != null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.hsj.service.stock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StockProjection 단위 테스트 (메모리 재고 투영)")
+class StockProjectionTest {
+
+    private StockProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        projection = new StockProjection(new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("교체 전에는 준비되지 않은 상태이고 모든 상품이 UNKNOWN이다")
+    void 교체전_UNKNOWN() {
+        assertThat(projection.isReady()).isFalse();
+        assertThat(projection.getAvailable(1L)).isEqualTo(StockProjection.UNKNOWN);
+
+        projection.apply(1L, -3, 3);
+
+        assertThat(projection.getAvailable(1L)).isEqualTo(StockProjection.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("교체 후 델타가 가용/예약에 각각 반영되고 예약은 음수로 내려가지 않는다")
+    void 델타반영() {
+        projection.replace(new long[]{1L, 2L}, new int[]{10, 0}, new long[]{1L}, new int[]{2});
+
+        projection.apply(1L, -3, 3);
+        projection.apply(2L, 5, -1);
+
+        assertThat(projection.isReady()).isTrue();
+        assertThat(projection.getAvailable(1L)).isEqualTo(7);
+        assertThat(projection.getReserved(1L)).isEqualTo(5);
+        assertThat(projection.getAvailable(2L)).isEqualTo(5);
+        assertThat(projection.getReserved(2L)).isZero();
+    }
+
+    @Test
+    @DisplayName("품절 목록은 0 이하로 내려가거나 다시 올라올 때 갱신된다")
+    void 품절목록_전이시갱신() {
+        projection.replace(new long[]{1L, 2L, 3L}, new int[]{1, 0, 5}, new long[0], new int[0]);
+        assertThat(projection.getSoldOutIds()).containsExactly(2L);
+
+        projection.apply(1L, -1, 0);
+        assertThat(projection.getSoldOutIds()).containsExactlyInAnyOrder(1L, 2L);
+
+        projection.setAvailable(2L, 4);
+        assertThat(projection.getSoldOutIds()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("리사이즈가 일어날 만큼 많은 상품도 모두 조회되고, 동시 델타 합계가 보존된다")
+    void 대량상품_동시델타() throws InterruptedException {
+        int products = 10_000;
+        long[] ids = new long[products];
+        int[] stock = new int[products];
+        for (int i = 0; i < products; i++) {
+            ids[i] = i + 1L;
+            stock[i] = 1_000;
+        }
+        projection.replace(ids, stock, new long[0], new int[0]);
+        for (int i = 0; i < 100; i++) {
+            projection.setAvailable(products + 1L + i, 1);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    projection.apply(1L, -1, 1);
+                    projection.getAvailable(ThreadLocalRandom.current().nextLong(1, products + 1L));
+                }
+                done.countDown();
+            });
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        assertThat(projection.size()).isEqualTo(products + 100);
+        assertThat(projection.getAvailable(products)).isEqualTo(1_000);
+        assertThat(projection.getAvailable(products + 100L)).isEqualTo(1);
+        assertThat(projection.getAvailable(1L)).isEqualTo(200);
+        assertThat(projection.getReserved(1L)).isEqualTo(800);
+    }
+}